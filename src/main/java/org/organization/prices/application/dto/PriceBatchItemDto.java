@@ -0,0 +1,45 @@
+package org.organization.prices.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data Transfer Object (DTO) representing the result of one query of a batch price lookup.
+ * Echoes the queried product ID, brand ID, and date, and carries either the applicable price
+ * or an error code, so a missing price does not fail the whole batch.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceBatchItemDto {
+
+    /**
+     * The identifier of the queried product.
+     */
+    private Long productId;
+
+    /**
+     * The identifier of the queried brand.
+     */
+    private Long brandId;
+
+    /**
+     * The queried date and time.
+     */
+    private LocalDateTime date;
+
+    /**
+     * The applicable price, or null if none was found.
+     */
+    private PriceResponseDto price;
+
+    /**
+     * The error code when no price could be returned (e.g. {@code PRICE_NOT_FOUND}), or null.
+     */
+    private String error;
+}
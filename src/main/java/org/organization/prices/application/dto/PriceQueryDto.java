@@ -0,0 +1,36 @@
+package org.organization.prices.application.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Data Transfer Object (DTO) representing one query of a batch price lookup.
+ * Carries the same fields as the single lookup parameters, with the date and time
+ * still unparsed so they are validated the same way.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PriceQueryDto {
+
+    /**
+     * The identifier of the product for which the price is requested.
+     */
+    private Long productId;
+
+    /**
+     * The identifier of the brand associated with the product.
+     */
+    private Long brandId;
+
+    /**
+     * The date of the query in format dd/MM/yyyy.
+     */
+    private String date;
+
+    /**
+     * The time of the query in format HH:mm.
+     */
+    private String time;
+}
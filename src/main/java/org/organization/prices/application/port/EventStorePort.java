@@ -1,6 +1,7 @@
 package org.organization.prices.application.port;
 
 import org.organization.prices.domain.model.PriceEvent;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface for storing price query events.
@@ -9,9 +10,14 @@ public interface EventStorePort {
 
     /**
      * Stores a price event.
+     * <p>
+     * Nothing is stored until the returned Mono is subscribed to. Implementations bound the number
+     * of writes in flight, so the Mono may complete later than the write was requested, or fail
+     * when too many writes are already waiting.
+     * </p>
      *
      * @param priceEvent the price event to store
+     * @return a Mono that completes once the event is stored, or accepted for storage
      */
-    void storeEvent(PriceEvent priceEvent);
+    Mono<Void> storeEvent(PriceEvent priceEvent);
 }
-
@@ -0,0 +1,27 @@
+package org.organization.prices.application.port;
+
+import org.organization.prices.domain.model.Price;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * Port through which the price services hand the event of a resolved query over to be stored
+ * and published.
+ */
+public interface PriceEventHandoffPort {
+
+    /**
+     * Hands over the event of a price query.
+     * <p>
+     * Depending on the implementation, the returned Mono completes once the event is stored and
+     * published, or as soon as it is accepted for later processing. It never fails: an event that
+     * cannot be handled is logged and dropped.
+     * </p>
+     *
+     * @param price     the price result obtained from a query
+     * @param queryDate the date when the query was made
+     * @return a Mono that completes once the event is handled, or accepted
+     */
+    Mono<Void> handOff(Price price, LocalDateTime queryDate);
+}
@@ -1,10 +1,15 @@
 package org.organization.prices.application.port;
 
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * Interface for price repository operations.
@@ -21,10 +26,48 @@ public interface PriceRepositoryPort {
      */
     Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date);
 
+    /**
+     * Finds the validity segment of the applicable price for the given product, brand, and date.
+     * <p>
+     * The segment is the range around {@code date} during which the same price stays applicable:
+     * it ends when the price expires or a higher-priority price list starts.
+     * </p>
+     *
+     * @param productId the product identifier
+     * @param brandId the brand identifier
+     * @param date the date for which to find the price
+     * @return a Mono emitting the applicable price segment, or empty if none found
+     */
+    Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date);
+
+    /**
+     * Finds the applicable prices for several queries at once.
+     * <p>
+     * Implementations resolve the whole batch with a single grouped query or index pass.
+     * Queries with no applicable price are absent from the result.
+     * </p>
+     *
+     * @param queries the (productId, brandId, date) queries to resolve
+     * @return a Mono emitting the applicable price of every query that has one
+     */
+    Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries);
+
     /**
      * Retrieves all prices.
      *
      * @return a Flux emitting all prices
      */
     Flux<Price> getAll();
+
+    /**
+     * Streams the prices of a slice of the catalogue.
+     * <p>
+     * Rows are emitted as they are read, following downstream demand, so implementations must
+     * not collect the result in memory.
+     * </p>
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching prices
+     */
+    Flux<Price> streamAll(PriceCatalogFilter filter);
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package org.organization.prices.application.port;
 
+import org.organization.prices.application.dto.PriceBatchItemDto;
 import org.organization.prices.application.dto.PriceResponseDto;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * Interface for price service operations.
@@ -18,6 +22,14 @@ public interface PriceServicePort {
      */
     Flux<PriceResponseDto> getAllPrices();
 
+    /**
+     * Streams the prices of a slice of the catalogue, following downstream demand.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching price response DTOs, possibly none
+     */
+    Flux<PriceResponseDto> streamAllPrices(PriceCatalogFilter filter);
+
     /**
      * Finds the applicable price based on product ID, brand ID, and date.
      *
@@ -28,6 +40,18 @@ public interface PriceServicePort {
      */
     Mono<PriceResponseDto> findApplicablePrice(Long productId, Long brandId, LocalDateTime date);
 
+    /**
+     * Finds the applicable prices for several product, brand, and date queries at once.
+     * <p>
+     * Emits one result per query, in the order of the queries. A query without an applicable
+     * price yields a result carrying an error code instead of failing the whole batch.
+     * </p>
+     *
+     * @param queries the queries to resolve
+     * @return a Flux emitting one batch item DTO per query
+     */
+    Flux<PriceBatchItemDto> findApplicablePrices(List<PriceQuery> queries);
+
     /**
      * Fallback method used when a price cannot be retrieved due to an error.
      *
@@ -2,22 +2,27 @@ package org.organization.prices.application.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.dto.PriceBatchItemDto;
 import org.organization.prices.application.dto.PriceResponseDto;
 import org.organization.prices.application.mapper.PriceMapper;
 import org.organization.prices.application.port.CircuitBreakerPort;
+import org.organization.prices.application.port.PriceEventHandoffPort;
 import org.organization.prices.application.port.PriceServicePort;
 import org.organization.prices.application.port.TracePort;
 import org.organization.prices.domain.execption.PriceNotFoundException;
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
 import org.organization.prices.domain.usecase.FindAllPriceUseCase;
 import org.organization.prices.domain.usecase.FindApplicablePriceUseCase;
-import org.organization.prices.domain.usecase.StorePriceEventUseCase;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Implementation of the PriceServicePort that provides price-related operations.
@@ -30,7 +35,7 @@ public class PriceService implements PriceServicePort {
 
     private final FindApplicablePriceUseCase findPriceUseCase;
     private final FindAllPriceUseCase findAllPriceUseCase;
-    private final StorePriceEventUseCase storeEventUseCase;
+    private final PriceEventHandoffPort eventHandoff;
     private final PriceMapper priceMapper;
     private final TracePort tracingPort;
     private final CircuitBreakerPort circuitBreakerPort;
@@ -57,9 +62,30 @@ public class PriceService implements PriceServicePort {
         );
     }
 
+    /**
+     * Streams the prices of a slice of the catalogue.
+     * Applies circuit breaker and traces the operation once for the whole stream.
+     * Unlike {@link #getAllPrices()}, an empty slice is not an error.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux of PriceResponseDto
+     */
+    @Override
+    public Flux<PriceResponseDto> streamAllPrices(PriceCatalogFilter filter) {
+        return tracingPort.traceFlux(
+                "PriceService.streamAllPrices",
+                circuitBreakerPort.executeCircuitBreaker(
+                        "priceService",
+                        findAllPriceUseCase.streamPrices(filter).map(priceMapper::toResponse),
+                        PriceNotFoundException.class
+                ),
+                "filter", filter.toString()
+        );
+    }
+
     /**
      * Finds the applicable price for a given product, brand, and date.
-     * Uses circuit breaker and tracing, stores the price event if found.
+     * Uses circuit breaker and tracing, hands the price event over if found.
      *
      * @param productId the product ID
      * @param brandId the brand ID
@@ -78,7 +104,7 @@ public class PriceService implements PriceServicePort {
                                     log.debug("Found price: {}", price);
                                     return price != null ? price : new Price(brandId, date, null, null, productId, 0, BigDecimal.ZERO, null);
                                 })
-                                .flatMap(price -> storeEventUseCase.storeEvent(price, date).thenReturn(price))
+                                .flatMap(price -> eventHandoff.handOff(price, date).thenReturn(price))
                                 .map(priceMapper::toResponse)
                                 .doOnError(e -> log.error("Error processing price: {}", e.getMessage())),
                         PriceNotFoundException.class // Handle specific error
@@ -89,6 +115,53 @@ public class PriceService implements PriceServicePort {
         );
     }
 
+    /**
+     * Finds the applicable prices for several queries with a single repository call.
+     * Uses circuit breaker and tracing once for the whole batch, hands a price event over for every
+     * query, and reports queries without a price inline as {@code PRICE_NOT_FOUND}.
+     *
+     * @param queries the queries to resolve
+     * @return a Flux of PriceBatchItemDto, one per query and in the same order
+     */
+    @Override
+    public Flux<PriceBatchItemDto> findApplicablePrices(List<PriceQuery> queries) {
+        return tracingPort.traceFlux(
+                "PriceService.findPrices",
+                circuitBreakerPort.executeCircuitBreaker(
+                        "priceService",
+                        findPriceUseCase.findApplicablePrices(queries)
+                                .flatMapMany(found -> Flux.fromIterable(queries)
+                                        .flatMapSequential(query -> toBatchItem(query, found)))
+                                .doOnError(e -> log.error("Error processing price batch: {}", e.getMessage())),
+                        PriceNotFoundException.class
+                ),
+                "size", String.valueOf(queries.size())
+        );
+    }
+
+    /**
+     * Builds the batch result of a single query, handing its price event over, a zero-price
+     * {@code ERROR_QUERY} event when no price was found.
+     *
+     * @param query the query
+     * @param found the prices found for the batch, by query
+     * @return a Mono of the PriceBatchItemDto of the query
+     */
+    private Mono<PriceBatchItemDto> toBatchItem(PriceQuery query, Map<PriceQuery, Price> found) {
+        PriceBatchItemDto.PriceBatchItemDtoBuilder item = PriceBatchItemDto.builder()
+                .productId(query.productId())
+                .brandId(query.brandId())
+                .date(query.date());
+        Price price = found.get(query);
+        if (price == null) {
+            Price missing = new Price(query.brandId(), query.date(), null, null, query.productId(), 0, BigDecimal.ZERO, null);
+            return eventHandoff.handOff(missing, query.date())
+                    .then(Mono.fromSupplier(() -> item.error("PRICE_NOT_FOUND").build()));
+        }
+        return eventHandoff.handOff(price, query.date())
+                .then(Mono.fromSupplier(() -> item.price(priceMapper.toResponse(price)).build()));
+    }
+
     /**
      * Fallback method used when the findPrice operation fails.
      * Returns a RuntimeException wrapped in a traced Mono.
@@ -25,6 +25,27 @@ public class PriceRequestValidator {
      */
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
 
+    /**
+     * Maximum number of queries accepted in a single batch lookup.
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+
+    /**
+     * Validates the number of queries of a batch lookup.
+     *
+     * @param size the number of queries in the batch
+     * @throws IllegalArgumentException if the batch is empty or larger than {@link #MAX_BATCH_SIZE}
+     */
+    public static void validateBatchSize(int size) {
+        if (size == 0) {
+            throw new IllegalArgumentException("Batch must contain at least one query");
+        }
+
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " queries");
+        }
+    }
+
     /**
      * Validates the input parameters and returns a {@link LocalDateTime} instance.
      * <p>
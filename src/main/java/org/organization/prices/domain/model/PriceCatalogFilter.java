@@ -0,0 +1,86 @@
+package org.organization.prices.domain.model;
+
+/**
+ * Product and brand ranges selecting a slice of the price catalogue.
+ * <p>
+ * Bounds are inclusive; a {@code null} bound leaves that side of the range open.
+ * </p>
+ *
+ * @param productIdFrom the lowest product identifier, or {@code null}
+ * @param productIdTo   the highest product identifier, or {@code null}
+ * @param brandIdFrom   the lowest brand identifier, or {@code null}
+ * @param brandIdTo     the highest brand identifier, or {@code null}
+ */
+public record PriceCatalogFilter(Long productIdFrom, Long productIdTo, Long brandIdFrom, Long brandIdTo) {
+
+    /**
+     * Returns a filter selecting the whole catalogue.
+     *
+     * @return an unbounded filter
+     */
+    public static PriceCatalogFilter all() {
+        return new PriceCatalogFilter(null, null, null, null);
+    }
+
+    /**
+     * Checks whether a price falls inside the product and brand ranges.
+     *
+     * @param price the price to check
+     * @return {@code true} if both its product and brand are within range
+     */
+    public boolean matches(Price price) {
+        return within(price.getProductId(), productIdFrom, productIdTo)
+                && within(price.getBrandId(), brandIdFrom, brandIdTo);
+    }
+
+    /**
+     * Checks whether a (productId, brandId) group falls inside the product and brand ranges.
+     *
+     * @param key the group to check
+     * @return {@code true} if both its product and brand are within range
+     */
+    public boolean matches(PriceKey key) {
+        return within(key.productId(), productIdFrom, productIdTo)
+                && within(key.brandId(), brandIdFrom, brandIdTo);
+    }
+
+    /**
+     * Returns the lower product bound, {@code 0} when open.
+     *
+     * @return the lowest product identifier to select
+     */
+    public long productIdLowerBound() {
+        return productIdFrom != null ? productIdFrom : 0L;
+    }
+
+    /**
+     * Returns the upper product bound, {@link Long#MAX_VALUE} when open.
+     *
+     * @return the highest product identifier to select
+     */
+    public long productIdUpperBound() {
+        return productIdTo != null ? productIdTo : Long.MAX_VALUE;
+    }
+
+    /**
+     * Returns the lower brand bound, {@code 0} when open.
+     *
+     * @return the lowest brand identifier to select
+     */
+    public long brandIdLowerBound() {
+        return brandIdFrom != null ? brandIdFrom : 0L;
+    }
+
+    /**
+     * Returns the upper brand bound, {@link Long#MAX_VALUE} when open.
+     *
+     * @return the highest brand identifier to select
+     */
+    public long brandIdUpperBound() {
+        return brandIdTo != null ? brandIdTo : Long.MAX_VALUE;
+    }
+
+    private static boolean within(Long value, Long from, Long to) {
+        return (from == null || value >= from) && (to == null || value <= to);
+    }
+}
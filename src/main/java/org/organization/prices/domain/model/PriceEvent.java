@@ -1,8 +1,10 @@
 package org.organization.prices.domain.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 import lombok.Data;
+import lombok.extern.jackson.Jacksonized;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
@@ -10,9 +12,16 @@ import java.time.LocalDateTime;
 
 /**
  * Represents an event related to a price query, used for auditing or logging purposes.
+ * <p>
+ * An event may also aggregate every query of a product, brand, price list and event type over a
+ * time window, in which case {@link #eventCount} and the other aggregate fields are set, the
+ * query date and price are those of the last query of the window, and the creation timestamp is
+ * the end of the window. The aggregate fields are left out of the JSON of a single event.
+ * </p>
  */
 @Data
 @Builder
+@Jacksonized
 public class PriceEvent implements Serializable {
 
     /**
@@ -56,4 +65,53 @@ public class PriceEvent implements Serializable {
      */
     @JsonProperty("createdAt")
     private LocalDateTime createdAt;
+
+    /**
+     * The number of queries aggregated by this event, {@code null} for a single query.
+     */
+    @JsonProperty("eventCount")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long eventCount;
+
+    /**
+     * The start of the aggregation window, inclusive.
+     */
+    @JsonProperty("windowStart")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime windowStart;
+
+    /**
+     * The end of the aggregation window, exclusive.
+     */
+    @JsonProperty("windowEnd")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime windowEnd;
+
+    /**
+     * The timestamp of the first aggregated query.
+     */
+    @JsonProperty("firstQueryAt")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime firstQueryAt;
+
+    /**
+     * The timestamp of the last aggregated query.
+     */
+    @JsonProperty("lastQueryAt")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private LocalDateTime lastQueryAt;
+
+    /**
+     * The lowest price returned by the aggregated queries.
+     */
+    @JsonProperty("minPrice")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal minPrice;
+
+    /**
+     * The highest price returned by the aggregated queries.
+     */
+    @JsonProperty("maxPrice")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BigDecimal maxPrice;
 }
\ No newline at end of file
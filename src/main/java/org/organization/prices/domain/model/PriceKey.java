@@ -0,0 +1,25 @@
+package org.organization.prices.domain.model;
+
+/**
+ * Identifies the group of prices that belong to the same product and brand.
+ * <p>
+ * All the rows of the {@code PRICES} table sharing a product and a brand compete
+ * with each other by priority, so this pair is the natural partition key for any
+ * in-memory structure built on top of them.
+ * </p>
+ *
+ * @param productId the product identifier
+ * @param brandId   the brand identifier
+ */
+public record PriceKey(Long productId, Long brandId) {
+
+    /**
+     * Builds the key of the group the given price belongs to.
+     *
+     * @param price the price
+     * @return the (productId, brandId) key of the price
+     */
+    public static PriceKey of(Price price) {
+        return new PriceKey(price.getProductId(), price.getBrandId());
+    }
+}
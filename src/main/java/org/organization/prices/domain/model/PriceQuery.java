@@ -0,0 +1,22 @@
+package org.organization.prices.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A request for the price applicable to a product and brand at a given instant.
+ *
+ * @param productId the product identifier
+ * @param brandId   the brand identifier
+ * @param date      the instant to evaluate
+ */
+public record PriceQuery(Long productId, Long brandId, LocalDateTime date) {
+
+    /**
+     * Returns the (productId, brandId) group this query targets.
+     *
+     * @return the price group key
+     */
+    public PriceKey key() {
+        return new PriceKey(productId, brandId);
+    }
+}
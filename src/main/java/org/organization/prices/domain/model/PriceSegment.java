@@ -0,0 +1,42 @@
+package org.organization.prices.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * A time range during which a single price is the applicable one for its product and brand.
+ * <p>
+ * Segments are the result of resolving overlapping price lists by priority, so the range
+ * may be narrower than the validity of the price itself: it ends as soon as the price expires
+ * or a higher-priority price list starts.
+ * </p>
+ */
+@Value
+public class PriceSegment {
+
+    /**
+     * First instant of the segment (inclusive).
+     */
+    LocalDateTime validFrom;
+
+    /**
+     * First instant after the segment (exclusive).
+     */
+    LocalDateTime validUntil;
+
+    /**
+     * The price applicable during the whole segment.
+     */
+    Price price;
+
+    /**
+     * Checks whether the given instant falls inside this segment.
+     *
+     * @param date the instant to check
+     * @return {@code true} if {@code validFrom <= date < validUntil}
+     */
+    public boolean contains(LocalDateTime date) {
+        return !date.isBefore(validFrom) && date.isBefore(validUntil);
+    }
+}
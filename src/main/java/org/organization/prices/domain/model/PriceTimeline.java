@@ -0,0 +1,202 @@
+package org.organization.prices.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Effective-price timeline of a single (productId, brandId) group.
+ * <p>
+ * Built once from the overlapping rows of the group, it flattens them into sorted,
+ * non-overlapping {@link PriceSegment}s whose winning price is already decided by priority.
+ * Resolving the price for an instant is then a single binary search with no priority
+ * comparison at request time.
+ * </p>
+ * <p>
+ * Row validity bounds are inclusive on both ends, as in the SQL query; they are turned into
+ * half-open segments by ending each one a nanosecond after the row's end date. Ties on
+ * priority are resolved in favour of the row that starts later.
+ * </p>
+ */
+public final class PriceTimeline {
+
+    /**
+     * Winner ordering: highest priority first, then latest start date.
+     */
+    private static final Comparator<Price> PRECEDENCE = Comparator
+            .comparing(Price::getPriority)
+            .thenComparing(Price::getStartDate)
+            .reversed();
+
+    /**
+     * Rows the timeline was built from.
+     */
+    private final List<Price> rows;
+
+    /**
+     * Start of each segment (inclusive), sorted ascending.
+     */
+    private final LocalDateTime[] validFrom;
+
+    /**
+     * End of each segment (exclusive).
+     */
+    private final LocalDateTime[] validUntil;
+
+    /**
+     * Winning price of each segment.
+     */
+    private final Price[] winners;
+
+    private PriceTimeline(List<Price> rows, List<PriceSegment> segments) {
+        this.rows = rows;
+        this.validFrom = new LocalDateTime[segments.size()];
+        this.validUntil = new LocalDateTime[segments.size()];
+        this.winners = new Price[segments.size()];
+        for (int i = 0; i < segments.size(); i++) {
+            PriceSegment segment = segments.get(i);
+            validFrom[i] = segment.getValidFrom();
+            validUntil[i] = segment.getValidUntil();
+            winners[i] = segment.getPrice();
+        }
+    }
+
+    /**
+     * Builds the timeline of a group of prices.
+     * <p>
+     * Sweeps the sorted range boundaries keeping the active rows in a priority queue,
+     * so the build costs {@code O(n log n)} for {@code n} rows.
+     * </p>
+     *
+     * @param rows the prices of a single (productId, brandId) group
+     * @return the flattened timeline
+     */
+    public static PriceTimeline of(Collection<Price> rows) {
+        List<Price> byStart = new ArrayList<>(rows);
+        byStart.sort(Comparator.comparing(Price::getStartDate));
+
+        TreeSet<LocalDateTime> boundaries = new TreeSet<>();
+        for (Price row : byStart) {
+            boundaries.add(row.getStartDate());
+            boundaries.add(exclusiveEnd(row));
+        }
+
+        List<PriceSegment> segments = new ArrayList<>();
+        PriorityQueue<Price> active = new PriorityQueue<>(PRECEDENCE);
+        int next = 0;
+        LocalDateTime from = null;
+        for (LocalDateTime boundary : boundaries) {
+            if (from != null) {
+                Price winner = active.peek();
+                if (winner != null) {
+                    append(segments, from, boundary, winner);
+                }
+            }
+            while (next < byStart.size() && !byStart.get(next).getStartDate().isAfter(boundary)) {
+                active.add(byStart.get(next++));
+            }
+            while (!active.isEmpty() && !exclusiveEnd(active.peek()).isAfter(boundary)) {
+                active.poll();
+            }
+            from = boundary;
+        }
+        return new PriceTimeline(List.copyOf(rows), segments);
+    }
+
+    /**
+     * Finds the segment covering the given instant.
+     *
+     * @param date the instant to evaluate
+     * @return the covering segment, or empty if no price applies at that instant
+     */
+    public Optional<PriceSegment> segmentAt(LocalDateTime date) {
+        int i = lastStartingAtOrBefore(date);
+        if (i < 0 || !date.isBefore(validUntil[i])) {
+            return Optional.empty();
+        }
+        return Optional.of(new PriceSegment(validFrom[i], validUntil[i], winners[i]));
+    }
+
+    /**
+     * Finds the price applicable at the given instant.
+     *
+     * @param date the instant to evaluate
+     * @return the applicable price, or empty if none applies
+     */
+    public Optional<Price> find(LocalDateTime date) {
+        int i = lastStartingAtOrBefore(date);
+        return i >= 0 && date.isBefore(validUntil[i]) ? Optional.of(winners[i]) : Optional.empty();
+    }
+
+    /**
+     * Returns the rows the timeline was built from.
+     *
+     * @return an unmodifiable list of prices
+     */
+    public List<Price> rows() {
+        return rows;
+    }
+
+    /**
+     * Returns the flattened segments in chronological order.
+     *
+     * @return an unmodifiable list of segments
+     */
+    public List<PriceSegment> segments() {
+        List<PriceSegment> segments = new ArrayList<>(winners.length);
+        for (int i = 0; i < winners.length; i++) {
+            segments.add(new PriceSegment(validFrom[i], validUntil[i], winners[i]));
+        }
+        return Collections.unmodifiableList(segments);
+    }
+
+    /**
+     * Returns the number of flattened segments.
+     *
+     * @return the segment count
+     */
+    public int segmentCount() {
+        return winners.length;
+    }
+
+    private int lastStartingAtOrBefore(LocalDateTime date) {
+        int low = 0;
+        int high = validFrom.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (validFrom[mid].isAfter(date)) {
+                high = mid - 1;
+            } else {
+                found = mid;
+                low = mid + 1;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Appends a segment, merging it into the previous one when they are contiguous and
+     * resolve to the same price.
+     */
+    private static void append(List<PriceSegment> segments, LocalDateTime from, LocalDateTime until, Price winner) {
+        if (!segments.isEmpty()) {
+            PriceSegment last = segments.get(segments.size() - 1);
+            if (last.getPrice() == winner && last.getValidUntil().equals(from)) {
+                segments.set(segments.size() - 1, new PriceSegment(last.getValidFrom(), until, winner));
+                return;
+            }
+        }
+        segments.add(new PriceSegment(from, until, winner));
+    }
+
+    private static LocalDateTime exclusiveEnd(Price price) {
+        return price.getEndDate().plusNanos(1);
+    }
+}
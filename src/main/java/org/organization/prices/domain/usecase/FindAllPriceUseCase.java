@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.organization.prices.application.port.PriceRepositoryPort;
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
@@ -31,4 +32,20 @@ public class FindAllPriceUseCase {
                     .doOnError(e -> log.error("Error querying price for all prices - {}", e.getMessage()))
                     .log("FindApplicablePriceUseCase.findPrice");
     }
+
+    /**
+     * Streams the prices of a slice of the catalogue.
+     * <p>
+     * Unlike {@link #findAllPrice()}, elements are not logged, since the stream may carry
+     * the whole table.
+     * </p>
+     *
+     * @param filter the product and brand ranges to select
+     * @return the matching prices
+     */
+    public Flux<Price> streamPrices(PriceCatalogFilter filter) {
+
+            return priceRepositoryPort.streamAll(filter)
+                    .doOnError(e -> log.error("Error streaming prices for {} - {}", filter, e.getMessage()));
+    }
 }
\ No newline at end of file
@@ -3,11 +3,14 @@ package org.organization.prices.domain.usecase;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
 import org.organization.prices.application.port.PriceRepositoryPort;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Use case for finding the applicable price.
@@ -36,4 +39,17 @@ public class FindApplicablePriceUseCase {
                     .doOnError(e -> log.error("Error querying price for productId={}, brandId={}, date={}: {}", productId, brandId, date, e.getMessage()))
                     .log("FindApplicablePriceUseCase.findPrice");
     }
+
+    /**
+     * Finds the price with the highest priority for each of several product, brand, and date queries.
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(List<PriceQuery> queries) {
+
+            return priceRepositoryPort.findApplicablePrices(queries)
+                    .doOnError(e -> log.error("Error querying {} prices in batch: {}", queries.size(), e.getMessage()))
+                    .log("FindApplicablePriceUseCase.findPrices");
+    }
 }
\ No newline at end of file
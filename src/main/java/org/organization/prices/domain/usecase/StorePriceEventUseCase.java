@@ -8,7 +8,6 @@ import org.organization.prices.domain.model.Price;
 import org.organization.prices.domain.model.PriceEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -46,21 +45,35 @@ public class StorePriceEventUseCase {
             return Mono.empty();
         }
 
-        PriceEvent event = buildPriceEvent(price, queryDate);
+        return storeEvent(buildPriceEvent(price, queryDate));
+    }
 
-        return Mono.defer(() -> {
-                    eventStore.storeEvent(event);
-                    return eventPublisher.publishEvent(event);
-                })
-                .subscribeOn(Schedulers.boundedElastic())
+    /**
+     * Stores and publishes a price event already built, such as an aggregate of several queries.
+     *
+     * @param event the event to store and publish
+     * @return a Mono that completes when the event is stored and published,
+     *         or empty if an error occurs
+     */
+    public Mono<Void> storeEvent(PriceEvent event) {
+        return eventStore.storeEvent(event)
+                .then(Mono.defer(() -> eventPublisher.publishEvent(event)))
                 .onErrorResume(e -> {
                     log.error("Error storing or publishing event: productId={}, brandId={}, queryDate={}",
-                            price.getProductId(), price.getBrandId(), queryDate, e);
+                            event.getProductId(), event.getBrandId(), event.getQueryDate(), e);
                     return Mono.empty();
                 });
     }
 
-    private PriceEvent buildPriceEvent(Price price, LocalDateTime queryDate) {
+    /**
+     * Builds the event of a single price query.
+     *
+     * @param price     the price result obtained from a query
+     * @param queryDate the date when the query was made
+     * @return the event, of type {@code ERROR_QUERY} when the price is zero and
+     *         {@code PRICE_QUERY} otherwise
+     */
+    public PriceEvent buildPriceEvent(Price price, LocalDateTime queryDate) {
         String eventType = price.getPrice().compareTo(BigDecimal.ZERO) == 0
                 ? "ERROR_QUERY"
                 : "PRICE_QUERY";
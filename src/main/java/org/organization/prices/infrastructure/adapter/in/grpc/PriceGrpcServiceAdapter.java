@@ -2,18 +2,33 @@ package org.organization.prices.infrastructure.adapter.in.grpc;
 
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.Tracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
+import org.organization.prices.application.dto.PriceBatchItemDto;
+import org.organization.prices.application.dto.PriceResponseDto;
 import org.organization.prices.application.port.PriceServicePort;
 import org.organization.prices.application.validator.PriceRequestValidator;
+import org.organization.prices.domain.execption.PriceNotFoundException;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.infrastructure.adapter.grpc.PriceBatchItem;
+import org.organization.prices.infrastructure.adapter.grpc.PriceBatchRequest;
+import org.organization.prices.infrastructure.adapter.grpc.PriceBatchResponse;
+import org.organization.prices.infrastructure.adapter.grpc.PriceCatalogRequest;
 import org.organization.prices.infrastructure.adapter.grpc.PriceRequest;
 import org.organization.prices.infrastructure.adapter.grpc.PriceResponse;
 import org.organization.prices.infrastructure.adapter.grpc.PriceServiceGrpc;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.publisher.Sinks;
 
 import java.time.LocalDateTime;
 
@@ -42,6 +57,12 @@ public class PriceGrpcServiceAdapter extends PriceServiceGrpc.PriceServiceImplBa
      */
     private final Tracer tracer;
 
+    /**
+     * Maximum number of requests of a {@link #getPrices} stream that are read ahead and
+     * processed at the same time.
+     */
+    static final int STREAM_WINDOW = 32;
+
 
 
 
@@ -82,14 +103,7 @@ public class PriceGrpcServiceAdapter extends PriceServiceGrpc.PriceServiceImplBa
                     }
 
                     return priceServicePort.findApplicablePrice(req.getProductId(), req.getBrandId(), dateTime)
-                            .map(price -> PriceResponse.newBuilder()
-                                    .setProductId(price.getProductId())
-                                    .setBrandId(price.getBrandId())
-                                    .setPriceList(price.getPriceList())
-                                    .setStartDate(price.getStartDate().toString())
-                                    .setEndDate(price.getEndDate().toString())
-                                    .setPrice(price.getPrice().doubleValue())
-                                    .build());
+                            .map(this::toResponse);
                 })
                 .doOnNext(response -> {
                     responseObserver.onNext(response);
@@ -105,4 +119,312 @@ public class PriceGrpcServiceAdapter extends PriceServiceGrpc.PriceServiceImplBa
                 .doFinally(signal -> span.end())
                 .subscribe();
     }
-}
\ No newline at end of file
+
+    /**
+     * Handles the gRPC request to retrieve price information for several product, brand, and date/time queries.
+     *
+     * <p>Every query is validated like {@link #getPrice}; an invalid one fails the call with
+     * {@code INVALID_ARGUMENT}. The whole batch is resolved with a single service call, and the
+     * items are returned in the order of the queries. Queries without an applicable price carry an
+     * error code instead of failing the call.</p>
+     *
+     * @param request the incoming gRPC request containing the queries
+     * @param responseObserver the gRPC StreamObserver used to send the response or errors back to the client
+     */
+    @Override
+    public void getPriceBatch(PriceBatchRequest request, StreamObserver<PriceBatchResponse> responseObserver) {
+        Span span = tracer.spanBuilder("PriceGrpcService.getPriceBatch")
+                .setAttribute("size", request.getRequestsCount())
+                .startSpan();
+
+        Mono.fromCallable(() -> {
+                    PriceRequestValidator.validateBatchSize(request.getRequestsCount());
+                    return request.getRequestsList().stream()
+                            .map(req -> new PriceQuery(req.getProductId(), req.getBrandId(), PriceRequestValidator.validate(
+                                    req.getDate(), req.getTime(), req.getProductId(), req.getBrandId())))
+                            .toList();
+                })
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException())
+                .flatMap(queries -> priceServicePort.findApplicablePrices(queries).collectList())
+                .map(items -> {
+                    PriceBatchResponse.Builder response = PriceBatchResponse.newBuilder();
+                    for (int i = 0; i < items.size(); i++) {
+                        PriceBatchItemDto item = items.get(i);
+                        PriceBatchItem.Builder batchItem = PriceBatchItem.newBuilder().setRequest(request.getRequests(i));
+                        if (item.getPrice() != null) {
+                            batchItem.setPrice(toResponse(item.getPrice()));
+                        } else {
+                            batchItem.setError(item.getError());
+                        }
+                        response.addItems(batchItem);
+                    }
+                    return response.build();
+                })
+                .doOnNext(response -> {
+                    responseObserver.onNext(response);
+                    responseObserver.onCompleted();
+                })
+                .doOnError(error -> {
+                    log.error("gRPC error: ", error);
+                    span.recordException(error);
+                    responseObserver.onError(error instanceof StatusRuntimeException
+                            ? error
+                            : Status.INTERNAL.withDescription(error.getMessage()).asRuntimeException());
+                })
+                .doFinally(signal -> span.end())
+                .subscribe();
+    }
+
+    /**
+     * Handles a bidirectional stream of price requests on one long-lived call.
+     *
+     * <p>Every {@link PriceRequest} goes through the same {@link PriceServicePort} logic as
+     * {@link #getPrice}, and its {@link PriceResponse} echoes the request id, so responses may be
+     * sent in a different order than the requests. A request that fails carries an error code
+     * ({@code INVALID_ARGUMENT}, {@code PRICE_NOT_FOUND} or {@code INTERNAL}) instead of closing
+     * the stream.</p>
+     *
+     * <p>Inbound messages are requested manually and never more than {@link #STREAM_WINDOW} ahead
+     * of the responses written. A new request is only pulled once a response has been sent and
+     * the transport is ready for more, so a slow reader stops the server from reading instead of
+     * making it buffer responses.</p>
+     *
+     * @param responseObserver the gRPC StreamObserver used to send the responses back to the client
+     * @return the StreamObserver receiving the client requests
+     */
+    @Override
+    public StreamObserver<PriceRequest> getPrices(StreamObserver<PriceResponse> responseObserver) {
+        ServerCallStreamObserver<PriceResponse> serverObserver = (ServerCallStreamObserver<PriceResponse>) responseObserver;
+        serverObserver.disableAutoRequest();
+        Span span = tracer.spanBuilder("PriceGrpcService.getPrices").startSpan();
+        StreamFlowControl flowControl = new StreamFlowControl(serverObserver);
+        Sinks.Many<PriceRequest> requests = Sinks.many().unicast().onBackpressureBuffer();
+
+        // Ends the span once, whether the stream completes, fails or is cancelled by either side
+        Disposable subscription = requests.asFlux()
+                .flatMap(this::resolveStreamed, STREAM_WINDOW)
+                .doFinally(signal -> span.end())
+                .subscribe(
+                        response -> {
+                            serverObserver.onNext(response);
+                            flowControl.responseSent();
+                        },
+                        error -> {
+                            log.error("gRPC stream error: ", error);
+                            span.recordException(error);
+                            serverObserver.onError(Status.INTERNAL.withDescription(error.getMessage()).asRuntimeException());
+                        },
+                        serverObserver::onCompleted);
+        serverObserver.setOnReadyHandler(flowControl::onReady);
+        serverObserver.setOnCancelHandler(subscription::dispose);
+        serverObserver.request(STREAM_WINDOW);
+
+        return new StreamObserver<>() {
+            @Override
+            public void onNext(PriceRequest request) {
+                requests.tryEmitNext(request);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("gRPC stream cancelled by client: {}", t.getMessage());
+                subscription.dispose();
+            }
+
+            @Override
+            public void onCompleted() {
+                requests.tryEmitComplete();
+            }
+        };
+    }
+
+    /**
+     * Streams the price catalogue, optionally restricted to product and brand ranges.
+     *
+     * <p>Prices are pulled from the service one at a time and only while the transport is ready
+     * to send, so the rows are never collected in memory and a slow client slows down the read
+     * instead of making the server buffer. Cancelling the call cancels the read.</p>
+     *
+     * @param request the incoming gRPC request containing the optional ranges
+     * @param responseObserver the gRPC StreamObserver used to send the prices back to the client
+     */
+    @Override
+    public void streamAllPrices(PriceCatalogRequest request, StreamObserver<PriceResponse> responseObserver) {
+        ServerCallStreamObserver<PriceResponse> serverObserver = (ServerCallStreamObserver<PriceResponse>) responseObserver;
+        Span span = tracer.spanBuilder("PriceGrpcService.streamAllPrices")
+                .setAttribute("productIdFrom", request.getProductIdFrom())
+                .setAttribute("productIdTo", request.getProductIdTo())
+                .setAttribute("brandIdFrom", request.getBrandIdFrom())
+                .setAttribute("brandIdTo", request.getBrandIdTo())
+                .startSpan();
+        PriceCatalogFilter filter = new PriceCatalogFilter(
+                request.getProductIdFrom() > 0 ? request.getProductIdFrom() : null,
+                request.getProductIdTo() > 0 ? request.getProductIdTo() : null,
+                request.getBrandIdFrom() > 0 ? request.getBrandIdFrom() : null,
+                request.getBrandIdTo() > 0 ? request.getBrandIdTo() : null);
+
+        ReadyDrivenSubscriber<PriceResponse> subscriber = new ReadyDrivenSubscriber<>(serverObserver, span);
+        serverObserver.setOnReadyHandler(subscriber::onReady);
+        serverObserver.setOnCancelHandler(subscriber::dispose);
+        priceServicePort.streamAllPrices(filter)
+                .map(this::toResponse)
+                .subscribe(subscriber);
+    }
+
+    /**
+     * Resolves one request of a {@link #getPrices} stream into its correlated response.
+     *
+     * @param request the streamed price request
+     * @return a Mono emitting the price response, or an error response if the request failed
+     */
+    private Mono<PriceResponse> resolveStreamed(PriceRequest request) {
+        LocalDateTime dateTime;
+        try {
+            dateTime = PriceRequestValidator.validate(
+                    request.getDate(), request.getTime(), request.getProductId(), request.getBrandId()
+            );
+        } catch (IllegalArgumentException e) {
+            return Mono.just(toErrorResponse(request, Status.Code.INVALID_ARGUMENT.name()));
+        }
+
+        return priceServicePort.findApplicablePrice(request.getProductId(), request.getBrandId(), dateTime)
+                .map(price -> toResponse(price).toBuilder().setRequestId(request.getRequestId()).build())
+                .switchIfEmpty(Mono.fromSupplier(() -> toErrorResponse(request, "PRICE_NOT_FOUND")))
+                .onErrorResume(e -> Mono.just(toErrorResponse(request,
+                        e instanceof PriceNotFoundException ? "PRICE_NOT_FOUND" : Status.Code.INTERNAL.name())));
+    }
+
+    /**
+     * Builds the response of a streamed request that could not be resolved.
+     *
+     * @param request the streamed price request
+     * @param error   the error code
+     * @return the gRPC PriceResponse message carrying the error
+     */
+    private PriceResponse toErrorResponse(PriceRequest request, String error) {
+        return PriceResponse.newBuilder()
+                .setRequestId(request.getRequestId())
+                .setProductId(request.getProductId())
+                .setBrandId(request.getBrandId())
+                .setError(error)
+                .build();
+    }
+
+    /**
+     * Maps a service price response to a gRPC PriceResponse message.
+     *
+     * @param price the price response DTO returned by the service
+     * @return the gRPC PriceResponse message
+     */
+    private PriceResponse toResponse(PriceResponseDto price) {
+        return PriceResponse.newBuilder()
+                .setProductId(price.getProductId())
+                .setBrandId(price.getBrandId())
+                .setPriceList(price.getPriceList())
+                .setStartDate(price.getStartDate().toString())
+                .setEndDate(price.getEndDate().toString())
+                .setPrice(price.getPrice().doubleValue())
+                .build();
+    }
+
+    /**
+     * Inbound flow control of a {@link #getPrices} stream.
+     * <p>
+     * Every response sent returns one request credit to the client, but only while the
+     * transport is ready; credits earned while it is not are handed back when it becomes
+     * ready again.
+     * </p>
+     */
+    private static final class StreamFlowControl {
+
+        private final ServerCallStreamObserver<?> observer;
+
+        private int owedRequests;
+
+        private StreamFlowControl(ServerCallStreamObserver<?> observer) {
+            this.observer = observer;
+        }
+
+        synchronized void responseSent() {
+            if (observer.isReady()) {
+                observer.request(1);
+            } else {
+                owedRequests++;
+            }
+        }
+
+        synchronized void onReady() {
+            while (owedRequests > 0 && observer.isReady()) {
+                owedRequests--;
+                observer.request(1);
+            }
+        }
+    }
+
+    /**
+     * Subscriber writing a server stream to gRPC at the pace of the transport.
+     * <p>
+     * One element is requested at a time, and only while the call is ready; when it is not,
+     * the next request waits for the onReady handler.
+     * </p>
+     *
+     * @param <T> the type of the streamed messages
+     */
+    private static final class ReadyDrivenSubscriber<T> extends BaseSubscriber<T> {
+
+        private final ServerCallStreamObserver<T> observer;
+
+        private final Span span;
+
+        private boolean waitingForReady;
+
+        private ReadyDrivenSubscriber(ServerCallStreamObserver<T> observer, Span span) {
+            this.observer = observer;
+            this.span = span;
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            requestNextIfReady();
+        }
+
+        @Override
+        protected void hookOnNext(T value) {
+            observer.onNext(value);
+            requestNextIfReady();
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            observer.onCompleted();
+        }
+
+        @Override
+        protected void hookOnError(Throwable error) {
+            log.error("gRPC stream error: ", error);
+            span.recordException(error);
+            observer.onError(Status.INTERNAL.withDescription(error.getMessage()).asRuntimeException());
+        }
+
+        @Override
+        protected void hookFinally(SignalType type) {
+            span.end();
+        }
+
+        synchronized void onReady() {
+            if (waitingForReady && observer.isReady()) {
+                waitingForReady = false;
+                request(1);
+            }
+        }
+
+        private synchronized void requestNextIfReady() {
+            if (observer.isReady()) {
+                request(1);
+            } else {
+                waitingForReady = true;
+            }
+        }
+    }
+}
@@ -27,6 +27,17 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(new ErrorResponse("PRICE_NOT_FOUND", ex.getMessage()), HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Handles invalid request parameters, rejected by the {@code PriceRequestValidator}.
+     *
+     * @param ex the {@link IllegalArgumentException} thrown.
+     * @return a {@link ResponseEntity} containing an {@link ErrorResponse} with the validation message and HTTP status 400 (Bad Request).
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(IllegalArgumentException ex) {
+        return new ResponseEntity<>(new ErrorResponse("INVALID_REQUEST", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles all other uncaught exceptions.
      *
@@ -5,11 +5,16 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.organization.prices.application.dto.PriceBatchItemDto;
+import org.organization.prices.application.dto.PriceQueryDto;
 import org.organization.prices.application.dto.PriceResponseDto;
 import org.organization.prices.application.port.PriceServicePort;
 import org.organization.prices.application.validator.PriceRequestValidator;
+import org.organization.prices.domain.model.PriceQuery;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,6 +22,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * REST controller responsible for handling price-related HTTP requests.
@@ -77,6 +83,28 @@ public class PriceController {
         return ResponseEntity.ok(priceServicePort.findApplicablePrice(productId, brandId, applicationDate));
     }
 
+    /**
+     * Retrieves the applicable prices for several product, brand, and date queries at once.
+     * <p>
+     * Every query is validated like the single lookup. Results come back in the order of the
+     * queries, and queries without an applicable price carry a {@code PRICE_NOT_FOUND} error
+     * instead of failing the whole batch.
+     * </p>
+     *
+     * @param queries the queries to resolve
+     * @return A {@link Flux} stream of one {@link PriceBatchItemDto} per query.
+     */
+    @PostMapping("/filter/batch")
+    @Operation(summary = "Find applicable prices in batch", description = "Returns the price applicable for each product, brand, and date provided.")
+    public Flux<PriceBatchItemDto> getPrices(@RequestBody List<PriceQueryDto> queries) {
+        PriceRequestValidator.validateBatchSize(queries.size());
+        List<PriceQuery> validated = queries.stream()
+                .map(query -> new PriceQuery(query.getProductId(), query.getBrandId(), PriceRequestValidator.validate(
+                        query.getDate(), query.getTime(), query.getProductId(), query.getBrandId())))
+                .toList();
+        return priceServicePort.findApplicablePrices(validated);
+    }
+
     /**
      * Retrieves all prices.
      *
@@ -0,0 +1,279 @@
+package org.organization.prices.infrastructure.adapter.out.aggregation;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.PriceEventHandoffPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.domain.usecase.StorePriceEventUseCase;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * {@link PriceEventHandoffPort} that folds price events into one aggregate per product, brand,
+ * price list and event type over tumbling windows, instead of storing and publishing one event
+ * per query.
+ * <p>
+ * {@link #handOff(Price, LocalDateTime)} only folds the event into the counters of the current
+ * window, and completes at once. Every {@code window}, aligned on the clock, the window is closed
+ * and each of its aggregates is stored and published through the {@link StorePriceEventUseCase}
+ * as a single {@link PriceEvent}, carrying the number of queries, the first and last query times
+ * and the lowest and highest prices of the window. Queries are folded under a shared lock, which
+ * closing a window takes exclusively for the time of swapping in an empty one.
+ * </p>
+ * <p>
+ * Aggregates are emitted at most {@code concurrency} at once. Aggregates that fail to be stored or
+ * published are dropped, like the single events of the other handoff modes. On shutdown, the
+ * current window is closed early and emitted.
+ * </p>
+ * <p>
+ * Folded queries are counted as {@code prices.events.aggregation.folded}, emitted aggregates as
+ * {@code prices.events.aggregation.emitted}, and the aggregates of the current window are exported
+ * as {@code prices.events.aggregation.keys}.
+ * </p>
+ */
+@Slf4j
+public class AggregatingPriceEventHandoffAdapter implements PriceEventHandoffPort {
+
+    /**
+     * Use case building, storing and publishing the events.
+     */
+    private final StorePriceEventUseCase storeEventUseCase;
+
+    /**
+     * Maximum number of aggregates emitted at once.
+     */
+    private final int concurrency;
+
+    /**
+     * Clock the windows are aligned on.
+     */
+    private final Clock clock;
+
+    /**
+     * Held shared to fold a query, and exclusively to close the window.
+     */
+    private final ReadWriteLock windowLock = new ReentrantReadWriteLock();
+
+    /**
+     * Window the queries are folded into.
+     */
+    private volatile Window current;
+
+    /**
+     * Running window closer, {@code null} when windows are only closed through {@link #flush()}.
+     */
+    private final Disposable closing;
+
+    private final Counter folded;
+    private final Counter emitted;
+
+    /**
+     * Constructs a new AggregatingPriceEventHandoffAdapter.
+     *
+     * @param storeEventUseCase the use case building, storing and publishing the events
+     * @param window            the length of a window, or {@code null} to close windows only on {@link #flush()}
+     * @param concurrency       the maximum number of aggregates emitted at once
+     * @param clock             the clock the windows are aligned on
+     * @param meterRegistry     the registry the aggregation metrics are published to
+     */
+    public AggregatingPriceEventHandoffAdapter(StorePriceEventUseCase storeEventUseCase,
+                                               Duration window,
+                                               int concurrency,
+                                               Clock clock,
+                                               MeterRegistry meterRegistry) {
+        this.storeEventUseCase = storeEventUseCase;
+        this.concurrency = concurrency;
+        this.clock = clock;
+        this.current = new Window(LocalDateTime.now(clock));
+
+        this.folded = Counter.builder("prices.events.aggregation.folded")
+                .description("Price events folded into aggregates")
+                .register(meterRegistry);
+        this.emitted = Counter.builder("prices.events.aggregation.emitted")
+                .description("Aggregated price events stored and published")
+                .register(meterRegistry);
+        Gauge.builder("prices.events.aggregation.keys", this, adapter -> adapter.current.aggregates.size())
+                .description("Aggregates of the current price event window")
+                .register(meterRegistry);
+
+        if (window == null) {
+            this.closing = null;
+            return;
+        }
+        long windowMillis = window.toMillis();
+        Duration firstClose = Duration.ofMillis(windowMillis - clock.millis() % windowMillis);
+        this.closing = Flux.interval(firstClose, window)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush(), 1)
+                .subscribe();
+    }
+
+    /**
+     * Folds the event of a price query into the aggregate of the current window.
+     *
+     * @param price     the price result obtained from a query
+     * @param queryDate the date when the query was made
+     * @return a Mono that completes once the event is folded
+     */
+    @Override
+    public Mono<Void> handOff(Price price, LocalDateTime queryDate) {
+        return Mono.fromRunnable(() -> {
+            if (price == null) {
+                return;
+            }
+            PriceEvent event = storeEventUseCase.buildPriceEvent(price, queryDate);
+            AggregateKey key = new AggregateKey(event.getProductId(), event.getBrandId(), event.getPriceList(),
+                    event.getEventType());
+            windowLock.readLock().lock();
+            try {
+                current.aggregates.compute(key, (k, aggregate) -> aggregate == null
+                        ? new Aggregate(event)
+                        : aggregate.fold(event));
+            } finally {
+                windowLock.readLock().unlock();
+            }
+            folded.increment();
+        });
+    }
+
+    /**
+     * Closes the current window and stores and publishes its aggregates.
+     *
+     * @return a Mono that completes once every aggregate of the window is handled
+     */
+    public Mono<Void> flush() {
+        return Mono.defer(() -> {
+            Window closed;
+            LocalDateTime windowEnd = LocalDateTime.now(clock);
+            windowLock.writeLock().lock();
+            try {
+                closed = current;
+                current = new Window(windowEnd);
+            } finally {
+                windowLock.writeLock().unlock();
+            }
+            List<PriceEvent> aggregates = closed.aggregates.values().stream()
+                    .map(aggregate -> aggregate.toEvent(closed.start, windowEnd))
+                    .toList();
+            if (aggregates.isEmpty()) {
+                return Mono.empty();
+            }
+            log.debug("Emitting {} price event aggregates of the window starting at {}", aggregates.size(),
+                    closed.start);
+            return Flux.fromIterable(aggregates)
+                    .flatMap(event -> storeEventUseCase.storeEvent(event)
+                            .doOnSuccess(ignored -> emitted.increment()), concurrency)
+                    .then();
+        });
+    }
+
+    /**
+     * Stops closing windows and emits the current one.
+     */
+    @PreDestroy
+    public void stop() {
+        if (closing != null) {
+            closing.dispose();
+        }
+        try {
+            flush().block(Duration.ofSeconds(10));
+        } catch (RuntimeException e) {
+            log.warn("Failed to emit the last price event window: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Product, brand, price list and event type the queries are aggregated by.
+     */
+    private record AggregateKey(Long productId, Long brandId, Integer priceList, String eventType) {
+    }
+
+    /**
+     * Aggregates of the queries made since {@code start}.
+     */
+    private static final class Window {
+
+        private final LocalDateTime start;
+        private final Map<AggregateKey, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+        private Window(LocalDateTime start) {
+            this.start = start;
+        }
+    }
+
+    /**
+     * Counters of the queries of one key, only changed under the lock of its map entry.
+     */
+    private static final class Aggregate {
+
+        private final PriceEvent first;
+        private PriceEvent last;
+        private long count;
+        private LocalDateTime firstQueryAt;
+        private LocalDateTime lastQueryAt;
+        private BigDecimal minPrice;
+        private BigDecimal maxPrice;
+
+        private Aggregate(PriceEvent event) {
+            this.first = event;
+            this.last = event;
+            this.count = 1;
+            this.firstQueryAt = event.getCreatedAt();
+            this.lastQueryAt = event.getCreatedAt();
+            this.minPrice = event.getPrice();
+            this.maxPrice = event.getPrice();
+        }
+
+        private Aggregate fold(PriceEvent event) {
+            count++;
+            last = event;
+            if (event.getCreatedAt().isBefore(firstQueryAt)) {
+                firstQueryAt = event.getCreatedAt();
+            }
+            if (event.getCreatedAt().isAfter(lastQueryAt)) {
+                lastQueryAt = event.getCreatedAt();
+            }
+            if (event.getPrice().compareTo(minPrice) < 0) {
+                minPrice = event.getPrice();
+            }
+            if (event.getPrice().compareTo(maxPrice) > 0) {
+                maxPrice = event.getPrice();
+            }
+            return this;
+        }
+
+        private PriceEvent toEvent(LocalDateTime windowStart, LocalDateTime windowEnd) {
+            return PriceEvent.builder()
+                    .productId(first.getProductId())
+                    .brandId(first.getBrandId())
+                    .priceList(first.getPriceList())
+                    .eventType(first.getEventType())
+                    .queryDate(last.getQueryDate())
+                    .price(last.getPrice())
+                    .createdAt(windowEnd)
+                    .eventCount(count)
+                    .windowStart(windowStart)
+                    .windowEnd(windowEnd)
+                    .firstQueryAt(firstQueryAt)
+                    .lastQueryAt(lastQueryAt)
+                    .minPrice(minPrice)
+                    .maxPrice(maxPrice)
+                    .build();
+        }
+    }
+}
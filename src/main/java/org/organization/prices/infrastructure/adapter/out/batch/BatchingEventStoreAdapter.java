@@ -0,0 +1,284 @@
+package org.organization.prices.infrastructure.adapter.out.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.EventStorePort;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventBatchRepository;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Write-behind {@link EventStorePort} that stores price events in batches.
+ * <p>
+ * {@link #storeEvent(PriceEvent)} only queues the event, and completes as soon as it is queued,
+ * unless the adapter is {@code acknowledged}: it then completes once the batch of the event is
+ * written, or fails with the error of that batch. A writer drains the queue and inserts the events through a {@link PriceEventBatchRepository},
+ * one multi-row {@code INSERT} per batch, as soon as {@code maxSize} events are waiting or
+ * {@code maxWait} after the first of them arrived, whichever comes first. At most
+ * {@code maxInFlightWrites} batches are written at once.
+ * </p>
+ * <ul>
+ *   <li>The queue holds at most {@code queueCapacity} events. When it is full, the
+ *       {@link OverflowPolicy} either drops the event or holds the caller back until there is
+ *       room.</li>
+ *   <li>A batch that fails to be written is logged and dropped, the writer carrying on with the
+ *       next one. When acknowledged, its callers get the error.</li>
+ *   <li>On shutdown, the queue is closed and every event in it is written before the context
+ *       goes away, waiting at most {@code shutdownTimeout}.</li>
+ * </ul>
+ * <p>
+ * Batch sizes are recorded as {@code prices.events.batch.size}, write latencies as
+ * {@code prices.events.flush} tagged with {@code outcome=success|failure}, lost events as
+ * {@code prices.events.dropped} tagged with {@code reason=overflow|failure}, and the events
+ * waiting in the queue as {@code prices.events.queue.size}.
+ * </p>
+ */
+@Slf4j
+public class BatchingEventStoreAdapter implements EventStorePort {
+
+    /**
+     * What {@link #storeEvent(PriceEvent)} does when the queue is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Drops the event, so that request threads never wait on the database.
+         */
+        DROP,
+
+        /**
+         * Delays the completion of {@link #storeEvent(PriceEvent)} until the writer makes room, so
+         * that no event is lost while the database keeps up. No thread is blocked while waiting.
+         */
+        BLOCK
+    }
+
+    /**
+     * Pause between two attempts to queue an event with the {@link OverflowPolicy#BLOCK} policy.
+     */
+    private static final Duration BLOCK_RETRY_DELAY = Duration.ofMillis(1);
+
+    /**
+     * Repository the batches are written through.
+     */
+    private final PriceEventBatchRepository batchRepository;
+
+    /**
+     * Mapper for converting the events into persistence entities.
+     */
+    private final PriceEventEntityMapper priceEventEntityMapper;
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    private final OverflowPolicy overflowPolicy;
+
+    /**
+     * Maximum time {@link #stop()} waits for the queue to be written.
+     */
+    private final Duration shutdownTimeout;
+
+    /**
+     * Whether {@link #storeEvent(PriceEvent)} waits for the event to be written.
+     */
+    private final boolean acknowledged;
+
+    /**
+     * Events waiting for the writer, shared with {@link #sink}.
+     */
+    private final Queue<Pending> queue;
+
+    /**
+     * Entry point of the writer pipeline.
+     */
+    private final Sinks.Many<Pending> sink;
+
+    /**
+     * Completed once the writer pipeline has written its last batch.
+     */
+    private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+    private final DistributionSummary batchSize;
+    private final Timer flushSuccess;
+    private final Timer flushFailure;
+    private final Counter droppedOverflow;
+    private final Counter droppedFailure;
+
+    /**
+     * Constructs a new BatchingEventStoreAdapter and starts its writer.
+     *
+     * @param batchRepository        the repository the batches are written through
+     * @param priceEventEntityMapper the mapper from events to persistence entities
+     * @param maxSize                the number of events written by a full batch
+     * @param maxWait                the maximum time an event waits for its batch to fill up
+     * @param maxInFlightWrites      the maximum number of batches written at once
+     * @param queueCapacity          the maximum number of events waiting for the writer
+     * @param overflowPolicy         what to do with an event when the queue is full
+     * @param shutdownTimeout        the maximum time to write the queue on shutdown
+     * @param acknowledged           whether callers wait for their event to be written
+     * @param meterRegistry          the registry the batching metrics are published to
+     */
+    public BatchingEventStoreAdapter(PriceEventBatchRepository batchRepository,
+                                     PriceEventEntityMapper priceEventEntityMapper,
+                                     int maxSize,
+                                     Duration maxWait,
+                                     int maxInFlightWrites,
+                                     int queueCapacity,
+                                     OverflowPolicy overflowPolicy,
+                                     Duration shutdownTimeout,
+                                     boolean acknowledged,
+                                     MeterRegistry meterRegistry) {
+        this.batchRepository = batchRepository;
+        this.priceEventEntityMapper = priceEventEntityMapper;
+        this.overflowPolicy = overflowPolicy;
+        this.shutdownTimeout = shutdownTimeout;
+        this.acknowledged = acknowledged;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.sink = Sinks.many().unicast().onBackpressureBuffer(queue);
+
+        this.batchSize = DistributionSummary.builder("prices.events.batch.size")
+                .description("Price events written per batch")
+                .register(meterRegistry);
+        this.flushSuccess = flushTimer("success", meterRegistry);
+        this.flushFailure = flushTimer("failure", meterRegistry);
+        this.droppedOverflow = droppedCounter("overflow", meterRegistry);
+        this.droppedFailure = droppedCounter("failure", meterRegistry);
+        Gauge.builder("prices.events.queue.size", queue, Queue::size)
+                .description("Price events waiting to be written")
+                .register(meterRegistry);
+
+        // Requesting batches only as writes complete keeps the backlog in the bounded queue
+        sink.asFlux()
+                .bufferTimeout(maxSize, maxWait, true)
+                .flatMap(this::flush, maxInFlightWrites)
+                .subscribe(null,
+                        e -> {
+                            log.error("Price event writer stopped: {}", e.getMessage());
+                            drained.complete(null);
+                        },
+                        () -> drained.complete(null));
+    }
+
+    /**
+     * Queues a price event to be written with the next batch.
+     *
+     * @param priceEvent the price event to store
+     * @return a Mono that completes once the event is queued, or dropped, or when acknowledged
+     *         once it is written
+     */
+    @Override
+    public Mono<Void> storeEvent(PriceEvent priceEvent) {
+        return Mono.defer(() -> {
+            Pending pending = new Pending(priceEvent, acknowledged ? Sinks.empty() : null);
+            while (true) {
+                Sinks.EmitResult result = sink.tryEmitNext(pending);
+                if (result.isSuccess()) {
+                    return acknowledged ? pending.written().asMono() : Mono.empty();
+                }
+                if (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                    // Another thread is queuing an event right now
+                    Thread.onSpinWait();
+                } else if (result == Sinks.EmitResult.FAIL_OVERFLOW && overflowPolicy == OverflowPolicy.BLOCK) {
+                    return Mono.delay(BLOCK_RETRY_DELAY).then(storeEvent(priceEvent));
+                } else {
+                    droppedOverflow.increment();
+                    log.debug("Price event dropped ({}): productId={}, brandId={}",
+                            result, priceEvent.getProductId(), priceEvent.getBrandId());
+                    return Mono.empty();
+                }
+            }
+        });
+    }
+
+    /**
+     * Closes the queue and waits for every queued event to be written.
+     */
+    @PreDestroy
+    public void stop() {
+        sink.emitComplete(Sinks.EmitFailureHandler.busyLooping(shutdownTimeout));
+        try {
+            drained.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Price events still queued after {}: {}", shutdownTimeout, queue.size());
+        } catch (ExecutionException e) {
+            log.error("Price event writer failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a batch, recording its size and latency, and acknowledges its events. A failed batch
+     * is dropped, its acknowledged callers getting the error.
+     */
+    private Mono<Void> flush(List<Pending> batch) {
+        List<PriceEventEntity> entities = batch.stream()
+                .map(pending -> priceEventEntityMapper.toEntity(pending.event()))
+                .toList();
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return batchRepository.insertAll(entities)
+                    .doOnSuccess(rows -> {
+                        flushSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        batchSize.record(batch.size());
+                        batch.forEach(pending -> pending.complete(null));
+                    })
+                    .then()
+                    .onErrorResume(e -> {
+                        flushFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        droppedFailure.increment(batch.size());
+                        log.error("Failed to store a batch of {} price events: {}", batch.size(), e.getMessage());
+                        batch.forEach(pending -> pending.complete(e));
+                        return Mono.empty();
+                    });
+        });
+    }
+
+    /**
+     * A queued event, with the sink its caller waits on when acknowledged.
+     */
+    private record Pending(PriceEvent event, Sinks.Empty<Void> written) {
+
+        void complete(Throwable error) {
+            if (written == null) {
+                return;
+            }
+            if (error == null) {
+                written.tryEmitEmpty();
+            } else {
+                written.tryEmitError(error);
+            }
+        }
+    }
+
+    private static Timer flushTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("prices.events.flush")
+                .description("Time taken to write a batch of price events")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static Counter droppedCounter(String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("prices.events.dropped")
+                .description("Price events that were not stored")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
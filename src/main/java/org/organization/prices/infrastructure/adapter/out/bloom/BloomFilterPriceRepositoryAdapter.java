@@ -0,0 +1,357 @@
+package org.organization.prices.infrastructure.adapter.out.bloom;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decorator for a {@link PriceRepositoryPort} that answers lookups of unknown products and brands
+ * without reaching the delegate.
+ * <p>
+ * A Bloom filter holds every (productId, brandId) pair present in the price table. It is built
+ * from the snapshot of the table, or from the delegate's {@link PriceRepositoryPort#getAll()} if
+ * no snapshot has arrived by the first lookup, and can be rebuilt with {@link #rebuild()}. It is
+ * kept up to date by the changed rows of the table and by reporting new rows through
+ * {@link #recordPrice(Long, Long)}. A pair the filter has never seen cannot have a price, so its
+ * lookups complete empty straight away; any other pair goes to the delegate. Until the filter is
+ * built, or if building it fails, every lookup goes to the delegate.
+ * </p>
+ * <p>
+ * Lookups are counted under the {@code prices.bloom.lookups} meter, tagged with
+ * {@code result=rejected} when answered by the filter and {@code result=passed} otherwise. Passed
+ * lookups the delegate finds no price for are also counted with {@code result=false_positive};
+ * since a known pair may have no price on the requested date, this is an upper bound of the real
+ * false positives. The filter's current expected false positive probability is exposed as
+ * {@code prices.bloom.expected.fpp}.
+ * </p>
+ */
+@Slf4j
+public class BloomFilterPriceRepositoryAdapter implements PriceRepositoryPort, PriceTableListener {
+
+    /**
+     * Hashes a (productId, brandId) pair into the filter.
+     */
+    private static final Funnel<PriceKey> KEY_FUNNEL = (key, sink) -> sink
+            .putLong(key.productId())
+            .putLong(key.brandId());
+
+    /**
+     * Decorated repository port.
+     */
+    private final PriceRepositoryPort delegate;
+
+    /**
+     * Minimum number of pairs the filter is sized for.
+     */
+    private final long expectedInsertions;
+
+    /**
+     * Target false positive probability at the expected number of pairs.
+     */
+    private final double falsePositiveProbability;
+
+    /**
+     * Completes once the first build has finished, at once if a snapshot was applied before.
+     * Failed builds are not cached, so the next lookup retries them.
+     */
+    private final Mono<Boolean> initialBuild;
+
+    /**
+     * Filter currently used to answer lookups, {@code null} until the first build.
+     */
+    private volatile BloomFilter<PriceKey> filter;
+
+    /**
+     * Pairs recorded while a rebuild is scanning the table, added to the new filter before it is
+     * swapped in; {@code null} when no rebuild is running.
+     */
+    private Set<PriceKey> recordedDuringRebuild;
+
+    /**
+     * Lookups answered by the filter.
+     */
+    private final Counter rejected;
+
+    /**
+     * Lookups passed on to the delegate.
+     */
+    private final Counter passed;
+
+    /**
+     * Passed lookups the delegate found no price for.
+     */
+    private final Counter falsePositives;
+
+    /**
+     * Constructs a new BloomFilterPriceRepositoryAdapter.
+     *
+     * @param delegate                 the repository port to guard
+     * @param expectedInsertions       minimum number of pairs the filter is sized for
+     * @param falsePositiveProbability target false positive probability
+     * @param meterRegistry            registry the filter metrics are published to
+     */
+    public BloomFilterPriceRepositoryAdapter(PriceRepositoryPort delegate,
+                                             long expectedInsertions,
+                                             double falsePositiveProbability,
+                                             MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+        this.initialBuild = Mono.defer(() -> filter != null ? Mono.<Void>empty() : rebuild())
+                .thenReturn(Boolean.TRUE)
+                .cacheInvalidateIf(built -> false);
+        this.rejected = lookupCounter("rejected", meterRegistry);
+        this.passed = lookupCounter("passed", meterRegistry);
+        this.falsePositives = lookupCounter("false_positive", meterRegistry);
+        Gauge.builder("prices.bloom.expected.fpp", this, adapter -> {
+                    BloomFilter<PriceKey> current = adapter.filter;
+                    return current == null ? Double.NaN : current.expectedFpp();
+                })
+                .description("Expected false positive probability of the known price pairs filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rebuilds the filter from every price of the delegate and atomically swaps it in.
+     *
+     * @return a Mono that completes when the new filter is in place
+     */
+    public Mono<Void> rebuild() {
+        long start = System.nanoTime();
+        return Mono.defer(() -> {
+            synchronized (this) {
+                recordedDuringRebuild = ConcurrentHashMap.newKeySet();
+            }
+            return delegate.getAll()
+                    .map(PriceKey::of)
+                    .distinct()
+                    .collectList()
+                    .doOnNext(keys -> {
+                        BloomFilter<PriceKey> rebuilt = install(keys);
+                        log.info("Price pairs filter built with {} pairs in {} ms, expected fpp {}",
+                                keys.size(), (System.nanoTime() - start) / 1_000_000, rebuilt.expectedFpp());
+                    })
+                    .doOnError(e -> {
+                        synchronized (this) {
+                            recordedDuringRebuild = null;
+                        }
+                    })
+                    .then();
+        });
+    }
+
+    /**
+     * Builds the filter from the pairs of the snapshot of the table.
+     *
+     * @param prices every price of the table
+     */
+    @Override
+    public void onSnapshot(List<Price> prices) {
+        Set<PriceKey> keys = new HashSet<>();
+        prices.forEach(price -> keys.add(PriceKey.of(price)));
+        BloomFilter<PriceKey> rebuilt = install(keys);
+        log.info("Price pairs filter built from snapshot with {} pairs, expected fpp {}", keys.size(), rebuilt.expectedFpp());
+    }
+
+    /**
+     * Records the pairs of the changed rows.
+     *
+     * @param changed the new state of every changed row
+     * @return a Mono that completes once the changes are applied
+     */
+    @Override
+    public Mono<Void> onChange(List<Price> changed) {
+        return Mono.fromRunnable(() -> changed.forEach(price -> recordPrice(price.getProductId(), price.getBrandId())));
+    }
+
+    /**
+     * Records that a price now exists for the given pair, so its lookups are no longer rejected.
+     * Must be called once the row is visible to the delegate.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     */
+    public synchronized void recordPrice(Long productId, Long brandId) {
+        PriceKey key = new PriceKey(productId, brandId);
+        if (filter != null) {
+            filter.put(key);
+        }
+        if (recordedDuringRebuild != null) {
+            recordedDuringRebuild.add(key);
+        }
+    }
+
+    /**
+     * Swaps in a new filter holding the given pairs and the ones recorded since the rebuild started.
+     *
+     * @param keys the pairs of the table
+     * @return the new filter
+     */
+    private synchronized BloomFilter<PriceKey> install(Collection<PriceKey> keys) {
+        BloomFilter<PriceKey> rebuilt = BloomFilter.create(KEY_FUNNEL,
+                Math.max(expectedInsertions, keys.size()), falsePositiveProbability);
+        keys.forEach(rebuilt::put);
+        if (recordedDuringRebuild != null) {
+            recordedDuringRebuild.forEach(rebuilt::put);
+            recordedDuringRebuild = null;
+        }
+        filter = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * Finds the applicable price, or completes empty without querying the delegate when the pair
+     * is unknown.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        return mightContain(productId, brandId).flatMap(known -> {
+            if (!known) {
+                rejected.increment();
+                return Mono.<Price>empty();
+            }
+            passed.increment();
+            return delegate.findApplicablePrice(productId, brandId, date)
+                    .switchIfEmpty(Mono.fromRunnable(falsePositives::increment));
+        });
+    }
+
+    /**
+     * Finds the applicable price segment, or completes empty without querying the delegate when
+     * the pair is unknown.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return mightContain(productId, brandId).flatMap(known -> {
+            if (!known) {
+                rejected.increment();
+                return Mono.<PriceSegment>empty();
+            }
+            passed.increment();
+            return delegate.findApplicableSegment(productId, brandId, date)
+                    .switchIfEmpty(Mono.fromRunnable(falsePositives::increment));
+        });
+    }
+
+    /**
+     * Finds the applicable prices for several queries, passing only the queries of known pairs to
+     * the delegate.
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        return ready().flatMap(built -> {
+            BloomFilter<PriceKey> current = filter;
+            List<PriceQuery> known = new ArrayList<>(queries.size());
+            for (PriceQuery query : queries) {
+                if (current == null || !isHashable(query.productId(), query.brandId())
+                        || current.mightContain(query.key())) {
+                    known.add(query);
+                }
+            }
+            rejected.increment(queries.size() - known.size());
+            passed.increment(known.size());
+            if (known.isEmpty()) {
+                return Mono.just(Map.<PriceQuery, Price>of());
+            }
+            return delegate.findApplicablePrices(known)
+                    .doOnNext(found -> falsePositives.increment(known.size() - found.size()));
+        });
+    }
+
+    /**
+     * Retrieves all prices straight from the delegate.
+     *
+     * @return a Flux emitting all prices
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return delegate.getAll();
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the delegate.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching prices
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return delegate.streamAll(filter);
+    }
+
+    /**
+     * Tells whether the pair may have prices, once the filter is built.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @return {@code false} only when the pair is definitely absent
+     */
+    private Mono<Boolean> mightContain(Long productId, Long brandId) {
+        return ready().map(built -> {
+            BloomFilter<PriceKey> current = filter;
+            return current == null
+                    || !isHashable(productId, brandId)
+                    || current.mightContain(new PriceKey(productId, brandId));
+        });
+    }
+
+    /**
+     * Waits for the first build, falling back to the delegate when it fails.
+     *
+     * @return a Mono emitting whether the filter is built
+     */
+    private Mono<Boolean> ready() {
+        return initialBuild.onErrorResume(e -> {
+            log.warn("Price pairs filter unavailable, passing lookups through: {}", e.getMessage());
+            return Mono.just(Boolean.FALSE);
+        });
+    }
+
+    /**
+     * Incomplete pairs are never rejected, so the delegate reports them as usual.
+     */
+    private static boolean isHashable(Long productId, Long brandId) {
+        return productId != null && brandId != null;
+    }
+
+    private static Counter lookupCounter(String result, MeterRegistry meterRegistry) {
+        return Counter.builder("prices.bloom.lookups")
+                .description("Price lookups by whether the known pairs filter answered them")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,174 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-through caching decorator for a {@link PriceRepositoryPort}.
+ * <p>
+ * Applicable prices are kept in a Caffeine {@link AsyncLoadingCache} keyed by the exact
+ * (productId, brandId, date) query:
+ * </p>
+ * <ul>
+ *   <li>Concurrent misses on the same key share a single in-flight load, so an expired hot
+ *       entry triggers one query instead of a stampede.</li>
+ *   <li>Entries older than the refresh interval are reloaded in the background while the
+ *       current value keeps being served, so hot keys never wait on a reload.</li>
+ *   <li>Queries with no applicable price are not cached.</li>
+ *   <li>A snapshot of the price table empties the cache, and changed rows evict every query of
+ *       their product and brand.</li>
+ * </ul>
+ * <p>
+ * Hit, miss, eviction and load-time statistics are published to Micrometer under the
+ * {@code cache.*} meters tagged with {@code cache=prices}.
+ * </p>
+ */
+public class CachingPriceRepositoryAdapter implements PriceRepositoryPort, PriceTableListener {
+
+    /**
+     * Name of the cache in the exported metrics.
+     */
+    static final String CACHE_NAME = "prices";
+
+    /**
+     * Decorated repository port.
+     */
+    private final PriceRepositoryPort delegate;
+
+    /**
+     * Cache of applicable prices by query.
+     */
+    private final AsyncLoadingCache<PriceQuery, Price> cache;
+
+    /**
+     * Constructs a new CachingPriceRepositoryAdapter.
+     *
+     * @param delegate          the repository port to cache
+     * @param maximumSize       maximum number of cached queries
+     * @param expireAfterWrite  time after which an entry is evicted
+     * @param refreshAfterWrite time after which an entry is reloaded in the background on access
+     * @param meterRegistry     registry the cache statistics are published to
+     */
+    public CachingPriceRepositoryAdapter(PriceRepositoryPort delegate,
+                                         long maximumSize,
+                                         Duration expireAfterWrite,
+                                         Duration refreshAfterWrite,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .buildAsync((query, executor) -> delegate
+                        .findApplicablePrice(query.productId(), query.brandId(), query.date())
+                        .toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Empties the cache, since any cached price may predate the snapshot.
+     *
+     * @param prices every price of the table
+     */
+    @Override
+    public void onSnapshot(List<Price> prices) {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Evicts every cached query of the products and brands with changed rows.
+     *
+     * @param changed the new state of every changed row
+     * @return a Mono that completes once the changes are applied
+     */
+    @Override
+    public Mono<Void> onChange(List<Price> changed) {
+        return Mono.fromRunnable(() -> {
+            Set<PriceKey> keys = new HashSet<>();
+            changed.forEach(price -> keys.add(PriceKey.of(price)));
+            cache.synchronous().asMap().keySet().removeIf(query -> keys.contains(query.key()));
+        });
+    }
+
+    /**
+     * Finds the applicable price, loading it through the delegate on a cache miss.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        // Cancellation must not cancel the shared load other subscribers may be waiting on
+        return Mono.defer(() -> Mono.fromFuture(cache.get(new PriceQuery(productId, brandId, date)), true));
+    }
+
+    /**
+     * Finds the applicable prices for several queries, loading all the missing ones through a
+     * single batch call to the delegate.
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        return Mono.defer(() -> Mono.fromFuture(cache.getAll(queries, (missing, executor) -> delegate
+                .findApplicablePrices(List.copyOf(missing))
+                .toFuture()), true));
+    }
+
+    /**
+     * Finds the applicable price segment straight from the delegate.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return delegate.findApplicableSegment(productId, brandId, date);
+    }
+
+    /**
+     * Retrieves all prices straight from the delegate.
+     *
+     * @return a Flux emitting all prices
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return delegate.getAll();
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the delegate.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching prices
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return delegate.streamAll(filter);
+    }
+}
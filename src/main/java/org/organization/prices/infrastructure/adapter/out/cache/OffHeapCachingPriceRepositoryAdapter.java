@@ -0,0 +1,262 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Second-level caching decorator for a {@link PriceRepositoryPort}, holding applicable prices
+ * off the Java heap.
+ * <p>
+ * It sits between the source and the on-heap cache, so that the working set can grow far beyond
+ * what the on-heap cache holds without adding objects for the garbage collector to trace. Prices
+ * are kept serialised in an {@link OffHeapPriceStore} of a fixed byte budget, keyed by the exact
+ * (productId, brandId, date) query, and decoded again on every hit. For the {@code segment}
+ * strategy, the last segment loaded for each (productId, brandId) pair is kept as well:
+ * </p>
+ * <ul>
+ *   <li>A full set of the store evicts its least recently used entry, and entries expire a fixed
+ *       time after being written.</li>
+ *   <li>Queries with no applicable price or segment are not cached.</li>
+ *   <li>A snapshot of the price table empties the cache, and changed rows evict every query and
+ *       segment of their product and brand. A price or segment loaded while an eviction was
+ *       running is not cached.</li>
+ * </ul>
+ * <p>
+ * Hit, miss, put and eviction counts are published to Micrometer under the {@code cache.*}
+ * meters tagged with {@code cache=prices-offheap}, along with the off-heap occupancy as
+ * {@code cache.offheap.used} and {@code cache.offheap.capacity}, in bytes.
+ * </p>
+ */
+public class OffHeapCachingPriceRepositoryAdapter implements PriceRepositoryPort, PriceTableListener {
+
+    /**
+     * Name of the cache in the exported metrics.
+     */
+    static final String CACHE_NAME = "prices-offheap";
+
+    /**
+     * Decorated repository port.
+     */
+    private final PriceRepositoryPort delegate;
+
+    /**
+     * Serialised applicable prices by query.
+     */
+    private final OffHeapPriceStore store;
+
+    /**
+     * Constructs a new OffHeapCachingPriceRepositoryAdapter, allocating its whole budget.
+     *
+     * @param delegate         the repository port to cache
+     * @param maximumBytes     off-heap budget, counted against {@code -XX:MaxDirectMemorySize}
+     * @param expireAfterWrite time after which an entry is evicted
+     * @param meterRegistry    registry the cache statistics are published to
+     */
+    public OffHeapCachingPriceRepositoryAdapter(PriceRepositoryPort delegate,
+                                                long maximumBytes,
+                                                Duration expireAfterWrite,
+                                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.store = new OffHeapPriceStore(maximumBytes, expireAfterWrite, System::nanoTime);
+        new OffHeapCacheMetrics(store).bindTo(meterRegistry);
+    }
+
+    /**
+     * Empties the cache, since any cached price may predate the snapshot.
+     *
+     * @param prices every price of the table
+     */
+    @Override
+    public void onSnapshot(List<Price> prices) {
+        store.invalidateAll();
+    }
+
+    /**
+     * Evicts every cached query of the products and brands with changed rows.
+     *
+     * @param changed the new state of every changed row
+     * @return a Mono that completes once the changes are applied
+     */
+    @Override
+    public Mono<Void> onChange(List<Price> changed) {
+        return Mono.fromRunnable(() -> {
+            Set<PriceKey> keys = new HashSet<>();
+            changed.forEach(price -> keys.add(PriceKey.of(price)));
+            store.invalidate(keys);
+        });
+    }
+
+    /**
+     * Finds the applicable price, loading it through the delegate on a cache miss.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        return Mono.defer(() -> {
+            PriceQuery query = new PriceQuery(productId, brandId, date);
+            long epoch = store.epoch();
+            Price cached = store.get(query);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return delegate.findApplicablePrice(productId, brandId, date)
+                    .doOnNext(price -> store.put(query, price, epoch));
+        });
+    }
+
+    /**
+     * Finds the applicable prices for several queries, loading all the missing ones through a
+     * single batch call to the delegate.
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        return Mono.defer(() -> {
+            long epoch = store.epoch();
+            Map<PriceQuery, Price> found = new HashMap<>();
+            List<PriceQuery> missing = new ArrayList<>();
+            for (PriceQuery query : queries) {
+                Price cached = store.get(query);
+                if (cached != null) {
+                    found.put(query, cached);
+                } else {
+                    missing.add(query);
+                }
+            }
+            if (missing.isEmpty()) {
+                return Mono.just(found);
+            }
+            return delegate.findApplicablePrices(missing)
+                    .map(loaded -> {
+                        loaded.forEach((query, price) -> store.put(query, price, epoch));
+                        found.putAll(loaded);
+                        return found;
+                    });
+        });
+    }
+
+    /**
+     * Finds the applicable price segment, loading it through the delegate unless the cached
+     * segment of the pair contains the date.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return Mono.defer(() -> {
+            long epoch = store.epoch();
+            PriceSegment cached = store.getSegment(productId, brandId, date);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return delegate.findApplicableSegment(productId, brandId, date)
+                    .doOnNext(segment -> store.putSegment(segment, epoch));
+        });
+    }
+
+    /**
+     * Retrieves all prices straight from the delegate.
+     *
+     * @return a Flux emitting all prices
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return delegate.getAll();
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the delegate.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching prices
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return delegate.streamAll(filter);
+    }
+
+    /**
+     * Publishes the statistics of an {@link OffHeapPriceStore} as standard cache meters.
+     */
+    private static final class OffHeapCacheMetrics extends CacheMeterBinder<OffHeapPriceStore> {
+
+        private OffHeapCacheMetrics(OffHeapPriceStore store) {
+            super(store, CACHE_NAME, Tags.empty());
+        }
+
+        @Override
+        protected Long size() {
+            OffHeapPriceStore store = getCache();
+            return store == null ? null : store.size();
+        }
+
+        @Override
+        protected long hitCount() {
+            OffHeapPriceStore store = getCache();
+            return store == null ? 0 : store.hitCount();
+        }
+
+        @Override
+        protected Long missCount() {
+            OffHeapPriceStore store = getCache();
+            return store == null ? null : store.missCount();
+        }
+
+        @Override
+        protected Long evictionCount() {
+            OffHeapPriceStore store = getCache();
+            return store == null ? null : store.evictionCount();
+        }
+
+        @Override
+        protected long putCount() {
+            OffHeapPriceStore store = getCache();
+            return store == null ? 0 : store.putCount();
+        }
+
+        @Override
+        protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+            Gauge.builder("cache.offheap.used", getCache(), OffHeapPriceStore::usedBytes)
+                    .tags(getTagsWithCacheName())
+                    .baseUnit(BaseUnits.BYTES)
+                    .description("Off-heap bytes taken by cache entries")
+                    .register(registry);
+            Gauge.builder("cache.offheap.capacity", getCache(), OffHeapPriceStore::capacityBytes)
+                    .tags(getTagsWithCacheName())
+                    .baseUnit(BaseUnits.BYTES)
+                    .description("Off-heap bytes allocated to the cache")
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,541 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-budget map from {@link PriceQuery} to {@link Price} held outside the Java heap, which also
+ * keeps the last {@link PriceSegment} of each (productId, brandId) pair.
+ * <p>
+ * The budget is split into direct {@link ByteBuffer} segments, each guarded by its own lock and
+ * divided into sets of {@value #WAYS} slots of {@value #SLOT_BYTES} bytes. A query hashes to a
+ * single set, in which it is looked up linearly. A full set evicts its least recently used slot,
+ * so eviction is approximately LRU with no per-entry object on the heap. Each slot holds the
+ * query, its access order, its write time and the price serialised in at most
+ * {@value #MAX_PAYLOAD_BYTES} bytes. Prices that do not fit, such as amounts with more than 63
+ * bits of unscaled value, are simply not stored.
+ * </p>
+ * <p>
+ * A segment takes a slot of its own, keyed by its pair only and holding its bounds before the
+ * price, and is returned for any date it contains. Storing another segment of the pair replaces it.
+ * </p>
+ * <p>
+ * Entries expire a fixed time after being written. {@link #epoch()} lets a caller detect that
+ * entries were invalidated while it was loading a value, in which case
+ * {@link #put(PriceQuery, Price, long)} drops the possibly stale value.
+ * </p>
+ */
+public final class OffHeapPriceStore {
+
+    /**
+     * Slots per set.
+     */
+    static final int WAYS = 8;
+
+    /**
+     * Size of a slot.
+     */
+    static final int SLOT_BYTES = 128;
+
+    /**
+     * Largest segment, kept well under the 2 GiB limit of a buffer.
+     */
+    private static final long MAX_SEGMENT_BYTES = 1L << 30;
+
+    /**
+     * Minimum number of segments, for lock striping.
+     */
+    private static final int MIN_SEGMENTS = 16;
+
+    // Slot layout
+    private static final int PRODUCT_ID = 0;
+    private static final int BRAND_ID = 8;
+    private static final int DATE_SECONDS = 16;
+    private static final int DATE_NANOS = 24;
+    private static final int USED = 28;
+    private static final int LAST_ACCESS = 32;
+    private static final int WRITTEN_AT = 40;
+    private static final int PAYLOAD = 48;
+    private static final int MAX_PAYLOAD_BYTES = SLOT_BYTES - PAYLOAD;
+
+    /**
+     * Serialised size of the bounds of a segment, stored before its price.
+     */
+    private static final int SEGMENT_BOUNDS_BYTES = 2 * (8 + 4);
+
+    // Values of the USED field
+    private static final int FREE = 0;
+    private static final int QUERY_ENTRY = 1;
+    private static final int SEGMENT_ENTRY = 2;
+
+    /**
+     * Serialised size of a price, currency code excluded.
+     */
+    private static final int FIXED_PAYLOAD_BYTES = 8 + 4 + 8 + 4 + 4 + 4 + 8 + 4 + 1;
+
+    private final Segment[] segments;
+    private final long expireAfterWriteNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Allocates a store.
+     *
+     * @param maximumBytes     off-heap budget, counted against {@code -XX:MaxDirectMemorySize}
+     * @param expireAfterWrite time after which an entry is no longer returned
+     * @param nanoClock        source of {@link System#nanoTime()}-like timestamps
+     * @throws IllegalArgumentException if the budget cannot hold a single set
+     */
+    public OffHeapPriceStore(long maximumBytes, Duration expireAfterWrite, LongSupplier nanoClock) {
+        long totalSets = maximumBytes / ((long) SLOT_BYTES * WAYS);
+        if (totalSets < 1) {
+            throw new IllegalArgumentException("Off-heap cache budget of " + maximumBytes + " bytes is below one set of "
+                    + SLOT_BYTES * WAYS + " bytes");
+        }
+        int segmentCount = (int) Math.min(totalSets, Math.max(MIN_SEGMENTS,
+                Long.highestOneBit(maximumBytes / MAX_SEGMENT_BYTES) * 2));
+        int setsPerSegment = (int) (totalSets / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(setsPerSegment);
+        }
+        this.expireAfterWriteNanos = expireAfterWrite.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Returns the price stored for a query, counting a hit or a miss.
+     *
+     * @param query the query
+     * @return the stored price, or {@code null} if absent or expired
+     */
+    public Price get(PriceQuery query) {
+        if (!isStorable(query)) {
+            misses.increment();
+            return null;
+        }
+        long hash = hash(query);
+        Price price = segmentFor(hash).get(query, hash, nanoClock.getAsLong());
+        (price != null ? hits : misses).increment();
+        return price;
+    }
+
+    /**
+     * Returns the stored segment of a pair if it contains a date, counting a hit or a miss.
+     *
+     * @param productId the product ID
+     * @param brandId   the brand ID
+     * @param date      the date the segment must contain
+     * @return the stored segment, or {@code null} if absent, expired or not containing the date
+     */
+    public PriceSegment getSegment(Long productId, Long brandId, LocalDateTime date) {
+        if (productId == null || brandId == null || date == null) {
+            misses.increment();
+            return null;
+        }
+        long hash = hash(productId, brandId);
+        PriceSegment segment = segmentFor(hash).getSegment(productId, brandId, hash, nanoClock.getAsLong());
+        if (segment == null || !segment.contains(date)) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return segment;
+    }
+
+    /**
+     * Returns the invalidation epoch, to be read before loading a value to {@link #put}.
+     *
+     * @return the number of invalidations so far
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Stores the price of a query, unless entries were invalidated since {@code epoch} was read.
+     *
+     * @param query the query
+     * @param price its applicable price
+     * @param epoch the {@link #epoch()} read before the price was loaded
+     * @return {@code true} if the price was stored
+     */
+    public boolean put(PriceQuery query, Price price, long epoch) {
+        if (!isStorable(query) || payloadBytes(price) > MAX_PAYLOAD_BYTES) {
+            return false;
+        }
+        long hash = hash(query);
+        boolean stored = segmentFor(hash).put(query, price, hash, nanoClock.getAsLong(), epoch);
+        if (stored) {
+            puts.increment();
+        }
+        return stored;
+    }
+
+    /**
+     * Stores a segment in place of the one of its pair, unless entries were invalidated since
+     * {@code epoch} was read.
+     *
+     * @param priceSegment the segment
+     * @param epoch        the {@link #epoch()} read before the segment was loaded
+     * @return {@code true} if the segment was stored
+     */
+    public boolean putSegment(PriceSegment priceSegment, long epoch) {
+        Price price = priceSegment.getPrice();
+        if (price == null || priceSegment.getValidFrom() == null || priceSegment.getValidUntil() == null
+                || payloadBytes(price) > MAX_PAYLOAD_BYTES - SEGMENT_BOUNDS_BYTES) {
+            return false;
+        }
+        long hash = hash(price.getProductId(), price.getBrandId());
+        boolean stored = segmentFor(hash).putSegment(priceSegment, hash, nanoClock.getAsLong(), epoch);
+        if (stored) {
+            puts.increment();
+        }
+        return stored;
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void invalidateAll() {
+        epoch.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Removes every entry of the given (productId, brandId) pairs, scanning the whole store.
+     *
+     * @param keys the pairs to remove
+     */
+    public void invalidate(Set<PriceKey> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        epoch.incrementAndGet();
+        for (Segment segment : segments) {
+            segment.removeIf(keys);
+        }
+    }
+
+    /**
+     * Returns the number of stored entries, expired ones included until they are evicted.
+     *
+     * @return the entry count
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.entries;
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes allocated off-heap.
+     *
+     * @return the allocated capacity
+     */
+    public long capacityBytes() {
+        return (long) segments.length * segments[0].buffer.capacity();
+    }
+
+    /**
+     * Returns the number of bytes taken by stored entries.
+     *
+     * @return the occupied bytes
+     */
+    public long usedBytes() {
+        return size() * SLOT_BYTES;
+    }
+
+    /**
+     * Returns the number of lookups that found an entry.
+     *
+     * @return the hit count
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups that found no live entry.
+     *
+     * @return the miss count
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the number of entries stored.
+     *
+     * @return the put count
+     */
+    public long putCount() {
+        return puts.sum();
+    }
+
+    /**
+     * Returns the number of entries evicted to make room or because they expired.
+     *
+     * @return the eviction count
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) ((hash >>> 32) & 0x7fffffffL) % segments.length];
+    }
+
+    private static boolean isStorable(PriceQuery query) {
+        return query.productId() != null && query.brandId() != null && query.date() != null;
+    }
+
+    private static long hash(PriceQuery query) {
+        long hash = (query.productId() * 0x9E3779B97F4A7C15L ^ query.brandId()) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ query.date().toEpochSecond(ZoneOffset.UTC)) * 0x94D049BB133111EBL;
+        hash = (hash ^ query.date().getNano()) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 31);
+    }
+
+    private static long hash(long productId, long brandId) {
+        long hash = (productId * 0x9E3779B97F4A7C15L ^ brandId) * 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Serialised size of a price, or more than {@link #MAX_PAYLOAD_BYTES} if it cannot be stored.
+     */
+    private static int payloadBytes(Price price) {
+        if (price.getBrandId() == null || price.getProductId() == null || price.getStartDate() == null
+                || price.getEndDate() == null || price.getPriceList() == null || price.getPriority() == null
+                || price.getPrice() == null || price.getCurrency() == null
+                || price.getPrice().unscaledValue().bitLength() > 63) {
+            return Integer.MAX_VALUE;
+        }
+        return FIXED_PAYLOAD_BYTES + price.getCurrency().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Independently locked part of the store.
+     */
+    private final class Segment {
+
+        private final ByteBuffer buffer;
+        private final int sets;
+        private long accessClock;
+        private volatile long entries;
+
+        private Segment(int sets) {
+            this.sets = sets;
+            this.buffer = ByteBuffer.allocateDirect(sets * WAYS * SLOT_BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        private synchronized Price get(PriceQuery query, long hash, long now) {
+            int slot = find(query, firstSlot(hash));
+            if (slot < 0 || expired(slot, now)) {
+                return null;
+            }
+            buffer.putLong(slot + LAST_ACCESS, ++accessClock);
+            return read(slot, slot + PAYLOAD);
+        }
+
+        private synchronized PriceSegment getSegment(long productId, long brandId, long hash, long now) {
+            int slot = findSegment(productId, brandId, firstSlot(hash));
+            if (slot < 0 || expired(slot, now)) {
+                return null;
+            }
+            buffer.putLong(slot + LAST_ACCESS, ++accessClock);
+            int at = slot + PAYLOAD;
+            return new PriceSegment(
+                    LocalDateTime.ofEpochSecond(buffer.getLong(at), buffer.getInt(at + 8), ZoneOffset.UTC),
+                    LocalDateTime.ofEpochSecond(buffer.getLong(at + 12), buffer.getInt(at + 20), ZoneOffset.UTC),
+                    read(slot, at + SEGMENT_BOUNDS_BYTES));
+        }
+
+        private synchronized boolean put(PriceQuery query, Price price, long hash, long now, long expectedEpoch) {
+            if (epoch.get() != expectedEpoch) {
+                return false;
+            }
+            int first = firstSlot(hash);
+            int slot = find(query, first);
+            if (slot < 0) {
+                slot = claim(first);
+            }
+            buffer.putLong(slot + PRODUCT_ID, query.productId());
+            buffer.putLong(slot + BRAND_ID, query.brandId());
+            buffer.putLong(slot + DATE_SECONDS, query.date().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(slot + DATE_NANOS, query.date().getNano());
+            buffer.putInt(slot + USED, QUERY_ENTRY);
+            buffer.putLong(slot + LAST_ACCESS, ++accessClock);
+            buffer.putLong(slot + WRITTEN_AT, now);
+            write(slot + PAYLOAD, price);
+            return true;
+        }
+
+        private synchronized boolean putSegment(PriceSegment priceSegment, long hash, long now, long expectedEpoch) {
+            if (epoch.get() != expectedEpoch) {
+                return false;
+            }
+            Price price = priceSegment.getPrice();
+            int first = firstSlot(hash);
+            int slot = findSegment(price.getProductId(), price.getBrandId(), first);
+            if (slot < 0) {
+                slot = claim(first);
+            }
+            buffer.putLong(slot + PRODUCT_ID, price.getProductId());
+            buffer.putLong(slot + BRAND_ID, price.getBrandId());
+            buffer.putInt(slot + USED, SEGMENT_ENTRY);
+            buffer.putLong(slot + LAST_ACCESS, ++accessClock);
+            buffer.putLong(slot + WRITTEN_AT, now);
+            int at = slot + PAYLOAD;
+            buffer.putLong(at, priceSegment.getValidFrom().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(at + 8, priceSegment.getValidFrom().getNano());
+            buffer.putLong(at + 12, priceSegment.getValidUntil().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(at + 20, priceSegment.getValidUntil().getNano());
+            write(at + SEGMENT_BOUNDS_BYTES, price);
+            return true;
+        }
+
+        private synchronized void clear() {
+            for (int slot = 0; slot < buffer.capacity(); slot += SLOT_BYTES) {
+                buffer.putInt(slot + USED, FREE);
+            }
+            entries = 0;
+        }
+
+        private synchronized void removeIf(Set<PriceKey> keys) {
+            for (int slot = 0; slot < buffer.capacity(); slot += SLOT_BYTES) {
+                if (buffer.getInt(slot + USED) != FREE
+                        && keys.contains(new PriceKey(buffer.getLong(slot + PRODUCT_ID), buffer.getLong(slot + BRAND_ID)))) {
+                    free(slot);
+                }
+            }
+        }
+
+        private int firstSlot(long hash) {
+            return (int) ((hash & 0x7fffffffL) % sets) * WAYS * SLOT_BYTES;
+        }
+
+        private int find(PriceQuery query, int first) {
+            long seconds = query.date().toEpochSecond(ZoneOffset.UTC);
+            for (int slot = first; slot < first + WAYS * SLOT_BYTES; slot += SLOT_BYTES) {
+                if (buffer.getInt(slot + USED) == QUERY_ENTRY
+                        && buffer.getLong(slot + PRODUCT_ID) == query.productId()
+                        && buffer.getLong(slot + BRAND_ID) == query.brandId()
+                        && buffer.getLong(slot + DATE_SECONDS) == seconds
+                        && buffer.getInt(slot + DATE_NANOS) == query.date().getNano()) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int findSegment(long productId, long brandId, int first) {
+            for (int slot = first; slot < first + WAYS * SLOT_BYTES; slot += SLOT_BYTES) {
+                if (buffer.getInt(slot + USED) == SEGMENT_ENTRY
+                        && buffer.getLong(slot + PRODUCT_ID) == productId
+                        && buffer.getLong(slot + BRAND_ID) == brandId) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Frees a slot whose entry expired.
+         */
+        private boolean expired(int slot, long now) {
+            if (now - buffer.getLong(slot + WRITTEN_AT) < expireAfterWriteNanos) {
+                return false;
+            }
+            free(slot);
+            evictions.increment();
+            return true;
+        }
+
+        /**
+         * Returns a slot of the set for a new entry, evicting its least recently used one if full.
+         */
+        private int claim(int first) {
+            int slot = victim(first);
+            if (buffer.getInt(slot + USED) != FREE) {
+                evictions.increment();
+            } else {
+                entries++;
+            }
+            return slot;
+        }
+
+        /**
+         * Returns a free slot of the set, or its least recently used one.
+         */
+        private int victim(int first) {
+            int victim = first;
+            for (int slot = first; slot < first + WAYS * SLOT_BYTES; slot += SLOT_BYTES) {
+                if (buffer.getInt(slot + USED) == FREE) {
+                    return slot;
+                }
+                if (buffer.getLong(slot + LAST_ACCESS) < buffer.getLong(victim + LAST_ACCESS)) {
+                    victim = slot;
+                }
+            }
+            return victim;
+        }
+
+        private void free(int slot) {
+            buffer.putInt(slot + USED, FREE);
+            entries--;
+        }
+
+        private void write(int at, Price price) {
+            byte[] currency = price.getCurrency().getBytes(StandardCharsets.UTF_8);
+            BigDecimal amount = price.getPrice();
+            buffer.putLong(at, price.getStartDate().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(at + 8, price.getStartDate().getNano());
+            buffer.putLong(at + 12, price.getEndDate().toEpochSecond(ZoneOffset.UTC));
+            buffer.putInt(at + 20, price.getEndDate().getNano());
+            buffer.putInt(at + 24, price.getPriceList());
+            buffer.putInt(at + 28, price.getPriority());
+            buffer.putLong(at + 32, amount.unscaledValue().longValue());
+            buffer.putInt(at + 40, amount.scale());
+            buffer.put(at + 44, (byte) currency.length);
+            buffer.put(at + 45, currency);
+        }
+
+        private Price read(int slot, int at) {
+            byte[] currency = new byte[buffer.get(at + 44)];
+            buffer.get(at + 45, currency);
+            return new Price(
+                    buffer.getLong(slot + BRAND_ID),
+                    LocalDateTime.ofEpochSecond(buffer.getLong(at), buffer.getInt(at + 8), ZoneOffset.UTC),
+                    LocalDateTime.ofEpochSecond(buffer.getLong(at + 12), buffer.getInt(at + 20), ZoneOffset.UTC),
+                    buffer.getInt(at + 24),
+                    buffer.getLong(slot + PRODUCT_ID),
+                    buffer.getInt(at + 28),
+                    BigDecimal.valueOf(buffer.getLong(at + 32), buffer.getInt(at + 40)),
+                    new String(currency, StandardCharsets.UTF_8));
+        }
+    }
+}
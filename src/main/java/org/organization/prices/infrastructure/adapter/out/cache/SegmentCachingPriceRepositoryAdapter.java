@@ -0,0 +1,292 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caching decorator for a {@link PriceRepositoryPort} that caches validity segments instead of
+ * exact queries.
+ * <p>
+ * Entries are keyed by (productId, brandId) and hold the last resolved {@link PriceSegment}.
+ * Any query whose date falls inside that segment is a hit, whatever minute the client asks for;
+ * a query outside it is a miss that resolves and stores the segment around the new date.
+ * </p>
+ * <p>
+ * Each entry expires individually at the wall-clock instant its segment ends, which is when the
+ * price expires or a higher-priority price list starts, capped by a maximum time to live.
+ * Segments already in the past (historical queries) only expire through that cap. Changed rows
+ * of the price table evict the segment of their product and brand straight away, and a segment
+ * loaded while its product and brand changed is not cached, since it may predate the change.
+ * </p>
+ * <p>
+ * Statistics are published to Micrometer under the {@code cache.*} meters tagged with
+ * {@code cache=price-segments}; a lookup outside the cached segment counts as a miss.
+ * </p>
+ */
+public class SegmentCachingPriceRepositoryAdapter implements PriceRepositoryPort, PriceTableListener {
+
+    /**
+     * Name of the cache in the exported metrics.
+     */
+    static final String CACHE_NAME = "price-segments";
+
+    /**
+     * Number of generation counters the (productId, brandId) pairs are spread over.
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    /**
+     * Decorated repository port.
+     */
+    private final PriceRepositoryPort delegate;
+
+    /**
+     * Last resolved segment per (productId, brandId).
+     */
+    private final Cache<PriceKey, PriceSegment> cache;
+
+    /**
+     * Statistics recorded by hand, since hits depend on the segment covering the query date.
+     */
+    private final ConcurrentStatsCounter stats = new ConcurrentStatsCounter();
+
+    /**
+     * Number of changes per stripe of (productId, brandId) pairs, bumped before their segments are
+     * evicted, so that a load that started before a change does not cache its stale segment.
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * Constructs a new SegmentCachingPriceRepositoryAdapter.
+     *
+     * @param delegate      the repository port to cache
+     * @param maximumSize   maximum number of cached (productId, brandId) pairs
+     * @param maximumTtl    maximum time an entry is kept, whatever its segment end
+     * @param clock         clock used to compare segment ends with the current time
+     * @param meterRegistry registry the cache statistics are published to
+     */
+    public SegmentCachingPriceRepositoryAdapter(PriceRepositoryPort delegate,
+                                                long maximumSize,
+                                                Duration maximumTtl,
+                                                Clock clock,
+                                                MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new SegmentExpiry(maximumTtl, clock))
+                .recordStats(() -> stats)
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Empties the cache, since any cached segment may predate the snapshot.
+     *
+     * @param prices every price of the table
+     */
+    @Override
+    public void onSnapshot(List<Price> prices) {
+        for (int stripe = 0; stripe < GENERATION_STRIPES; stripe++) {
+            generations.incrementAndGet(stripe);
+        }
+        cache.invalidateAll();
+    }
+
+    /**
+     * Evicts the segments of the products and brands with changed rows.
+     *
+     * @param changed the new state of every changed row
+     * @return a Mono that completes once the changes are applied
+     */
+    @Override
+    public Mono<Void> onChange(List<Price> changed) {
+        return Mono.fromRunnable(() -> {
+            Set<PriceKey> keys = new HashSet<>();
+            changed.forEach(price -> keys.add(PriceKey.of(price)));
+            keys.forEach(key -> generations.incrementAndGet(stripe(key)));
+            cache.invalidateAll(keys);
+        });
+    }
+
+    /**
+     * Finds the applicable price, serving it from the cached segment when it covers the date.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        return findApplicableSegment(productId, brandId, date).map(PriceSegment::getPrice);
+    }
+
+    /**
+     * Finds the applicable price segment, serving it from the cache when it covers the date.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return Mono.defer(() -> {
+            PriceKey key = new PriceKey(productId, brandId);
+            PriceSegment cached = cache.asMap().get(key);
+            if (cached != null && cached.contains(date)) {
+                stats.recordHits(1);
+                return Mono.just(cached);
+            }
+            stats.recordMisses(1);
+            int stripe = stripe(key);
+            long generation = generations.get(stripe);
+            long start = System.nanoTime();
+            return delegate.findApplicableSegment(productId, brandId, date)
+                    .doOnNext(segment -> {
+                        stats.recordLoadSuccess(System.nanoTime() - start);
+                        // Checked under the entry lock, so a change either skips the put or evicts it after
+                        cache.asMap().compute(key, (k, current) ->
+                                generations.get(stripe) == generation ? segment : current);
+                    });
+        });
+    }
+
+    /**
+     * Finds the applicable prices for several queries, answering those covered by a cached segment
+     * and resolving the rest through a single batch call to the delegate.
+     * <p>
+     * The batch call returns prices rather than segments, so it does not populate the cache.
+     * </p>
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        return Mono.defer(() -> {
+            Map<PriceQuery, Price> result = new HashMap<>();
+            List<PriceQuery> missing = new ArrayList<>();
+            for (PriceQuery query : queries) {
+                PriceSegment cached = cache.asMap().get(query.key());
+                if (cached != null && cached.contains(query.date())) {
+                    result.put(query, cached.getPrice());
+                } else {
+                    missing.add(query);
+                }
+            }
+            stats.recordHits(queries.size() - missing.size());
+            stats.recordMisses(missing.size());
+            if (missing.isEmpty()) {
+                return Mono.just(result);
+            }
+            return delegate.findApplicablePrices(missing)
+                    .map(loaded -> {
+                        result.putAll(loaded);
+                        return result;
+                    });
+        });
+    }
+
+    /**
+     * Retrieves all prices straight from the delegate.
+     *
+     * @return a Flux emitting all prices
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return delegate.getAll();
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the delegate.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching prices
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return delegate.streamAll(filter);
+    }
+
+    /**
+     * Finds the generation counter of a (productId, brandId) pair.
+     *
+     * @param key the pair
+     * @return the index of its counter in {@link #generations}
+     */
+    private static int stripe(PriceKey key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    /**
+     * Computes how long a segment may stay cached.
+     *
+     * @param segment    the cached segment
+     * @param now        the current time
+     * @param maximumTtl the maximum time to live
+     * @return the time left until the segment ends, capped by {@code maximumTtl}
+     */
+    static Duration timeToLive(PriceSegment segment, LocalDateTime now, Duration maximumTtl) {
+        if (!segment.getValidUntil().isAfter(now)) {
+            // Historical segment: its content will not change with time, only through data updates
+            return maximumTtl;
+        }
+        Duration left = Duration.between(now, segment.getValidUntil());
+        return left.compareTo(maximumTtl) < 0 ? left : maximumTtl;
+    }
+
+    /**
+     * Expires every entry when its segment ends.
+     */
+    private static final class SegmentExpiry implements Expiry<PriceKey, PriceSegment> {
+
+        private final Duration maximumTtl;
+        private final Clock clock;
+
+        private SegmentExpiry(Duration maximumTtl, Clock clock) {
+            this.maximumTtl = maximumTtl;
+            this.clock = clock;
+        }
+
+        @Override
+        public long expireAfterCreate(PriceKey key, PriceSegment segment, long currentTime) {
+            return timeToLive(segment, LocalDateTime.now(clock), maximumTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(PriceKey key, PriceSegment segment, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, segment, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(PriceKey key, PriceSegment segment, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
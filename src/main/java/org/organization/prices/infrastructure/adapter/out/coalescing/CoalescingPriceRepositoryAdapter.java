@@ -0,0 +1,156 @@
+package org.organization.prices.infrastructure.adapter.out.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-flight decorator for a {@link PriceRepositoryPort}.
+ * <p>
+ * Concurrent lookups of the same (productId, brandId, date) share one in-flight call to the
+ * delegate: the first one (the leader) starts it, and every lookup arriving before it completes
+ * waits for the same result. The flight is forgotten as soon as it completes, so nothing is
+ * cached and later lookups start a new one.
+ * </p>
+ * <p>
+ * The leader's call is not cancelled when its subscriber goes away, since other lookups may be
+ * waiting on it. Leaders and deduplicated lookups are counted under the
+ * {@code prices.lookup.coalescing} meter, tagged with {@code result=leader|deduplicated}, and the
+ * number of flights in progress is exposed as {@code prices.lookup.inflight}.
+ * </p>
+ */
+public class CoalescingPriceRepositoryAdapter implements PriceRepositoryPort {
+
+    /**
+     * Decorated repository port.
+     */
+    private final PriceRepositoryPort delegate;
+
+    /**
+     * Flights in progress by query.
+     */
+    private final Map<PriceQuery, CompletableFuture<Price>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Lookups that started a flight.
+     */
+    private final Counter leaders;
+
+    /**
+     * Lookups that joined a flight in progress.
+     */
+    private final Counter deduplicated;
+
+    /**
+     * Constructs a new CoalescingPriceRepositoryAdapter.
+     *
+     * @param delegate      the repository port whose lookups are coalesced
+     * @param meterRegistry registry the coalescing metrics are published to
+     */
+    public CoalescingPriceRepositoryAdapter(PriceRepositoryPort delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.leaders = Counter.builder("prices.lookup.coalescing")
+                .description("Price lookups by whether they started or joined an in-flight query")
+                .tag("result", "leader")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("prices.lookup.coalescing")
+                .description("Price lookups by whether they started or joined an in-flight query")
+                .tag("result", "deduplicated")
+                .register(meterRegistry);
+        Gauge.builder("prices.lookup.inflight", inFlight, Map::size)
+                .description("Distinct price lookups currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Finds the applicable price, joining the in-flight lookup of the same query if there is one.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        return Mono.defer(() -> {
+            PriceQuery query = new PriceQuery(productId, brandId, date);
+            CompletableFuture<Price> flight = new CompletableFuture<>();
+            CompletableFuture<Price> existing = inFlight.putIfAbsent(query, flight);
+            if (existing != null) {
+                deduplicated.increment();
+                return Mono.fromFuture(existing, true);
+            }
+            leaders.increment();
+            delegate.findApplicablePrice(productId, brandId, date)
+                    .toFuture()
+                    .whenComplete((price, error) -> {
+                        // Forget the flight before completing it, so late arrivals start a new one
+                        inFlight.remove(query, flight);
+                        if (error != null) {
+                            flight.completeExceptionally(error);
+                        } else {
+                            flight.complete(price);
+                        }
+                    });
+            return Mono.fromFuture(flight, true);
+        });
+    }
+
+    /**
+     * Finds the applicable price segment straight from the delegate.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return delegate.findApplicableSegment(productId, brandId, date);
+    }
+
+    /**
+     * Finds the applicable prices for several queries straight from the delegate.
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        return delegate.findApplicablePrices(queries);
+    }
+
+    /**
+     * Retrieves all prices straight from the delegate.
+     *
+     * @return a Flux emitting all prices
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return delegate.getAll();
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the delegate.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a Flux emitting the matching prices
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return delegate.streamAll(filter);
+    }
+}
@@ -0,0 +1,198 @@
+package org.organization.prices.infrastructure.adapter.out.handoff;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.PriceEventHandoffPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.usecase.StorePriceEventUseCase;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PriceEventHandoffPort} that takes price events off the response path.
+ * <p>
+ * {@link #handOff(Price, LocalDateTime)} only queues the event, and completes as soon as it is
+ * queued, so that a response never waits on the event store or on Kafka. A dedicated worker
+ * thread drains the queue through the {@link StorePriceEventUseCase}, handling at most
+ * {@code concurrency} events at once.
+ * </p>
+ * <ul>
+ *   <li>The queue holds at most {@code capacity} events. When it is full, the event is
+ *       dropped.</li>
+ *   <li>On shutdown, the queue is closed and every event in it is handled before the event
+ *       store and the publisher go away, waiting at most {@code shutdownTimeout}.</li>
+ * </ul>
+ * <p>
+ * Events waiting for the worker are exported as {@code prices.events.handoff.queue.size}, and
+ * every handed over event is counted as {@code prices.events.handoff} tagged with
+ * {@code outcome=accepted|dropped}.
+ * </p>
+ */
+@Slf4j
+public class AsyncPriceEventHandoffAdapter implements PriceEventHandoffPort {
+
+    /**
+     * Use case storing and publishing the events.
+     */
+    private final StorePriceEventUseCase storeEventUseCase;
+
+    /**
+     * Maximum number of events waiting for the worker.
+     */
+    private final int capacity;
+
+    /**
+     * Maximum time {@link #stop()} waits for the queue to be handled.
+     */
+    private final Duration shutdownTimeout;
+
+    /**
+     * Number of events waiting for the worker.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Entry point of the worker pipeline, {@code null} once it is closed.
+     */
+    private volatile FluxSink<QueuedEvent> events;
+
+    /**
+     * Completed once the worker pipeline has handled its last event.
+     */
+    private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+    /**
+     * Thread the queue is drained on.
+     */
+    private final Scheduler worker;
+
+    private final Counter accepted;
+    private final Counter dropped;
+
+    /**
+     * Constructs a new AsyncPriceEventHandoffAdapter and starts its worker.
+     *
+     * @param storeEventUseCase the use case storing and publishing the events
+     * @param capacity          the maximum number of events waiting for the worker
+     * @param concurrency       the maximum number of events handled at once
+     * @param shutdownTimeout   the maximum time to handle the queue on shutdown
+     * @param meterRegistry     the registry the handoff metrics are published to
+     */
+    public AsyncPriceEventHandoffAdapter(StorePriceEventUseCase storeEventUseCase,
+                                         int capacity,
+                                         int concurrency,
+                                         Duration shutdownTimeout,
+                                         MeterRegistry meterRegistry) {
+        this.storeEventUseCase = storeEventUseCase;
+        this.capacity = capacity;
+        this.shutdownTimeout = shutdownTimeout;
+        this.worker = Schedulers.newSingle("price-event-handoff", true);
+
+        this.accepted = handoffCounter("accepted", meterRegistry);
+        this.dropped = handoffCounter("dropped", meterRegistry);
+        Gauge.builder("prices.events.handoff.queue.size", queued, AtomicInteger::get)
+                .description("Price events waiting to be stored and published")
+                .register(meterRegistry);
+
+        // Events leave the queue only when the worker has room for them, so the bound holds
+        Flux.<QueuedEvent>create(sink -> {
+                    events = sink;
+                    sink.onDispose(() -> events = null);
+                })
+                .publishOn(worker, concurrency)
+                .doOnNext(event -> queued.decrementAndGet())
+                .flatMap(this::handle, concurrency)
+                .subscribe(null,
+                        e -> {
+                            log.error("Price event handoff stopped: {}", e.getMessage());
+                            drained.complete(null);
+                        },
+                        () -> drained.complete(null));
+    }
+
+    /**
+     * Queues the event of a price query for the worker.
+     *
+     * @param price     the price result obtained from a query
+     * @param queryDate the date when the query was made
+     * @return a Mono that completes once the event is queued, or dropped
+     */
+    @Override
+    public Mono<Void> handOff(Price price, LocalDateTime queryDate) {
+        return Mono.fromRunnable(() -> {
+            FluxSink<QueuedEvent> current = events;
+            if (current == null || queued.incrementAndGet() > capacity) {
+                if (current != null) {
+                    queued.decrementAndGet();
+                }
+                dropped.increment();
+                log.debug("Price event dropped: productId={}, brandId={}",
+                        price.getProductId(), price.getBrandId());
+                return;
+            }
+            accepted.increment();
+            current.next(new QueuedEvent(price, queryDate));
+        });
+    }
+
+    /**
+     * Closes the queue and waits for every queued event to be handled.
+     */
+    @PreDestroy
+    public void stop() {
+        FluxSink<QueuedEvent> current = events;
+        if (current != null) {
+            current.complete();
+        }
+        try {
+            drained.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Price events still queued for handoff after {}: {}", shutdownTimeout, queued.get());
+        } catch (ExecutionException e) {
+            log.error("Price event handoff failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            worker.dispose();
+        }
+    }
+
+    /**
+     * Stores and publishes a queued event, so that a failure never stops the worker.
+     */
+    private Mono<Void> handle(QueuedEvent event) {
+        return Mono.defer(() -> storeEventUseCase.storeEvent(event.price(), event.queryDate()))
+                .onErrorResume(e -> {
+                    log.error("Failed to hand off price event: productId={}, brandId={}: {}",
+                            event.price().getProductId(), event.price().getBrandId(), e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static Counter handoffCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("prices.events.handoff")
+                .description("Price events handed over to be stored and published")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Event of a price query waiting for the worker.
+     */
+    private record QueuedEvent(Price price, LocalDateTime queryDate) {
+    }
+}
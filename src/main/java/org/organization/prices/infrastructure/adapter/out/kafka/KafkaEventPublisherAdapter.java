@@ -1,24 +1,59 @@
 package org.organization.prices.infrastructure.adapter.out.kafka;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.organization.prices.application.port.CircuitBreakerPort;
 import org.organization.prices.application.port.EventPublisherPort;
 import org.organization.prices.domain.execption.PriceNotFoundException;
 import org.organization.prices.domain.model.PriceEvent;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.crossstore.ChangeSetPersister;
 import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.kafka.sender.KafkaSender;
 import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.util.retry.Retry;
 
-import java.util.UUID;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Adapter implementation of {@link EventPublisherPort} that publishes PriceEvent messages to Kafka.
  * <p>
- * This component sends events asynchronously using Reactor Kafka and applies a circuit breaker pattern
- * to handle failures gracefully. It can be enabled or disabled via configuration.
+ * Events are pushed into a single long-lived stream, sent by one {@link KafkaSender#send}
+ * subscription for the lifetime of the application, so that publishing an event costs no more
+ * than queuing it. The producer batches, compresses and bounds the records in flight as set up
+ * in {@link org.organization.prices.infrastructure.config.KafkaReactiveConfig}. Each record
+ * carries the sink its caller waits on, completed when the broker acknowledges the record.
+ * </p>
+ * <p>
+ * Request threads queue their records through the serialized {@link FluxSink} of the stream,
+ * which never makes them wait on each other. At most {@code buffer-size} events wait to be
+ * handed to the producer; beyond that, or when the circuit breaker is open, events are dropped
+ * by the fallback. The stream is restarted should the producer fail, failing the records it
+ * still held, and drained on shutdown; a record not acknowledged within {@code send-timeout}
+ * fails as well, so that no caller waits forever. It can be enabled or disabled via
+ * configuration.
+ * </p>
+ * <p>
+ * Records are keyed by product and brand, and spread over the partitions of the topic by the
+ * producer partitioner, which {@code organization.kafka.producer.partitioner} picks; acknowledged
+ * records are counted as {@code prices.events.kafka.sent}, tagged with their partition.
  * </p>
  */
 @Component
@@ -40,36 +75,99 @@ public class KafkaEventPublisherAdapter implements EventPublisherPort {
      */
     private boolean kafkaEnabled;
 
+    /**
+     * Maximum number of records waiting to be handed to the producer.
+     */
+    private final int bufferSize;
+
+    /**
+     * Number of records waiting to be handed to the producer.
+     */
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    /**
+     * Sinks of the records queued or in flight, failed should the sending stream terminate
+     * before acknowledging them.
+     */
+    private final Set<Sinks.Empty<Void>> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Maximum time a caller waits for its record to be acknowledged.
+     */
+    private final Duration sendTimeout;
+
+    /**
+     * Entry point of the current subscription of the sending stream, each record carrying the
+     * sink of its caller; {@code null} while the stream is not subscribed.
+     */
+    private volatile FluxSink<SenderRecord<String, PriceEvent, Sinks.Empty<Void>>> records;
+
+    /**
+     * Completed once the sending stream has terminated.
+     */
+    private final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+    /**
+     * Running sending stream, {@code null} when publishing is disabled.
+     */
+    private final Disposable sending;
+
     /**
      * Kafka topic to which price events are published.
      */
     private static final String TOPIC = "priceTopic";
 
+    /**
+     * Registry the per-partition send counters are published to.
+     */
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Acknowledged records of each partition, created as partitions are first written to.
+     */
+    private final Map<Integer, Counter> sentByPartition = new ConcurrentHashMap<>();
+
     /**
      * Circuit breaker instance name used for Kafka publishing.
      */
     private static final String CIRCUIT_BREAKER_NAME = "kafkaPublisher";
 
     /**
-     * Constructs a new KafkaEventPublisherAdapter.
+     * Maximum time to wait on shutdown for the queued events to be acknowledged.
+     */
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    /**
+     * Constructs a new KafkaEventPublisherAdapter and starts its sending stream.
      *
      * @param kafkaSender       the Kafka sender instance
      * @param circuitBreakerPort the circuit breaker port for fault tolerance
      * @param kafkaEnabled       flag indicating whether Kafka publishing is enabled (from config)
+     * @param bufferSize         maximum number of events waiting to be handed to the producer (from config)
+     * @param sendTimeout        maximum time to wait for an event to be acknowledged (from config)
+     * @param meterRegistry      the registry the per-partition send counters are published to
      */
     public KafkaEventPublisherAdapter(KafkaSender<String, PriceEvent> kafkaSender,
                                       CircuitBreakerPort circuitBreakerPort,
-                                      @Value("${spring.kafka.enabled:true}") boolean kafkaEnabled) {
+                                      @Value("${spring.kafka.enabled:true}") boolean kafkaEnabled,
+                                      @Value("${organization.kafka.producer.buffer-size:10000}") int bufferSize,
+                                      @Value("${organization.kafka.producer.send-timeout:30s}") Duration sendTimeout,
+                                      MeterRegistry meterRegistry) {
         this.kafkaSender = kafkaSender;
+        this.meterRegistry = meterRegistry;
         this.circuitBreakerPort = circuitBreakerPort;
         this.kafkaEnabled = kafkaEnabled;
+        this.bufferSize = bufferSize;
+        this.sendTimeout = sendTimeout;
+        this.sending = kafkaEnabled ? startSending() : null;
     }
 
     /**
      * Publishes a {@link PriceEvent} to the configured Kafka topic asynchronously.
      * <p>
      * If Kafka publishing is disabled, this method returns an empty Mono immediately.
-     * The publishing process is wrapped with a circuit breaker to manage failures.
+     * The event is queued on the sending stream under the circuit breaker, and the Mono
+     * completes once the broker acknowledges it.
      * </p>
      *
      * @param event the price event to publish
@@ -81,23 +179,172 @@ public class KafkaEventPublisherAdapter implements EventPublisherPort {
             return Mono.empty();
         }
 
-        // Creates a SenderRecord with key, value and a UUID correlation id (optional)
-        SenderRecord<String, PriceEvent, UUID> record = SenderRecord.create(
+        return send(event).onErrorResume(this::publishEventFallback);
+    }
+
+    /**
+     * Sends a {@link PriceEvent} to the configured Kafka topic, reporting any failure.
+     * <p>
+     * Unlike {@link #publishEvent(PriceEvent)}, the event is not dropped when it cannot be sent:
+     * the Mono fails instead, so that callers keeping their own copy of the event, such as the
+     * outbox relay, can send it again later.
+     * </p>
+     *
+     * @param event the price event to send
+     * @return a {@link Mono} that completes once the broker acknowledges the event
+     */
+    public Mono<Void> send(PriceEvent event) {
+        if (!kafkaEnabled) {
+            return Mono.error(new IllegalStateException("Kafka publishing is disabled"));
+        }
+        return circuitBreakerPort.executeCircuitBreaker(
+                CIRCUIT_BREAKER_NAME,
+                Mono.defer(() -> enqueue(event)),
+                PriceNotFoundException.class
+        );
+    }
+
+    /**
+     * Tells whether events are published to Kafka at all.
+     *
+     * @return {@code true} when Kafka publishing is enabled
+     */
+    public boolean isEnabled() {
+        return kafkaEnabled;
+    }
+
+    /**
+     * Completes the sending stream and waits for the queued events to be acknowledged.
+     */
+    @PreDestroy
+    public void stop() {
+        if (sending == null) {
+            return;
+        }
+        FluxSink<?> current = records;
+        if (current != null) {
+            current.complete();
+        }
+        try {
+            drained.get(SHUTDOWN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Price events still unacknowledged by Kafka after {}", SHUTDOWN_TIMEOUT);
+            sending.dispose();
+        } catch (ExecutionException e) {
+            log.error("Kafka sending stream failed: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Subscribes the sender to the records, resubscribing after a failure of the producer.
+     * <p>
+     * The records a terminated subscription still held are lost with it: their callers are
+     * failed, and the buffer starts empty again with the next subscription.
+     * </p>
+     */
+    private Disposable startSending() {
+        Flux<SenderRecord<String, PriceEvent, Sinks.Empty<Void>>> stream = Flux
+                .<SenderRecord<String, PriceEvent, Sinks.Empty<Void>>>create(sink -> {
+                    buffered.set(0);
+                    records = sink;
+                    sink.onDispose(() -> records = null);
+                })
+                .doOnNext(record -> buffered.decrementAndGet());
+        return kafkaSender.send(stream)
+                .doOnError(e -> log.error("Kafka sending stream failed, restarting: {}", e.getMessage()))
+                .doFinally(signal -> failPending(signal.name()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe(this::acknowledge,
+                        e -> drained.completeExceptionally(e),
+                        () -> drained.complete(null));
+    }
+
+    /**
+     * Queues a record for the event, returning the Mono completed by its acknowledgement.
+     */
+    private Mono<Void> enqueue(PriceEvent event) {
+        Sinks.Empty<Void> acknowledged = Sinks.empty();
+        SenderRecord<String, PriceEvent, Sinks.Empty<Void>> record = SenderRecord.create(
                 TOPIC,
                 null,
                 null,
-                event.getProductId().toString(),
+                key(event),
                 event,
-                UUID.randomUUID()
+                acknowledged
         );
+        FluxSink<SenderRecord<String, PriceEvent, Sinks.Empty<Void>>> current = records;
+        if (current == null || current.isCancelled()) {
+            return Mono.error(new RejectedExecutionException("Kafka sending stream not running"));
+        }
+        if (buffered.incrementAndGet() > bufferSize) {
+            buffered.decrementAndGet();
+            return Mono.error(new RejectedExecutionException("Kafka sending buffer full"));
+        }
+        pending.add(acknowledged);
+        current.next(record);
+        if (current.isCancelled()) {
+            // The stream terminated meanwhile, possibly after failing the pending records
+            pending.remove(acknowledged);
+            return Mono.error(new RejectedExecutionException("Kafka sending stream not running"));
+        }
+        return acknowledged.asMono()
+                .timeout(sendTimeout)
+                .doFinally(signal -> pending.remove(acknowledged));
+    }
 
-        return circuitBreakerPort.executeCircuitBreaker(
-                CIRCUIT_BREAKER_NAME,
-                kafkaSender.send(Mono.just(record))
-                        .then()
-                        .onErrorResume(this::publishEventFallback),
-                PriceNotFoundException.class
-        );
+    /**
+     * Fails the callers of the records a terminated subscription of the sending stream held.
+     */
+    private void failPending(String signal) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        RejectedExecutionException failure =
+                new RejectedExecutionException("Kafka sending stream terminated (" + signal + ")");
+        int failed = 0;
+        for (Iterator<Sinks.Empty<Void>> iterator = pending.iterator(); iterator.hasNext(); ) {
+            Sinks.Empty<Void> sink = iterator.next();
+            iterator.remove();
+            sink.tryEmitError(failure);
+            failed++;
+        }
+        log.warn("{} price events not acknowledged by Kafka before the sending stream terminated", failed);
+    }
+
+    /**
+     * Returns the key of the record of an event, its product and brand, which the partitioner
+     * hashes so that the events of a product and brand stay in order.
+     *
+     * @param event the event
+     * @return the record key
+     */
+    static String key(PriceEvent event) {
+        return event.getProductId() + ":" + event.getBrandId();
+    }
+
+    private Counter sentCounter(int partition) {
+        return sentByPartition.computeIfAbsent(partition, p -> Counter.builder("prices.events.kafka.sent")
+                .description("Price events acknowledged by Kafka")
+                .tag("partition", String.valueOf(p))
+                .register(meterRegistry));
+    }
+
+    /**
+     * Completes the caller of an acknowledged or failed record.
+     */
+    private void acknowledge(SenderResult<Sinks.Empty<Void>> result) {
+        pending.remove(result.correlationMetadata());
+        Exception exception = result.exception();
+        if (exception == null) {
+            if (result.recordMetadata() != null) {
+                sentCounter(result.recordMetadata().partition()).increment();
+            }
+            result.correlationMetadata().tryEmitEmpty();
+        } else {
+            result.correlationMetadata().tryEmitError(exception);
+        }
     }
 
     /**
@@ -113,4 +360,4 @@ public class KafkaEventPublisherAdapter implements EventPublisherPort {
         log.warn("Kafka unavailable, event not published. Error: {}", t.getMessage());
         return Mono.empty();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,100 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.partitioning;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch of recent key frequencies, telling the heavy hitters apart in constant memory.
+ * <p>
+ * Each key is counted in one cell of each of {@code depth} rows of {@code width} counters, and
+ * its count is estimated as the smallest of its cells, which never underestimates it and
+ * overestimates it by at most a few times {@code total / width}. {@link #decay()} halves every
+ * counter, so that counts fade with the age of the keys rather than grow forever. Counting is
+ * lock-free; a decay racing with increments may lose some of them, which only makes estimates a
+ * little lower.
+ * </p>
+ */
+public final class HeavyHitterSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L,
+            0xFF51AFD7ED558CCDL, 0xC4CEB9FE1A85EC53L, 0x94D049BB133111EBL, 0xBF58476D1CE4E5B9L
+    };
+
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+    private final AtomicLong total = new AtomicLong();
+
+    /**
+     * Constructs an empty sketch.
+     *
+     * @param depth the number of rows, at most 8
+     * @param width the number of counters of each row, rounded up to a power of two
+     */
+    public HeavyHitterSketch(int depth, int width) {
+        if (depth < 1 || depth > SEEDS.length || width < 1) {
+            throw new IllegalArgumentException("Invalid sketch size: depth=" + depth + ", width=" + width);
+        }
+        int rowWidth = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = rowWidth - 1;
+        this.counters = new AtomicLongArray(depth * rowWidth);
+    }
+
+    /**
+     * Counts one occurrence of a key.
+     *
+     * @param key the key
+     * @return the estimated count of the key, including this occurrence
+     */
+    public long add(long key) {
+        total.incrementAndGet();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated count of a key.
+     *
+     * @param key the key
+     * @return the estimated count, never below the real one since the last decay
+     */
+    public long estimate(long key) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, key)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the number of occurrences counted, halved at each decay like the counters.
+     *
+     * @return the total count
+     */
+    public long total() {
+        return total.get();
+    }
+
+    /**
+     * Halves every counter and the total.
+     */
+    public void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        total.getAndUpdate(count -> count >>> 1);
+    }
+
+    private int index(int row, long key) {
+        long hash = (key ^ SEEDS[row]) * 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return row * (mask + 1) + (int) (hash & mask);
+    }
+}
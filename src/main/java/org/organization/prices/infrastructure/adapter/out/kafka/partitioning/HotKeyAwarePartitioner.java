@@ -0,0 +1,140 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.partitioning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+import org.organization.prices.domain.model.PriceEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Kafka {@link Partitioner} that spreads the events of hot products over several partitions.
+ * <p>
+ * Every event is counted against its product in a {@link HeavyHitterSketch} decayed every
+ * {@value #DECAY_INTERVAL_CONFIG}. A product is hot once the sketch has seen at least
+ * {@value #MIN_EVENTS_CONFIG} recent events and the product makes up at least
+ * {@value #HOT_SHARE_CONFIG} of them. The events of a hot product go to a random one of
+ * {@value #SPREAD_CONFIG} consecutive partitions starting from the partition of the product, so
+ * that no single partition, nor the consumer reading it, takes its whole stream; those events
+ * lose their order. Every other event goes to the partition the default partitioner picks for
+ * its key, the product and brand, which keeps them in order for each product and brand.
+ * </p>
+ */
+@Slf4j
+public class HotKeyAwarePartitioner implements Partitioner {
+
+    /**
+     * Share of the recent events above which a product is hot, 0.05 by default.
+     */
+    public static final String HOT_SHARE_CONFIG = "organization.partitioner.hot-share";
+
+    /**
+     * Number of recent events below which no product is hot, 1000 by default.
+     */
+    public static final String MIN_EVENTS_CONFIG = "organization.partitioner.min-events";
+
+    /**
+     * Number of partitions the events of a hot product are spread over, 4 by default.
+     */
+    public static final String SPREAD_CONFIG = "organization.partitioner.spread";
+
+    /**
+     * Time after which the counts are halved, as a {@link Duration} or in milliseconds, 10s by default.
+     */
+    public static final String DECAY_INTERVAL_CONFIG = "organization.partitioner.decay-interval";
+
+    private HeavyHitterSketch sketch = new HeavyHitterSketch(4, 2048);
+    private double hotShare = 0.05;
+    private long minEvents = 1000;
+    private int spread = 4;
+    private long decayIntervalNanos = Duration.ofSeconds(10).toNanos();
+    private final AtomicLong nextDecay = new AtomicLong(System.nanoTime() + decayIntervalNanos);
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        Object value = configs.get(HOT_SHARE_CONFIG);
+        if (value != null) {
+            hotShare = Double.parseDouble(value.toString());
+        }
+        value = configs.get(MIN_EVENTS_CONFIG);
+        if (value != null) {
+            minEvents = Long.parseLong(value.toString());
+        }
+        value = configs.get(SPREAD_CONFIG);
+        if (value != null) {
+            spread = Integer.parseInt(value.toString());
+        }
+        value = configs.get(DECAY_INTERVAL_CONFIG);
+        if (value != null) {
+            decayIntervalNanos = value instanceof Duration duration
+                    ? duration.toNanos()
+                    : Duration.ofMillis(Long.parseLong(value.toString())).toNanos();
+        }
+        if (hotShare <= 0 || hotShare > 1 || spread < 1 || decayIntervalNanos <= 0) {
+            throw new IllegalArgumentException("Invalid hot key partitioner settings: hotShare=" + hotShare
+                    + ", spread=" + spread + ", decayInterval=" + Duration.ofNanos(decayIntervalNanos));
+        }
+        sketch = new HeavyHitterSketch(4, 2048);
+        nextDecay.set(System.nanoTime() + decayIntervalNanos);
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes,
+                         Cluster cluster) {
+        int partitions = cluster.partitionsForTopic(topic).size();
+        return partition(keyBytes, value instanceof PriceEvent event ? event.getProductId() : null, partitions);
+    }
+
+    /**
+     * Picks the partition of a record.
+     *
+     * @param keyBytes   the serialized key of the record
+     * @param productId  the product of the event, {@code null} if unknown
+     * @param partitions the number of partitions of the topic
+     * @return the partition
+     */
+    int partition(byte[] keyBytes, Long productId, int partitions) {
+        if (productId != null) {
+            decayIfDue();
+            long count = sketch.add(productId);
+            long total = sketch.total();
+            if (partitions > 1 && spread > 1 && total >= minEvents && count >= hotShare * total) {
+                int first = Utils.toPositive(Long.hashCode(productId) * 0x9E3779B9) % partitions;
+                return (first + ThreadLocalRandom.current().nextInt(Math.min(spread, partitions))) % partitions;
+            }
+        }
+        if (keyBytes == null) {
+            return ThreadLocalRandom.current().nextInt(partitions);
+        }
+        // The partition the default partitioner gives a keyed record
+        return Utils.toPositive(Utils.murmur2(keyBytes)) % partitions;
+    }
+
+    /**
+     * Returns whether a product is hot.
+     *
+     * @param productId the product
+     * @return whether its events are spread over several partitions
+     */
+    public boolean isHot(long productId) {
+        long total = sketch.total();
+        return total >= minEvents && sketch.estimate(productId) >= hotShare * total;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private void decayIfDue() {
+        long due = nextDecay.get();
+        long now = System.nanoTime();
+        if (now - due >= 0 && nextDecay.compareAndSet(due, now + decayIntervalNanos)) {
+            sketch.decay();
+            log.debug("Hot key sketch decayed: {} recent events", sketch.total());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.organization.prices.domain.model.PriceEvent;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+/**
+ * Spring Kafka {@link JsonSerializer} for {@link PriceEvent} that also tags each record with the
+ * {@value PriceEventContentType#JSON} content type.
+ */
+public class JsonPriceEventSerializer extends JsonSerializer<PriceEvent> {
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, PriceEvent data) {
+        byte[] value = super.serialize(topic, headers, data);
+        if (value != null) {
+            PriceEventContentType.set(headers, PriceEventContentType.JSON);
+        }
+        return value;
+    }
+}
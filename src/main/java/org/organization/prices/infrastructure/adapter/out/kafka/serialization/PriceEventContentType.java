@@ -0,0 +1,55 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.serialization;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Content types of the price event records, carried in their {@value #HEADER} header so that
+ * consumers can tell the encodings apart.
+ */
+public final class PriceEventContentType {
+
+    /**
+     * Name of the record header holding the content type.
+     */
+    public static final String HEADER = "content-type";
+
+    /**
+     * Events written by {@link JsonPriceEventSerializer}.
+     */
+    public static final String JSON = "application/json";
+
+    /**
+     * Events written by {@link ProtobufPriceEventSerializer}, as {@code PriceEvent} messages of
+     * {@code price_event.proto}.
+     */
+    public static final String PROTOBUF = "application/x-protobuf";
+
+    private PriceEventContentType() {
+    }
+
+    /**
+     * Sets the content type header of a record, replacing any previous one.
+     *
+     * @param headers     the headers of the record, ignored if {@code null}
+     * @param contentType the content type of the record value
+     */
+    static void set(Headers headers, String contentType) {
+        if (headers != null) {
+            headers.remove(HEADER).add(HEADER, contentType.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Returns the content type of a record.
+     *
+     * @param headers the headers of the record, may be {@code null}
+     * @return the content type, or {@code null} if the record has none
+     */
+    static String of(Headers headers) {
+        Header header = headers != null ? headers.lastHeader(HEADER) : null;
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+}
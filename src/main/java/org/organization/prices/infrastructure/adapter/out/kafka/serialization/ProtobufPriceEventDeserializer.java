@@ -0,0 +1,120 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.serialization;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Timestamp;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.kafka.proto.PriceEventProto;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Kafka {@link Deserializer} reading the {@link PriceEvent}s written by
+ * {@link ProtobufPriceEventSerializer}.
+ * <p>
+ * Records tagged with the {@value PriceEventContentType#JSON} content type are read as JSON
+ * instead, so that a consumer can go on reading the topic while producers switch encodings.
+ * Records without a content type are taken as protobuf.
+ * </p>
+ */
+public class ProtobufPriceEventDeserializer implements Deserializer<PriceEvent> {
+
+    /**
+     * Deserializer of the records written as JSON.
+     */
+    private final JsonDeserializer<PriceEvent> jsonDeserializer = new JsonDeserializer<>(PriceEvent.class, false);
+
+    @Override
+    public PriceEvent deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public PriceEvent deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (PriceEventContentType.JSON.equals(PriceEventContentType.of(headers))) {
+            return jsonDeserializer.deserialize(topic, data);
+        }
+        try {
+            return fromMessage(PriceEventProto.PriceEvent.parseFrom(data));
+        } catch (InvalidProtocolBufferException e) {
+            throw new SerializationException("Invalid protobuf price event on " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonDeserializer.close();
+    }
+
+    /**
+     * Converts a protobuf message back to an event.
+     *
+     * @param message the message to convert
+     * @return the event, with {@code null} for every field left unset
+     */
+    static PriceEvent fromMessage(PriceEventProto.PriceEvent message) {
+        PriceEvent.PriceEventBuilder event = PriceEvent.builder();
+        if (message.hasProductId()) {
+            event.productId(message.getProductId());
+        }
+        if (message.hasBrandId()) {
+            event.brandId(message.getBrandId());
+        }
+        if (message.hasPriceList()) {
+            event.priceList(message.getPriceList());
+        }
+        if (message.hasQueryDate()) {
+            event.queryDate(toDateTime(message.getQueryDate()));
+        }
+        if (message.hasPrice()) {
+            event.price(toBigDecimal(message.getPrice()));
+        }
+        switch (message.getEventTypeCase()) {
+            case TYPE -> event.eventType(message.getType().name());
+            case TYPE_NAME -> event.eventType(message.getTypeName());
+            default -> {
+            }
+        }
+        if (message.hasCreatedAt()) {
+            event.createdAt(toDateTime(message.getCreatedAt()));
+        }
+        if (message.hasEventCount()) {
+            event.eventCount(message.getEventCount());
+        }
+        if (message.hasWindowStart()) {
+            event.windowStart(toDateTime(message.getWindowStart()));
+        }
+        if (message.hasWindowEnd()) {
+            event.windowEnd(toDateTime(message.getWindowEnd()));
+        }
+        if (message.hasFirstQueryAt()) {
+            event.firstQueryAt(toDateTime(message.getFirstQueryAt()));
+        }
+        if (message.hasLastQueryAt()) {
+            event.lastQueryAt(toDateTime(message.getLastQueryAt()));
+        }
+        if (message.hasMinPrice()) {
+            event.minPrice(toBigDecimal(message.getMinPrice()));
+        }
+        if (message.hasMaxPrice()) {
+            event.maxPrice(toBigDecimal(message.getMaxPrice()));
+        }
+        return event.build();
+    }
+
+    private static LocalDateTime toDateTime(Timestamp timestamp) {
+        return LocalDateTime.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos(), ZoneOffset.UTC);
+    }
+
+    private static BigDecimal toBigDecimal(PriceEventProto.Decimal decimal) {
+        return BigDecimal.valueOf(decimal.getUnscaled(), decimal.getScale());
+    }
+}
@@ -0,0 +1,857 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.domain.model.PriceTimeline;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * {@link PriceIndex} storing every price in parallel primitive arrays.
+ * <p>
+ * Rows are grouped contiguously by (productId, brandId), groups being sorted by key and found
+ * through an open-addressing table of group indexes, with no boxing. Each row keeps its start
+ * and end as epoch seconds, its amount as the {@code long} unscaled value of the decimal, its
+ * price list and priority as {@code int}s and its currency as a {@code short} into a dictionary
+ * of currency codes and amount scales, so that amounts come back with the scale they were read
+ * with, that of the {@code DECIMAL} column. {@link Price} and {@link PriceSegment} objects are
+ * only materialised for the rows a lookup returns.
+ * </p>
+ * <p>
+ * Like {@link PriceTimeline}, each group is flattened at build time into non-overlapping
+ * segments whose winning row is already decided, stored as row indexes. Segment bounds are kept
+ * as <em>ticks</em>, twice the epoch second plus one for "just after that second", which is
+ * enough to place any instant relative to second-precision inclusive row bounds.
+ * </p>
+ * <p>
+ * Columns are heap arrays, or views of a buffer the store was serialised to with
+ * {@link #writeTo(ByteBuffer)}, such as a mapped {@link PriceSnapshotFile}, in which case lookups
+ * read straight from that buffer.
+ * </p>
+ * <p>
+ * The store is immutable: {@link #withGroups(Map)} returns a heap copy, rebuilding every changed
+ * group in a single pass, so readers never need a lock. Rows must have second precision and an
+ * amount whose unscaled value fits a {@code long} ({@link #canEncode(Price)}); other rows are
+ * rejected with an {@link IllegalArgumentException}, and {@link PatchedPriceIndex#of(Collection)}
+ * keeps their groups as heap timelines instead.
+ * </p>
+ */
+public final class ColumnarPriceStore implements PriceIndex {
+
+    /**
+     * Group order: product first, then brand.
+     */
+    private static final Comparator<PriceKey> KEY_ORDER = Comparator
+            .comparing(PriceKey::productId)
+            .thenComparing(PriceKey::brandId);
+
+    /**
+     * Store holding no prices.
+     */
+    private static final ColumnarPriceStore EMPTY = new Builder(new CurrencyDictionary(), 0, 0).build();
+
+    /**
+     * Byte order of serialised stores.
+     */
+    private static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /**
+     * Product of each group, groups sorted by product then brand.
+     */
+    private final LongBuffer groupProductIds;
+
+    /**
+     * Brand of each group.
+     */
+    private final LongBuffer groupBrandIds;
+
+    /**
+     * Open-addressing table of group indexes plus one, {@code 0} marking a free slot; its length
+     * is a power of two at least twice the number of groups.
+     */
+    private final IntBuffer groupTable;
+
+    /**
+     * First row of each group, followed by the total number of rows.
+     */
+    private final IntBuffer groupRowStart;
+
+    /**
+     * First segment of each group, followed by the total number of segments.
+     */
+    private final IntBuffer groupSegmentStart;
+
+    /**
+     * Start of each row (inclusive), in epoch seconds.
+     */
+    private final LongBuffer startEpochSeconds;
+
+    /**
+     * End of each row (inclusive), in epoch seconds.
+     */
+    private final LongBuffer endEpochSeconds;
+
+    /**
+     * Unscaled amount of each row, in the scale of its currency entry.
+     */
+    private final LongBuffer amountsUnscaled;
+
+    /**
+     * Price list of each row.
+     */
+    private final IntBuffer priceLists;
+
+    /**
+     * Priority of each row.
+     */
+    private final IntBuffer priorities;
+
+    /**
+     * Currency and amount scale of each row, as an index into {@link #currencies}.
+     */
+    private final ShortBuffer currencyIds;
+
+    /**
+     * Currency codes and amount scales referenced by the rows.
+     */
+    private final CurrencyDictionary currencies;
+
+    /**
+     * Start tick of each segment (inclusive), sorted ascending within a group.
+     */
+    private final LongBuffer segmentFromTicks;
+
+    /**
+     * End tick of each segment (exclusive).
+     */
+    private final LongBuffer segmentUntilTicks;
+
+    /**
+     * Winning row of each segment.
+     */
+    private final IntBuffer segmentRows;
+
+    /**
+     * Number of groups.
+     */
+    private final int groups;
+
+    /**
+     * Number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Number of segments.
+     */
+    private final int segments;
+
+    private ColumnarPriceStore(Builder builder) {
+        this.groups = builder.groups;
+        this.rows = builder.rows;
+        this.segments = builder.segments;
+        this.groupProductIds = LongBuffer.wrap(Arrays.copyOf(builder.groupProductIds, groups));
+        this.groupBrandIds = LongBuffer.wrap(Arrays.copyOf(builder.groupBrandIds, groups));
+        int[] rowStart = Arrays.copyOf(builder.groupRowStart, groups + 1);
+        rowStart[groups] = rows;
+        this.groupRowStart = IntBuffer.wrap(rowStart);
+        int[] segmentStart = Arrays.copyOf(builder.groupSegmentStart, groups + 1);
+        segmentStart[groups] = segments;
+        this.groupSegmentStart = IntBuffer.wrap(segmentStart);
+        this.startEpochSeconds = LongBuffer.wrap(Arrays.copyOf(builder.startEpochSeconds, rows));
+        this.endEpochSeconds = LongBuffer.wrap(Arrays.copyOf(builder.endEpochSeconds, rows));
+        this.amountsUnscaled = LongBuffer.wrap(Arrays.copyOf(builder.amountsUnscaled, rows));
+        this.priceLists = IntBuffer.wrap(Arrays.copyOf(builder.priceLists, rows));
+        this.priorities = IntBuffer.wrap(Arrays.copyOf(builder.priorities, rows));
+        this.currencyIds = ShortBuffer.wrap(Arrays.copyOf(builder.currencyIds, rows));
+        this.currencies = builder.currencies;
+        this.segmentFromTicks = LongBuffer.wrap(Arrays.copyOf(builder.segmentFromTicks, segments));
+        this.segmentUntilTicks = LongBuffer.wrap(Arrays.copyOf(builder.segmentUntilTicks, segments));
+        this.segmentRows = IntBuffer.wrap(Arrays.copyOf(builder.segmentRows, segments));
+        int[] table = new int[Integer.highestOneBit(Math.max(1, groups)) * 4];
+        for (int group = 0; group < groups; group++) {
+            int slot = slot(table.length, builder.groupProductIds[group], builder.groupBrandIds[group]);
+            while (table[slot] != 0) {
+                slot = (slot + 1) & (table.length - 1);
+            }
+            table[slot] = group + 1;
+        }
+        this.groupTable = IntBuffer.wrap(table);
+    }
+
+    /**
+     * Reads back a store written by {@link #writeTo(ByteBuffer)}, its columns being views of the
+     * buffer rather than copies.
+     */
+    private ColumnarPriceStore(ByteBuffer in) {
+        this.groups = in.getInt();
+        this.rows = in.getInt();
+        this.segments = in.getInt();
+        int tableLength = in.getInt();
+        this.currencies = CurrencyDictionary.readFrom(in);
+        align(in);
+        this.groupProductIds = longs(in, groups);
+        this.groupBrandIds = longs(in, groups);
+        this.groupTable = ints(in, tableLength);
+        this.groupRowStart = ints(in, groups + 1);
+        this.groupSegmentStart = ints(in, groups + 1);
+        this.startEpochSeconds = longs(in, rows);
+        this.endEpochSeconds = longs(in, rows);
+        this.amountsUnscaled = longs(in, rows);
+        this.priceLists = ints(in, rows);
+        this.priorities = ints(in, rows);
+        this.currencyIds = shorts(in, rows);
+        this.segmentFromTicks = longs(in, segments);
+        this.segmentUntilTicks = longs(in, segments);
+        this.segmentRows = ints(in, segments);
+        if (Integer.bitCount(tableLength) != 1 || tableLength < 2 * groups) {
+            throw new IllegalArgumentException("Corrupt price store: group table of " + tableLength + " slots");
+        }
+    }
+
+    /**
+     * Returns a store holding no prices.
+     *
+     * @return an empty store
+     */
+    public static ColumnarPriceStore empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a store from the given prices.
+     *
+     * @param prices the prices to store
+     * @return a new store over the given prices
+     * @throws IllegalArgumentException if a price cannot be encoded, see {@link #canEncode(Price)}
+     */
+    public static ColumnarPriceStore of(Collection<Price> prices) {
+        Map<PriceKey, List<Price>> byKey = new TreeMap<>(KEY_ORDER);
+        for (Price price : prices) {
+            byKey.computeIfAbsent(PriceKey.of(price), key -> new ArrayList<>()).add(price);
+        }
+        Builder builder = new Builder(new CurrencyDictionary(), byKey.size(), prices.size());
+        byKey.forEach(builder::appendGroup);
+        return builder.build();
+    }
+
+    /**
+     * Tells whether the columns can represent a price exactly: its bounds have second precision
+     * and its amount has an unscaled value fitting a {@code long} and a scale fitting a byte.
+     *
+     * @param price the price
+     * @return {@code true} if the price can be stored
+     */
+    public static boolean canEncode(Price price) {
+        BigDecimal amount = price.getPrice();
+        return price.getStartDate().getNano() == 0
+                && price.getEndDate().getNano() == 0
+                && amount.unscaledValue().bitLength() < Long.SIZE
+                && amount.scale() >= Byte.MIN_VALUE && amount.scale() <= Byte.MAX_VALUE;
+    }
+
+    /**
+     * Reads back a store written by {@link #writeTo(ByteBuffer)}. The store reads its columns
+     * straight from the buffer, typically a mapped file, which must therefore stay unchanged.
+     *
+     * @param in the buffer positioned at the start of the store, advanced past it
+     * @return a store backed by the buffer
+     * @throws IllegalArgumentException if the buffer does not hold a complete, valid store
+     */
+    static ColumnarPriceStore readFrom(ByteBuffer in) {
+        try {
+            return new ColumnarPriceStore(in.order(BYTE_ORDER));
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated price store", e);
+        }
+    }
+
+    /**
+     * Returns the number of bytes {@link #writeTo(ByteBuffer)} writes.
+     *
+     * @return the serialised size of this store
+     */
+    long serializedSize() {
+        long size = align(4L * Integer.BYTES + currencies.serializedSize());
+        size += 2 * align((long) groups * Long.BYTES);
+        size += align((long) groupTable.limit() * Integer.BYTES);
+        size += 2 * align((long) (groups + 1) * Integer.BYTES);
+        size += 3 * align((long) rows * Long.BYTES);
+        size += 2 * align((long) rows * Integer.BYTES);
+        size += align((long) rows * Short.BYTES);
+        size += 2 * align((long) segments * Long.BYTES);
+        size += align((long) segments * Integer.BYTES);
+        return size;
+    }
+
+    /**
+     * Writes this store: the counts and currencies, then every column, each one starting on an
+     * 8-byte boundary so that it can be read in place once mapped.
+     *
+     * @param out the buffer to write to, advanced past the store
+     */
+    void writeTo(ByteBuffer out) {
+        out.order(BYTE_ORDER);
+        out.putInt(groups).putInt(rows).putInt(segments).putInt(groupTable.limit());
+        currencies.writeTo(out);
+        align(out);
+        put(out, groupProductIds);
+        put(out, groupBrandIds);
+        put(out, groupTable);
+        put(out, groupRowStart);
+        put(out, groupSegmentStart);
+        put(out, startEpochSeconds);
+        put(out, endEpochSeconds);
+        put(out, amountsUnscaled);
+        put(out, priceLists);
+        put(out, priorities);
+        put(out, currencyIds);
+        put(out, segmentFromTicks);
+        put(out, segmentUntilTicks);
+        put(out, segmentRows);
+    }
+
+    /**
+     * Returns a copy of this store where a single group holds the given rows.
+     *
+     * @param key  the (productId, brandId) group to rebuild
+     * @param rows every current row of the group; an empty collection removes the group
+     * @return a new store, this one being left unchanged
+     */
+    @Override
+    public ColumnarPriceStore withGroup(PriceKey key, Collection<Price> rows) {
+        return withGroups(Map.of(key, rows));
+    }
+
+    /**
+     * Returns a copy of this store where each given group holds the given rows, copying the
+     * unchanged groups once whatever the number of changed ones.
+     *
+     * @param changes every current row of each group to rebuild; an empty collection removes the group
+     * @return a new store, this one being left unchanged
+     * @throws IllegalArgumentException if a price cannot be encoded, see {@link #canEncode(Price)}
+     */
+    @Override
+    public ColumnarPriceStore withGroups(Map<PriceKey, ? extends Collection<Price>> changes) {
+        Map<PriceKey, Collection<Price>> sorted = new TreeMap<>(KEY_ORDER);
+        sorted.putAll(changes);
+        int capacity = size();
+        for (Collection<Price> rows : sorted.values()) {
+            capacity += rows.size();
+        }
+
+        Builder builder = new Builder(currencies.copy(), groupCount() + sorted.size(), capacity);
+        int next = 0;
+        for (Map.Entry<PriceKey, Collection<Price>> change : sorted.entrySet()) {
+            PriceKey key = change.getKey();
+            int existing = indexOf(key.productId(), key.brandId());
+            int insertAt = existing >= 0 ? existing : -existing - 1;
+            builder.copyGroups(this, next, insertAt);
+            if (!change.getValue().isEmpty()) {
+                builder.appendGroup(key, change.getValue());
+            }
+            next = existing >= 0 ? existing + 1 : insertAt;
+        }
+        builder.copyGroups(this, next, groupCount());
+        return builder.build();
+    }
+
+    @Override
+    public Optional<Price> find(Long productId, Long brandId, LocalDateTime date) {
+        int group = groupOf(productId, brandId);
+        if (group < 0) {
+            return Optional.empty();
+        }
+        int segment = segmentAt(group, tick(date));
+        return segment < 0 ? Optional.empty() : Optional.of(materialise(group, segmentRows.get(segment)));
+    }
+
+    @Override
+    public Optional<PriceSegment> segmentAt(Long productId, Long brandId, LocalDateTime date) {
+        int group = groupOf(productId, brandId);
+        if (group < 0) {
+            return Optional.empty();
+        }
+        int segment = segmentAt(group, tick(date));
+        if (segment < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new PriceSegment(fromTick(segmentFromTicks.get(segment)),
+                fromTick(segmentUntilTicks.get(segment)), materialise(group, segmentRows.get(segment))));
+    }
+
+    @Override
+    public List<Price> prices() {
+        List<Price> all = new ArrayList<>(size());
+        for (int group = 0; group < groupCount(); group++) {
+            for (int row = groupRowStart.get(group); row < groupRowStart.get(group + 1); row++) {
+                all.add(materialise(group, row));
+            }
+        }
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Streams the rows of the groups within the ranges of a filter, in group order, binary
+     * searching from one product's brand range to the next rather than visiting every group.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a lazy stream of the matching prices
+     */
+    @Override
+    public Stream<Price> prices(PriceCatalogFilter filter) {
+        long productFrom = filter.productIdFrom() != null ? filter.productIdFrom() : Long.MIN_VALUE;
+        long productTo = filter.productIdTo() != null ? filter.productIdTo() : Long.MAX_VALUE;
+        long brandFrom = filter.brandIdFrom() != null ? filter.brandIdFrom() : Long.MIN_VALUE;
+        long brandTo = filter.brandIdTo() != null ? filter.brandIdTo() : Long.MAX_VALUE;
+        return IntStream.iterate(seek(insertionPoint(productFrom, brandFrom), productTo, brandFrom, brandTo),
+                        group -> group >= 0,
+                        group -> seek(group + 1, productTo, brandFrom, brandTo))
+                .boxed()
+                .flatMap(group -> IntStream.range(groupRowStart.get(group), groupRowStart.get(group + 1))
+                        .mapToObj(row -> materialise(group, row)));
+    }
+
+    @Override
+    public int size() {
+        return rows;
+    }
+
+    @Override
+    public int groupCount() {
+        return groups;
+    }
+
+    /**
+     * Returns the number of rows of a group.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @return the number of rows of the group, {@code 0} if it is absent
+     */
+    public int groupSize(Long productId, Long brandId) {
+        int group = groupOf(productId, brandId);
+        return group < 0 ? 0 : groupSize(group);
+    }
+
+    private int groupSize(int group) {
+        return groupRowStart.get(group + 1) - groupRowStart.get(group);
+    }
+
+    /**
+     * Hash lookup of a group.
+     *
+     * @return the group index, or {@code -1} if absent
+     */
+    private int groupOf(Long productId, Long brandId) {
+        if (productId == null || brandId == null) {
+            return -1;
+        }
+        long product = productId;
+        long brand = brandId;
+        int mask = groupTable.limit() - 1;
+        int slot = slot(groupTable.limit(), product, brand);
+        int entry;
+        while ((entry = groupTable.get(slot)) != 0) {
+            if (groupProductIds.get(entry - 1) == product && groupBrandIds.get(entry - 1) == brand) {
+                return entry - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private static int slot(int tableLength, long productId, long brandId) {
+        long hash = (productId * 0x9E3779B97F4A7C15L) ^ brandId;
+        hash *= 0xBF58476D1CE4E5B9L;
+        return (int) (hash ^ (hash >>> 32)) & (tableLength - 1);
+    }
+
+    /**
+     * Binary search of a group.
+     *
+     * @return the group index, or {@code -(insertion point) - 1} if absent
+     */
+    private int indexOf(long productId, long brandId) {
+        int low = 0;
+        int high = groups - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compare(groupProductIds.get(mid), productId);
+            if (cmp == 0) {
+                cmp = Long.compare(groupBrandIds.get(mid), brandId);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+    private int insertionPoint(long productId, long brandId) {
+        int index = indexOf(productId, brandId);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * Finds the first group from a given one whose product is at most {@code productTo} and whose
+     * brand is within range, the product being at least that of the given group.
+     *
+     * @return the group index, or {@code -1} if there is none
+     */
+    private int seek(int group, long productTo, long brandFrom, long brandTo) {
+        while (group < groups) {
+            long product = groupProductIds.get(group);
+            long brand = groupBrandIds.get(group);
+            if (product > productTo) {
+                return -1;
+            }
+            if (brand < brandFrom) {
+                group = insertionPoint(product, brandFrom);
+            } else if (brand > brandTo) {
+                if (product == Long.MAX_VALUE) {
+                    return -1;
+                }
+                group = insertionPoint(product + 1, brandFrom);
+            } else {
+                return group;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Binary search of the segment of a group covering a tick.
+     *
+     * @return the segment index, or {@code -1} if no segment covers the tick
+     */
+    private int segmentAt(int group, long tick) {
+        int low = groupSegmentStart.get(group);
+        int high = groupSegmentStart.get(group + 1) - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segmentFromTicks.get(mid) > tick) {
+                high = mid - 1;
+            } else {
+                found = mid;
+                low = mid + 1;
+            }
+        }
+        return found >= 0 && tick < segmentUntilTicks.get(found) ? found : -1;
+    }
+
+    private Price materialise(int group, int row) {
+        short currency = currencyIds.get(row);
+        return new Price(
+                groupBrandIds.get(group),
+                LocalDateTime.ofEpochSecond(startEpochSeconds.get(row), 0, ZoneOffset.UTC),
+                LocalDateTime.ofEpochSecond(endEpochSeconds.get(row), 0, ZoneOffset.UTC),
+                priceLists.get(row),
+                groupProductIds.get(group),
+                priorities.get(row),
+                BigDecimal.valueOf(amountsUnscaled.get(row), currencies.scale(currency)),
+                currencies.code(currency));
+    }
+
+    /**
+     * Converts an instant to a tick: {@code 2 * epochSecond}, plus one if it is past that second.
+     */
+    private static long tick(LocalDateTime date) {
+        return 2 * date.toEpochSecond(ZoneOffset.UTC) + (date.getNano() > 0 ? 1 : 0);
+    }
+
+    /**
+     * Converts a segment bound back to an instant, ticks past a second being a nanosecond after it.
+     */
+    private static LocalDateTime fromTick(long tick) {
+        LocalDateTime second = LocalDateTime.ofEpochSecond(Math.floorDiv(tick, 2), 0, ZoneOffset.UTC);
+        return Math.floorMod(tick, 2) == 0 ? second : second.plusNanos(1);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static void align(ByteBuffer buffer) {
+        buffer.position((int) align(buffer.position()));
+    }
+
+    private static void put(ByteBuffer out, LongBuffer column) {
+        out.asLongBuffer().put(column.duplicate().rewind());
+        out.position(out.position() + column.limit() * Long.BYTES);
+        align(out);
+    }
+
+    private static void put(ByteBuffer out, IntBuffer column) {
+        out.asIntBuffer().put(column.duplicate().rewind());
+        out.position(out.position() + column.limit() * Integer.BYTES);
+        align(out);
+    }
+
+    private static void put(ByteBuffer out, ShortBuffer column) {
+        out.asShortBuffer().put(column.duplicate().rewind());
+        out.position(out.position() + column.limit() * Short.BYTES);
+        align(out);
+    }
+
+    private static LongBuffer longs(ByteBuffer in, int count) {
+        LongBuffer column = in.slice(in.position(), count * Long.BYTES).order(BYTE_ORDER).asLongBuffer();
+        in.position(in.position() + count * Long.BYTES);
+        align(in);
+        return column;
+    }
+
+    private static IntBuffer ints(ByteBuffer in, int count) {
+        IntBuffer column = in.slice(in.position(), count * Integer.BYTES).order(BYTE_ORDER).asIntBuffer();
+        in.position(in.position() + count * Integer.BYTES);
+        align(in);
+        return column;
+    }
+
+    private static ShortBuffer shorts(ByteBuffer in, int count) {
+        ShortBuffer column = in.slice(in.position(), count * Short.BYTES).order(BYTE_ORDER).asShortBuffer();
+        in.position(in.position() + count * Short.BYTES);
+        align(in);
+        return column;
+    }
+
+    /**
+     * Dictionary of the (currency, amount scale) pairs of a store.
+     */
+    private static final class CurrencyDictionary {
+
+        private final List<String> codes;
+        private final List<Integer> scales;
+
+        private CurrencyDictionary() {
+            this(new ArrayList<>(), new ArrayList<>());
+        }
+
+        private CurrencyDictionary(List<String> codes, List<Integer> scales) {
+            this.codes = codes;
+            this.scales = scales;
+        }
+
+        private CurrencyDictionary copy() {
+            return new CurrencyDictionary(new ArrayList<>(codes), new ArrayList<>(scales));
+        }
+
+        private short idOf(String code, int scale) {
+            for (int id = 0; id < codes.size(); id++) {
+                if (scales.get(id) == scale && Objects.equals(codes.get(id), code)) {
+                    return (short) id;
+                }
+            }
+            if (codes.size() > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many currencies to encode " + code);
+            }
+            codes.add(code);
+            scales.add(scale);
+            return (short) (codes.size() - 1);
+        }
+
+        private String code(short id) {
+            return codes.get(id);
+        }
+
+        private int scale(short id) {
+            return scales.get(id);
+        }
+
+        private long serializedSize() {
+            long size = Integer.BYTES;
+            for (String code : codes) {
+                size += 2 + code.getBytes(StandardCharsets.UTF_8).length;
+            }
+            return size;
+        }
+
+        private void writeTo(ByteBuffer out) {
+            out.putInt(codes.size());
+            for (int id = 0; id < codes.size(); id++) {
+                byte[] code = codes.get(id).getBytes(StandardCharsets.UTF_8);
+                out.put((byte) code.length).put(code).put(scales.get(id).byteValue());
+            }
+        }
+
+        private static CurrencyDictionary readFrom(ByteBuffer in) {
+            CurrencyDictionary dictionary = new CurrencyDictionary();
+            int count = in.getInt();
+            for (int id = 0; id < count; id++) {
+                byte[] code = new byte[Byte.toUnsignedInt(in.get())];
+                in.get(code);
+                dictionary.codes.add(new String(code, StandardCharsets.UTF_8));
+                dictionary.scales.add((int) in.get());
+            }
+            return dictionary;
+        }
+    }
+
+    /**
+     * Accumulates groups in key order into growable arrays.
+     */
+    private static final class Builder {
+
+        private final CurrencyDictionary currencies;
+        private long[] groupProductIds;
+        private long[] groupBrandIds;
+        private int[] groupRowStart;
+        private int[] groupSegmentStart;
+        private long[] startEpochSeconds;
+        private long[] endEpochSeconds;
+        private long[] amountsUnscaled;
+        private int[] priceLists;
+        private int[] priorities;
+        private short[] currencyIds;
+        private long[] segmentFromTicks;
+        private long[] segmentUntilTicks;
+        private int[] segmentRows;
+        private int groups;
+        private int rows;
+        private int segments;
+
+        private Builder(CurrencyDictionary currencies, int groupCapacity, int rowCapacity) {
+            this.currencies = currencies;
+            this.groupProductIds = new long[groupCapacity];
+            this.groupBrandIds = new long[groupCapacity];
+            this.groupRowStart = new int[groupCapacity + 1];
+            this.groupSegmentStart = new int[groupCapacity + 1];
+            this.startEpochSeconds = new long[rowCapacity];
+            this.endEpochSeconds = new long[rowCapacity];
+            this.amountsUnscaled = new long[rowCapacity];
+            this.priceLists = new int[rowCapacity];
+            this.priorities = new int[rowCapacity];
+            this.currencyIds = new short[rowCapacity];
+            this.segmentFromTicks = new long[rowCapacity];
+            this.segmentUntilTicks = new long[rowCapacity];
+            this.segmentRows = new int[rowCapacity];
+        }
+
+        /**
+         * Encodes a group from its rows; groups must be appended in key order.
+         */
+        private void appendGroup(PriceKey key, Collection<Price> group) {
+            startGroup(key.productId(), key.brandId());
+            Map<Price, Integer> rowOf = new IdentityHashMap<>();
+            for (Price price : group) {
+                if (!canEncode(price)) {
+                    throw new IllegalArgumentException("Price bounds must have second precision and its amount "
+                            + "fit a long unscaled value: " + price);
+                }
+                ensureRowCapacity(rows + 1);
+                startEpochSeconds[rows] = price.getStartDate().toEpochSecond(ZoneOffset.UTC);
+                endEpochSeconds[rows] = price.getEndDate().toEpochSecond(ZoneOffset.UTC);
+                priceLists[rows] = price.getPriceList();
+                priorities[rows] = price.getPriority();
+                currencyIds[rows] = currencies.idOf(price.getCurrency(), price.getPrice().scale());
+                amountsUnscaled[rows] = price.getPrice().unscaledValue().longValue();
+                rowOf.put(price, rows++);
+            }
+            for (PriceSegment segment : PriceTimeline.of(group).segments()) {
+                ensureSegmentCapacity(segments + 1);
+                segmentFromTicks[segments] = tick(segment.getValidFrom());
+                segmentUntilTicks[segments] = tick(segment.getValidUntil());
+                segmentRows[segments++] = rowOf.get(segment.getPrice());
+            }
+        }
+
+        /**
+         * Copies the groups {@code [from, to)} of a store without decoding them.
+         */
+        private void copyGroups(ColumnarPriceStore store, int from, int to) {
+            for (int group = from; group < to; group++) {
+                int firstRow = store.groupRowStart.get(group);
+                int rowCount = store.groupRowStart.get(group + 1) - firstRow;
+                int rowOffset = rows - firstRow;
+                startGroup(store.groupProductIds.get(group), store.groupBrandIds.get(group));
+                ensureRowCapacity(rows + rowCount);
+                store.startEpochSeconds.get(firstRow, startEpochSeconds, rows, rowCount);
+                store.endEpochSeconds.get(firstRow, endEpochSeconds, rows, rowCount);
+                store.amountsUnscaled.get(firstRow, amountsUnscaled, rows, rowCount);
+                store.priceLists.get(firstRow, priceLists, rows, rowCount);
+                store.priorities.get(firstRow, priorities, rows, rowCount);
+                // The dictionary starts as a copy of the store's one, so currency ids are unchanged
+                store.currencyIds.get(firstRow, currencyIds, rows, rowCount);
+                rows += rowCount;
+
+                int firstSegment = store.groupSegmentStart.get(group);
+                int segmentCount = store.groupSegmentStart.get(group + 1) - firstSegment;
+                ensureSegmentCapacity(segments + segmentCount);
+                store.segmentFromTicks.get(firstSegment, segmentFromTicks, segments, segmentCount);
+                store.segmentUntilTicks.get(firstSegment, segmentUntilTicks, segments, segmentCount);
+                for (int i = 0; i < segmentCount; i++) {
+                    segmentRows[segments++] = store.segmentRows.get(firstSegment + i) + rowOffset;
+                }
+            }
+        }
+
+        private void startGroup(long productId, long brandId) {
+            if (groups == groupProductIds.length) {
+                int capacity = Math.max(8, groups * 2);
+                groupProductIds = Arrays.copyOf(groupProductIds, capacity);
+                groupBrandIds = Arrays.copyOf(groupBrandIds, capacity);
+                groupRowStart = Arrays.copyOf(groupRowStart, capacity + 1);
+                groupSegmentStart = Arrays.copyOf(groupSegmentStart, capacity + 1);
+            }
+            groupProductIds[groups] = productId;
+            groupBrandIds[groups] = brandId;
+            groupRowStart[groups] = rows;
+            groupSegmentStart[groups] = segments;
+            groups++;
+        }
+
+        private void ensureRowCapacity(int required) {
+            if (required > startEpochSeconds.length) {
+                int capacity = Math.max(required, startEpochSeconds.length * 2);
+                startEpochSeconds = Arrays.copyOf(startEpochSeconds, capacity);
+                endEpochSeconds = Arrays.copyOf(endEpochSeconds, capacity);
+                amountsUnscaled = Arrays.copyOf(amountsUnscaled, capacity);
+                priceLists = Arrays.copyOf(priceLists, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                currencyIds = Arrays.copyOf(currencyIds, capacity);
+            }
+        }
+
+        private void ensureSegmentCapacity(int required) {
+            if (required > segmentFromTicks.length) {
+                int capacity = Math.max(required, segmentFromTicks.length * 2);
+                segmentFromTicks = Arrays.copyOf(segmentFromTicks, capacity);
+                segmentUntilTicks = Arrays.copyOf(segmentUntilTicks, capacity);
+                segmentRows = Arrays.copyOf(segmentRows, capacity);
+            }
+        }
+
+        private ColumnarPriceStore build() {
+            return new ColumnarPriceStore(this);
+        }
+    }
+}
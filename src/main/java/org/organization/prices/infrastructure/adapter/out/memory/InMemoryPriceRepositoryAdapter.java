@@ -0,0 +1,458 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepository;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableListener;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableSynchronizer;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Adapter for price repository operations backed by an in-memory {@link PriceIndex}.
+ * <p>
+ * The whole {@code PRICES} table is read once through the R2DBC {@link PriceRepository}, which
+ * remains the source of truth, and every lookup afterwards is answered from memory with no I/O.
+ * The index is loaded from the snapshot of the {@link PriceTableSynchronizer}, and every group
+ * with changed rows is then reloaded on its own. When synchronisation is disabled the table is
+ * loaded by the first lookup.
+ * Lookups issued before the first load has finished wait for it instead of returning empty.
+ * When rows change, {@link #refreshGroups(Collection)} reloads the affected groups and applies
+ * them to the index at once, rebuilding only their timelines. Every swap of the index happens
+ * under the lock of the adapter, and a refresh that started before the last full load is
+ * dropped, since the rows it read may be older than those of the new index.
+ * </p>
+ * <p>
+ * With the columnar layout and synchronisation enabled, setting
+ * {@code organization.prices.memory.snapshot.path} keeps a {@link PriceSnapshotFile} of the index,
+ * written every {@code snapshot.interval} when it changed and on shutdown. At startup the file is
+ * mapped instead of reading the table, lookups reading straight from the mapped store, and the
+ * {@link PriceTableSynchronizer} only applies the rows changed since the file was written. Those
+ * changes are kept as a {@link PatchedPriceIndex} over the mapped store until the next write.
+ * </p>
+ * <p>
+ * Enabled with {@code organization.prices.repository.type=memory}. The index layout is chosen
+ * with {@code organization.prices.memory.layout}: {@code columnar} (the default) for a
+ * {@link ColumnarPriceStore} patched by a {@link PatchedPriceIndex}, {@code objects} for a
+ * {@link PriceIntervalIndex}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "organization.prices.repository.type", havingValue = "memory")
+@Slf4j
+public class InMemoryPriceRepositoryAdapter implements PriceRepositoryPort, PriceTableListener {
+
+    /**
+     * Repository used to load the price table.
+     */
+    private final PriceRepository priceRepository;
+
+    /**
+     * Mapper to convert loaded entities into {@link Price} domain models.
+     */
+    private final PriceEntityMapper priceMapper;
+
+    /**
+     * Synchronizer whose watermark is recorded in snapshot files.
+     */
+    private final PriceTableSynchronizer synchronizer;
+
+    /**
+     * Builds an index of the configured layout from a list of prices.
+     */
+    private final Function<Collection<Price>, PriceIndex> indexFactory;
+
+    /**
+     * Snapshot file, {@code null} when snapshots are disabled.
+     */
+    private final Path snapshotPath;
+
+    /**
+     * Time between two snapshot writes.
+     */
+    private final Duration snapshotInterval;
+
+    /**
+     * Serialises snapshot writes.
+     */
+    private final Object snapshotLock = new Object();
+
+    /**
+     * Index last written to or read from the snapshot file.
+     */
+    private volatile PriceIndex snapshotIndex;
+
+    /**
+     * Watermark of the snapshot file the index was restored from, {@code null} if it was not.
+     */
+    private volatile LocalDateTime restoredWatermark;
+
+    /**
+     * Periodic snapshot writes.
+     */
+    private volatile Disposable snapshotWriter;
+
+    /**
+     * Completes once the first load has succeeded, at once if a snapshot was applied before.
+     * Failed loads are not cached, so the next subscriber retries them.
+     */
+    private final Mono<Boolean> initialLoad;
+
+    /**
+     * Index currently used to answer lookups.
+     */
+    private volatile PriceIndex index;
+
+    /**
+     * Whether {@link #index} holds the whole table.
+     */
+    private volatile boolean loaded;
+
+    /**
+     * Number of full loads of {@link #index}, guarded by the lock of the adapter.
+     */
+    private long generation;
+
+    /**
+     * Constructs a new InMemoryPriceRepositoryAdapter.
+     *
+     * @param priceRepository  the repository used to load the price table
+     * @param priceMapper      the mapper from entities to domain prices
+     * @param synchronizer     the synchronizer whose watermark snapshot files record
+     * @param layout           the index layout, {@code columnar} or {@code objects} (from config)
+     * @param snapshotPath     the snapshot file, blank to disable snapshots (from config)
+     * @param snapshotInterval the time between two snapshot writes (from config)
+     */
+    public InMemoryPriceRepositoryAdapter(PriceRepository priceRepository,
+                                          PriceEntityMapper priceMapper,
+                                          PriceTableSynchronizer synchronizer,
+                                          @Value("${organization.prices.memory.layout:columnar}") String layout,
+                                          @Value("${organization.prices.memory.snapshot.path:}") String snapshotPath,
+                                          @Value("${organization.prices.memory.snapshot.interval:5m}") Duration snapshotInterval) {
+        this.priceRepository = priceRepository;
+        this.priceMapper = priceMapper;
+        this.synchronizer = synchronizer;
+        boolean objects = "objects".equalsIgnoreCase(layout);
+        this.indexFactory = objects ? PriceIntervalIndex::of : PatchedPriceIndex::of;
+        this.snapshotPath = objects || snapshotPath == null || snapshotPath.isBlank() || !synchronizer.isEnabled()
+                ? null
+                : Path.of(snapshotPath);
+        this.snapshotInterval = snapshotInterval;
+        this.index = indexFactory.apply(List.of());
+        this.initialLoad = Mono.defer(() -> loaded ? Mono.<Void>empty() : reload())
+                .thenReturn(Boolean.TRUE)
+                .cacheInvalidateIf(loaded -> false);
+    }
+
+    /**
+     * Restores the index from the snapshot file, if any, and starts writing it periodically.
+     */
+    @PostConstruct
+    public void start() {
+        if (snapshotPath == null) {
+            return;
+        }
+        restoreSnapshot();
+        snapshotWriter = Flux.interval(snapshotInterval, snapshotInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromCallable(this::writeSnapshot)
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .onErrorResume(e -> {
+                            log.error("Writing the price snapshot to {} failed: {}", snapshotPath, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    /**
+     * Stops the periodic writes and writes a last snapshot.
+     */
+    @PreDestroy
+    public void stop() {
+        if (snapshotWriter != null) {
+            snapshotWriter.dispose();
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Writing the price snapshot to {} on shutdown failed: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * Maps the snapshot file and serves lookups from it. A missing or unreadable file leaves the
+     * index to be loaded from the table.
+     *
+     * @return {@code true} if the index was restored
+     */
+    public boolean restoreSnapshot() {
+        if (snapshotPath == null || !Files.isRegularFile(snapshotPath)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            PriceSnapshotFile snapshot = PriceSnapshotFile.read(snapshotPath);
+            PriceIndex restored = PatchedPriceIndex.of(snapshot.store());
+            replaceIndex(restored);
+            snapshotIndex = restored;
+            restoredWatermark = snapshot.watermark();
+            log.info("Price index mapped from {} with {} prices up to {} in {} ms", snapshotPath, restored.size(),
+                    snapshot.watermark(), (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Ignoring price snapshot {}: {}", snapshotPath, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Writes the index to the snapshot file if it changed since the last write, then serves
+     * lookups from the newly mapped file, folding in the patches applied so far.
+     *
+     * @return {@code true} if a snapshot was written
+     * @throws IOException if the file cannot be written or mapped back
+     */
+    public boolean writeSnapshot() throws IOException {
+        synchronized (snapshotLock) {
+            // Read the watermark first: the index already holds every change up to it
+            LocalDateTime watermark = synchronizer.getWatermark();
+            PriceIndex current = index;
+            if (snapshotPath == null || !loaded || watermark == null || current == snapshotIndex) {
+                return false;
+            }
+            long start = System.nanoTime();
+            ColumnarPriceStore store = storeOf(current);
+            if (store == null) {
+                log.warn("Price snapshot not written: some prices cannot be stored in a snapshot file");
+                return false;
+            }
+            long bytes = new PriceSnapshotFile(store, watermark).write(snapshotPath);
+            PriceIndex mapped = PatchedPriceIndex.of(PriceSnapshotFile.read(snapshotPath).store());
+            synchronized (this) {
+                if (index == current) {
+                    index = mapped;
+                }
+            }
+            snapshotIndex = index == mapped ? mapped : current;
+            log.info("Price snapshot of {} prices up to {} written to {} ({} bytes) in {} ms", store.size(),
+                    watermark, snapshotPath, bytes, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        }
+    }
+
+    /**
+     * Returns the store holding every price of an index, {@code null} if some of them cannot be
+     * stored in columns.
+     */
+    private static ColumnarPriceStore storeOf(PriceIndex index) {
+        if (index instanceof ColumnarPriceStore columnar) {
+            return columnar;
+        }
+        if (index instanceof PatchedPriceIndex patched) {
+            PatchedPriceIndex compacted = patched.compacted();
+            return compacted.patchCount() == 0 ? compacted.base() : null;
+        }
+        List<Price> prices = index.prices();
+        return prices.stream().allMatch(ColumnarPriceStore::canEncode) ? ColumnarPriceStore.of(prices) : null;
+    }
+
+    /**
+     * Returns the watermark of the snapshot file the index was restored from.
+     *
+     * @return the restored watermark, or empty if the index was not restored
+     */
+    @Override
+    public Optional<LocalDateTime> restoredWatermark() {
+        return Optional.ofNullable(restoredWatermark);
+    }
+
+    /**
+     * Reloads the whole price table and atomically swaps the index.
+     *
+     * @return a Mono that completes when the new index is in place
+     */
+    public Mono<Void> reload() {
+        long start = System.nanoTime();
+        return priceRepository.findAllPrices()
+                .map(priceMapper::toDomain)
+                .collectList()
+                .doOnNext(prices -> {
+                    replaceIndex(indexFactory.apply(prices));
+                    log.info("Price index loaded with {} prices in {} ms", prices.size(), (System.nanoTime() - start) / 1_000_000);
+                })
+                .then();
+    }
+
+    /**
+     * Reloads the rows of a single (productId, brandId) group and rebuilds only its timeline.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @return a Mono that completes when the group's new timeline is in place
+     */
+    public Mono<Void> refreshGroup(Long productId, Long brandId) {
+        return refreshGroups(List.of(new PriceKey(productId, brandId)));
+    }
+
+    /**
+     * Reloads the rows of several (productId, brandId) groups and applies them to the index at
+     * once, so that the index is rebuilt a single time whatever the number of groups.
+     *
+     * @param keys the groups to reload
+     * @return a Mono that completes when the groups' new timelines are in place
+     */
+    public Mono<Void> refreshGroups(Collection<PriceKey> keys) {
+        return Mono.defer(() -> {
+            long startedAt = generation();
+            return Flux.fromIterable(keys)
+                    .concatMap(key -> priceRepository.findByProductIdAndBrandId(key.productId(), key.brandId())
+                            .map(priceMapper::toDomain)
+                            .collectList()
+                            .map(rows -> Map.entry(key, rows)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                    .filter(groups -> !groups.isEmpty())
+                    .doOnNext(groups -> {
+                        synchronized (this) {
+                            if (generation != startedAt) {
+                                log.debug("Price timelines of {} groups dropped: the index was reloaded", groups.size());
+                                return;
+                            }
+                            index = index.withGroups(groups);
+                        }
+                        log.debug("Price timelines rebuilt for {} groups", groups.size());
+                    })
+                    .then();
+        });
+    }
+
+    /**
+     * Replaces the index with one built from the snapshot of the table.
+     *
+     * @param prices every price of the table
+     */
+    @Override
+    public void onSnapshot(List<Price> prices) {
+        replaceIndex(indexFactory.apply(prices));
+        log.info("Price index loaded from snapshot with {} prices", prices.size());
+    }
+
+    /**
+     * Replaces the whole index, so that the group refreshes started before are dropped.
+     */
+    private synchronized void replaceIndex(PriceIndex replacement) {
+        index = replacement;
+        loaded = true;
+        generation++;
+    }
+
+    private synchronized long generation() {
+        return generation;
+    }
+
+    /**
+     * Reloads every group with changed rows, so rows removed from a group disappear as well.
+     *
+     * @param changed the new state of every changed row
+     * @return a Mono that completes once every affected group is rebuilt
+     */
+    @Override
+    public Mono<Void> onChange(List<Price> changed) {
+        Set<PriceKey> keys = new LinkedHashSet<>();
+        changed.forEach(price -> keys.add(PriceKey.of(price)));
+        return refreshGroups(keys);
+    }
+
+    /**
+     * Finds the applicable price for a product, brand, and date from the in-memory index.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        return initialLoad.then(Mono.fromSupplier(() -> index.find(productId, brandId, date).orElse(null)));
+    }
+
+    /**
+     * Finds the validity segment of the applicable price from the in-memory index.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return initialLoad.then(Mono.fromSupplier(() -> index.segmentAt(productId, brandId, date).orElse(null)));
+    }
+
+    /**
+     * Finds the applicable prices for several queries in a single pass over the in-memory index.
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        return initialLoad.then(Mono.fromSupplier(() -> {
+            // Resolve the whole batch against the same index, even if a reload swaps it meanwhile
+            PriceIndex snapshot = index;
+            Map<PriceQuery, Price> result = new HashMap<>();
+            for (PriceQuery query : queries) {
+                snapshot.find(query.productId(), query.brandId(), query.date())
+                        .ifPresent(price -> result.put(query, price));
+            }
+            return result;
+        }));
+    }
+
+    /**
+     * Retrieves all prices held by the in-memory index.
+     *
+     * @return a {@link Flux} emitting all {@link Price} objects
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return initialLoad.thenMany(Flux.defer(() -> Flux.fromIterable(index.prices())));
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue held by the in-memory index.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a {@link Flux} emitting the matching {@link Price} objects
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return initialLoad.thenMany(Flux.fromStream(() -> index.prices(filter)));
+    }
+}
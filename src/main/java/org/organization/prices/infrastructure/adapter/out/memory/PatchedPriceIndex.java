@@ -0,0 +1,286 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.domain.model.PriceTimeline;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * {@link PriceIndex} applying rebuilt groups on top of an unchanged {@link ColumnarPriceStore}.
+ * <p>
+ * Copying the whole store on every change, as {@link ColumnarPriceStore#withGroups(Map)} does,
+ * costs as much as the store, and over a store mapped from a {@link PriceSnapshotFile} would
+ * pull every mapped page onto the heap. Instead, each rebuilt group is kept as a
+ * {@link PriceTimeline} that shadows the group of the base store, an empty timeline marking a
+ * removed group. Groups holding rows the store cannot encode, such as bounds with a fraction of
+ * second, are kept as timelines from the start.
+ * </p>
+ * <p>
+ * Over a mapped store, patches are folded into the base when the next snapshot is written. Over
+ * a heap store built by {@link #of(Collection)}, they are folded in a single rebuild once those
+ * the store can encode outnumber a sixteenth of the groups, so that each change costs a constant
+ * time on average however many groups the store cannot encode.
+ * </p>
+ * <p>
+ * Like the store, the index is immutable: {@link #withGroups(Map)} returns a copy holding the
+ * new patches.
+ * </p>
+ */
+public final class PatchedPriceIndex implements PriceIndex {
+
+    /**
+     * Store answering lookups of the groups that have not been patched.
+     */
+    private final ColumnarPriceStore base;
+
+    /**
+     * Timeline of every patched group.
+     */
+    private final Map<PriceKey, PriceTimeline> patches;
+
+    /**
+     * Number of patches holding rows the store cannot encode, which compaction leaves in place.
+     */
+    private final int unfoldablePatches;
+
+    /**
+     * Number of prices.
+     */
+    private final int size;
+
+    /**
+     * Number of non-empty groups.
+     */
+    private final int groupCount;
+
+    /**
+     * Whether patches are folded into the base once they are numerous, {@code false} over a
+     * mapped store.
+     */
+    private final boolean compacting;
+
+    /**
+     * Minimum number of patches that triggers folding them into the base.
+     */
+    private static final int MIN_COMPACTION_PATCHES = 64;
+
+    private PatchedPriceIndex(ColumnarPriceStore base, Map<PriceKey, PriceTimeline> patches,
+                              int unfoldablePatches, int size, int groupCount, boolean compacting) {
+        this.base = base;
+        this.patches = patches;
+        this.unfoldablePatches = unfoldablePatches;
+        this.size = size;
+        this.groupCount = groupCount;
+        this.compacting = compacting;
+    }
+
+    /**
+     * Returns an index holding exactly the prices of the given store, typically mapped from a
+     * snapshot file, whose patches are only folded by {@link #compacted()}.
+     *
+     * @param base the store to patch
+     * @return an index with no patch yet
+     */
+    public static PatchedPriceIndex of(ColumnarPriceStore base) {
+        return new PatchedPriceIndex(base, Map.of(), 0, base.size(), base.groupCount(), false);
+    }
+
+    /**
+     * Builds an index holding the given prices in a heap store, except for the groups with
+     * rows the store cannot encode, kept as timelines.
+     *
+     * @param prices the prices to index
+     * @return an index folding its patches into the store once they are numerous
+     */
+    public static PatchedPriceIndex of(Collection<Price> prices) {
+        Map<PriceKey, List<Price>> byKey = new HashMap<>();
+        Set<PriceKey> unencodable = new HashSet<>();
+        for (Price price : prices) {
+            PriceKey key = PriceKey.of(price);
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(price);
+            if (!ColumnarPriceStore.canEncode(price)) {
+                unencodable.add(key);
+            }
+        }
+        List<Price> encodable = new ArrayList<>(prices.size());
+        Map<PriceKey, PriceTimeline> patches = new HashMap<>();
+        byKey.forEach((key, rows) -> {
+            if (unencodable.contains(key)) {
+                patches.put(key, PriceTimeline.of(rows));
+            } else {
+                encodable.addAll(rows);
+            }
+        });
+        ColumnarPriceStore base = ColumnarPriceStore.of(encodable);
+        return new PatchedPriceIndex(base, Collections.unmodifiableMap(patches), patches.size(),
+                prices.size(), byKey.size(), true);
+    }
+
+    /**
+     * Returns the store the patches apply to.
+     *
+     * @return the base store
+     */
+    public ColumnarPriceStore base() {
+        return base;
+    }
+
+    /**
+     * Returns the number of patched groups.
+     *
+     * @return the number of patches
+     */
+    public int patchCount() {
+        return patches.size();
+    }
+
+    /**
+     * Returns a copy of this index where a single group holds the given rows.
+     *
+     * @param key  the (productId, brandId) group to rebuild
+     * @param rows every current row of the group; an empty collection removes the group
+     * @return a new index, this one being left unchanged
+     */
+    @Override
+    public PriceIndex withGroup(PriceKey key, Collection<Price> rows) {
+        return withGroups(Map.of(key, rows));
+    }
+
+    /**
+     * Returns a copy of this index where each given group holds the given rows.
+     *
+     * @param changes every current row of each group to rebuild; an empty collection removes the group
+     * @return a new index, this one being left unchanged
+     */
+    @Override
+    public PriceIndex withGroups(Map<PriceKey, ? extends Collection<Price>> changes) {
+        Map<PriceKey, PriceTimeline> patched = new HashMap<>(patches);
+        int newUnfoldable = unfoldablePatches;
+        int newSize = size;
+        int newGroupCount = groupCount;
+        for (Map.Entry<PriceKey, ? extends Collection<Price>> change : changes.entrySet()) {
+            PriceKey key = change.getKey();
+            Collection<Price> rows = change.getValue();
+            PriceTimeline previous = patched.get(key);
+            int previousRows = previous != null
+                    ? previous.rows().size()
+                    : base.groupSize(key.productId(), key.brandId());
+            PriceTimeline patch = PriceTimeline.of(rows);
+            patched.put(key, patch);
+            newUnfoldable += (foldable(patch) ? 0 : 1) - (previous != null && !foldable(previous) ? 1 : 0);
+            newSize += rows.size() - previousRows;
+            newGroupCount += (rows.isEmpty() ? 0 : 1) - (previousRows > 0 ? 1 : 0);
+        }
+        PatchedPriceIndex updated = new PatchedPriceIndex(base, Collections.unmodifiableMap(patched),
+                newUnfoldable, newSize, newGroupCount, compacting);
+        int foldablePatches = patched.size() - newUnfoldable;
+        return compacting && foldablePatches > Math.max(MIN_COMPACTION_PATCHES, base.groupCount() / 16)
+                ? updated.compacted()
+                : updated;
+    }
+
+    /**
+     * Returns an index holding the same prices, where every patch the store can encode is folded
+     * into a new base store, in a single rebuild.
+     *
+     * @return an index whose remaining patches hold rows the store cannot encode
+     */
+    public PatchedPriceIndex compacted() {
+        Map<PriceKey, List<Price>> folded = new HashMap<>();
+        Map<PriceKey, PriceTimeline> kept = new HashMap<>();
+        patches.forEach((key, patch) -> {
+            if (foldable(patch)) {
+                folded.put(key, patch.rows());
+            } else {
+                kept.put(key, patch);
+            }
+        });
+        if (folded.isEmpty()) {
+            return this;
+        }
+        return new PatchedPriceIndex(base.withGroups(folded), Collections.unmodifiableMap(kept), kept.size(),
+                size, groupCount, compacting);
+    }
+
+    /**
+     * Tells whether a patch can be folded into the base store.
+     *
+     * @param patch the patch
+     * @return {@code true} if the store can encode every row of the patch
+     */
+    private static boolean foldable(PriceTimeline patch) {
+        return patch.rows().stream().allMatch(ColumnarPriceStore::canEncode);
+    }
+
+    @Override
+    public Optional<Price> find(Long productId, Long brandId, LocalDateTime date) {
+        PriceTimeline patch = patch(productId, brandId);
+        return patch != null ? patch.find(date) : base.find(productId, brandId, date);
+    }
+
+    @Override
+    public Optional<PriceSegment> segmentAt(Long productId, Long brandId, LocalDateTime date) {
+        PriceTimeline patch = patch(productId, brandId);
+        return patch != null ? patch.segmentAt(date) : base.segmentAt(productId, brandId, date);
+    }
+
+    @Override
+    public List<Price> prices() {
+        if (patches.isEmpty()) {
+            return base.prices();
+        }
+        List<Price> all = new ArrayList<>(size);
+        for (Price price : base.prices()) {
+            if (!patches.containsKey(PriceKey.of(price))) {
+                all.add(price);
+            }
+        }
+        patches.values().forEach(patch -> all.addAll(patch.rows()));
+        return Collections.unmodifiableList(all);
+    }
+
+    @Override
+    public Stream<Price> prices(PriceCatalogFilter filter) {
+        if (patches.isEmpty()) {
+            return base.prices(filter);
+        }
+        return Stream.concat(
+                base.prices(filter).filter(price -> !patches.containsKey(PriceKey.of(price))),
+                patches.entrySet().stream()
+                        .filter(patch -> filter.matches(patch.getKey()))
+                        .flatMap(patch -> patch.getValue().rows().stream()));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int groupCount() {
+        return groupCount;
+    }
+
+    /**
+     * Returns the patch of a group, skipping the key allocation while nothing is patched.
+     */
+    private PriceTimeline patch(Long productId, Long brandId) {
+        if (patches.isEmpty() || productId == null || brandId == null) {
+            return null;
+        }
+        return patches.get(new PriceKey(productId, brandId));
+    }
+}
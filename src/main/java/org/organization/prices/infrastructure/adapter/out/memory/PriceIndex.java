@@ -0,0 +1,103 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceSegment;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of prices grouped by (productId, brandId), used by the
+ * {@link InMemoryPriceRepositoryAdapter}.
+ * <p>
+ * Two layouts are available, selected with {@code organization.prices.memory.layout}:
+ * </p>
+ * <ul>
+ *   <li>{@code columnar} (default): {@link ColumnarPriceStore}, parallel primitive arrays,
+ *       materialising {@link Price} objects only for the rows a lookup returns.</li>
+ *   <li>{@code objects}: {@link PriceIntervalIndex}, a {@link Price} object per row and a
+ *       precomputed timeline per group.</li>
+ * </ul>
+ */
+public interface PriceIndex {
+
+    /**
+     * Finds the price applicable at the given instant.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @param date      the instant to evaluate
+     * @return the applicable price, or empty if none covers the instant
+     */
+    Optional<Price> find(Long productId, Long brandId, LocalDateTime date);
+
+    /**
+     * Finds the segment covering the given instant.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @param date      the instant to evaluate
+     * @return the covering segment, or empty if none covers the instant
+     */
+    Optional<PriceSegment> segmentAt(Long productId, Long brandId, LocalDateTime date);
+
+    /**
+     * Returns an index where a single group holds the given rows.
+     *
+     * @param key  the (productId, brandId) group to rebuild
+     * @param rows every current row of the group; an empty collection removes the group
+     * @return the index to use from now on, which may be this one updated in place
+     */
+    PriceIndex withGroup(PriceKey key, Collection<Price> rows);
+
+    /**
+     * Returns an index where each given group holds the given rows, as if
+     * {@link #withGroup(PriceKey, Collection)} was applied to each of them.
+     *
+     * @param changes every current row of each group to rebuild; an empty collection removes the group
+     * @return the index to use from now on, which may be this one updated in place
+     */
+    default PriceIndex withGroups(Map<PriceKey, ? extends Collection<Price>> changes) {
+        PriceIndex updated = this;
+        for (Map.Entry<PriceKey, ? extends Collection<Price>> change : changes.entrySet()) {
+            updated = updated.withGroup(change.getKey(), change.getValue());
+        }
+        return updated;
+    }
+
+    /**
+     * Returns every indexed price.
+     *
+     * @return an unmodifiable list of all prices
+     */
+    List<Price> prices();
+
+    /**
+     * Streams the prices of the groups within the product and brand ranges of a filter, without
+     * collecting them first.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a lazy stream of the matching prices
+     */
+    Stream<Price> prices(PriceCatalogFilter filter);
+
+    /**
+     * Returns the number of indexed prices.
+     *
+     * @return the number of prices
+     */
+    int size();
+
+    /**
+     * Returns the number of indexed (productId, brandId) groups.
+     *
+     * @return the number of groups
+     */
+    int groupCount();
+}
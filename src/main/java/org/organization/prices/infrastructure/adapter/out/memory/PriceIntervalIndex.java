@@ -0,0 +1,168 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.domain.model.PriceTimeline;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * {@link PriceIndex} holding a {@link Price} object per row, grouped by (productId, brandId).
+ * <p>
+ * Every group is precomputed into a {@link PriceTimeline} of non-overlapping segments whose
+ * winning price is already decided, so a lookup is a hash probe followed by a single binary
+ * search, in {@code O(log n)} with no priority comparison at request time.
+ * </p>
+ * <p>
+ * Groups can be rebuilt individually with {@link #replaceGroup(PriceKey, Collection)}; readers
+ * always see either the previous or the new timeline of a group, never a partial one.
+ * </p>
+ */
+public final class PriceIntervalIndex implements PriceIndex {
+
+    /**
+     * Timelines keyed by product and brand.
+     */
+    private final Map<PriceKey, PriceTimeline> groups;
+
+    private PriceIntervalIndex(Map<PriceKey, PriceTimeline> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Returns a new index holding no prices.
+     *
+     * @return an empty index
+     */
+    public static PriceIntervalIndex empty() {
+        return new PriceIntervalIndex(new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Builds an index from the given prices.
+     *
+     * @param prices the prices to index
+     * @return a new index over the given prices
+     */
+    public static PriceIntervalIndex of(Collection<Price> prices) {
+        Map<PriceKey, List<Price>> byKey = new HashMap<>();
+        for (Price price : prices) {
+            byKey.computeIfAbsent(PriceKey.of(price), key -> new ArrayList<>()).add(price);
+        }
+
+        Map<PriceKey, PriceTimeline> groups = new ConcurrentHashMap<>(byKey.size() * 2);
+        byKey.forEach((key, rows) -> groups.put(key, PriceTimeline.of(rows)));
+        return new PriceIntervalIndex(groups);
+    }
+
+    /**
+     * Rebuilds the timeline of a single group from its current rows.
+     *
+     * @param key  the (productId, brandId) group to rebuild
+     * @param rows every current row of the group; an empty collection removes the group
+     */
+    public void replaceGroup(PriceKey key, Collection<Price> rows) {
+        if (rows.isEmpty()) {
+            groups.remove(key);
+        } else {
+            groups.put(key, PriceTimeline.of(rows));
+        }
+    }
+
+    /**
+     * Rebuilds the timeline of a single group in place.
+     *
+     * @param key  the (productId, brandId) group to rebuild
+     * @param rows every current row of the group; an empty collection removes the group
+     * @return this index
+     */
+    @Override
+    public PriceIndex withGroup(PriceKey key, Collection<Price> rows) {
+        replaceGroup(key, rows);
+        return this;
+    }
+
+    /**
+     * Finds the price applicable at the given instant.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @param date      the instant to evaluate
+     * @return the applicable price, or empty if none covers the instant
+     */
+    @Override
+    public Optional<Price> find(Long productId, Long brandId, LocalDateTime date) {
+        PriceTimeline timeline = groups.get(new PriceKey(productId, brandId));
+        return timeline == null ? Optional.empty() : timeline.find(date);
+    }
+
+    /**
+     * Finds the segment covering the given instant.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @param date      the instant to evaluate
+     * @return the covering segment, or empty if none covers the instant
+     */
+    @Override
+    public Optional<PriceSegment> segmentAt(Long productId, Long brandId, LocalDateTime date) {
+        PriceTimeline timeline = groups.get(new PriceKey(productId, brandId));
+        return timeline == null ? Optional.empty() : timeline.segmentAt(date);
+    }
+
+    /**
+     * Returns every indexed price.
+     *
+     * @return an unmodifiable list of all prices
+     */
+    @Override
+    public List<Price> prices() {
+        List<Price> all = new ArrayList<>();
+        groups.values().forEach(timeline -> all.addAll(timeline.rows()));
+        return Collections.unmodifiableList(all);
+    }
+
+    /**
+     * Streams the rows of the groups within the ranges of a filter, in no particular order.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a lazy stream of the matching prices
+     */
+    @Override
+    public Stream<Price> prices(PriceCatalogFilter filter) {
+        return groups.entrySet().stream()
+                .filter(group -> filter.matches(group.getKey()))
+                .flatMap(group -> group.getValue().rows().stream());
+    }
+
+    /**
+     * Returns the number of indexed prices.
+     *
+     * @return the number of prices
+     */
+    @Override
+    public int size() {
+        return groups.values().stream().mapToInt(timeline -> timeline.rows().size()).sum();
+    }
+
+    /**
+     * Returns the number of indexed (productId, brandId) groups.
+     *
+     * @return the number of groups
+     */
+    @Override
+    public int groupCount() {
+        return groups.size();
+    }
+}
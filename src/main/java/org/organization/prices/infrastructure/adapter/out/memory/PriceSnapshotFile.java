@@ -0,0 +1,117 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Binary snapshot of a {@link ColumnarPriceStore}, together with the synchronisation watermark
+ * the store is up to date with.
+ * <p>
+ * The file holds a 32-byte header (magic number, format version, watermark and store size)
+ * followed by the store as written by {@link ColumnarPriceStore#writeTo(ByteBuffer)}. It is
+ * opened with {@link FileChannel#map}, so {@link #read(Path)} costs no more than validating the
+ * header: the returned store reads its columns straight from the mapped pages, which the
+ * operating system loads on first access and shares with its page cache.
+ * </p>
+ * <p>
+ * Files are written to a temporary sibling, forced to disk and then atomically moved into
+ * place, so a reader never sees a partial file. A store that has been read keeps working after
+ * its file is replaced, its mapping still referring to the previous file. A file is limited to
+ * 2 GiB, the size of a single mapping.
+ * </p>
+ *
+ * @param store     the snapshotted store
+ * @param watermark the latest {@code updated_at} of the table applied to the store
+ */
+public record PriceSnapshotFile(ColumnarPriceStore store, LocalDateTime watermark) {
+
+    /**
+     * Identifies price snapshot files: {@code PRXS}.
+     */
+    private static final int MAGIC = 0x50525853;
+
+    /**
+     * Version of the layout, bumped on any incompatible change.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Size of the header, keeping the store 8-byte aligned.
+     */
+    private static final int HEADER_BYTES = 32;
+
+    /**
+     * Writes this snapshot, replacing any previous file.
+     *
+     * @param path the file to write
+     * @return the number of bytes written
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the store exceeds the size of a single mapping
+     */
+    public long write(Path path) throws IOException {
+        long storeBytes = store.serializedSize();
+        long fileBytes = HEADER_BYTES + storeBytes;
+        if (fileBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Price snapshot of " + fileBytes + " bytes exceeds 2 GiB");
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileBytes);
+            out.order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC)
+                    .putInt(FORMAT_VERSION)
+                    .putLong(watermark.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(watermark.getNano())
+                    .putInt(0)
+                    .putLong(storeBytes);
+            store.writeTo(out);
+            out.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return fileBytes;
+    }
+
+    /**
+     * Maps a snapshot file.
+     *
+     * @param path the file to read
+     * @return the snapshot, whose store reads from the mapped file
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a complete snapshot of this format
+     */
+    public static PriceSnapshotFile read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileBytes = channel.size();
+            if (fileBytes < HEADER_BYTES || fileBytes > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Not a price snapshot: " + fileBytes + " bytes");
+            }
+            // The mapping stays valid once the channel is closed
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileBytes);
+            in.order(ByteOrder.LITTLE_ENDIAN);
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a price snapshot: bad magic number");
+            }
+            int version = in.getInt();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported price snapshot format " + version);
+            }
+            LocalDateTime watermark = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+            in.getInt();
+            long storeBytes = in.getLong();
+            if (storeBytes != fileBytes - HEADER_BYTES) {
+                throw new IllegalArgumentException("Truncated price snapshot: " + fileBytes + " bytes");
+            }
+            return new PriceSnapshotFile(ColumnarPriceStore.readFrom(in), watermark);
+        }
+    }
+}
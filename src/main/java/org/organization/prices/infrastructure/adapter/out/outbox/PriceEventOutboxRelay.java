@@ -0,0 +1,224 @@
+package org.organization.prices.infrastructure.adapter.out.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.infrastructure.adapter.out.kafka.KafkaEventPublisherAdapter;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventOutboxRepository;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Relays the price events stored in the {@code PRICE_EVENTS} outbox to Kafka.
+ * <p>
+ * In outbox mode the request path only stores events, and this relay publishes them: every
+ * {@code poll-interval} it reads up to {@code batch-size} unpublished rows, hands them all at
+ * once to the {@link KafkaEventPublisherAdapter} and marks the acknowledged ones as published.
+ * As long as full batches are found, the next one is read straight away, so a backlog left by
+ * a Kafka outage is published at full batch throughput.
+ * </p>
+ * <ul>
+ *   <li>Delivery is at least once: an event acknowledged by the broker but not yet marked when
+ *       the application stops is published again. Only one instance should relay a given
+ *       table.</li>
+ *   <li>Events that fail to be sent stay unpublished and are retried on the next poll.</li>
+ * </ul>
+ * <p>
+ * Relayed events are counted as {@code prices.events.outbox.relayed} tagged with
+ * {@code outcome=published|failed}, and {@code prices.events.outbox.lag} is the age of the
+ * oldest unpublished event at the last poll, zero when the outbox was empty.
+ * </p>
+ * <p>
+ * Enabled with {@code organization.prices.events.outbox.enabled}.
+ * </p>
+ */
+@Component
+@Slf4j
+public class PriceEventOutboxRelay {
+
+    /**
+     * Repository the outbox is read and acknowledged through.
+     */
+    private final PriceEventOutboxRepository outboxRepository;
+
+    /**
+     * Mapper to convert the outbox rows into events.
+     */
+    private final PriceEventEntityMapper priceEventEntityMapper;
+
+    /**
+     * Publisher the events are sent through.
+     */
+    private final KafkaEventPublisherAdapter kafkaPublisher;
+
+    /**
+     * Whether events are relayed at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Maximum number of events read and published at once.
+     */
+    private final int batchSize;
+
+    /**
+     * Time between two polls of the outbox once it is drained.
+     */
+    private final Duration pollInterval;
+
+    /**
+     * Creation time of the oldest unpublished event at the last poll, {@code null} when none.
+     */
+    private volatile LocalDateTime oldestPending;
+
+    /**
+     * Running polling pipeline.
+     */
+    private volatile Disposable polling;
+
+    private final Counter published;
+    private final Counter failed;
+
+    /**
+     * Constructs a new PriceEventOutboxRelay.
+     *
+     * @param outboxRepository       the repository the outbox is read and acknowledged through
+     * @param priceEventEntityMapper the mapper from outbox rows to events
+     * @param kafkaPublisher         the publisher the events are sent through
+     * @param meterRegistry          the registry the relay metrics are published to
+     * @param enabled                whether events are relayed (from config)
+     * @param batchSize              the maximum number of events published at once (from config)
+     * @param pollInterval           the time between two polls of a drained outbox (from config)
+     */
+    public PriceEventOutboxRelay(PriceEventOutboxRepository outboxRepository,
+                                 PriceEventEntityMapper priceEventEntityMapper,
+                                 KafkaEventPublisherAdapter kafkaPublisher,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${organization.prices.events.outbox.enabled:false}") boolean enabled,
+                                 @Value("${organization.prices.events.outbox.batch-size:1000}") int batchSize,
+                                 @Value("${organization.prices.events.outbox.poll-interval:1s}") Duration pollInterval) {
+        this.outboxRepository = outboxRepository;
+        this.priceEventEntityMapper = priceEventEntityMapper;
+        this.kafkaPublisher = kafkaPublisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+        this.published = relayedCounter("published", meterRegistry);
+        this.failed = relayedCounter("failed", meterRegistry);
+        TimeGauge.builder("prices.events.outbox.lag", this, TimeUnit.MILLISECONDS, relay -> {
+                    LocalDateTime oldest = relay.oldestPending;
+                    return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+                })
+                .description("Age of the oldest price event waiting to be published")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts polling the outbox once the application context (and therefore the database
+     * schema) is ready.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (!enabled || polling != null) {
+            return;
+        }
+        if (!kafkaPublisher.isEnabled()) {
+            log.warn("Price event outbox not relayed: Kafka publishing is disabled");
+            return;
+        }
+        polling = Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            log.error("Relaying the price event outbox failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+        log.info("Price event outbox relay started: batchSize={}, pollInterval={}", batchSize, pollInterval);
+    }
+
+    /**
+     * Stops polling.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * Relays batches of events until a batch comes back short or with failures.
+     *
+     * @return a Mono that completes once the outbox is drained, as far as Kafka allows
+     */
+    public Mono<Void> drain() {
+        return relayBatch()
+                .expand(relayed -> relayed == batchSize ? relayBatch() : Mono.empty())
+                .then();
+    }
+
+    /**
+     * Publishes the oldest unpublished events and marks the acknowledged ones as published.
+     *
+     * @return a Mono emitting the number of events marked as published
+     */
+    public Mono<Integer> relayBatch() {
+        return outboxRepository.findUnpublished(batchSize)
+                .collectList()
+                .flatMap(rows -> {
+                    if (rows.isEmpty()) {
+                        oldestPending = null;
+                        return Mono.just(0);
+                    }
+                    oldestPending = rows.get(0).getCreatedAt();
+                    return publish(rows);
+                });
+    }
+
+    /**
+     * Sends a batch of rows at once, and marks those acknowledged by the broker.
+     */
+    private Mono<Integer> publish(List<PriceEventEntity> rows) {
+        AtomicInteger failures = new AtomicInteger();
+        return Flux.fromIterable(rows)
+                .flatMap(row -> kafkaPublisher.send(priceEventEntityMapper.toDomain(row))
+                        .thenReturn(row.getId())
+                        .onErrorResume(e -> {
+                            if (failures.getAndIncrement() == 0) {
+                                log.warn("Price event {} not relayed to Kafka: {}", row.getId(), e.getMessage());
+                            }
+                            return Mono.empty();
+                        }), rows.size())
+                .collectList()
+                .flatMap(ids -> outboxRepository.markPublished(ids)
+                        .map(marked -> {
+                            published.increment(ids.size());
+                            failed.increment(failures.get());
+                            log.debug("Relayed {} price events, {} failed", ids.size(), failures.get());
+                            return ids.size();
+                        }));
+    }
+
+    private static Counter relayedCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("prices.events.outbox.relayed")
+                .description("Price events relayed from the outbox to Kafka")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,197 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.domain.model.PriceTimeline;
+import org.organization.prices.infrastructure.mapper.PriceRowMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Adapter for price repository operations running plain SQL through a {@link DatabaseClient}.
+ * <p>
+ * It answers the same queries as {@link PriceRepositoryAdapter}, but maps each row straight to
+ * a {@link Price} with a {@link PriceRowMapper}, where the Spring Data adapter builds a
+ * {@link org.organization.prices.infrastructure.entity.PriceEntity} by reflection and then
+ * copies it to the domain model. Each statement is built once into an
+ * immutable {@link DatabaseClient.GenericExecuteSpec} and only gets its parameters bound per call;
+ * its constant SQL lets the client reuse the parsed named parameters.
+ * </p>
+ * <p>
+ * Enabled with {@code organization.prices.repository.type=database-client}.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "organization.prices.repository.type", havingValue = "database-client")
+public class DatabaseClientPriceRepositoryAdapter implements PriceRepositoryPort {
+
+    private static final String FIND_APPLICABLE_PRICE = "SELECT " + PriceRowMapper.COLUMNS + " FROM prices "
+            + "WHERE product_id = :productId AND brand_id = :brandId AND start_date <= :date AND end_date >= :date "
+            + "ORDER BY priority DESC LIMIT 1";
+
+    private static final String FIND_BY_PRODUCT_AND_BRAND = "SELECT " + PriceRowMapper.COLUMNS + " FROM prices "
+            + "WHERE product_id = :productId AND brand_id = :brandId";
+
+    private static final String FIND_BY_PRODUCTS_AND_BRANDS = "SELECT " + PriceRowMapper.COLUMNS + " FROM prices "
+            + "WHERE product_id IN (:productIds) AND brand_id IN (:brandIds)";
+
+    private static final String FIND_ALL = "SELECT " + PriceRowMapper.COLUMNS + " FROM prices";
+
+    private static final String FIND_ALL_IN_RANGE = "SELECT " + PriceRowMapper.COLUMNS + " FROM prices "
+            + "WHERE product_id BETWEEN :productIdFrom AND :productIdTo "
+            + "AND brand_id BETWEEN :brandIdFrom AND :brandIdTo ORDER BY id";
+
+    /**
+     * Mapper to convert rows of the price table to the {@link Price} domain model.
+     */
+    private final PriceRowMapper rowMapper;
+
+    private final DatabaseClient.GenericExecuteSpec findApplicablePrice;
+
+    private final DatabaseClient.GenericExecuteSpec findByProductAndBrand;
+
+    private final DatabaseClient.GenericExecuteSpec findByProductsAndBrands;
+
+    private final DatabaseClient.GenericExecuteSpec findAll;
+
+    private final DatabaseClient.GenericExecuteSpec findAllInRange;
+
+    /**
+     * Constructs a new DatabaseClientPriceRepositoryAdapter, preparing its statements.
+     *
+     * @param databaseClient the client the statements run on
+     * @param rowMapper      the mapper from rows to prices
+     */
+    public DatabaseClientPriceRepositoryAdapter(DatabaseClient databaseClient, PriceRowMapper rowMapper) {
+        this.rowMapper = rowMapper;
+        this.findApplicablePrice = databaseClient.sql(FIND_APPLICABLE_PRICE);
+        this.findByProductAndBrand = databaseClient.sql(FIND_BY_PRODUCT_AND_BRAND);
+        this.findByProductsAndBrands = databaseClient.sql(FIND_BY_PRODUCTS_AND_BRANDS);
+        this.findAll = databaseClient.sql(FIND_ALL);
+        this.findAllInRange = databaseClient.sql(FIND_ALL_IN_RANGE);
+    }
+
+    /**
+     * Finds the applicable price for a product, brand, and date.
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price, or empty if none found
+     */
+    @Override
+    public Mono<Price> findApplicablePrice(Long productId, Long brandId, LocalDateTime date) {
+        return findApplicablePrice
+                .bind("productId", productId)
+                .bind("brandId", brandId)
+                .bind("date", date)
+                .map((row, metadata) -> rowMapper.toDomain(row))
+                .one();
+    }
+
+    /**
+     * Finds the validity segment of the applicable price for a product, brand, and date.
+     * <p>
+     * Loads every row of the (productId, brandId) group and resolves the segment with a
+     * {@link PriceTimeline}, since it may be cut short by a higher-priority price list.
+     * </p>
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return findByProductAndBrand
+                .bind("productId", productId)
+                .bind("brandId", brandId)
+                .map((row, metadata) -> rowMapper.toDomain(row))
+                .all()
+                .collectList()
+                .flatMap(rows -> Mono.justOrEmpty(PriceTimeline.of(rows).segmentAt(date)));
+    }
+
+    /**
+     * Finds the applicable prices for several queries with a single database round trip.
+     * <p>
+     * Loads the rows of every requested (productId, brandId) group in one query, builds a
+     * {@link PriceTimeline} per group and resolves each query against it.
+     * </p>
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        if (queries.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        Set<PriceKey> keys = queries.stream().map(PriceQuery::key).collect(Collectors.toSet());
+        Set<Long> productIds = keys.stream().map(PriceKey::productId).collect(Collectors.toSet());
+        Set<Long> brandIds = keys.stream().map(PriceKey::brandId).collect(Collectors.toSet());
+
+        return findByProductsAndBrands
+                .bind("productIds", productIds)
+                .bind("brandIds", brandIds)
+                .map((row, metadata) -> rowMapper.toDomain(row))
+                .all()
+                .filter(price -> keys.contains(PriceKey.of(price)))
+                .collectMultimap(PriceKey::of)
+                .map(rowsByKey -> {
+                    Map<PriceKey, PriceTimeline> timelines = new HashMap<>();
+                    rowsByKey.forEach((key, rows) -> timelines.put(key, PriceTimeline.of(rows)));
+                    Map<PriceQuery, Price> result = new HashMap<>();
+                    for (PriceQuery query : queries) {
+                        PriceTimeline timeline = timelines.get(query.key());
+                        if (timeline != null) {
+                            timeline.find(query.date()).ifPresent(price -> result.put(query, price));
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Retrieves all prices from the database.
+     *
+     * @return a {@link Flux} emitting all {@link Price} objects
+     */
+    @Override
+    public Flux<Price> getAll() {
+        return findAll
+                .map((row, metadata) -> rowMapper.toDomain(row))
+                .all();
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the database.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a {@link Flux} emitting the matching {@link Price} objects, ordered by id
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return findAllInRange
+                .bind("productIdFrom", filter.productIdLowerBound())
+                .bind("productIdTo", filter.productIdUpperBound())
+                .bind("brandIdFrom", filter.brandIdLowerBound())
+                .bind("brandIdTo", filter.brandIdUpperBound())
+                .map((row, metadata) -> rowMapper.toDomain(row))
+                .all();
+    }
+}
@@ -1,17 +1,28 @@
 package org.organization.prices.infrastructure.adapter.out.repository;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import org.organization.prices.domain.model.PriceEvent;
 import org.organization.prices.application.port.EventStorePort;
 import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
 import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Adapter for storing price query events in the database.
+ * <p>
+ * Every event is saved with its own {@code INSERT}, but at most {@code max-in-flight-writes} of
+ * them run at once, so that audit writes cannot take all the R2DBC connections price reads need.
+ * Writes beyond that wait in a queue of {@code max-pending-writes}; once it is full, new writes
+ * fail with a {@link RejectedExecutionException}.
+ * </p>
  */
 @Component
-@RequiredArgsConstructor
 public class EventStoreRepositoryAdapter implements EventStorePort {
 
     /**
@@ -24,15 +35,82 @@ public class EventStoreRepositoryAdapter implements EventStorePort {
      */
     private final PriceEventEntityMapper priceEventEntityMapper;
 
+    /**
+     * Writes waiting for one of the in-flight slots.
+     */
+    private final Sinks.Many<PendingWrite> pendingWrites;
+
+    /**
+     * Constructs a new EventStoreRepositoryAdapter and starts its writer.
+     *
+     * @param priceEventRepository   the repository the events are saved through
+     * @param priceEventEntityMapper the mapper from events to persistence entities
+     * @param maxInFlightWrites      the maximum number of saves running at once (from config)
+     * @param maxPendingWrites       the maximum number of saves waiting to run (from config)
+     */
+    public EventStoreRepositoryAdapter(PriceEventRepository priceEventRepository,
+                                       PriceEventEntityMapper priceEventEntityMapper,
+                                       @Value("${organization.prices.events.max-in-flight-writes:4}") int maxInFlightWrites,
+                                       @Value("${organization.prices.events.max-pending-writes:10000}") int maxPendingWrites) {
+        this.priceEventRepository = priceEventRepository;
+        this.priceEventEntityMapper = priceEventEntityMapper;
+        this.pendingWrites = Sinks.many().unicast().onBackpressureBuffer(new ArrayBlockingQueue<>(maxPendingWrites));
+        pendingWrites.asFlux()
+                .flatMap(this::save, maxInFlightWrites)
+                .subscribe();
+    }
+
     /**
      * Stores a price query event by converting the domain model to
-     * a persistence entity and saving it.
+     * a persistence entity and saving it once a write slot is free.
      *
      * @param priceEvent the price event domain model to store
+     * @return a Mono that completes once the event is saved, or fails with a
+     *         {@link RejectedExecutionException} if too many writes are waiting
      */
     @Override
-    public void storeEvent(PriceEvent priceEvent) {
-        PriceEventEntity priceEventEntity = priceEventEntityMapper.toEntity(priceEvent);
-        priceEventRepository.save(priceEventEntity).subscribe();
+    public Mono<Void> storeEvent(PriceEvent priceEvent) {
+        return Mono.defer(() -> {
+            PriceEventEntity priceEventEntity = priceEventEntityMapper.toEntity(priceEvent);
+            PendingWrite write = new PendingWrite(priceEventEntity, Sinks.empty());
+            while (true) {
+                Sinks.EmitResult result = pendingWrites.tryEmitNext(write);
+                if (result.isSuccess()) {
+                    return write.done().asMono();
+                }
+                if (result != Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+                    return Mono.error(new RejectedExecutionException("Price event not stored: " + result));
+                }
+                // Another thread is queuing a write right now
+                Thread.onSpinWait();
+            }
+        });
+    }
+
+    /**
+     * Stops accepting writes. Those already queued are still saved.
+     */
+    @PreDestroy
+    public void stop() {
+        pendingWrites.tryEmitComplete();
+    }
+
+    /**
+     * Saves a queued event and signals its outcome to the caller.
+     */
+    private Mono<Void> save(PendingWrite write) {
+        return priceEventRepository.save(write.entity())
+                .doOnSuccess(saved -> write.done().tryEmitEmpty())
+                .then()
+                .onErrorResume(e -> {
+                    write.done().tryEmitError(e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * An event waiting to be saved, with the sink its caller waits on.
+     */
+    private record PendingWrite(PriceEventEntity entity, Sinks.Empty<Void> done) {
     }
-}
\ No newline at end of file
+}
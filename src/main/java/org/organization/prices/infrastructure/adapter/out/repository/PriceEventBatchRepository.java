@@ -0,0 +1,96 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes {@link PriceEventEntity} instances to the {@code PRICE_EVENTS} table in batches.
+ * <p>
+ * Each batch is a single multi-row {@code INSERT}, so it costs one statement and one round trip
+ * whatever its size, where {@link PriceEventRepository#saveAll(Iterable)} runs one statement per
+ * entity. Generated IDs are not read back.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceEventBatchRepository {
+
+    private static final String INSERT_INTO = "INSERT INTO price_events "
+            + "(product_id, brand_id, price_list, query_date, price, event_type, created_at, event_count, "
+            + "window_start, window_end, first_query_at, last_query_at, min_price, max_price) VALUES ";
+
+    /**
+     * Client the statements run on.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Inserts the given events with a single statement.
+     *
+     * @param events the events to insert, none of them holding an ID
+     * @return the number of inserted rows
+     */
+    public Mono<Long> insertAll(List<PriceEventEntity> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return Mono.defer(() -> {
+            DatabaseClient.GenericExecuteSpec insert = databaseClient.sql(insertSql(events.size()));
+            for (int i = 0; i < events.size(); i++) {
+                PriceEventEntity event = events.get(i);
+                insert = bind(insert, "productId" + i, event.getProductId(), Long.class);
+                insert = bind(insert, "brandId" + i, event.getBrandId(), Long.class);
+                insert = bind(insert, "priceList" + i, event.getPriceList(), Integer.class);
+                insert = bind(insert, "queryDate" + i, event.getQueryDate(), LocalDateTime.class);
+                insert = bind(insert, "price" + i, event.getPrice(), BigDecimal.class);
+                insert = bind(insert, "eventType" + i, event.getEventType(), String.class);
+                insert = bind(insert, "createdAt" + i, event.getCreatedAt(), LocalDateTime.class);
+                insert = bind(insert, "eventCount" + i, event.getEventCount(), Long.class);
+                insert = bind(insert, "windowStart" + i, event.getWindowStart(), LocalDateTime.class);
+                insert = bind(insert, "windowEnd" + i, event.getWindowEnd(), LocalDateTime.class);
+                insert = bind(insert, "firstQueryAt" + i, event.getFirstQueryAt(), LocalDateTime.class);
+                insert = bind(insert, "lastQueryAt" + i, event.getLastQueryAt(), LocalDateTime.class);
+                insert = bind(insert, "minPrice" + i, event.getMinPrice(), BigDecimal.class);
+                insert = bind(insert, "maxPrice" + i, event.getMaxPrice(), BigDecimal.class);
+            }
+            return insert.fetch().rowsUpdated();
+        });
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_INTO.length() + rows * 240).append(INSERT_INTO);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(:productId").append(i)
+                    .append(", :brandId").append(i)
+                    .append(", :priceList").append(i)
+                    .append(", :queryDate").append(i)
+                    .append(", :price").append(i)
+                    .append(", :eventType").append(i)
+                    .append(", :createdAt").append(i)
+                    .append(", :eventCount").append(i)
+                    .append(", :windowStart").append(i)
+                    .append(", :windowEnd").append(i)
+                    .append(", :firstQueryAt").append(i)
+                    .append(", :lastQueryAt").append(i)
+                    .append(", :minPrice").append(i)
+                    .append(", :maxPrice").append(i)
+                    .append(')');
+        }
+        return sql.toString();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, String name,
+                                                          Object value, Class<?> type) {
+        return value != null ? spec.bind(name, value) : spec.bindNull(name, type);
+    }
+}
@@ -0,0 +1,94 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import io.r2dbc.spi.Row;
+import lombok.RequiredArgsConstructor;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Reads and acknowledges the {@code PRICE_EVENTS} rows that have not been published to Kafka yet,
+ * the table acting as the outbox of the events.
+ * <p>
+ * Rows are inserted with {@code published = FALSE} and flipped once the broker has acknowledged
+ * them. Pending rows are read in ID order through the {@code (published, id)} index.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceEventOutboxRepository {
+
+    /**
+     * Columns of an event, in the order {@link #toEntity(Row)} reads them.
+     */
+    static final String COLUMNS = "id, product_id, brand_id, price_list, query_date, price, event_type, created_at, "
+            + "event_count, window_start, window_end, first_query_at, last_query_at, min_price, max_price";
+
+    private static final String FIND_UNPUBLISHED = "SELECT " + COLUMNS
+            + " FROM price_events WHERE published = FALSE ORDER BY id LIMIT :limit";
+
+    private static final String MARK_PUBLISHED = "UPDATE price_events SET published = TRUE WHERE id IN (:ids)";
+
+    /**
+     * Client the statements run on.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Streams the oldest unpublished events.
+     *
+     * @param limit the maximum number of events to read
+     * @return a Flux of at most {@code limit} unpublished events, in insertion order
+     */
+    public Flux<PriceEventEntity> findUnpublished(int limit) {
+        return databaseClient.sql(FIND_UNPUBLISHED)
+                .bind("limit", limit)
+                .map((row, metadata) -> toEntity(row))
+                .all();
+    }
+
+    /**
+     * Marks events as published.
+     *
+     * @param ids the IDs of the published events
+     * @return the number of updated rows
+     */
+    public Mono<Long> markPublished(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.just(0L);
+        }
+        return databaseClient.sql(MARK_PUBLISHED)
+                .bind("ids", ids)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Maps a row of {@link #COLUMNS} to an entity.
+     */
+    static PriceEventEntity toEntity(Row row) {
+        PriceEventEntity entity = new PriceEventEntity();
+        entity.setId(row.get(0, Long.class));
+        entity.setProductId(row.get(1, Long.class));
+        entity.setBrandId(row.get(2, Long.class));
+        entity.setPriceList(row.get(3, Integer.class));
+        entity.setQueryDate(row.get(4, LocalDateTime.class));
+        entity.setPrice(row.get(5, BigDecimal.class));
+        entity.setEventType(row.get(6, String.class));
+        entity.setCreatedAt(row.get(7, LocalDateTime.class));
+        entity.setEventCount(row.get(8, Long.class));
+        entity.setWindowStart(row.get(9, LocalDateTime.class));
+        entity.setWindowEnd(row.get(10, LocalDateTime.class));
+        entity.setFirstQueryAt(row.get(11, LocalDateTime.class));
+        entity.setLastQueryAt(row.get(12, LocalDateTime.class));
+        entity.setMinPrice(row.get(13, BigDecimal.class));
+        entity.setMaxPrice(row.get(14, BigDecimal.class));
+        return entity;
+    }
+}
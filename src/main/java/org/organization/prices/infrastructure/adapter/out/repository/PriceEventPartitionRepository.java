@@ -0,0 +1,182 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.regex.Pattern;
+
+/**
+ * Manages the partitions of the {@code PRICE_EVENTS} table.
+ * <p>
+ * {@code PRICE_EVENTS} is a synonym of the partition events are currently written to, a table
+ * named {@code PRICE_EVENTS_P} followed by the {@code yyyyMMddHHmm} start of the events it holds.
+ * Every reader and writer of {@code PRICE_EVENTS} goes through the synonym, which
+ * {@link #switchTo(String)} points at another partition in a single statement, so no statement
+ * ever finds the table missing. Dropping a partition is a {@code DROP TABLE}, whatever its size.
+ * </p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class PriceEventPartitionRepository {
+
+    /**
+     * Prefix of the partition names.
+     */
+    public static final String PREFIX = "PRICE_EVENTS_P";
+
+    /**
+     * Names of the partitions, the only identifiers interpolated in the statements.
+     */
+    private static final Pattern PARTITION_NAME = Pattern.compile(PREFIX + "\\d{12}");
+
+    private static final String FIND_CURRENT = "SELECT synonym_for FROM information_schema.synonyms "
+            + "WHERE synonym_schema = SCHEMA() AND synonym_name = 'PRICE_EVENTS'";
+
+    private static final String FIND_PARTITIONS = "SELECT table_name FROM information_schema.tables "
+            + "WHERE table_schema = SCHEMA() AND table_name LIKE 'PRICE\\_EVENTS\\_P%' ORDER BY table_name";
+
+    /**
+     * Columns of a partition, as created by {@code schema.sql} for the first one.
+     */
+    private static final String PARTITION_COLUMNS = "("
+            + "id BIGINT DEFAULT NEXT VALUE FOR PRICE_EVENTS_ID_SEQ PRIMARY KEY, "
+            + "product_id BIGINT NOT NULL, "
+            + "brand_id BIGINT NOT NULL, "
+            + "price_list INT NOT NULL, "
+            + "query_date TIMESTAMP NOT NULL, "
+            + "price DECIMAL(10,2) NOT NULL, "
+            + "event_type VARCHAR(50) NOT NULL, "
+            + "created_at TIMESTAMP NOT NULL, "
+            + "event_count BIGINT, "
+            + "window_start TIMESTAMP, "
+            + "window_end TIMESTAMP, "
+            + "first_query_at TIMESTAMP, "
+            + "last_query_at TIMESTAMP, "
+            + "min_price DECIMAL(10,2), "
+            + "max_price DECIMAL(10,2), "
+            + "published BOOLEAN NOT NULL DEFAULT FALSE)";
+
+    /**
+     * Client the statements run on.
+     */
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Returns the partition events are currently written to.
+     *
+     * @return a Mono emitting the name of the partition {@code PRICE_EVENTS} stands for
+     */
+    public Mono<String> findCurrentPartition() {
+        return databaseClient.sql(FIND_CURRENT)
+                .map((row, metadata) -> row.get(0, String.class))
+                .one();
+    }
+
+    /**
+     * Lists the partitions.
+     *
+     * @return a Flux of the partition names, from the oldest
+     */
+    public Flux<String> findPartitions() {
+        return databaseClient.sql(FIND_PARTITIONS)
+                .map((row, metadata) -> row.get(0, String.class))
+                .all()
+                .filter(name -> PARTITION_NAME.matcher(name).matches());
+    }
+
+    /**
+     * Creates a partition, with the index of the outbox, unless it exists.
+     *
+     * @param partition the name of the partition
+     * @return a Mono that completes once the partition exists
+     */
+    public Mono<Void> createPartition(String partition) {
+        String table = checked(partition);
+        return databaseClient.sql("CREATE TABLE IF NOT EXISTS " + table + " " + PARTITION_COLUMNS)
+                .then()
+                .then(databaseClient.sql("CREATE INDEX IF NOT EXISTS idx_price_events_published_"
+                        + table.substring(PREFIX.length() - 1) + " ON " + table + " (published, id)").then());
+    }
+
+    /**
+     * Points {@code PRICE_EVENTS} at a partition, so that events are written to it from now on.
+     *
+     * @param partition the name of the partition
+     * @return a Mono that completes once the synonym is switched
+     */
+    public Mono<Void> switchTo(String partition) {
+        return databaseClient.sql("CREATE OR REPLACE SYNONYM PRICE_EVENTS FOR " + checked(partition))
+                .then();
+    }
+
+    /**
+     * Moves the events not published yet from a partition to another, for the outbox to find them.
+     * Only the events copied to the target are deleted, so that an event committed to the source
+     * while it is moved stays there until the next move.
+     *
+     * @param from the partition to move the events from
+     * @param to   the partition to move the events to
+     * @return a Mono emitting the number of moved events
+     */
+    public Mono<Long> moveUnpublished(String from, String to) {
+        String source = checked(from);
+        String target = checked(to);
+        String columns = PriceEventOutboxRepository.COLUMNS + ", published";
+        return databaseClient.sql("INSERT INTO " + target + " (" + columns + ") SELECT " + columns
+                        + " FROM " + source + " WHERE published = FALSE AND id NOT IN (SELECT id FROM " + target + ")")
+                .fetch()
+                .rowsUpdated()
+                .flatMap(moved -> databaseClient.sql("DELETE FROM " + source
+                                + " WHERE published = FALSE AND id IN (SELECT id FROM " + target + ")")
+                        .fetch()
+                        .rowsUpdated()
+                        .thenReturn(moved));
+    }
+
+    /**
+     * Counts the events of a partition not published yet.
+     *
+     * @param partition the name of the partition
+     * @return a Mono emitting the number of unpublished events
+     */
+    public Mono<Long> countUnpublished(String partition) {
+        return databaseClient.sql("SELECT COUNT(*) FROM " + checked(partition) + " WHERE published = FALSE")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    /**
+     * Streams the events of a partition.
+     *
+     * @param partition the name of the partition
+     * @return a Flux of the events of the partition, in ID order
+     */
+    public Flux<PriceEventEntity> findAll(String partition) {
+        return databaseClient.sql("SELECT " + PriceEventOutboxRepository.COLUMNS + " FROM " + checked(partition)
+                        + " ORDER BY id")
+                .map((row, metadata) -> PriceEventOutboxRepository.toEntity(row))
+                .all();
+    }
+
+    /**
+     * Drops a partition and every event in it.
+     *
+     * @param partition the name of the partition
+     * @return a Mono that completes once the partition is dropped
+     */
+    public Mono<Void> dropPartition(String partition) {
+        return databaseClient.sql("DROP TABLE IF EXISTS " + checked(partition))
+                .then();
+    }
+
+    private static String checked(String partition) {
+        if (partition == null || !PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Invalid price event partition: " + partition);
+        }
+        return partition;
+    }
+}
@@ -8,6 +8,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 /**
  * Reactive repository for managing {@link PriceEntity} instances.
@@ -52,6 +53,52 @@ public interface PriceRepository extends ReactiveCrudRepository<PriceEntity, Lon
         );
     }
 
+    /**
+     * Finds every price entity of the given product and brand, regardless of its dates.
+     *
+     * @param productId the product identifier
+     * @param brandId   the brand identifier
+     * @return a Flux emitting all price entities of the (productId, brandId) group
+     */
+    Flux<PriceEntity> findByProductIdAndBrandId(Long productId, Long brandId);
+
+    /**
+     * Finds every price entity whose product and brand are among the given ones, regardless of
+     * its dates.
+     * <p>
+     * The result covers every combination of the given products and brands, so callers
+     * resolving specific (productId, brandId) pairs have to discard the ones they did not ask for.
+     * </p>
+     *
+     * @param productIds the product identifiers
+     * @param brandIds   the brand identifiers
+     * @return a Flux emitting the matching price entities
+     */
+    Flux<PriceEntity> findByProductIdInAndBrandIdIn(Collection<Long> productIds, Collection<Long> brandIds);
+
+    /**
+     * Finds every price entity whose product and brand fall within the given inclusive ranges,
+     * ordered by id.
+     *
+     * @param productIdFrom the lowest product identifier
+     * @param productIdTo   the highest product identifier
+     * @param brandIdFrom   the lowest brand identifier
+     * @param brandIdTo     the highest brand identifier
+     * @return a Flux emitting the matching price entities
+     */
+    @Query("SELECT * FROM prices WHERE product_id BETWEEN :productIdFrom AND :productIdTo " +
+            "AND brand_id BETWEEN :brandIdFrom AND :brandIdTo ORDER BY id")
+    Flux<PriceEntity> findAllInRange(long productIdFrom, long productIdTo, long brandIdFrom, long brandIdTo);
+
+    /**
+     * Finds every price entity inserted or updated at or after the given instant, oldest change
+     * first.
+     *
+     * @param updatedAt the lowest last-update time to return
+     * @return a Flux emitting the changed price entities ordered by last-update time
+     */
+    Flux<PriceEntity> findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(LocalDateTime updatedAt);
+
     /**
      * Returns all price entities.
      *
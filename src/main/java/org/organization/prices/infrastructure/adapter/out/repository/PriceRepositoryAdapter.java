@@ -3,6 +3,11 @@ package org.organization.prices.infrastructure.adapter.out.repository;
 import lombok.RequiredArgsConstructor;
 import org.organization.prices.domain.execption.PriceNotFoundException;
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import org.organization.prices.domain.model.PriceTimeline;
 import org.organization.prices.application.port.PriceRepositoryPort;
 import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
 import org.springframework.stereotype.Component;
@@ -10,6 +15,11 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Adapter for price repository operations.
@@ -55,19 +65,87 @@ public class PriceRepositoryAdapter implements PriceRepositoryPort {
                 .map(priceMapper::toDomain);
     }
 
+    /**
+     * Finds the validity segment of the applicable price for a product, brand, and date.
+     * <p>
+     * Loads every row of the (productId, brandId) group and resolves the segment with a
+     * {@link PriceTimeline}, since it may be cut short by a higher-priority price list.
+     * </p>
+     *
+     * @param productId the product ID
+     * @param brandId the brand ID
+     * @param date the application date
+     * @return the applicable price segment, or empty if none found
+     */
+    @Override
+    public Mono<PriceSegment> findApplicableSegment(Long productId, Long brandId, LocalDateTime date) {
+        return priceRepository.findByProductIdAndBrandId(productId, brandId)
+                .map(priceMapper::toDomain)
+                .collectList()
+                .flatMap(rows -> Mono.justOrEmpty(PriceTimeline.of(rows).segmentAt(date)));
+    }
+
+    /**
+     * Finds the applicable prices for several queries with a single database round trip.
+     * <p>
+     * Loads the rows of every requested (productId, brandId) group in one query, builds a
+     * {@link PriceTimeline} per group and resolves each query against it.
+     * </p>
+     *
+     * @param queries the queries to resolve
+     * @return the applicable price of every query that has one
+     */
+    @Override
+    public Mono<Map<PriceQuery, Price>> findApplicablePrices(Collection<PriceQuery> queries) {
+        if (queries.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        Set<PriceKey> keys = queries.stream().map(PriceQuery::key).collect(Collectors.toSet());
+        Set<Long> productIds = keys.stream().map(PriceKey::productId).collect(Collectors.toSet());
+        Set<Long> brandIds = keys.stream().map(PriceKey::brandId).collect(Collectors.toSet());
+
+        return priceRepository.findByProductIdInAndBrandIdIn(productIds, brandIds)
+                .map(priceMapper::toDomain)
+                .filter(price -> keys.contains(PriceKey.of(price)))
+                .collectMultimap(PriceKey::of)
+                .map(rowsByKey -> {
+                    Map<PriceKey, PriceTimeline> timelines = new HashMap<>();
+                    rowsByKey.forEach((key, rows) -> timelines.put(key, PriceTimeline.of(rows)));
+                    Map<PriceQuery, Price> result = new HashMap<>();
+                    for (PriceQuery query : queries) {
+                        PriceTimeline timeline = timelines.get(query.key());
+                        if (timeline != null) {
+                            timeline.find(query.date()).ifPresent(price -> result.put(query, price));
+                        }
+                    }
+                    return result;
+                });
+    }
+
     /**
      * Retrieves all prices from the repository.
      * <p>
      * Fetches all price entities, maps them to the domain model, and returns them as a {@link Flux}.
-     * If no prices are found, a {@link PriceNotFoundException} is thrown.
+     * If no prices are found, the {@link Flux} completes empty.
      * </p>
      *
      * @return a {@link Flux} emitting all {@link Price} objects
-     * @throws PriceNotFoundException if no prices are found
      */
     @Override
     public Flux<Price> getAll() {
-        return priceRepository.findAllPrices().map(priceMapper::toDomain)
-                .switchIfEmpty(price-> Flux.empty());
+        return priceRepository.findAllPrices().map(priceMapper::toDomain);
+    }
+
+    /**
+     * Streams the prices of a slice of the catalogue straight from the database.
+     *
+     * @param filter the product and brand ranges to select
+     * @return a {@link Flux} emitting the matching {@link Price} objects, ordered by id
+     */
+    @Override
+    public Flux<Price> streamAll(PriceCatalogFilter filter) {
+        return priceRepository.findAllInRange(filter.productIdLowerBound(), filter.productIdUpperBound(),
+                        filter.brandIdLowerBound(), filter.brandIdUpperBound())
+                .map(priceMapper::toDomain);
     }
 }
\ No newline at end of file
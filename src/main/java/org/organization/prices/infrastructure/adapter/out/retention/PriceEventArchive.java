@@ -0,0 +1,360 @@
+package org.organization.prices.infrastructure.adapter.out.retention;
+
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzipped columnar file of archived price events.
+ * <p>
+ * After an 8-byte header (magic number and format version) the file holds row groups of up to
+ * a few thousand events, each made of its number of rows followed by one block per column, and
+ * ends with an empty row group. A block starts with a bitmap of the rows having a value, then
+ * holds the values of those rows:
+ * </p>
+ * <ul>
+ *   <li>identifiers and counts as zigzag varint deltas from the previous value of the column,
+ *       which keeps sorted IDs and repeated products to a byte or two;</li>
+ *   <li>timestamps as the delta of their UTC epoch second followed by their nanoseconds;</li>
+ *   <li>amounts as their scale followed by their unscaled value;</li>
+ *   <li>event types as indexes into a dictionary built along the row group, a new type being
+ *       written once right after its index.</li>
+ * </ul>
+ * <p>
+ * Grouping a column's similar values together is what lets gzip shrink them well beyond what
+ * it does on rows. Files are written to a temporary sibling that {@link #commit()} atomically
+ * moves into place, so an archive either is complete or does not exist.
+ * </p>
+ */
+@Slf4j
+public final class PriceEventArchive implements Closeable {
+
+    /**
+     * Identifies price event archives: {@code PRXA}.
+     */
+    private static final int MAGIC = 0x50525841;
+
+    /**
+     * Version of the layout, bumped on any incompatible change.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private final Path path;
+    private final Path temporary;
+    private final DataOutputStream out;
+    private long rows;
+    private boolean committed;
+
+    private PriceEventArchive(Path path, Path temporary, DataOutputStream out) {
+        this.path = path;
+        this.temporary = temporary;
+        this.out = out;
+    }
+
+    /**
+     * Starts writing an archive, creating its directory if needed.
+     *
+     * @param path the file to write
+     * @return the archive, to {@link #append(List)} events to and then {@link #commit()}
+     * @throws IOException if the file cannot be created
+     */
+    public static PriceEventArchive create(Path path) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        OutputStream file = Files.newOutputStream(temporary);
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(file, 1 << 16)));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        return new PriceEventArchive(path, temporary, out);
+    }
+
+    /**
+     * Appends events as a row group.
+     *
+     * @param events the events, in the order they are read back
+     * @throws IOException if the file cannot be written
+     */
+    public void append(List<PriceEventEntity> events) throws IOException {
+        if (events.isEmpty()) {
+            return;
+        }
+        writeVarint(out, events.size());
+        writeLongs(events, PriceEventEntity::getId);
+        writeLongs(events, PriceEventEntity::getProductId);
+        writeLongs(events, PriceEventEntity::getBrandId);
+        writeLongs(events, event -> event.getPriceList() == null ? null : event.getPriceList().longValue());
+        writeTimestamps(events, PriceEventEntity::getQueryDate);
+        writeDecimals(events, PriceEventEntity::getPrice);
+        writeStrings(events, PriceEventEntity::getEventType);
+        writeTimestamps(events, PriceEventEntity::getCreatedAt);
+        writeLongs(events, PriceEventEntity::getEventCount);
+        writeTimestamps(events, PriceEventEntity::getWindowStart);
+        writeTimestamps(events, PriceEventEntity::getWindowEnd);
+        writeTimestamps(events, PriceEventEntity::getFirstQueryAt);
+        writeTimestamps(events, PriceEventEntity::getLastQueryAt);
+        writeDecimals(events, PriceEventEntity::getMinPrice);
+        writeDecimals(events, PriceEventEntity::getMaxPrice);
+        rows += events.size();
+    }
+
+    /**
+     * Completes the archive and moves it into place, replacing any previous file.
+     *
+     * @return the number of archived events
+     * @throws IOException if the file cannot be written
+     */
+    public long commit() throws IOException {
+        writeVarint(out, 0);
+        out.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+        return rows;
+    }
+
+    /**
+     * Discards the archive unless it was committed.
+     */
+    @Override
+    public void close() {
+        if (committed) {
+            return;
+        }
+        try {
+            out.close();
+            Files.deleteIfExists(temporary);
+        } catch (IOException e) {
+            log.warn("Incomplete price event archive {} not deleted: {}", temporary, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every event of an archive.
+     *
+     * @param path the file to read
+     * @return the events, in the order they were appended
+     * @throws IOException if the file cannot be read or is not a price event archive
+     */
+    public static List<PriceEventEntity> read(Path path) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(path), 1 << 16)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(path + " is not a price event archive");
+            }
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported price event archive version " + version + ": " + path);
+            }
+            List<PriceEventEntity> events = new ArrayList<>();
+            for (int count = (int) readVarint(in); count > 0; count = (int) readVarint(in)) {
+                List<PriceEventEntity> group = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    group.add(new PriceEventEntity());
+                }
+                readLongs(in, group, PriceEventEntity::setId);
+                readLongs(in, group, PriceEventEntity::setProductId);
+                readLongs(in, group, PriceEventEntity::setBrandId);
+                readLongs(in, group, (event, priceList) -> event.setPriceList(Math.toIntExact(priceList)));
+                readTimestamps(in, group, PriceEventEntity::setQueryDate);
+                readDecimals(in, group, PriceEventEntity::setPrice);
+                readStrings(in, group, PriceEventEntity::setEventType);
+                readTimestamps(in, group, PriceEventEntity::setCreatedAt);
+                readLongs(in, group, PriceEventEntity::setEventCount);
+                readTimestamps(in, group, PriceEventEntity::setWindowStart);
+                readTimestamps(in, group, PriceEventEntity::setWindowEnd);
+                readTimestamps(in, group, PriceEventEntity::setFirstQueryAt);
+                readTimestamps(in, group, PriceEventEntity::setLastQueryAt);
+                readDecimals(in, group, PriceEventEntity::setMinPrice);
+                readDecimals(in, group, PriceEventEntity::setMaxPrice);
+                events.addAll(group);
+            }
+            return events;
+        }
+    }
+
+    private void writeLongs(List<PriceEventEntity> events, Function<PriceEventEntity, Long> column)
+            throws IOException {
+        writePresence(events, column);
+        long previous = 0;
+        for (PriceEventEntity event : events) {
+            Long value = column.apply(event);
+            if (value != null) {
+                writeZigzag(out, value - previous);
+                previous = value;
+            }
+        }
+    }
+
+    private void writeTimestamps(List<PriceEventEntity> events, Function<PriceEventEntity, LocalDateTime> column)
+            throws IOException {
+        writePresence(events, column);
+        long previous = 0;
+        for (PriceEventEntity event : events) {
+            LocalDateTime value = column.apply(event);
+            if (value != null) {
+                long seconds = value.toEpochSecond(ZoneOffset.UTC);
+                writeZigzag(out, seconds - previous);
+                writeVarint(out, value.getNano());
+                previous = seconds;
+            }
+        }
+    }
+
+    private void writeDecimals(List<PriceEventEntity> events, Function<PriceEventEntity, BigDecimal> column)
+            throws IOException {
+        writePresence(events, column);
+        for (PriceEventEntity event : events) {
+            BigDecimal value = column.apply(event);
+            if (value != null) {
+                writeZigzag(out, value.scale());
+                writeZigzag(out, value.unscaledValue().longValueExact());
+            }
+        }
+    }
+
+    private void writeStrings(List<PriceEventEntity> events, Function<PriceEventEntity, String> column)
+            throws IOException {
+        writePresence(events, column);
+        Map<String, Integer> dictionary = new HashMap<>();
+        for (PriceEventEntity event : events) {
+            String value = column.apply(event);
+            if (value != null) {
+                Integer index = dictionary.get(value);
+                if (index == null) {
+                    writeVarint(out, dictionary.size());
+                    out.writeUTF(value);
+                    dictionary.put(value, dictionary.size());
+                } else {
+                    writeVarint(out, index);
+                }
+            }
+        }
+    }
+
+    private void writePresence(List<PriceEventEntity> events, Function<PriceEventEntity, ?> column)
+            throws IOException {
+        int bits = 0;
+        for (int i = 0; i < events.size(); i++) {
+            if (column.apply(events.get(i)) != null) {
+                bits |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7 || i == events.size() - 1) {
+                out.writeByte(bits);
+                bits = 0;
+            }
+        }
+    }
+
+    private static void readLongs(DataInputStream in, List<PriceEventEntity> group,
+                                  BiConsumer<PriceEventEntity, Long> column) throws IOException {
+        long previous = 0;
+        for (PriceEventEntity event : present(in, group)) {
+            previous += readZigzag(in);
+            column.accept(event, previous);
+        }
+    }
+
+    private static void readTimestamps(DataInputStream in, List<PriceEventEntity> group,
+                                       BiConsumer<PriceEventEntity, LocalDateTime> column) throws IOException {
+        long previous = 0;
+        for (PriceEventEntity event : present(in, group)) {
+            previous += readZigzag(in);
+            column.accept(event, LocalDateTime.ofEpochSecond(previous, (int) readVarint(in), ZoneOffset.UTC));
+        }
+    }
+
+    private static void readDecimals(DataInputStream in, List<PriceEventEntity> group,
+                                     BiConsumer<PriceEventEntity, BigDecimal> column) throws IOException {
+        for (PriceEventEntity event : present(in, group)) {
+            int scale = (int) readZigzag(in);
+            column.accept(event, new BigDecimal(BigInteger.valueOf(readZigzag(in)), scale));
+        }
+    }
+
+    private static void readStrings(DataInputStream in, List<PriceEventEntity> group,
+                                    BiConsumer<PriceEventEntity, String> column) throws IOException {
+        List<String> dictionary = new ArrayList<>();
+        for (PriceEventEntity event : present(in, group)) {
+            int index = (int) readVarint(in);
+            if (index == dictionary.size()) {
+                dictionary.add(in.readUTF());
+            } else if (index > dictionary.size()) {
+                throw new IOException("Corrupted price event archive: unknown dictionary entry " + index);
+            }
+            column.accept(event, dictionary.get(index));
+        }
+    }
+
+    private static List<PriceEventEntity> present(DataInputStream in, List<PriceEventEntity> group)
+            throws IOException {
+        List<PriceEventEntity> present = new ArrayList<>(group.size());
+        int bits = 0;
+        for (int i = 0; i < group.size(); i++) {
+            if ((i & 7) == 0) {
+                bits = in.readUnsignedByte();
+            }
+            if ((bits & 1 << (i & 7)) != 0) {
+                present.add(group.get(i));
+            }
+        }
+        return present;
+    }
+
+    private static void writeZigzag(DataOutputStream out, long value) throws IOException {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readZigzag(InputStream in) throws IOException {
+        long value = readVarint(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarint(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated price event archive");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Corrupted price event archive: varint too long");
+    }
+}
@@ -0,0 +1,319 @@
+package org.organization.prices.infrastructure.adapter.out.retention;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventPartitionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rolls the {@code PRICE_EVENTS} partitions over and drops those past the retention.
+ * <p>
+ * Events are written to one partition per {@code period}, named after the start of the period:
+ * every {@code check-interval} the retention creates the partition of the current period if
+ * needed and points {@code PRICE_EVENTS} at it. A partition is sealed once the next one is
+ * created, and dropped as a whole once its period ended more than {@code retention} ago, which
+ * costs the same whatever the number of events it holds, instead of deleting them one by one.
+ * </p>
+ * <ul>
+ *   <li>In outbox mode, the events of the sealed partitions that are not published yet are moved
+ *       to the current one at every check, so that the relay still finds them, including those of
+ *       writes that resolved {@code PRICE_EVENTS} before the switch and committed after it. A
+ *       partition still holding unpublished events is never dropped, and an event published
+ *       while it is moved may be published again.</li>
+ *   <li>With an {@code archive-path}, a partition is first written there as a
+ *       {@link PriceEventArchive}, and kept if that fails, to be archived again at the next
+ *       check.</li>
+ * </ul>
+ * <p>
+ * {@code prices.events.partitions} is the number of partitions at the last check, and dropped
+ * and archived partitions are counted as {@code prices.events.partitions.dropped} and
+ * {@code prices.events.partitions.archived}.
+ * </p>
+ * <p>
+ * Enabled with {@code organization.prices.events.retention.enabled}, off by default since it
+ * deletes audit events; otherwise all events stay in the initial partition.
+ * </p>
+ */
+@Component
+@Slf4j
+public class PriceEventRetention {
+
+    /**
+     * Number of events read and archived at once, the size of an archive row group.
+     */
+    private static final int ARCHIVE_ROW_GROUP = 8192;
+
+    private static final DateTimeFormatter PARTITION_START = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    /**
+     * Repository the partitions are managed through.
+     */
+    private final PriceEventPartitionRepository partitionRepository;
+
+    /**
+     * Whether partitions are rolled over and dropped at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Time covered by a partition, a whole number of minutes.
+     */
+    private final Duration period;
+
+    /**
+     * Time the events are kept after their partition is sealed.
+     */
+    private final Duration retention;
+
+    /**
+     * Time between two checks of the partitions.
+     */
+    private final Duration checkInterval;
+
+    /**
+     * Directory the partitions are archived to before being dropped, {@code null} to not archive them.
+     */
+    private final Path archivePath;
+
+    /**
+     * Whether the outbox relay reads the partitions, which requires moving unpublished events.
+     */
+    private final boolean outboxEnabled;
+
+    /**
+     * Clock the periods are computed with.
+     */
+    private final Clock clock;
+
+    /**
+     * Number of partitions at the last check.
+     */
+    private final AtomicInteger partitions = new AtomicInteger();
+
+    /**
+     * Running checking pipeline.
+     */
+    private volatile Disposable checking;
+
+    private final Counter dropped;
+    private final Counter archived;
+
+    /**
+     * Constructs a new PriceEventRetention.
+     *
+     * @param partitionRepository the repository the partitions are managed through
+     * @param meterRegistry       the registry the retention metrics are published to
+     * @param enabled             whether partitions are rolled over and dropped (from config)
+     * @param period              the time covered by a partition (from config)
+     * @param retention           the time events are kept after their partition is sealed (from config)
+     * @param checkInterval       the time between two checks of the partitions (from config)
+     * @param archivePath         the directory partitions are archived to, empty to not archive them (from config)
+     * @param outboxEnabled       whether the outbox relay reads the partitions (from config)
+     */
+    @Autowired
+    public PriceEventRetention(PriceEventPartitionRepository partitionRepository,
+                               MeterRegistry meterRegistry,
+                               @Value("${organization.prices.events.retention.enabled:false}") boolean enabled,
+                               @Value("${organization.prices.events.retention.period:1h}") Duration period,
+                               @Value("${organization.prices.events.retention.retention:24h}") Duration retention,
+                               @Value("${organization.prices.events.retention.check-interval:1m}") Duration checkInterval,
+                               @Value("${organization.prices.events.retention.archive-path:}") String archivePath,
+                               @Value("${organization.prices.events.outbox.enabled:false}") boolean outboxEnabled) {
+        this(partitionRepository, meterRegistry, enabled, period, retention, checkInterval,
+                archivePath == null || archivePath.isBlank() ? null : Path.of(archivePath), outboxEnabled,
+                Clock.systemDefaultZone());
+    }
+
+    PriceEventRetention(PriceEventPartitionRepository partitionRepository, MeterRegistry meterRegistry,
+                        boolean enabled, Duration period, Duration retention, Duration checkInterval,
+                        Path archivePath, boolean outboxEnabled, Clock clock) {
+        if (period.toMinutes() < 1 || !period.equals(Duration.ofMinutes(period.toMinutes()))) {
+            throw new IllegalArgumentException("Price event partition period must be whole minutes: " + period);
+        }
+        this.partitionRepository = partitionRepository;
+        this.enabled = enabled;
+        this.period = period;
+        this.retention = retention;
+        this.checkInterval = checkInterval;
+        this.archivePath = archivePath;
+        this.outboxEnabled = outboxEnabled;
+        this.clock = clock;
+        this.dropped = Counter.builder("prices.events.partitions.dropped")
+                .description("Price event partitions dropped past the retention")
+                .register(meterRegistry);
+        this.archived = Counter.builder("prices.events.partitions.archived")
+                .description("Price event partitions archived before being dropped")
+                .register(meterRegistry);
+        Gauge.builder("prices.events.partitions", partitions, AtomicInteger::get)
+                .description("Price event partitions, the one being written included")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts checking the partitions once the application context (and therefore the database
+     * schema) is ready.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (!enabled || checking != null) {
+            return;
+        }
+        checking = Flux.interval(Duration.ZERO, checkInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> maintain()
+                        .onErrorResume(e -> {
+                            log.error("Maintaining the price event partitions failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+        log.info("Price event retention started: period={}, retention={}, archivePath={}",
+                period, retention, archivePath);
+    }
+
+    /**
+     * Stops checking.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (checking != null) {
+            checking.dispose();
+        }
+    }
+
+    /**
+     * Switches to the partition of the current period, moves the unpublished events of the sealed
+     * partitions to it in outbox mode, then archives and drops the partitions past the retention.
+     *
+     * @return a Mono that completes once the partitions are up to date
+     */
+    public Mono<Void> maintain() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        String target = partitionOf(now);
+        return partitionRepository.findCurrentPartition()
+                .flatMap(current -> target.compareTo(current) > 0 ? rollOver(current, target) : Mono.just(current))
+                .flatMap(current -> outboxEnabled ? moveUnpublished(current).thenReturn(current) : Mono.just(current))
+                .flatMap(current -> expire(current, now.minus(retention)));
+    }
+
+    /**
+     * Returns the partition of the events created at a given time.
+     *
+     * @param time the creation time of the events
+     * @return the name of the partition of the period the time falls in
+     */
+    public String partitionOf(LocalDateTime time) {
+        long minutes = period.toMinutes();
+        long start = Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC) / 60, minutes) * minutes;
+        return PriceEventPartitionRepository.PREFIX
+                + PARTITION_START.format(LocalDateTime.ofEpochSecond(start * 60, 0, ZoneOffset.UTC));
+    }
+
+    private Mono<String> rollOver(String current, String target) {
+        return partitionRepository.createPartition(target)
+                .then(partitionRepository.switchTo(target))
+                .doOnSuccess(done -> log.info("Price events now written to {}, {} sealed", target, current))
+                .thenReturn(target);
+    }
+
+    /**
+     * Moves the unpublished events of every sealed partition to the current one.
+     */
+    private Mono<Void> moveUnpublished(String current) {
+        return partitionRepository.findPartitions()
+                .filter(name -> name.compareTo(current) < 0)
+                .concatMap(sealed -> partitionRepository.moveUnpublished(sealed, current)
+                        .filter(count -> count > 0)
+                        .doOnNext(count -> log.debug("Moved {} unpublished price events from {} to {}",
+                                count, sealed, current)))
+                .then();
+    }
+
+    /**
+     * Drops the sealed partitions whose period, which ends where the next partition starts,
+     * ended before the given time.
+     */
+    private Mono<Void> expire(String current, LocalDateTime expiredBefore) {
+        return partitionRepository.findPartitions()
+                .collectList()
+                .flatMap(names -> {
+                    partitions.set(names.size());
+                    List<String> expired = names.stream()
+                            .filter(name -> name.compareTo(current) < 0)
+                            .filter(name -> {
+                                int next = names.indexOf(name) + 1;
+                                return !startOf(names.get(next)).isAfter(expiredBefore);
+                            })
+                            .toList();
+                    return Flux.fromIterable(expired)
+                            .concatMap(this::drop)
+                            .then();
+                });
+    }
+
+    private Mono<Void> drop(String partition) {
+        Mono<Void> published = outboxEnabled
+                ? partitionRepository.countUnpublished(partition)
+                        .filter(count -> count > 0)
+                        .flatMap(count -> Mono.error(new IllegalStateException(count + " events not published yet")))
+                        .then()
+                : Mono.empty();
+        Mono<Void> archive = archivePath == null ? Mono.empty() : archive(partition);
+        return published
+                .then(archive)
+                .then(partitionRepository.dropPartition(partition))
+                .doOnSuccess(done -> {
+                    partitions.decrementAndGet();
+                    dropped.increment();
+                    log.info("Dropped price event partition {}", partition);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Price event partition {} kept: {}", partition, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> archive(String partition) {
+        Path path = archivePath.resolve(partition + ".pcol.gz");
+        return Mono.using(() -> PriceEventArchive.create(path),
+                        archive -> partitionRepository.findAll(partition)
+                                .buffer(ARCHIVE_ROW_GROUP)
+                                .publishOn(Schedulers.boundedElastic())
+                                .concatMap(events -> Mono.fromCallable(() -> {
+                                    archive.append(events);
+                                    return events.size();
+                                }))
+                                .then(Mono.fromCallable(archive::commit)),
+                        PriceEventArchive::close)
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(count -> {
+                    archived.increment();
+                    log.info("Archived {} price events of {} to {}", count, partition, path);
+                })
+                .then();
+    }
+
+    private static LocalDateTime startOf(String partition) {
+        return LocalDateTime.parse(partition.substring(PriceEventPartitionRepository.PREFIX.length()),
+                PARTITION_START);
+    }
+}
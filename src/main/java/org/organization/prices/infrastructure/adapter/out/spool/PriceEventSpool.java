@@ -0,0 +1,609 @@
+package org.organization.prices.infrastructure.adapter.out.spool;
+
+import org.organization.prices.domain.model.PriceEvent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only queue of {@link PriceEvent}s on disk, split into segment files.
+ * <p>
+ * Events are appended to the newest segment through a {@link FileChannel}, a new segment being
+ * started once the current one reaches {@code segmentBytes}. They are read back in append order,
+ * in batches, from a cursor that {@link #commit(Batch)} moves forward once a batch has been
+ * handled; a segment is deleted as soon as the cursor leaves it. The cursor is not persisted, so
+ * after a restart the oldest segment is read again from its start.
+ * </p>
+ * <p>
+ * Each record holds its length, a CRC32, the time it was spooled and the event. When the spool
+ * is opened, every segment is checked and cut at its first incomplete or corrupt record, which
+ * is what a crash in the middle of an append leaves behind. Appends are written to the page
+ * cache, and forced to disk only when a segment is sealed and when the spool is closed.
+ * </p>
+ * <p>
+ * The spool holds at most {@code maximumBytes}; {@link #append(PriceEvent)} refuses events
+ * beyond that. All methods are thread-safe.
+ * </p>
+ */
+public final class PriceEventSpool implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "price-events-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+
+    /**
+     * Length, CRC32 and spool time of a record.
+     */
+    static final int RECORD_HEADER_BYTES = 16;
+
+    /**
+     * Upper bound of the encoded size of an event, which keeps a corrupt length from being trusted.
+     */
+    private static final int MAX_PAYLOAD_BYTES = 1024;
+
+    /**
+     * Bytes read from a segment at once.
+     */
+    private static final int READ_CHUNK_BYTES = 256 * 1024;
+
+    /**
+     * Bits of the presence mask of the nullable fields.
+     */
+    private static final int HAS_PRODUCT_ID = 1;
+    private static final int HAS_BRAND_ID = 1 << 1;
+    private static final int HAS_PRICE_LIST = 1 << 2;
+    private static final int HAS_QUERY_DATE = 1 << 3;
+    private static final int HAS_PRICE = 1 << 4;
+    private static final int HAS_EVENT_TYPE = 1 << 5;
+    private static final int HAS_CREATED_AT = 1 << 6;
+
+    /**
+     * Bit of the first presence mask telling that a second one, of the aggregate fields, follows.
+     * Events spooled before aggregates existed never set it.
+     */
+    private static final int HAS_AGGREGATE = 1 << 7;
+    private static final int HAS_EVENT_COUNT = 1;
+    private static final int HAS_WINDOW_START = 1 << 1;
+    private static final int HAS_WINDOW_END = 1 << 2;
+    private static final int HAS_FIRST_QUERY_AT = 1 << 3;
+    private static final int HAS_LAST_QUERY_AT = 1 << 4;
+    private static final int HAS_MIN_PRICE = 1 << 5;
+    private static final int HAS_MAX_PRICE = 1 << 6;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maximumBytes;
+    private final Clock clock;
+
+    /**
+     * Segments from the oldest, which the cursor is in, to the newest, which is appended to.
+     */
+    private final Deque<Segment> segments = new ArrayDeque<>();
+
+    /**
+     * Channel appending to the newest segment.
+     */
+    private FileChannel writer;
+
+    /**
+     * Position of the cursor in the oldest segment.
+     */
+    private long readPosition;
+
+    /**
+     * Bytes of every segment, including those the cursor has passed.
+     */
+    private long segmentsBytes;
+
+    /**
+     * Spool time of the record under the cursor, in epoch milliseconds, or -1 when empty.
+     */
+    private long oldestSpooledAt = -1;
+
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(RECORD_HEADER_BYTES + MAX_PAYLOAD_BYTES)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Opens the spool kept in a directory, creating it if needed and recovering the segments
+     * left by a previous run.
+     *
+     * @param directory    the directory holding the segments
+     * @param segmentBytes the size from which a new segment is started
+     * @param maximumBytes the maximum number of bytes waiting in the spool
+     * @param clock        the clock the spool times are read from
+     * @throws IOException if the directory or its segments cannot be read
+     */
+    public PriceEventSpool(Path directory, long segmentBytes, long maximumBytes, Clock clock) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.maximumBytes = maximumBytes;
+        this.clock = clock;
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Segment> found = files
+                    .map(Segment::parse)
+                    .filter(segment -> segment != null)
+                    .sorted((a, b) -> Long.compare(a.sequence, b.sequence))
+                    .toList();
+            for (Segment segment : found) {
+                segment.size = recover(segment.path);
+                if (segment.size == 0) {
+                    Files.delete(segment.path);
+                } else {
+                    segments.addLast(segment);
+                    segmentsBytes += segment.size;
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            segments.addLast(new Segment(0, segmentPath(0)));
+        }
+        writer = openWriter(segments.peekLast().path);
+        oldestSpooledAt = readSpooledAt();
+    }
+
+    /**
+     * Appends an event to the newest segment, starting a new one if it is full.
+     *
+     * @param event the event to append
+     * @return {@code false} if the spool is full, or the event too large, and it was not appended
+     * @throws IOException if the event cannot be written
+     */
+    public synchronized boolean append(PriceEvent event) throws IOException {
+        writeBuffer.clear().position(RECORD_HEADER_BYTES);
+        if (!encode(event, writeBuffer)) {
+            return false;
+        }
+        int recordBytes = writeBuffer.position();
+        if (sizeBytes() + recordBytes > maximumBytes) {
+            return false;
+        }
+        long spooledAt = clock.millis();
+        writeBuffer.putLong(8, spooledAt);
+        crc.reset();
+        crc.update(writeBuffer.array(), 8, recordBytes - 8);
+        writeBuffer.putInt(0, recordBytes - RECORD_HEADER_BYTES).putInt(4, (int) crc.getValue());
+        writeBuffer.flip();
+
+        Segment newest = segments.peekLast();
+        if (newest.size > 0 && newest.size + recordBytes > segmentBytes) {
+            newest = rotate();
+        }
+        try {
+            while (writeBuffer.hasRemaining()) {
+                writer.write(writeBuffer);
+            }
+        } catch (IOException e) {
+            // Drop the partial record, so that the next one is not appended after it
+            writer.truncate(newest.size);
+            throw e;
+        }
+        boolean wasEmpty = isEmpty();
+        newest.size += recordBytes;
+        segmentsBytes += recordBytes;
+        if (wasEmpty) {
+            oldestSpooledAt = spooledAt;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the events under the cursor, without moving it.
+     *
+     * @param maxEvents the maximum number of events to read
+     * @return the events read, empty if the spool is
+     * @throws IOException if the segment cannot be read
+     */
+    public synchronized Batch read(int maxEvents) throws IOException {
+        skipReadSegments();
+        Segment oldest = segments.peekFirst();
+        List<PriceEvent> events = new ArrayList<>(Math.min(maxEvents, 1024));
+        long position = readPosition;
+        if (position >= oldest.size) {
+            return new Batch(oldest.sequence, readPosition, position, events);
+        }
+        ByteBuffer chunk = ByteBuffer.allocate((int) Math.min(READ_CHUNK_BYTES, oldest.size - position))
+                .order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel reader = FileChannel.open(oldest.path, StandardOpenOption.READ)) {
+            while (events.size() < maxEvents && position < oldest.size) {
+                chunk.clear().limit((int) Math.min(chunk.capacity(), oldest.size - position));
+                readFully(reader, chunk, position);
+                chunk.flip();
+                int parsed = 0;
+                while (events.size() < maxEvents && chunk.remaining() >= RECORD_HEADER_BYTES) {
+                    int payloadBytes = chunk.getInt(chunk.position());
+                    if (chunk.remaining() < RECORD_HEADER_BYTES + payloadBytes) {
+                        break;
+                    }
+                    chunk.position(chunk.position() + RECORD_HEADER_BYTES);
+                    events.add(decode(chunk));
+                    parsed += RECORD_HEADER_BYTES + payloadBytes;
+                }
+                if (parsed == 0) {
+                    break;
+                }
+                position += parsed;
+            }
+        }
+        return new Batch(oldest.sequence, readPosition, position, events);
+    }
+
+    /**
+     * Moves the cursor past a batch that has been handled, deleting the segment it leaves.
+     *
+     * @param batch the batch returned by the last {@link #read(int)}
+     * @throws IOException if a segment cannot be deleted
+     * @throws IllegalStateException if the batch does not start at the cursor
+     */
+    public synchronized void commit(Batch batch) throws IOException {
+        Segment oldest = segments.peekFirst();
+        if (batch.segment() != oldest.sequence || batch.from() != readPosition) {
+            throw new IllegalStateException("Spool batch already committed or out of order");
+        }
+        readPosition = batch.to();
+        skipReadSegments();
+        oldestSpooledAt = readSpooledAt();
+    }
+
+    /**
+     * Tells whether every appended event has been committed.
+     *
+     * @return {@code true} when nothing is waiting in the spool
+     */
+    public synchronized boolean isEmpty() {
+        return sizeBytes() == 0;
+    }
+
+    /**
+     * Returns the bytes of the events waiting in the spool.
+     *
+     * @return the bytes not yet committed
+     */
+    public synchronized long sizeBytes() {
+        return segmentsBytes - readPosition;
+    }
+
+    /**
+     * Returns the time the oldest waiting event was spooled.
+     *
+     * @return the spool time in epoch milliseconds, or -1 when the spool is empty
+     */
+    public synchronized long oldestSpooledAt() {
+        return oldestSpooledAt;
+    }
+
+    /**
+     * Returns the number of segment files.
+     *
+     * @return the number of segments, at least one
+     */
+    public synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Forces the newest segment to disk and closes it.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer.isOpen()) {
+            writer.force(true);
+            writer.close();
+        }
+    }
+
+    /**
+     * Seals the newest segment and starts the next one.
+     */
+    private Segment rotate() throws IOException {
+        writer.force(true);
+        writer.close();
+        long sequence = segments.peekLast().sequence + 1;
+        Segment next = new Segment(sequence, segmentPath(sequence));
+        segments.addLast(next);
+        writer = openWriter(next.path);
+        return next;
+    }
+
+    /**
+     * Deletes the segments the cursor has passed, emptying the newest one rather than deleting it.
+     */
+    private void skipReadSegments() throws IOException {
+        Segment oldest = segments.peekFirst();
+        while (readPosition >= oldest.size) {
+            if (segments.size() == 1) {
+                if (oldest.size > 0) {
+                    writer.truncate(0);
+                    segmentsBytes = 0;
+                    oldest.size = 0;
+                    readPosition = 0;
+                }
+                return;
+            }
+            segments.removeFirst();
+            Files.deleteIfExists(oldest.path);
+            segmentsBytes -= oldest.size;
+            readPosition = 0;
+            oldest = segments.peekFirst();
+        }
+    }
+
+    /**
+     * Reads the spool time of the record under the cursor.
+     */
+    private long readSpooledAt() throws IOException {
+        skipReadSegments();
+        Segment oldest = segments.peekFirst();
+        if (readPosition >= oldest.size) {
+            return -1;
+        }
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel reader = FileChannel.open(oldest.path, StandardOpenOption.READ)) {
+            readFully(reader, header, readPosition);
+        }
+        return header.getLong(8);
+    }
+
+    /**
+     * Returns the length of the valid records at the start of a segment, cutting off the rest.
+     */
+    private static long recover(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            ByteBuffer payload = ByteBuffer.allocate(MAX_PAYLOAD_BYTES);
+            CRC32 crc = new CRC32();
+            while (position + RECORD_HEADER_BYTES <= size) {
+                header.clear();
+                readFully(channel, header, position);
+                int payloadBytes = header.getInt(0);
+                if (payloadBytes <= 0 || payloadBytes > MAX_PAYLOAD_BYTES
+                        || position + RECORD_HEADER_BYTES + payloadBytes > size) {
+                    break;
+                }
+                payload.clear().limit(payloadBytes);
+                readFully(channel, payload, position + RECORD_HEADER_BYTES);
+                crc.reset();
+                crc.update(header.array(), 8, 8);
+                crc.update(payload.array(), 0, payloadBytes);
+                if ((int) crc.getValue() != header.getInt(4)) {
+                    break;
+                }
+                position += RECORD_HEADER_BYTES + payloadBytes;
+            }
+            if (position < size) {
+                channel.truncate(position);
+            }
+            return position;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of spool segment");
+            }
+        }
+    }
+
+    private static FileChannel openWriter(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long sequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Writes an event after the header, returning {@code false} if it does not fit.
+     */
+    private static boolean encode(PriceEvent event, ByteBuffer out) {
+        byte[] eventType = event.getEventType() != null ? event.getEventType().getBytes(StandardCharsets.UTF_8) : null;
+        if ((eventType != null && eventType.length > Byte.MAX_VALUE) || !fits(event.getPrice())
+                || !fits(event.getMinPrice()) || !fits(event.getMaxPrice())) {
+            return false;
+        }
+        int aggregate = (event.getEventCount() != null ? HAS_EVENT_COUNT : 0)
+                | (event.getWindowStart() != null ? HAS_WINDOW_START : 0)
+                | (event.getWindowEnd() != null ? HAS_WINDOW_END : 0)
+                | (event.getFirstQueryAt() != null ? HAS_FIRST_QUERY_AT : 0)
+                | (event.getLastQueryAt() != null ? HAS_LAST_QUERY_AT : 0)
+                | (event.getMinPrice() != null ? HAS_MIN_PRICE : 0)
+                | (event.getMaxPrice() != null ? HAS_MAX_PRICE : 0);
+        int presence = (event.getProductId() != null ? HAS_PRODUCT_ID : 0)
+                | (event.getBrandId() != null ? HAS_BRAND_ID : 0)
+                | (event.getPriceList() != null ? HAS_PRICE_LIST : 0)
+                | (event.getQueryDate() != null ? HAS_QUERY_DATE : 0)
+                | (event.getPrice() != null ? HAS_PRICE : 0)
+                | (eventType != null ? HAS_EVENT_TYPE : 0)
+                | (event.getCreatedAt() != null ? HAS_CREATED_AT : 0)
+                | (aggregate != 0 ? HAS_AGGREGATE : 0);
+        out.put((byte) presence);
+        if (event.getProductId() != null) {
+            out.putLong(event.getProductId());
+        }
+        if (event.getBrandId() != null) {
+            out.putLong(event.getBrandId());
+        }
+        if (event.getPriceList() != null) {
+            out.putInt(event.getPriceList());
+        }
+        if (event.getQueryDate() != null) {
+            putDateTime(out, event.getQueryDate());
+        }
+        if (event.getPrice() != null) {
+            putDecimal(out, event.getPrice());
+        }
+        if (eventType != null) {
+            out.put((byte) eventType.length).put(eventType);
+        }
+        if (event.getCreatedAt() != null) {
+            putDateTime(out, event.getCreatedAt());
+        }
+        if (aggregate == 0) {
+            return true;
+        }
+        out.put((byte) aggregate);
+        if (event.getEventCount() != null) {
+            out.putLong(event.getEventCount());
+        }
+        if (event.getWindowStart() != null) {
+            putDateTime(out, event.getWindowStart());
+        }
+        if (event.getWindowEnd() != null) {
+            putDateTime(out, event.getWindowEnd());
+        }
+        if (event.getFirstQueryAt() != null) {
+            putDateTime(out, event.getFirstQueryAt());
+        }
+        if (event.getLastQueryAt() != null) {
+            putDateTime(out, event.getLastQueryAt());
+        }
+        if (event.getMinPrice() != null) {
+            putDecimal(out, event.getMinPrice());
+        }
+        if (event.getMaxPrice() != null) {
+            putDecimal(out, event.getMaxPrice());
+        }
+        return true;
+    }
+
+    private static PriceEvent decode(ByteBuffer in) {
+        int presence = in.get();
+        PriceEvent.PriceEventBuilder event = PriceEvent.builder();
+        if ((presence & HAS_PRODUCT_ID) != 0) {
+            event.productId(in.getLong());
+        }
+        if ((presence & HAS_BRAND_ID) != 0) {
+            event.brandId(in.getLong());
+        }
+        if ((presence & HAS_PRICE_LIST) != 0) {
+            event.priceList(in.getInt());
+        }
+        if ((presence & HAS_QUERY_DATE) != 0) {
+            event.queryDate(getDateTime(in));
+        }
+        if ((presence & HAS_PRICE) != 0) {
+            event.price(getDecimal(in));
+        }
+        if ((presence & HAS_EVENT_TYPE) != 0) {
+            byte[] eventType = new byte[in.get()];
+            in.get(eventType);
+            event.eventType(new String(eventType, StandardCharsets.UTF_8));
+        }
+        if ((presence & HAS_CREATED_AT) != 0) {
+            event.createdAt(getDateTime(in));
+        }
+        if ((presence & HAS_AGGREGATE) == 0) {
+            return event.build();
+        }
+        int aggregate = in.get();
+        if ((aggregate & HAS_EVENT_COUNT) != 0) {
+            event.eventCount(in.getLong());
+        }
+        if ((aggregate & HAS_WINDOW_START) != 0) {
+            event.windowStart(getDateTime(in));
+        }
+        if ((aggregate & HAS_WINDOW_END) != 0) {
+            event.windowEnd(getDateTime(in));
+        }
+        if ((aggregate & HAS_FIRST_QUERY_AT) != 0) {
+            event.firstQueryAt(getDateTime(in));
+        }
+        if ((aggregate & HAS_LAST_QUERY_AT) != 0) {
+            event.lastQueryAt(getDateTime(in));
+        }
+        if ((aggregate & HAS_MIN_PRICE) != 0) {
+            event.minPrice(getDecimal(in));
+        }
+        if ((aggregate & HAS_MAX_PRICE) != 0) {
+            event.maxPrice(getDecimal(in));
+        }
+        return event.build();
+    }
+
+    private static boolean fits(BigDecimal decimal) {
+        return decimal == null || decimal.unscaledValue().bitLength() / 8 + 1 <= Byte.MAX_VALUE;
+    }
+
+    private static void putDecimal(ByteBuffer out, BigDecimal decimal) {
+        byte[] unscaled = decimal.unscaledValue().toByteArray();
+        out.putInt(decimal.scale()).put((byte) unscaled.length).put(unscaled);
+    }
+
+    private static BigDecimal getDecimal(ByteBuffer in) {
+        int scale = in.getInt();
+        byte[] unscaled = new byte[in.get()];
+        in.get(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+
+    private static void putDateTime(ByteBuffer out, LocalDateTime dateTime) {
+        out.putLong(dateTime.toEpochSecond(ZoneOffset.UTC)).putInt(dateTime.getNano());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer in) {
+        return LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+    }
+
+    /**
+     * Events read from the spool, and where they lie in it.
+     *
+     * @param segment the sequence of the segment read
+     * @param from    the position of the first event
+     * @param to      the position after the last event
+     * @param events  the events, in append order
+     */
+    public record Batch(long segment, long from, long to, List<PriceEvent> events) {
+    }
+
+    /**
+     * Segment file and its valid length.
+     */
+    private static final class Segment {
+
+        private final long sequence;
+        private final Path path;
+        private long size;
+
+        private Segment(long sequence, Path path) {
+            this.sequence = sequence;
+            this.path = path;
+        }
+
+        private static Segment parse(Path path) {
+            String name = path.getFileName().toString();
+            if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+                return null;
+            }
+            try {
+                return new Segment(Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length())), path);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
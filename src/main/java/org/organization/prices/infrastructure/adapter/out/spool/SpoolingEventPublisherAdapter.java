@@ -0,0 +1,265 @@
+package org.organization.prices.infrastructure.adapter.out.spool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.EventPublisherPort;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.kafka.KafkaEventPublisherAdapter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EventPublisherPort} that keeps the events Kafka does not take in a {@link PriceEventSpool}
+ * on disk, instead of dropping them.
+ * <p>
+ * Events are sent through {@link KafkaEventPublisherAdapter#send(PriceEvent)}, and appended to
+ * the spool when that fails, typically because the {@code kafkaPublisher} circuit breaker is open.
+ * While the spool is not empty, or an append is still waiting to be written, new events are
+ * appended behind the spooled ones rather than sent, so that the events of a product reach Kafka
+ * in the order they were published once the first of them failed. Appends are queued in that
+ * order, under a lock, to a single thread that writes them to the spool first in, first out, off
+ * the thread that delivered the failure.
+ * </p>
+ * <p>
+ * Every {@code replayInterval}, a replayer reads up to {@code replayBatchSize} events from the
+ * spool, sends them all at once and, once every one of them is acknowledged, moves past them and
+ * reads the next batch, until the spool is empty. A batch with a failed event is sent again in
+ * full on the next attempt, so replayed events are delivered at least once. Events are dropped
+ * only when the spool is full or cannot be written.
+ * </p>
+ * <p>
+ * Spooled events are counted as {@code prices.events.spool.appended}, replayed ones as
+ * {@code prices.events.spool.replayed} and dropped ones as {@code prices.events.spool.dropped}.
+ * The bytes waiting in the spool are exported as {@code prices.events.spool.size}, and the age
+ * of the oldest waiting event as {@code prices.events.spool.oldest.age}.
+ * </p>
+ */
+@Slf4j
+public class SpoolingEventPublisherAdapter implements EventPublisherPort {
+
+    /**
+     * Publisher the events are sent through.
+     */
+    private final KafkaEventPublisherAdapter kafkaPublisher;
+
+    /**
+     * Events waiting to be replayed.
+     */
+    private final PriceEventSpool spool;
+
+    /**
+     * Maximum number of events replayed at once.
+     */
+    private final int replayBatchSize;
+
+    /**
+     * Running replayer.
+     */
+    private final Disposable replaying;
+
+    /**
+     * Single thread writing the appends to the spool in the order they were queued.
+     */
+    private final Scheduler appender = Schedulers.newSingle("price-event-spool", true);
+
+    /**
+     * Guards {@link #pendingAppends} and the queuing of appends.
+     */
+    private final Object appendLock = new Object();
+
+    /**
+     * Number of appends queued but not written yet, guarded by {@link #appendLock}.
+     */
+    private int pendingAppends;
+
+    private final Counter appended;
+    private final Counter replayed;
+    private final Counter dropped;
+
+    /**
+     * Constructs a new SpoolingEventPublisherAdapter and starts its replayer.
+     *
+     * @param kafkaPublisher  the publisher the events are sent through
+     * @param spool           the spool the unsent events are kept in
+     * @param replayBatchSize the maximum number of events replayed at once
+     * @param replayInterval  the time between two attempts to replay the spool
+     * @param clock           the clock the age of the spooled events is measured with
+     * @param meterRegistry   the registry the spool metrics are published to
+     */
+    public SpoolingEventPublisherAdapter(KafkaEventPublisherAdapter kafkaPublisher,
+                                         PriceEventSpool spool,
+                                         int replayBatchSize,
+                                         Duration replayInterval,
+                                         Clock clock,
+                                         MeterRegistry meterRegistry) {
+        this.kafkaPublisher = kafkaPublisher;
+        this.spool = spool;
+        this.replayBatchSize = replayBatchSize;
+
+        this.appended = spoolCounter("prices.events.spool.appended", "Price events kept in the spool", meterRegistry);
+        this.replayed = spoolCounter("prices.events.spool.replayed", "Price events replayed from the spool", meterRegistry);
+        this.dropped = spoolCounter("prices.events.spool.dropped", "Price events neither published nor spooled",
+                meterRegistry);
+        Gauge.builder("prices.events.spool.size", spool, PriceEventSpool::sizeBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .description("Bytes of price events waiting in the spool")
+                .register(meterRegistry);
+        TimeGauge.builder("prices.events.spool.oldest.age", spool, TimeUnit.MILLISECONDS, s -> {
+                    long oldest = s.oldestSpooledAt();
+                    return oldest < 0 ? 0 : Math.max(0, clock.millis() - oldest);
+                })
+                .description("Time the oldest price event has been waiting in the spool")
+                .register(meterRegistry);
+
+        this.replaying = Flux.interval(replayInterval, replayInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> replay()
+                        .onErrorResume(e -> {
+                            log.debug("Price event spool not replayed yet: {}", e.getMessage());
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    /**
+     * Publishes a {@link PriceEvent} to Kafka, or spools it when Kafka does not take it or
+     * earlier events are still spooled.
+     *
+     * @param event the price event to publish
+     * @return a {@link Mono} that completes once the event is acknowledged or spooled
+     */
+    @Override
+    public Mono<Void> publishEvent(PriceEvent event) {
+        if (!kafkaPublisher.isEnabled()) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            synchronized (appendLock) {
+                if (pendingAppends > 0 || !spool.isEmpty()) {
+                    return append(event, null);
+                }
+            }
+            return kafkaPublisher.send(event).onErrorResume(e -> append(event, e));
+        });
+    }
+
+    /**
+     * Replays batches of spooled events until the spool is empty or a batch fails.
+     *
+     * @return a Mono that completes once the spool is empty, or fails with the first batch that failed
+     */
+    public Mono<Void> replay() {
+        return replayBatch()
+                .expand(count -> count > 0 ? replayBatch() : Mono.empty())
+                .then();
+    }
+
+    /**
+     * Sends the oldest batch of spooled events and moves past it once every event is acknowledged.
+     *
+     * @return a Mono emitting the number of events replayed, zero when the spool is empty
+     */
+    public Mono<Integer> replayBatch() {
+        return Mono.fromCallable(() -> spool.read(replayBatchSize))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(batch -> {
+                    List<PriceEvent> events = batch.events();
+                    if (events.isEmpty()) {
+                        return Mono.just(0);
+                    }
+                    return Flux.fromIterable(events)
+                            .flatMap(kafkaPublisher::send, events.size())
+                            .then(Mono.fromCallable(() -> {
+                                spool.commit(batch);
+                                replayed.increment(events.size());
+                                log.debug("Replayed {} spooled price events", events.size());
+                                return events.size();
+                            }));
+                });
+    }
+
+    /**
+     * Stops the replayer and closes the spool, the events left in it being replayed on restart.
+     */
+    @PreDestroy
+    public void stop() {
+        replaying.dispose();
+        try {
+            appender.disposeGracefully().block(Duration.ofSeconds(10));
+        } catch (RuntimeException e) {
+            log.warn("Price events still being spooled on shutdown: {}", e.getMessage());
+        }
+        try {
+            spool.close();
+        } catch (IOException e) {
+            log.error("Failed to close the price event spool: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Queues an event to be appended to the spool by the {@link #appender}, behind the appends
+     * queued before. Events published meanwhile are appended as well rather than sent.
+     *
+     * @return a Mono that completes once the event is written, or dropped
+     */
+    private Mono<Void> append(PriceEvent event, Throwable cause) {
+        Sinks.Empty<Void> written = Sinks.empty();
+        synchronized (appendLock) {
+            pendingAppends++;
+            appender.schedule(() -> {
+                try {
+                    write(event, cause);
+                } finally {
+                    synchronized (appendLock) {
+                        pendingAppends--;
+                    }
+                    written.tryEmitEmpty();
+                }
+            });
+        }
+        return written.asMono();
+    }
+
+    /**
+     * Appends an event to the spool, dropping it if the spool is full or cannot be written.
+     */
+    private void write(PriceEvent event, Throwable cause) {
+        try {
+            boolean wasEmpty = spool.isEmpty();
+            if (spool.append(event)) {
+                appended.increment();
+                if (wasEmpty && cause != null) {
+                    log.warn("Kafka unavailable, spooling price events: {}", cause.getMessage());
+                }
+                return;
+            }
+            log.warn("Price event spool full, event dropped: productId={}, brandId={}",
+                    event.getProductId(), event.getBrandId());
+        } catch (IOException e) {
+            log.error("Failed to spool price event: productId={}, brandId={}: {}",
+                    event.getProductId(), event.getBrandId(), e.getMessage());
+        }
+        dropped.increment();
+    }
+
+    private static Counter spoolCounter(String name, String description, MeterRegistry meterRegistry) {
+        return Counter.builder(name)
+                .description(description)
+                .register(meterRegistry);
+    }
+}
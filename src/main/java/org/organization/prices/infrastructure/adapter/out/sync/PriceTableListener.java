@@ -0,0 +1,47 @@
+package org.organization.prices.infrastructure.adapter.out.sync;
+
+import org.organization.prices.domain.model.Price;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-process structure kept in sync with the {@code PRICES} table by the
+ * {@link PriceTableSynchronizer}.
+ * <p>
+ * Callbacks are invoked sequentially, never concurrently with each other. A failure of
+ * {@link #onChange(List)} makes the synchronizer deliver the same changes again on its next
+ * poll, so implementations must be idempotent.
+ * </p>
+ */
+public interface PriceTableListener {
+
+    /**
+     * Receives the whole table, replacing whatever the structure held.
+     *
+     * @param prices every price of the table
+     */
+    void onSnapshot(List<Price> prices);
+
+    /**
+     * Receives the rows inserted or updated since the previous snapshot or change.
+     *
+     * @param changed the new state of every changed row
+     * @return a Mono that completes once the changes are applied
+     */
+    Mono<Void> onChange(List<Price> changed);
+
+    /**
+     * Returns the watermark up to which the structure restored itself without the table, for
+     * instance from a local file. When a listener reports one, the synchronizer skips the
+     * snapshot and only delivers the rows changed since; listeners that did not restore
+     * themselves then load on first use.
+     *
+     * @return the latest {@code updated_at} already applied, or empty to receive a snapshot
+     */
+    default Optional<LocalDateTime> restoredWatermark() {
+        return Optional.empty();
+    }
+}
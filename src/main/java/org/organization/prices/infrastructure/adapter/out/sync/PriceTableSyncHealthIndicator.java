@@ -0,0 +1,38 @@
+package org.organization.prices.infrastructure.adapter.out.sync;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator reporting {@code DOWN} until the first snapshot of the price table has been
+ * loaded by the {@link PriceTableSynchronizer}.
+ * <p>
+ * Exposed as {@code priceTableSync} and included in the readiness group, so no traffic is routed
+ * to an instance whose in-process structures are still empty.
+ * </p>
+ */
+@Component
+@RequiredArgsConstructor
+public class PriceTableSyncHealthIndicator implements HealthIndicator {
+
+    /**
+     * Synchronizer whose progress is reported.
+     */
+    private final PriceTableSynchronizer synchronizer;
+
+    /**
+     * Reports whether the first snapshot is loaded, with the current watermark.
+     *
+     * @return {@code UP} once the snapshot is loaded, {@code DOWN} before
+     */
+    @Override
+    public Health health() {
+        Health.Builder builder = synchronizer.isSnapshotLoaded() ? Health.up() : Health.down();
+        if (synchronizer.getWatermark() != null) {
+            builder.withDetail("watermark", synchronizer.getWatermark().toString());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,333 @@
+package org.organization.prices.infrastructure.adapter.out.sync;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepository;
+import org.organization.prices.infrastructure.entity.PriceEntity;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the registered {@link PriceTableListener}s in sync with the {@code PRICES} table.
+ * <p>
+ * Once the application context is ready, the whole table is streamed once and handed to every
+ * listener as a snapshot, unless a listener restored itself up to some watermark, in which case
+ * synchronisation resumes from the oldest such watermark. The table is then polled every {@code poll-interval} for the rows whose
+ * {@code updated_at} is at or after the watermark, the latest {@code updated_at} applied so far.
+ * Rows sitting exactly on the watermark are read again by the next poll and skipped unless their
+ * {@code version} changed, so a change committed within the same instant as the previous one is
+ * never lost. Deleted rows are not detected; prices are retired by moving their end date.
+ * </p>
+ * <p>
+ * The number of rows applied is counted under {@code prices.sync.rows.applied}, tagged with
+ * {@code phase=snapshot|incremental}, and {@code prices.sync.lag} is the time since the table
+ * was last read successfully, an upper bound of how stale the listeners are.
+ * {@link #isSnapshotLoaded()} backs the readiness probe.
+ * </p>
+ * <p>
+ * Enabled with {@code organization.prices.sync.enabled}; when disabled, listeners load
+ * themselves on first use.
+ * </p>
+ */
+@Component
+@Slf4j
+public class PriceTableSynchronizer {
+
+    /**
+     * Watermark after the snapshot of an empty table.
+     */
+    private static final LocalDateTime EMPTY_TABLE_WATERMARK = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * Repository the table is read through.
+     */
+    private final PriceRepository priceRepository;
+
+    /**
+     * Mapper to convert read entities into {@link Price} domain models.
+     */
+    private final PriceEntityMapper priceMapper;
+
+    /**
+     * Whether the table is synchronised at all.
+     */
+    private final boolean enabled;
+
+    /**
+     * Time between two polls for changed rows.
+     */
+    private final Duration pollInterval;
+
+    /**
+     * Structures receiving the snapshot and the changes.
+     */
+    private final List<PriceTableListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Rows applied from the snapshot.
+     */
+    private final Counter snapshotRows;
+
+    /**
+     * Rows applied from polls.
+     */
+    private final Counter incrementalRows;
+
+    /**
+     * Latest {@code updated_at} applied, {@code null} before the snapshot.
+     */
+    private volatile LocalDateTime watermark;
+
+    /**
+     * Version of each applied row whose {@code updated_at} equals the watermark.
+     */
+    private Map<Long, Long> watermarkVersions = Map.of();
+
+    /**
+     * {@link System#nanoTime()} at which the last successful read of the table started.
+     */
+    private volatile long lastSyncNanos;
+
+    /**
+     * Whether the first snapshot has been handed to the listeners.
+     */
+    private volatile boolean snapshotLoaded;
+
+    /**
+     * Running snapshot and polling pipeline.
+     */
+    private volatile Disposable polling;
+
+    /**
+     * Constructs a new PriceTableSynchronizer.
+     *
+     * @param priceRepository the repository the table is read through
+     * @param priceMapper     the mapper from entities to domain prices
+     * @param meterRegistry   the registry the synchronisation metrics are published to
+     * @param enabled         whether the table is synchronised (from config)
+     * @param pollInterval    the time between two polls for changed rows (from config)
+     */
+    public PriceTableSynchronizer(PriceRepository priceRepository,
+                                  PriceEntityMapper priceMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${organization.prices.sync.enabled:true}") boolean enabled,
+                                  @Value("${organization.prices.sync.poll-interval:5s}") Duration pollInterval) {
+        this.priceRepository = priceRepository;
+        this.priceMapper = priceMapper;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.snapshotRows = rowsCounter("snapshot", meterRegistry);
+        this.incrementalRows = rowsCounter("incremental", meterRegistry);
+        TimeGauge.builder("prices.sync.lag", this, TimeUnit.NANOSECONDS, synchronizer -> synchronizer.snapshotLoaded
+                        ? System.nanoTime() - synchronizer.lastSyncNanos
+                        : Double.NaN)
+                .description("Time since the price table was last read successfully")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registers a structure to keep in sync. Must be called before the application context is
+     * refreshed to receive the first snapshot.
+     *
+     * @param listener the structure to keep in sync
+     */
+    public void register(PriceTableListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Loads the snapshot and starts polling once the application context (and therefore the
+     * database schema and data scripts) is ready. A failed snapshot is retried every poll interval.
+     */
+    @EventListener(ContextRefreshedEvent.class)
+    public synchronized void start() {
+        if (!enabled || polling != null) {
+            return;
+        }
+        Optional<LocalDateTime> restored = listeners.stream()
+                .map(PriceTableListener::restoredWatermark)
+                .flatMap(Optional::stream)
+                .min(Comparator.naturalOrder());
+        polling = restored.map(this::resume).orElseGet(this::loadSnapshot)
+                .retryWhen(Retry.fixedDelay(Long.MAX_VALUE, pollInterval)
+                        .doBeforeRetry(signal -> log.error("Price table snapshot failed: {}", signal.failure().getMessage())))
+                .thenMany(Flux.interval(pollInterval))
+                .concatMap(tick -> pollChanges()
+                        .onErrorResume(e -> {
+                            log.error("Polling the price table for changes failed: {}", e.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+        log.info("Price table synchronisation started, polling every {}", pollInterval);
+    }
+
+    /**
+     * Stops polling.
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    /**
+     * Streams the whole table, hands it to every listener and resets the watermark.
+     *
+     * @return a Mono that completes once every listener has the snapshot
+     */
+    public Mono<Void> loadSnapshot() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return priceRepository.findAllPrices()
+                    .collectList()
+                    .doOnNext(rows -> {
+                        List<Price> prices = rows.stream().map(priceMapper::toDomain).toList();
+                        listeners.forEach(listener -> listener.onSnapshot(prices));
+                        advanceWatermark(rows, null, Map.of());
+                        snapshotRows.increment(rows.size());
+                        lastSyncNanos = start;
+                        snapshotLoaded = true;
+                        log.info("Price table snapshot of {} rows applied in {} ms", rows.size(),
+                                (System.nanoTime() - start) / 1_000_000);
+                    })
+                    .then();
+        });
+    }
+
+    /**
+     * Resumes from a watermark restored by a listener instead of loading a snapshot, applying the
+     * rows changed since.
+     *
+     * @param restoredWatermark the latest {@code updated_at} the listeners already hold
+     * @return a Mono that completes once the listeners have caught up with the table
+     */
+    public Mono<Void> resume(LocalDateTime restoredWatermark) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            watermark = restoredWatermark;
+            watermarkVersions = Map.of();
+            return pollChanges()
+                    .doOnNext(rows -> {
+                        snapshotLoaded = true;
+                        log.info("Price table synchronisation resumed from {}, {} changed rows applied in {} ms",
+                                restoredWatermark, rows, (System.nanoTime() - start) / 1_000_000);
+                    })
+                    .then();
+        });
+    }
+
+    /**
+     * Reads the rows changed since the watermark and hands them to every listener.
+     *
+     * @return a Mono emitting the number of rows applied
+     */
+    public Mono<Integer> pollChanges() {
+        return Mono.defer(() -> {
+            LocalDateTime since = watermark;
+            if (since == null) {
+                return Mono.just(0);
+            }
+            Map<Long, Long> seen = watermarkVersions;
+            long start = System.nanoTime();
+            return priceRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(since)
+                    .filter(row -> !(since.equals(row.getUpdatedAt()) && row.getVersion().equals(seen.get(row.getId()))))
+                    .collectList()
+                    .flatMap(rows -> {
+                        if (rows.isEmpty()) {
+                            lastSyncNanos = start;
+                            return Mono.just(0);
+                        }
+                        List<Price> changed = rows.stream().map(priceMapper::toDomain).toList();
+                        return Flux.fromIterable(listeners)
+                                .concatMap(listener -> listener.onChange(changed))
+                                .then(Mono.fromCallable(() -> {
+                                    advanceWatermark(rows, since, seen);
+                                    incrementalRows.increment(rows.size());
+                                    lastSyncNanos = start;
+                                    log.debug("Applied {} changed price rows, watermark {}", rows.size(), watermark);
+                                    return rows.size();
+                                }));
+                    });
+        });
+    }
+
+    /**
+     * Tells whether the first snapshot has been loaded, or synchronisation is disabled.
+     *
+     * @return {@code true} when listeners can serve lookups
+     */
+    public boolean isSnapshotLoaded() {
+        return !enabled || snapshotLoaded;
+    }
+
+    /**
+     * Tells whether the table is synchronised at all.
+     *
+     * @return {@code true} when synchronisation is enabled
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the latest {@code updated_at} applied.
+     *
+     * @return the watermark, or {@code null} before the snapshot
+     */
+    public LocalDateTime getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * Moves the watermark to the latest {@code updated_at} of the applied rows.
+     *
+     * @param rows     the applied rows
+     * @param previous the previous watermark, {@code null} for a snapshot
+     * @param seen     the versions of the rows on the previous watermark
+     */
+    private void advanceWatermark(List<PriceEntity> rows, LocalDateTime previous, Map<Long, Long> seen) {
+        LocalDateTime latest = previous == null ? EMPTY_TABLE_WATERMARK : previous;
+        for (PriceEntity row : rows) {
+            if (row.getUpdatedAt().isAfter(latest)) {
+                latest = row.getUpdatedAt();
+            }
+        }
+        Map<Long, Long> onWatermark = new HashMap<>(latest.equals(previous) ? seen : Map.of());
+        for (PriceEntity row : rows) {
+            if (row.getUpdatedAt().equals(latest)) {
+                onWatermark.put(row.getId(), row.getVersion());
+            }
+        }
+        watermarkVersions = onWatermark;
+        watermark = latest;
+    }
+
+    private static Counter rowsCounter(String phase, MeterRegistry meterRegistry) {
+        return Counter.builder("prices.sync.rows.applied")
+                .description("Price rows applied to the in-process structures")
+                .tag("phase", phase)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package org.organization.prices.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.PriceEventHandoffPort;
+import org.organization.prices.domain.usecase.StorePriceEventUseCase;
+import org.organization.prices.infrastructure.adapter.out.aggregation.AggregatingPriceEventHandoffAdapter;
+import org.organization.prices.infrastructure.adapter.out.handoff.AsyncPriceEventHandoffAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Configuration class that assembles the {@link PriceEventHandoffPort} used by the price services.
+ * <p>
+ * By default ({@code organization.prices.events.handoff.mode=sync}), every response waits until
+ * its event is stored and published by the {@link StorePriceEventUseCase}. With {@code async},
+ * price events are queued and handled by an {@link AsyncPriceEventHandoffAdapter}, off the
+ * response path, and dropped once {@code capacity} events are waiting. With {@code organization.prices.events.aggregation.enabled},
+ * events are instead folded by an {@link AggregatingPriceEventHandoffAdapter} into one aggregate
+ * per product, brand, price list and event type and window, whatever the mode.
+ * </p>
+ */
+@Configuration
+@Slf4j
+public class EventHandoffConfig {
+
+    /**
+     * How events are handed over: {@code sync} or {@code async}.
+     */
+    @Value("${organization.prices.events.handoff.mode:sync}")
+    private String handoffMode;
+
+    /**
+     * Maximum number of events waiting to be handled.
+     */
+    @Value("${organization.prices.events.handoff.capacity:10000}")
+    private int handoffCapacity;
+
+    /**
+     * Maximum number of events handled at once.
+     */
+    @Value("${organization.prices.events.handoff.concurrency:64}")
+    private int handoffConcurrency;
+
+    /**
+     * Maximum time to handle the queued events on shutdown.
+     */
+    @Value("${organization.prices.events.handoff.shutdown-timeout:10s}")
+    private Duration handoffShutdownTimeout;
+
+    /**
+     * Whether events are aggregated over windows rather than handled one by one.
+     */
+    @Value("${organization.prices.events.aggregation.enabled:false}")
+    private boolean aggregationEnabled;
+
+    /**
+     * Length of an aggregation window.
+     */
+    @Value("${organization.prices.events.aggregation.window:1s}")
+    private Duration aggregationWindow;
+
+    /**
+     * Provides the {@link PriceEventHandoffPort}.
+     *
+     * @param storeEventUseCase the use case storing and publishing the events
+     * @param meterRegistry     the registry the handoff and aggregation metrics are published to
+     * @return the handoff port injected into the price services
+     */
+    @Bean
+    public PriceEventHandoffPort priceEventHandoffPort(StorePriceEventUseCase storeEventUseCase,
+                                                       MeterRegistry meterRegistry) {
+        if (aggregationEnabled) {
+            log.info("Price event aggregation enabled: window={}", aggregationWindow);
+            return new AggregatingPriceEventHandoffAdapter(storeEventUseCase, aggregationWindow, handoffConcurrency,
+                    Clock.systemDefaultZone(), meterRegistry);
+        }
+        if (!"async".equalsIgnoreCase(handoffMode.trim())) {
+            return storeEventUseCase::storeEvent;
+        }
+        log.info("Asynchronous price event handoff enabled: capacity={}, concurrency={}",
+                handoffCapacity, handoffConcurrency);
+        return new AsyncPriceEventHandoffAdapter(storeEventUseCase, handoffCapacity, handoffConcurrency,
+                handoffShutdownTimeout, meterRegistry);
+    }
+}
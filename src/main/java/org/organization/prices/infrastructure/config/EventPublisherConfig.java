@@ -0,0 +1,104 @@
+package org.organization.prices.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.EventPublisherPort;
+import org.organization.prices.infrastructure.adapter.out.kafka.KafkaEventPublisherAdapter;
+import org.organization.prices.infrastructure.adapter.out.outbox.PriceEventOutboxRelay;
+import org.organization.prices.infrastructure.adapter.out.spool.PriceEventSpool;
+import org.organization.prices.infrastructure.adapter.out.spool.SpoolingEventPublisherAdapter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Configuration class that assembles the {@link EventPublisherPort} used by the use cases.
+ * <p>
+ * By default, every stored event is published to Kafka on its own by the
+ * {@link KafkaEventPublisherAdapter}, events that cannot be published being dropped. Setting
+ * {@code organization.prices.events.spool.path} keeps them instead in a {@link PriceEventSpool}
+ * in that directory, replayed by a {@link SpoolingEventPublisherAdapter} once Kafka is back.
+ * With {@code organization.prices.events.outbox.enabled}, the use cases only store events, and
+ * the {@link PriceEventOutboxRelay} publishes them from the {@code PRICE_EVENTS} table.
+ * </p>
+ */
+@Configuration
+@Slf4j
+public class EventPublisherConfig {
+
+    /**
+     * Whether events are published from the outbox rather than by the use cases.
+     */
+    @Value("${organization.prices.events.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    /**
+     * Directory of the spool of the events Kafka does not take, empty to drop them.
+     */
+    @Value("${organization.prices.events.spool.path:}")
+    private String spoolPath;
+
+    /**
+     * Size from which a new spool segment is started.
+     */
+    @Value("${organization.prices.events.spool.segment-size:64MB}")
+    private DataSize spoolSegmentSize;
+
+    /**
+     * Maximum size of the events waiting in the spool.
+     */
+    @Value("${organization.prices.events.spool.maximum-size:1GB}")
+    private DataSize spoolMaximumSize;
+
+    /**
+     * Maximum number of spooled events replayed at once.
+     */
+    @Value("${organization.prices.events.spool.replay-batch-size:1000}")
+    private int spoolReplayBatchSize;
+
+    /**
+     * Time between two attempts to replay the spool.
+     */
+    @Value("${organization.prices.events.spool.replay-interval:5s}")
+    private Duration spoolReplayInterval;
+
+    /**
+     * Provides the primary {@link EventPublisherPort}.
+     *
+     * @param kafkaPublisher the adapter publishing events to Kafka
+     * @param meterRegistry  the registry the spool metrics are published to
+     * @return the event publisher port injected into the use cases
+     */
+    @Bean
+    @Primary
+    public EventPublisherPort eventPublisherPort(KafkaEventPublisherAdapter kafkaPublisher,
+                                                 MeterRegistry meterRegistry) {
+        if (outboxEnabled) {
+            log.info("Price event outbox enabled: events are published by the outbox relay");
+            return event -> Mono.empty();
+        }
+        if (spoolPath == null || spoolPath.isBlank()) {
+            return kafkaPublisher;
+        }
+        Path directory = Path.of(spoolPath.trim());
+        try {
+            PriceEventSpool spool = new PriceEventSpool(directory, spoolSegmentSize.toBytes(),
+                    spoolMaximumSize.toBytes(), Clock.systemUTC());
+            log.info("Price event spool enabled in {}: {} bytes waiting, maximumSize={}", directory,
+                    spool.sizeBytes(), spoolMaximumSize);
+            return new SpoolingEventPublisherAdapter(kafkaPublisher, spool, spoolReplayBatchSize,
+                    spoolReplayInterval, Clock.systemUTC(), meterRegistry);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open the price event spool in " + directory, e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.organization.prices.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.EventStorePort;
+import org.organization.prices.infrastructure.adapter.out.batch.BatchingEventStoreAdapter;
+import org.organization.prices.infrastructure.adapter.out.repository.EventStoreRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventBatchRepository;
+import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Configuration class that assembles the {@link EventStorePort} used by the use cases.
+ * <p>
+ * With {@code organization.prices.events.batch.enabled}, price events are queued and written in
+ * batches by a {@link BatchingEventStoreAdapter}. Otherwise, every event is saved on its own by
+ * the {@link EventStoreRepositoryAdapter}.
+ * </p>
+ * <p>
+ * With {@code organization.prices.events.outbox.enabled}, an event is only published once it is in
+ * {@code PRICE_EVENTS}, so the batching adapter is acknowledged, its callers waiting for their
+ * batch to be written, and an explicit {@code drop} overflow policy is rejected at startup.
+ * </p>
+ */
+@Configuration
+@Slf4j
+public class EventStoreConfig {
+
+    /**
+     * Whether price events are written in batches.
+     */
+    @Value("${organization.prices.events.batch.enabled:true}")
+    private boolean batchEnabled;
+
+    /**
+     * Number of events written by a full batch.
+     */
+    @Value("${organization.prices.events.batch.max-size:100}")
+    private int batchMaxSize;
+
+    /**
+     * Maximum time an event waits for its batch to fill up.
+     */
+    @Value("${organization.prices.events.batch.max-wait:200ms}")
+    private Duration batchMaxWait;
+
+    /**
+     * Maximum number of event writes running at once, batches when batching is enabled.
+     */
+    @Value("${organization.prices.events.max-in-flight-writes:4}")
+    private int maxInFlightWrites;
+
+    /**
+     * Maximum number of events waiting to be written.
+     */
+    @Value("${organization.prices.events.batch.queue-capacity:10000}")
+    private int batchQueueCapacity;
+
+    /**
+     * What to do with an event when the queue is full: {@code block} or, to shed audit rows under
+     * load, {@code drop}.
+     */
+    @Value("${organization.prices.events.batch.overflow:block}")
+    private String batchOverflow;
+
+    /**
+     * Whether events are published from the outbox, which requires them to be stored.
+     */
+    @Value("${organization.prices.events.outbox.enabled:false}")
+    private boolean outboxEnabled;
+
+    /**
+     * Maximum time to write the queued events on shutdown.
+     */
+    @Value("${organization.prices.events.batch.shutdown-timeout:10s}")
+    private Duration batchShutdownTimeout;
+
+    /**
+     * Provides the primary {@link EventStorePort}.
+     *
+     * @param repositoryAdapter      the adapter saving one event at a time
+     * @param batchRepository        the repository writing batches of events
+     * @param priceEventEntityMapper the mapper from events to persistence entities
+     * @param meterRegistry          the registry the batching metrics are published to
+     * @return the event store port injected into the use cases
+     * @throws IllegalStateException if the outbox is enabled with the {@code drop} overflow policy
+     */
+    @Bean
+    @Primary
+    public EventStorePort eventStorePort(EventStoreRepositoryAdapter repositoryAdapter,
+                                         PriceEventBatchRepository batchRepository,
+                                         PriceEventEntityMapper priceEventEntityMapper,
+                                         MeterRegistry meterRegistry) {
+        if (!batchEnabled) {
+            return repositoryAdapter;
+        }
+        BatchingEventStoreAdapter.OverflowPolicy overflowPolicy =
+                BatchingEventStoreAdapter.OverflowPolicy.valueOf(batchOverflow.trim().toUpperCase(Locale.ROOT));
+        if (outboxEnabled && overflowPolicy == BatchingEventStoreAdapter.OverflowPolicy.DROP) {
+            throw new IllegalStateException("The price event outbox cannot drop events: set "
+                    + "organization.prices.events.batch.overflow to block or disable batching");
+        }
+        log.info("Price event batching enabled: maxSize={}, maxWait={}, maxInFlightWrites={}, queueCapacity={}, "
+                        + "overflow={}, acknowledged={}",
+                batchMaxSize, batchMaxWait, maxInFlightWrites, batchQueueCapacity, overflowPolicy, outboxEnabled);
+        return new BatchingEventStoreAdapter(batchRepository, priceEventEntityMapper, batchMaxSize, batchMaxWait,
+                maxInFlightWrites, batchQueueCapacity, overflowPolicy, batchShutdownTimeout, outboxEnabled,
+                meterRegistry);
+    }
+}
@@ -3,13 +3,17 @@ package org.organization.prices.infrastructure.config;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.kafka.partitioning.HotKeyAwarePartitioner;
+import org.organization.prices.infrastructure.adapter.out.kafka.serialization.JsonPriceEventSerializer;
+import org.organization.prices.infrastructure.adapter.out.kafka.serialization.ProtobufPriceEventSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 import reactor.kafka.sender.KafkaSender;
 import reactor.kafka.sender.SenderOptions;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -32,11 +36,77 @@ public class KafkaReactiveConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    /**
+     * Maximum number of records sent but not yet acknowledged by the broker.
+     */
+    @Value("${organization.kafka.producer.max-in-flight:1024}")
+    private int maxInFlight;
+
+    /**
+     * Time the producer waits for more records to fill a batch before sending it.
+     */
+    @Value("${organization.kafka.producer.linger:5ms}")
+    private Duration linger;
+
+    /**
+     * Maximum size of a batch of records sent to a partition.
+     */
+    @Value("${organization.kafka.producer.batch-size:64KB}")
+    private DataSize batchSize;
+
+    /**
+     * Compression codec applied to each batch: {@code none}, {@code gzip}, {@code snappy},
+     * {@code lz4} or {@code zstd}.
+     */
+    @Value("${organization.kafka.producer.compression:lz4}")
+    private String compression;
+
+    /**
+     * Encoding of the record values: {@code json} or {@code protobuf}.
+     */
+    @Value("${organization.kafka.producer.value-format:json}")
+    private String valueFormat;
+
+    /**
+     * Partitioner of the records: {@code default}, which hashes the key, or {@code hot-key},
+     * which spreads the events of hot products with a {@link HotKeyAwarePartitioner}.
+     */
+    @Value("${organization.kafka.producer.partitioner:default}")
+    private String partitioner;
+
+    /**
+     * Share of the recent events above which the {@code hot-key} partitioner takes a product as hot.
+     */
+    @Value("${organization.kafka.producer.hot-key.share:0.05}")
+    private double hotKeyShare;
+
+    /**
+     * Number of recent events below which the {@code hot-key} partitioner takes no product as hot.
+     */
+    @Value("${organization.kafka.producer.hot-key.min-events:1000}")
+    private long hotKeyMinEvents;
+
+    /**
+     * Number of partitions the {@code hot-key} partitioner spreads a hot product over.
+     */
+    @Value("${organization.kafka.producer.hot-key.spread:4}")
+    private int hotKeySpread;
+
+    /**
+     * Time after which the {@code hot-key} partitioner halves its counts.
+     */
+    @Value("${organization.kafka.producer.hot-key.decay-interval:10s}")
+    private Duration hotKeyDecayInterval;
+
     /**
      * Creates and configures a reactive {@link KafkaSender} bean for sending
      * messages with key of type {@link String} and value of type {@link PriceEvent}.
      * <p>
-     * Uses String serializer for keys and Spring Kafka's JSON serializer for values.
+     * Uses String serializer for keys, and for values a {@link JsonPriceEventSerializer} or, with
+     * {@code value-format=protobuf}, a {@link ProtobufPriceEventSerializer}, both tagging each record
+     * with its content type. Records go to the partition picked by the configured partitioner,
+     * are batched for up to {@code linger} and compressed, and a failed record does not stop the
+     * sending stream.
      * </p>
      *
      * @return configured reactive {@link KafkaSender} instance
@@ -46,11 +116,32 @@ public class KafkaReactiveConfig {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        // Use Spring Kafka's JSON serializer, compatible with reactive Kafka here
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer());
+        props.put(ProducerConfig.LINGER_MS_CONFIG, (int) linger.toMillis());
+        props.put(ProducerConfig.BATCH_SIZE_CONFIG, (int) batchSize.toBytes());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compression);
+        if ("hot-key".equalsIgnoreCase(partitioner.trim())) {
+            props.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, HotKeyAwarePartitioner.class);
+            props.put(HotKeyAwarePartitioner.HOT_SHARE_CONFIG, hotKeyShare);
+            props.put(HotKeyAwarePartitioner.MIN_EVENTS_CONFIG, hotKeyMinEvents);
+            props.put(HotKeyAwarePartitioner.SPREAD_CONFIG, hotKeySpread);
+            props.put(HotKeyAwarePartitioner.DECAY_INTERVAL_CONFIG, hotKeyDecayInterval);
+        } else if (!"default".equalsIgnoreCase(partitioner.trim())) {
+            throw new IllegalArgumentException("Unknown Kafka partitioner: " + partitioner);
+        }
 
-        SenderOptions<String, PriceEvent> senderOptions = SenderOptions.create(props);
+        SenderOptions<String, PriceEvent> senderOptions = SenderOptions.<String, PriceEvent>create(props)
+                .maxInFlight(maxInFlight)
+                .stopOnError(false);
 
         return KafkaSender.create(senderOptions);
     }
+
+    private Class<?> valueSerializer() {
+        return switch (valueFormat.trim().toLowerCase()) {
+            case "json" -> JsonPriceEventSerializer.class;
+            case "protobuf" -> ProtobufPriceEventSerializer.class;
+            default -> throw new IllegalArgumentException("Unknown Kafka value format: " + valueFormat);
+        };
+    }
 }
@@ -0,0 +1,177 @@
+package org.organization.prices.infrastructure.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.infrastructure.adapter.out.bloom.BloomFilterPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.cache.CachingPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.cache.OffHeapCachingPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.cache.SegmentCachingPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.coalescing.CoalescingPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.memory.InMemoryPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.repository.DatabaseClientPriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepositoryAdapter;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableListener;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableSynchronizer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Configuration class that assembles the {@link PriceRepositoryPort} used by the use cases.
+ * <p>
+ * The R2DBC {@link PriceRepositoryAdapter} is the default and the source of truth. Setting
+ * {@code organization.prices.repository.type=memory} switches lookups to the
+ * {@link InMemoryPriceRepositoryAdapter}, which is loaded from it, and
+ * {@code organization.prices.repository.type=database-client} to the
+ * {@link DatabaseClientPriceRepositoryAdapter}, which maps rows without reflection. The selected
+ * source is then wrapped by the enabled decorators. Every layer holding in-process price data is
+ * registered with the {@link PriceTableSynchronizer} to follow the changes of the table.
+ * </p>
+ */
+@Configuration
+@Slf4j
+public class PriceRepositoryConfig {
+
+    /**
+     * Whether applicable prices are cached in front of the source.
+     */
+    @Value("${organization.prices.cache.enabled:true}")
+    private boolean cacheEnabled;
+
+    /**
+     * Caching strategy: {@code exact} caches every (productId, brandId, date) query,
+     * {@code segment} caches the validity segment around the last query per (productId, brandId).
+     */
+    @Value("${organization.prices.cache.strategy:segment}")
+    private String cacheStrategy;
+
+    /**
+     * Maximum number of cached price queries.
+     */
+    @Value("${organization.prices.cache.maximum-size:1000}")
+    private long cacheMaximumSize;
+
+    /**
+     * Time after which a cached price query is evicted.
+     */
+    @Value("${organization.prices.cache.expire-after-write:10m}")
+    private Duration cacheExpireAfterWrite;
+
+    /**
+     * Time after which a cached price query is refreshed in the background on access.
+     */
+    @Value("${organization.prices.cache.refresh-after-write:1m}")
+    private Duration cacheRefreshAfterWrite;
+
+    /**
+     * Whether an off-heap second-level cache of applicable prices sits behind the on-heap one.
+     */
+    @Value("${organization.prices.cache.off-heap.enabled:false}")
+    private boolean offHeapCacheEnabled;
+
+    /**
+     * Off-heap memory allocated to the second-level cache.
+     */
+    @Value("${organization.prices.cache.off-heap.maximum-size:256MB}")
+    private DataSize offHeapCacheMaximumSize;
+
+    /**
+     * Whether lookups of (productId, brandId) pairs absent from the price table are answered
+     * without querying it.
+     */
+    @Value("${organization.prices.bloom-filter.enabled:true}")
+    private boolean bloomFilterEnabled;
+
+    /**
+     * Minimum number of (productId, brandId) pairs the filter is sized for.
+     */
+    @Value("${organization.prices.bloom-filter.expected-insertions:10000}")
+    private long bloomFilterExpectedInsertions;
+
+    /**
+     * Target false positive probability of the filter.
+     */
+    @Value("${organization.prices.bloom-filter.false-positive-probability:0.01}")
+    private double bloomFilterFalsePositiveProbability;
+
+    /**
+     * Whether concurrent identical lookups share a single in-flight query.
+     */
+    @Value("${organization.prices.coalescing.enabled:true}")
+    private boolean coalescingEnabled;
+
+    /**
+     * Provides the primary {@link PriceRepositoryPort}.
+     *
+     * @param r2dbcAdapter          the R2DBC adapter, always available
+     * @param databaseClientAdapter the DatabaseClient adapter, only available when enabled
+     * @param inMemoryAdapter       the in-memory adapter, only available when enabled
+     * @param meterRegistry         the registry decorators publish their metrics to
+     * @param synchronizer          the synchronizer keeping in-process price data up to date
+     * @return the price repository port injected into the use cases
+     */
+    @Bean
+    @Primary
+    public PriceRepositoryPort priceRepositoryPort(PriceRepositoryAdapter r2dbcAdapter,
+                                                   ObjectProvider<DatabaseClientPriceRepositoryAdapter> databaseClientAdapter,
+                                                   ObjectProvider<InMemoryPriceRepositoryAdapter> inMemoryAdapter,
+                                                   MeterRegistry meterRegistry,
+                                                   PriceTableSynchronizer synchronizer) {
+        PriceRepositoryPort source = inMemoryAdapter.getIfAvailable();
+        if (source == null) {
+            source = databaseClientAdapter.getIfAvailable();
+        }
+        if (source == null) {
+            source = r2dbcAdapter;
+        }
+        log.info("Price lookups served by {}", source.getClass().getSimpleName());
+
+        PriceRepositoryPort port = source;
+        registerListener(port, synchronizer);
+        if (cacheEnabled && offHeapCacheEnabled) {
+            port = new OffHeapCachingPriceRepositoryAdapter(port, offHeapCacheMaximumSize.toBytes(),
+                    cacheExpireAfterWrite, meterRegistry);
+            log.info("Off-heap price cache enabled: maximumSize={}, expireAfterWrite={}",
+                    offHeapCacheMaximumSize, cacheExpireAfterWrite);
+            registerListener(port, synchronizer);
+        }
+        if (cacheEnabled && "exact".equalsIgnoreCase(cacheStrategy)) {
+            port = new CachingPriceRepositoryAdapter(port, cacheMaximumSize, cacheExpireAfterWrite,
+                    cacheRefreshAfterWrite, meterRegistry);
+            log.info("Price cache enabled: strategy=exact, maximumSize={}, expireAfterWrite={}, refreshAfterWrite={}",
+                    cacheMaximumSize, cacheExpireAfterWrite, cacheRefreshAfterWrite);
+            registerListener(port, synchronizer);
+        } else if (cacheEnabled) {
+            port = new SegmentCachingPriceRepositoryAdapter(port, cacheMaximumSize, cacheExpireAfterWrite,
+                    Clock.systemDefaultZone(), meterRegistry);
+            log.info("Price cache enabled: strategy=segment, maximumSize={}, expireAfterWrite={}",
+                    cacheMaximumSize, cacheExpireAfterWrite);
+            registerListener(port, synchronizer);
+        }
+        if (bloomFilterEnabled) {
+            port = new BloomFilterPriceRepositoryAdapter(port, bloomFilterExpectedInsertions,
+                    bloomFilterFalsePositiveProbability, meterRegistry);
+            log.info("Price pairs filter enabled: expectedInsertions={}, falsePositiveProbability={}",
+                    bloomFilterExpectedInsertions, bloomFilterFalsePositiveProbability);
+            registerListener(port, synchronizer);
+        }
+        if (coalescingEnabled) {
+            port = new CoalescingPriceRepositoryAdapter(port, meterRegistry);
+            log.info("Price lookup coalescing enabled");
+        }
+        return port;
+    }
+
+    private static void registerListener(PriceRepositoryPort port, PriceTableSynchronizer synchronizer) {
+        if (port instanceof PriceTableListener listener) {
+            synchronizer.register(listener);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package org.organization.prices.infrastructure.entity;
 
 import lombok.Data;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.relational.core.mapping.Table;
 
 import java.math.BigDecimal;
@@ -59,4 +61,16 @@ public class PriceEntity {
      * Currency code of the price.
      */
     private String currency;
+
+    /**
+     * Row version, incremented on every update made through the repository.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Time of the last insert or update of the row, maintained by the database.
+     */
+    @ReadOnlyProperty
+    private LocalDateTime updatedAt;
 }
\ No newline at end of file
@@ -55,4 +55,39 @@ public class PriceEventEntity {
      * Timestamp when the event was created.
      */
     private LocalDateTime createdAt;
+
+    /**
+     * Number of queries aggregated by the event, {@code null} for a single query.
+     */
+    private Long eventCount;
+
+    /**
+     * Start of the aggregation window.
+     */
+    private LocalDateTime windowStart;
+
+    /**
+     * End of the aggregation window.
+     */
+    private LocalDateTime windowEnd;
+
+    /**
+     * Timestamp of the first aggregated query.
+     */
+    private LocalDateTime firstQueryAt;
+
+    /**
+     * Timestamp of the last aggregated query.
+     */
+    private LocalDateTime lastQueryAt;
+
+    /**
+     * Lowest price of the aggregated queries.
+     */
+    private BigDecimal minPrice;
+
+    /**
+     * Highest price of the aggregated queries.
+     */
+    private BigDecimal maxPrice;
 }
@@ -2,56 +2,18 @@ package org.organization.prices.infrastructure.mapper;
 
 import org.organization.prices.domain.model.PriceEvent;
 import org.organization.prices.infrastructure.entity.PriceEventEntity;
-import org.modelmapper.ModelMapper;
-import org.modelmapper.config.Configuration;
-import org.modelmapper.TypeMap;
 import org.springframework.stereotype.Component;
 
 /**
  * Mapper component for converting between {@link PriceEventEntity} persistence entities and
- * {@link PriceEvent} domain models using ModelMapper.
+ * {@link PriceEvent} domain models.
+ * <p>
+ * Fields are copied explicitly, with no reflection, since an event is stored for every price query.
+ * </p>
  */
 @Component
 public class PriceEventEntityMapper {
 
-    /**
-     * ModelMapper instance used to perform the mapping between domain and entity objects.
-     */
-    private final ModelMapper modelMapper;
-
-    /**
-     * Constructs a new PriceEventEntityMapper with custom ModelMapper configuration.
-     * Configures field matching, access level, ambiguity handling, and skips setting the ID on the entity.
-     *
-     * @param modelMapper the ModelMapper instance to be used
-     */
-    public PriceEventEntityMapper(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-
-        // Configures to ignore ambiguities that cause errors in TypeMap creation
-        this.modelMapper.getConfiguration()
-                .setAmbiguityIgnored(true)
-                .setFieldMatchingEnabled(true)
-                .setFieldAccessLevel(Configuration.AccessLevel.PRIVATE);
-
-        this.configureMappings();
-    }
-
-    /**
-     * Configures explicit mappings between {@link PriceEvent} and {@link PriceEventEntity}.
-     * Skips setting the ID field on the entity to avoid overwriting it.
-     */
-    private void configureMappings() {
-        // Explicitly create TypeMap for PriceEvent -> PriceEventEntity and skip id field
-        TypeMap<PriceEvent, PriceEventEntity> toEntityTypeMap = modelMapper.createTypeMap(PriceEvent.class, PriceEventEntity.class);
-        toEntityTypeMap.addMappings(mapper -> {
-            mapper.skip(PriceEventEntity::setId);  // Skip id to avoid overwriting entity's id
-        });
-
-        // Explicitly create TypeMap for PriceEventEntity -> PriceEvent (customizations can be added if needed)
-        modelMapper.createTypeMap(PriceEventEntity.class, PriceEvent.class);
-    }
-
     /**
      * Converts a {@link PriceEventEntity} to a {@link PriceEvent} domain model.
      *
@@ -62,11 +24,29 @@ public class PriceEventEntityMapper {
         if (entity == null) {
             return null;
         }
-        return modelMapper.map(entity, PriceEvent.class);
+        return PriceEvent.builder()
+                .productId(entity.getProductId())
+                .brandId(entity.getBrandId())
+                .priceList(entity.getPriceList())
+                .queryDate(entity.getQueryDate())
+                .price(entity.getPrice())
+                .eventType(entity.getEventType())
+                .createdAt(entity.getCreatedAt())
+                .eventCount(entity.getEventCount())
+                .windowStart(entity.getWindowStart())
+                .windowEnd(entity.getWindowEnd())
+                .firstQueryAt(entity.getFirstQueryAt())
+                .lastQueryAt(entity.getLastQueryAt())
+                .minPrice(entity.getMinPrice())
+                .maxPrice(entity.getMaxPrice())
+                .build();
     }
 
     /**
      * Converts a {@link PriceEvent} domain model to a {@link PriceEventEntity}.
+     * <p>
+     * The ID is left unset, to be assigned by the database.
+     * </p>
      *
      * @param domain the PriceEvent domain model to convert
      * @return the corresponding PriceEventEntity, or null if the domain model is null
@@ -75,6 +55,21 @@ public class PriceEventEntityMapper {
         if (domain == null) {
             return null;
         }
-        return modelMapper.map(domain, PriceEventEntity.class);
+        PriceEventEntity entity = new PriceEventEntity();
+        entity.setProductId(domain.getProductId());
+        entity.setBrandId(domain.getBrandId());
+        entity.setPriceList(domain.getPriceList());
+        entity.setQueryDate(domain.getQueryDate());
+        entity.setPrice(domain.getPrice());
+        entity.setEventType(domain.getEventType());
+        entity.setCreatedAt(domain.getCreatedAt());
+        entity.setEventCount(domain.getEventCount());
+        entity.setWindowStart(domain.getWindowStart());
+        entity.setWindowEnd(domain.getWindowEnd());
+        entity.setFirstQueryAt(domain.getFirstQueryAt());
+        entity.setLastQueryAt(domain.getLastQueryAt());
+        entity.setMinPrice(domain.getMinPrice());
+        entity.setMaxPrice(domain.getMaxPrice());
+        return entity;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package org.organization.prices.infrastructure.mapper;
+
+import io.r2dbc.spi.Row;
+import org.organization.prices.domain.model.Price;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mapper component converting rows of the {@code PRICES} table straight into {@link Price}
+ * domain models, with no intermediate entity and no reflection.
+ * <p>
+ * Columns are read by position, so queries must select {@link #COLUMNS} in that order.
+ * </p>
+ */
+@Component
+public class PriceRowMapper {
+
+    /**
+     * Columns to select, in the order {@link #toDomain(Row)} reads them.
+     */
+    public static final String COLUMNS =
+            "brand_id, start_date, end_date, price_list, product_id, priority, price, currency";
+
+    /**
+     * Converts a row selecting {@link #COLUMNS} to a {@link Price} domain model.
+     *
+     * @param row the row to convert
+     * @return the corresponding Price domain model
+     */
+    public Price toDomain(Row row) {
+        return new Price(
+                row.get(0, Long.class),
+                row.get(1, LocalDateTime.class),
+                row.get(2, LocalDateTime.class),
+                row.get(3, Integer.class),
+                row.get(4, Long.class),
+                row.get(5, Integer.class),
+                row.get(6, BigDecimal.class),
+                row.get(7, String.class));
+    }
+}
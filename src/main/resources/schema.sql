@@ -8,20 +8,40 @@ CREATE TABLE PRICES (
     product_id BIGINT NOT NULL,
     priority INT NOT NULL default 0,
     price DECIMAL(10,2) NOT NULL,
-    currency VARCHAR(3) NOT NULL
+    currency VARCHAR(3) NOT NULL,
+    version BIGINT NOT NULL default 0,
+    updated_at TIMESTAMP default LOCALTIMESTAMP ON UPDATE LOCALTIMESTAMP NOT NULL
 );
 
 CREATE INDEX idx_product_brand_date ON PRICES (product_id, brand_id, start_date, end_date);
+CREATE INDEX idx_updated_at ON PRICES (updated_at);
 
 
+-- PRICE_EVENTS is a synonym of the partition events are written to. PriceEventRetention creates a
+-- partition with the same columns and index every period, swaps the synonym to it and drops the
+-- partitions older than the retention. The sequence keeps IDs unique across partitions.
+DROP SYNONYM IF EXISTS PRICE_EVENTS;
 DROP TABLE IF EXISTS PRICE_EVENTS;
-CREATE TABLE PRICE_EVENTS (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+DROP TABLE IF EXISTS PRICE_EVENTS_P000000000000;
+CREATE SEQUENCE IF NOT EXISTS PRICE_EVENTS_ID_SEQ;
+CREATE TABLE PRICE_EVENTS_P000000000000 (
+    id BIGINT DEFAULT NEXT VALUE FOR PRICE_EVENTS_ID_SEQ PRIMARY KEY,
     product_id BIGINT NOT NULL,
     brand_id BIGINT NOT NULL,
     price_list INT NOT NULL,
     query_date TIMESTAMP NOT NULL,
     price DECIMAL(10,2) NOT NULL,
     event_type VARCHAR(50) NOT NULL,
-    created_at TIMESTAMP NOT NULL
-);
\ No newline at end of file
+    created_at TIMESTAMP NOT NULL,
+    event_count BIGINT,
+    window_start TIMESTAMP,
+    window_end TIMESTAMP,
+    first_query_at TIMESTAMP,
+    last_query_at TIMESTAMP,
+    min_price DECIMAL(10,2),
+    max_price DECIMAL(10,2),
+    published BOOLEAN NOT NULL default FALSE
+);
+
+CREATE INDEX idx_price_events_published_P000000000000 ON PRICE_EVENTS_P000000000000 (published, id);
+CREATE SYNONYM PRICE_EVENTS FOR PRICE_EVENTS_P000000000000;
\ No newline at end of file
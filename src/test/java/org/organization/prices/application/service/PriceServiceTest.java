@@ -1,28 +1,34 @@
 package org.organization.prices.application.service;
 
 import io.opentelemetry.api.trace.Tracer;
+import org.organization.prices.application.dto.PriceBatchItemDto;
 import org.organization.prices.application.dto.PriceRequestDto;
 import org.organization.prices.application.dto.PriceResponseDto;
 import org.organization.prices.application.mapper.PriceMapper;
 import org.organization.prices.application.port.CircuitBreakerPort;
+import org.organization.prices.application.port.PriceEventHandoffPort;
 import org.organization.prices.application.port.TracePort;
 import org.organization.prices.domain.execption.PriceNotFoundException;
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
 import org.organization.prices.domain.usecase.FindApplicablePriceUseCase;
-import org.organization.prices.domain.usecase.StorePriceEventUseCase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,7 +40,7 @@ class PriceServiceTest {
     private FindApplicablePriceUseCase findPriceUseCase;
 
     @Mock
-    private StorePriceEventUseCase storeEventUseCase;
+    private PriceEventHandoffPort eventHandoff;
 
     @Mock
     private TracePort tracingPort;
@@ -80,7 +86,7 @@ class PriceServiceTest {
 
         when(findPriceUseCase.findApplicablePrice(anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(Mono.just(price));
         when(priceMapper.toResponse(price)).thenReturn(responseDto);
-        when(storeEventUseCase.storeEvent(any(Price.class), any(LocalDateTime.class))).thenReturn(Mono.empty());
+        when(eventHandoff.handOff(any(Price.class), any(LocalDateTime.class))).thenReturn(Mono.empty());
         when(tracingPort.trace(
                 eq("PriceService.findPrice"),
                 any(Mono.class),
@@ -107,7 +113,7 @@ class PriceServiceTest {
 
         verify(findPriceUseCase, times(1)).findApplicablePrice(35455L, 1L, request.getDate());
         verify(priceMapper, times(1)).toResponse(price);
-        verify(storeEventUseCase, times(1)).storeEvent(any(Price.class), any(LocalDateTime.class));
+        verify(eventHandoff, times(1)).handOff(any(Price.class), any(LocalDateTime.class));
         verify(tracingPort, times(1)).trace(
                 eq("PriceService.findPrice"),
                 any(Mono.class),
@@ -155,4 +161,49 @@ class PriceServiceTest {
                 eq("date"), anyString()
         );
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindPrices() {
+        // Arrange
+        PriceQuery found = new PriceQuery(35455L, 1L, LocalDateTime.parse("2020-06-14T10:00:00"));
+        PriceQuery missing = new PriceQuery(35455L, 2L, LocalDateTime.parse("2020-06-14T10:00:00"));
+
+        Price price = new Price();
+        price.setProductId(35455L);
+        price.setBrandId(1L);
+        price.setPrice(new BigDecimal("35.5"));
+
+        PriceResponseDto responseDto = new PriceResponseDto();
+        responseDto.setProductId(35455L);
+        responseDto.setBrandId(1L);
+        responseDto.setPrice(new BigDecimal("35.5"));
+
+        when(findPriceUseCase.findApplicablePrices(List.of(found, missing))).thenReturn(Mono.just(Map.of(found, price)));
+        when(priceMapper.toResponse(price)).thenReturn(responseDto);
+        when(eventHandoff.handOff(any(Price.class), any(LocalDateTime.class))).thenReturn(Mono.empty());
+        when(tracingPort.traceFlux(eq("PriceService.findPrices"), any(Flux.class), eq("size"), eq("2")))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        when(circuitBreakerPort.executeCircuitBreaker(eq("priceService"), any(Flux.class), eq(PriceNotFoundException.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        // Act
+        Flux<PriceBatchItemDto> result = priceService.findApplicablePrices(List.of(found, missing));
+
+        // Assert
+        StepVerifier.create(result)
+                .assertNext(item -> {
+                    assertEquals(1L, item.getBrandId());
+                    assertEquals(responseDto, item.getPrice());
+                    assertNull(item.getError());
+                })
+                .assertNext(item -> {
+                    assertEquals(2L, item.getBrandId());
+                    assertNull(item.getPrice());
+                    assertEquals("PRICE_NOT_FOUND", item.getError());
+                })
+                .verifyComplete();
+
+        verify(findPriceUseCase, times(1)).findApplicablePrices(List.of(found, missing));
+        verify(eventHandoff, times(1)).handOff(price, found.date());
+    }
+}
@@ -100,4 +100,23 @@ class PriceRequestValidatorTest {
             PriceRequestValidator.validate("14/06/2020", "12:00:00", 1L, 1L));
         assertEquals("Invalid date or time format. Expected dd/MM/yyyy and HH:mm", exception.getMessage());
     }
+
+    /**
+     * Tests that batch sizes between one and the maximum are accepted.
+     */
+    @Test
+    void validateBatchSize_withinLimits_shouldNotThrow() {
+        assertDoesNotThrow(() -> PriceRequestValidator.validateBatchSize(1));
+        assertDoesNotThrow(() -> PriceRequestValidator.validateBatchSize(PriceRequestValidator.MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Tests that empty and oversized batches throw an IllegalArgumentException.
+     */
+    @Test
+    void validateBatchSize_outsideLimits_shouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> PriceRequestValidator.validateBatchSize(0));
+        assertThrows(IllegalArgumentException.class,
+                () -> PriceRequestValidator.validateBatchSize(PriceRequestValidator.MAX_BATCH_SIZE + 1));
+    }
 }
@@ -0,0 +1,48 @@
+package org.organization.prices.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PriceCatalogFilter} domain model.
+ */
+class PriceCatalogFilterTest {
+
+    /**
+     * Tests that bounds are inclusive and that unset bounds are open.
+     */
+    @Test
+    void matches_shouldApplyInclusiveAndOpenBounds() {
+        PriceCatalogFilter filter = new PriceCatalogFilter(10L, 20L, null, 1L);
+
+        assertTrue(filter.matches(price(10L, 1L)));
+        assertTrue(filter.matches(price(20L, 0L)));
+        assertFalse(filter.matches(price(9L, 1L)));
+        assertFalse(filter.matches(price(21L, 1L)));
+        assertFalse(filter.matches(price(15L, 2L)));
+        assertTrue(PriceCatalogFilter.all().matches(price(Long.MAX_VALUE, Long.MAX_VALUE)));
+        assertTrue(filter.matches(new PriceKey(20L, 1L)));
+        assertFalse(filter.matches(new PriceKey(15L, 2L)));
+    }
+
+    /**
+     * Tests that unset bounds are exposed as the widest range for database queries.
+     */
+    @Test
+    void bounds_shouldDefaultToWidestRange() {
+        PriceCatalogFilter filter = PriceCatalogFilter.all();
+
+        assertEquals(0L, filter.productIdLowerBound());
+        assertEquals(Long.MAX_VALUE, filter.productIdUpperBound());
+        assertEquals(0L, filter.brandIdLowerBound());
+        assertEquals(Long.MAX_VALUE, filter.brandIdUpperBound());
+    }
+
+    private static Price price(Long productId, Long brandId) {
+        Price price = new Price();
+        price.setProductId(productId);
+        price.setBrandId(brandId);
+        return price;
+    }
+}
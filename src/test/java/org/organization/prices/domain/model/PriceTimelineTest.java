@@ -0,0 +1,88 @@
+package org.organization.prices.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PriceTimeline} domain model.
+ */
+class PriceTimelineTest {
+
+    /**
+     * The four overlapping price lists of product 35455 in {@code data.sql}.
+     */
+    private static final List<Price> SAMPLE = List.of(
+            price(1, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59"),
+            price(2, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00"),
+            price(3, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00"),
+            price(4, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59")
+    );
+
+    /**
+     * Tests that overlapping rows are flattened into non-overlapping segments with the winner decided.
+     */
+    @Test
+    void of_shouldFlattenOverlappingRowsIntoSegments() {
+        PriceTimeline timeline = PriceTimeline.of(SAMPLE);
+
+        // 1 | 2 | 1 | 3 | 1 | 4
+        assertEquals(6, timeline.segmentCount());
+        assertEquals(4, timeline.rows().size());
+
+        PriceSegment segment = timeline.segmentAt(LocalDateTime.parse("2020-06-14T16:00:00")).orElseThrow();
+        assertEquals(2, segment.getPrice().getPriceList());
+        assertEquals(LocalDateTime.parse("2020-06-14T15:00:00"), segment.getValidFrom());
+        assertEquals(LocalDateTime.parse("2020-06-14T18:30:00").plusNanos(1), segment.getValidUntil());
+
+        PriceSegment interrupted = timeline.segmentAt(LocalDateTime.parse("2020-06-14T10:00:00")).orElseThrow();
+        assertEquals(1, interrupted.getPrice().getPriceList());
+        assertEquals(LocalDateTime.parse("2020-06-14T15:00:00"), interrupted.getValidUntil());
+    }
+
+    /**
+     * Tests the README scenarios and the inclusive bounds of the rows.
+     */
+    @Test
+    void find_shouldResolveHighestPriorityPrice() {
+        PriceTimeline timeline = PriceTimeline.of(SAMPLE);
+
+        assertEquals(1, timeline.find(LocalDateTime.parse("2020-06-14T10:00:00")).orElseThrow().getPriceList());
+        assertEquals(2, timeline.find(LocalDateTime.parse("2020-06-14T16:00:00")).orElseThrow().getPriceList());
+        assertEquals(1, timeline.find(LocalDateTime.parse("2020-06-14T21:00:00")).orElseThrow().getPriceList());
+        assertEquals(3, timeline.find(LocalDateTime.parse("2020-06-15T10:00:00")).orElseThrow().getPriceList());
+        assertEquals(4, timeline.find(LocalDateTime.parse("2020-06-16T21:00:00")).orElseThrow().getPriceList());
+
+        assertEquals(2, timeline.find(LocalDateTime.parse("2020-06-14T18:30:00")).orElseThrow().getPriceList());
+        assertEquals(4, timeline.find(LocalDateTime.parse("2020-12-31T23:59:59")).orElseThrow().getPriceList());
+        assertTrue(timeline.find(LocalDateTime.parse("2021-01-01T00:00:00")).isEmpty());
+        assertTrue(timeline.find(LocalDateTime.parse("2020-06-13T23:59:59")).isEmpty());
+    }
+
+    /**
+     * Tests that gaps between rows produce no segment and that ties favour the later start.
+     */
+    @Test
+    void of_shouldHandleGapsAndPriorityTies() {
+        PriceTimeline timeline = PriceTimeline.of(List.of(
+                price(1, 0, "2020-01-01T00:00:00", "2020-01-10T00:00:00"),
+                price(2, 0, "2020-01-05T00:00:00", "2020-01-10T00:00:00"),
+                price(3, 0, "2020-02-01T00:00:00", "2020-02-10T00:00:00")
+        ));
+
+        assertEquals(1, timeline.find(LocalDateTime.parse("2020-01-04T00:00:00")).orElseThrow().getPriceList());
+        assertEquals(2, timeline.find(LocalDateTime.parse("2020-01-06T00:00:00")).orElseThrow().getPriceList());
+        assertTrue(timeline.find(LocalDateTime.parse("2020-01-20T00:00:00")).isEmpty());
+        assertEquals(3, timeline.find(LocalDateTime.parse("2020-02-01T00:00:00")).orElseThrow().getPriceList());
+        assertEquals(3, timeline.segmentCount());
+    }
+
+    private static Price price(int priceList, int priority, String start, String end) {
+        return new Price(1L, LocalDateTime.parse(start), LocalDateTime.parse(end), priceList, 35455L,
+                priority, new BigDecimal("10.00"), "EUR");
+    }
+}
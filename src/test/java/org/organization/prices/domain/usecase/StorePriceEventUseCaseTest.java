@@ -68,7 +68,7 @@ class StorePriceEventUseCaseTest {
         price.setPrice(new BigDecimal("25.0"));
         LocalDateTime queryDate = LocalDateTime.now();
 
-        doNothing().when(eventStore).storeEvent(any(PriceEvent.class));
+        when(eventStore.storeEvent(any(PriceEvent.class))).thenReturn(Mono.empty());
         when(eventPublisher.publishEvent(any(PriceEvent.class))).thenReturn(Mono.empty());
 
         // Act
@@ -116,7 +116,7 @@ class StorePriceEventUseCaseTest {
         price.setPrice(new BigDecimal("25.0"));
         LocalDateTime queryDate = LocalDateTime.now();
 
-        doThrow(new RuntimeException("Store failed")).when(eventStore).storeEvent(any(PriceEvent.class));
+        when(eventStore.storeEvent(any(PriceEvent.class))).thenReturn(Mono.error(new RuntimeException("Store failed")));
 
         // Act
         Mono<Void> result = storePriceEventUseCase.storeEvent(price, queryDate);
@@ -128,4 +128,34 @@ class StorePriceEventUseCaseTest {
         verify(eventStore, times(1)).storeEvent(any(PriceEvent.class));
         verify(eventPublisher, never()).publishEvent(any());
     }
+
+    /**
+     * Tests that {@code storeEvent} stores and publishes an aggregate event as it is given.
+     */
+    @Test
+    void storeEvent_shouldStoreAndPublishAggregateEventAsIs() {
+        // Arrange
+        PriceEvent aggregate = PriceEvent.builder()
+                .productId(35455L)
+                .brandId(1L)
+                .priceList(1)
+                .eventType("PRICE_QUERY")
+                .eventCount(3L)
+                .minPrice(new BigDecimal("25.45"))
+                .maxPrice(new BigDecimal("35.50"))
+                .build();
+
+        when(eventStore.storeEvent(aggregate)).thenReturn(Mono.empty());
+        when(eventPublisher.publishEvent(aggregate)).thenReturn(Mono.empty());
+
+        // Act
+        Mono<Void> result = storePriceEventUseCase.storeEvent(aggregate);
+
+        // Assert
+        StepVerifier.create(result)
+                .verifyComplete();
+
+        verify(eventStore, times(1)).storeEvent(aggregate);
+        verify(eventPublisher, times(1)).publishEvent(aggregate);
+    }
 }
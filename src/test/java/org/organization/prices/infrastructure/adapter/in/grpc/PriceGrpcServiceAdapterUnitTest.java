@@ -1,18 +1,23 @@
 package org.organization.prices.infrastructure.adapter.in.grpc;
 
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import io.opentelemetry.api.trace.Span;
 import io.opentelemetry.api.trace.SpanBuilder;
 import io.opentelemetry.api.trace.Tracer;
 import org.organization.prices.application.dto.PriceResponseDto;
 import org.organization.prices.application.port.PriceServicePort;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.infrastructure.adapter.grpc.PriceCatalogRequest;
 import org.organization.prices.infrastructure.adapter.grpc.PriceRequest;
 import org.organization.prices.infrastructure.adapter.grpc.PriceResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.LocalDateTime;
@@ -41,6 +46,9 @@ class PriceGrpcServiceAdapterUnitTest {
     @Mock
     private StreamObserver<PriceResponse> responseObserver;
 
+    @Mock
+    private ServerCallStreamObserver<PriceResponse> serverObserver;
+
     @InjectMocks
     private PriceGrpcServiceAdapter grpcService;
 
@@ -113,4 +121,88 @@ class PriceGrpcServiceAdapterUnitTest {
         verify(responseObserver).onError(any(Throwable.class));
         verify(span).recordException(any(Throwable.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getPrices_correlatesResponsesAndReturnsCreditsOnlyWhenReady() {
+        LocalDateTime now = LocalDateTime.now();
+        PriceResponseDto dto = PriceResponseDto.builder()
+                .productId(1L)
+                .brandId(1L)
+                .priceList(1)
+                .startDate(now.minusDays(1).toString())
+                .endDate(now.plusDays(1).toString())
+                .price(java.math.BigDecimal.valueOf(99.99))
+                .build();
+        when(service.findApplicablePrice(eq(1L), eq(1L), any(LocalDateTime.class))).thenReturn(Mono.just(dto));
+        when(serverObserver.isReady()).thenReturn(false);
+
+        StreamObserver<PriceRequest> requests = grpcService.getPrices(serverObserver);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        verify(serverObserver).disableAutoRequest();
+        verify(serverObserver).setOnReadyHandler(onReady.capture());
+        verify(serverObserver).request(PriceGrpcServiceAdapter.STREAM_WINDOW);
+
+        requests.onNext(PriceRequest.newBuilder()
+                .setRequestId("r-1")
+                .setProductId(1L)
+                .setBrandId(1L)
+                .setDate(now.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")))
+                .setTime(now.format(DateTimeFormatter.ofPattern("HH:mm")))
+                .build());
+        requests.onNext(PriceRequest.newBuilder().setRequestId("r-2").setProductId(1L).setBrandId(1L).build());
+
+        verify(serverObserver).onNext(argThat(response -> "r-1".equals(response.getRequestId())
+                && response.getPrice() == 99.99 && response.getError().isEmpty()));
+        verify(serverObserver).onNext(argThat(response -> "r-2".equals(response.getRequestId())
+                && "INVALID_ARGUMENT".equals(response.getError())));
+        verify(serverObserver, never()).request(1);
+
+        when(serverObserver.isReady()).thenReturn(true);
+        onReady.getValue().run();
+        verify(serverObserver, times(2)).request(1);
+
+        requests.onCompleted();
+        verify(serverObserver).onCompleted();
+        verify(span).end();
+    }
+
+    @Test
+    void getPrices_endsSpanOnce_whenClientFailsThenCallIsCancelled() {
+        StreamObserver<PriceRequest> requests = grpcService.getPrices(serverObserver);
+        ArgumentCaptor<Runnable> onCancel = ArgumentCaptor.forClass(Runnable.class);
+        verify(serverObserver).setOnCancelHandler(onCancel.capture());
+
+        requests.onError(new IllegalStateException("client gone"));
+        onCancel.getValue().run();
+
+        verify(span, times(1)).end();
+        verify(serverObserver, never()).onCompleted();
+    }
+
+    @Test
+    void streamAllPrices_sendsOnlyWhileReady() {
+        LocalDateTime now = LocalDateTime.now();
+        PriceResponseDto dto = PriceResponseDto.builder()
+                .productId(1L)
+                .brandId(1L)
+                .priceList(1)
+                .startDate(now.minusDays(1).toString())
+                .endDate(now.plusDays(1).toString())
+                .price(java.math.BigDecimal.valueOf(99.99))
+                .build();
+        when(service.streamAllPrices(PriceCatalogFilter.all())).thenReturn(Flux.just(dto, dto, dto));
+        when(serverObserver.isReady()).thenReturn(false);
+
+        grpcService.streamAllPrices(PriceCatalogRequest.getDefaultInstance(), serverObserver);
+        ArgumentCaptor<Runnable> onReady = ArgumentCaptor.forClass(Runnable.class);
+        verify(serverObserver).setOnReadyHandler(onReady.capture());
+        verify(serverObserver, never()).onNext(any(PriceResponse.class));
+
+        when(serverObserver.isReady()).thenReturn(true);
+        onReady.getValue().run();
+
+        verify(serverObserver, times(3)).onNext(any(PriceResponse.class));
+        verify(serverObserver).onCompleted();
+        verify(span).end();
+    }
+}
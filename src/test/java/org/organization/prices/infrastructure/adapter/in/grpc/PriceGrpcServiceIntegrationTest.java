@@ -3,6 +3,10 @@ package org.organization.prices.infrastructure.adapter.in.grpc;
 import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+import org.organization.prices.infrastructure.adapter.grpc.PriceBatchRequest;
+import org.organization.prices.infrastructure.adapter.grpc.PriceBatchResponse;
+import org.organization.prices.infrastructure.adapter.grpc.PriceCatalogRequest;
 import org.organization.prices.infrastructure.adapter.grpc.PriceRequest;
 import org.organization.prices.infrastructure.adapter.grpc.PriceResponse;
 import org.organization.prices.infrastructure.adapter.grpc.PriceServiceGrpc;
@@ -13,9 +17,15 @@ import org.springframework.test.context.DynamicPropertySource;
 
 import java.io.IOException;
 import java.net.ServerSocket;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Integration tests for the { PriceGrpcServiceGrpc} gRPC service.
@@ -151,4 +161,121 @@ class PriceGrpcServiceIntegrationTest {
         assertEquals(1, response.getBrandId());
         assertEquals(35.50, response.getPrice());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests the retrieval of several prices in one call via the gRPC service.
+     * <p>
+     * Sends a {@link PriceBatchRequest} with a query that has a price and one that has none,
+     * then verifies that both come back in order, the second one with an inline error.
+     * </p>
+     */
+    @Test
+    void testGetPriceBatch() {
+        PriceRequest found = PriceRequest.newBuilder()
+                .setProductId(35455)
+                .setBrandId(1)
+                .setDate("14/06/2020")
+                .setTime("16:00")
+                .build();
+        PriceRequest notFound = PriceRequest.newBuilder()
+                .setProductId(35455)
+                .setBrandId(99)
+                .setDate("14/06/2020")
+                .setTime("16:00")
+                .build();
+
+        PriceBatchResponse response = stub.getPriceBatch(PriceBatchRequest.newBuilder()
+                .addRequests(found)
+                .addRequests(notFound)
+                .build());
+
+        assertEquals(2, response.getItemsCount());
+        assertEquals(found, response.getItems(0).getRequest());
+        assertEquals(2, response.getItems(0).getPrice().getPriceList());
+        assertEquals(25.45, response.getItems(0).getPrice().getPrice());
+        assertEquals(notFound, response.getItems(1).getRequest());
+        assertEquals("PRICE_NOT_FOUND", response.getItems(1).getError());
+    }
+
+    /**
+     * Tests the bidirectional price stream of the gRPC service.
+     * <p>
+     * Pushes several {@link PriceRequest} messages on one call and verifies that every
+     * {@link PriceResponse} is correlated to its request id, including the failed ones.
+     * </p>
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    @Test
+    void testGetPricesStream() throws InterruptedException {
+        Map<String, PriceResponse> responses = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        StreamObserver<PriceRequest> requests = PriceServiceGrpc.newStub(channel).getPrices(new StreamObserver<>() {
+            @Override
+            public void onNext(PriceResponse response) {
+                responses.put(response.getRequestId(), response);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+
+        requests.onNext(streamRequest("a", 1, "16:00"));
+        requests.onNext(streamRequest("b", 99, "16:00"));
+        requests.onNext(streamRequest("c", 1, "25:00"));
+        requests.onCompleted();
+
+        // Found prices publish a Kafka event, which may block up to max.block.ms when no broker is reachable
+        assertTrue(completed.await(2, TimeUnit.MINUTES));
+        assertEquals(3, responses.size());
+        assertEquals(25.45, responses.get("a").getPrice());
+        assertEquals("PRICE_NOT_FOUND", responses.get("b").getError());
+        assertEquals("INVALID_ARGUMENT", responses.get("c").getError());
+    }
+
+    /**
+     * Builds a streamed price request for product 35455 on 14/06/2020.
+     *
+     * @param requestId the request id to correlate the response
+     * @param brandId   the brand identifier
+     * @param time      the time in format HH:mm
+     * @return the price request
+     */
+    private static PriceRequest streamRequest(String requestId, long brandId, String time) {
+        return PriceRequest.newBuilder()
+                .setRequestId(requestId)
+                .setProductId(35455)
+                .setBrandId(brandId)
+                .setDate("14/06/2020")
+                .setTime(time)
+                .build();
+    }
+
+    /**
+     * Tests streaming a slice of the price catalogue via the gRPC service.
+     * <p>
+     * Requests the prices of brand 1 and verifies that every streamed price belongs to it.
+     * </p>
+     */
+    @Test
+    void testStreamAllPrices() {
+        Iterator<PriceResponse> prices = stub.streamAllPrices(PriceCatalogRequest.newBuilder()
+                .setBrandIdFrom(1)
+                .setBrandIdTo(1)
+                .build());
+
+        int count = 0;
+        while (prices.hasNext()) {
+            assertEquals(1, prices.next().getBrandId());
+            count++;
+        }
+        assertTrue(count >= 4);
+    }
+}
@@ -0,0 +1,155 @@
+package org.organization.prices.infrastructure.adapter.in.rest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.organization.prices.application.dto.PriceQueryDto;
+import org.organization.prices.application.mapper.PriceMapper;
+import org.organization.prices.application.port.CircuitBreakerPort;
+import org.organization.prices.application.port.PriceEventHandoffPort;
+import org.organization.prices.application.port.TracePort;
+import org.organization.prices.application.service.PriceService;
+import org.organization.prices.domain.execption.PriceNotFoundException;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.usecase.FindAllPriceUseCase;
+import org.organization.prices.domain.usecase.FindApplicablePriceUseCase;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests for the {@code POST /api/prices/filter/batch} endpoint of {@link PriceController}.
+ * <p>
+ * Drives the controller and the {@link PriceService} behind it over HTTP, with the repository
+ * lookup and the event handoff mocked, to verify how queries are validated, that results keep
+ * the order of the queries and that missing prices are reported inline.
+ * </p>
+ */
+class PriceControllerBatchTest {
+
+    /**
+     * Base URL for the batch endpoint.
+     */
+    private static final String BATCH_URL = "/api/prices/filter/batch";
+
+    /**
+     * Mock of the use case resolving the batch.
+     */
+    private FindApplicablePriceUseCase findPriceUseCase;
+
+    /**
+     * Mock of the port the price events are handed over to.
+     */
+    private PriceEventHandoffPort eventHandoff;
+
+    /**
+     * Client bound to the controller under test.
+     */
+    private WebTestClient webTestClient;
+
+    /**
+     * Price of product 35455 and brand 1 on 2020-06-14.
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+    /**
+     * Builds the service with pass-through tracing and circuit breaking, and binds the controller.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        findPriceUseCase = mock(FindApplicablePriceUseCase.class);
+        eventHandoff = mock(PriceEventHandoffPort.class);
+        TracePort tracingPort = mock(TracePort.class);
+        CircuitBreakerPort circuitBreakerPort = mock(CircuitBreakerPort.class);
+        when(eventHandoff.handOff(any(Price.class), any(LocalDateTime.class))).thenReturn(Mono.empty());
+        when(tracingPort.traceFlux(eq("PriceService.findPrices"), any(Flux.class), eq("size"), anyString()))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        when(circuitBreakerPort.executeCircuitBreaker(eq("priceService"), any(Flux.class),
+                eq(PriceNotFoundException.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+
+        PriceService priceService = new PriceService(findPriceUseCase, mock(FindAllPriceUseCase.class),
+                eventHandoff, new PriceMapper(), tracingPort, circuitBreakerPort);
+        webTestClient = WebTestClient.bindToController(new PriceController(priceService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    /**
+     * Tests that results come back in the order of the queries, misses inline as
+     * {@code PRICE_NOT_FOUND}, and that every query hands an event over.
+     */
+    @Test
+    void getPrices_shouldKeepQueryOrderAndReportMissesInline() {
+        PriceQuery missing = new PriceQuery(99999L, 1L, LocalDateTime.parse("2020-06-14T10:00:00"));
+        PriceQuery found = new PriceQuery(35455L, 1L, LocalDateTime.parse("2020-06-14T16:00:00"));
+        when(findPriceUseCase.findApplicablePrices(List.of(missing, found))).thenReturn(Mono.just(Map.of(found, price)));
+
+        webTestClient.post().uri(BATCH_URL)
+                .bodyValue(List.of(new PriceQueryDto(99999L, 1L, "14/06/2020", "10:00"),
+                        new PriceQueryDto(35455L, 1L, "14/06/2020", "16:00")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].productId").isEqualTo(99999)
+                .jsonPath("$[0].error").isEqualTo("PRICE_NOT_FOUND")
+                .jsonPath("$[0].price").doesNotExist()
+                .jsonPath("$[1].productId").isEqualTo(35455)
+                .jsonPath("$[1].error").doesNotExist()
+                .jsonPath("$[1].price.price").isEqualTo(35.50);
+
+        ArgumentCaptor<Price> events = ArgumentCaptor.forClass(Price.class);
+        verify(eventHandoff, times(2)).handOff(events.capture(), any(LocalDateTime.class));
+        Price missEvent = events.getAllValues().stream()
+                .filter(event -> event.getProductId() == 99999L)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(missEvent.getPrice()));
+        assertEquals(1L, missEvent.getBrandId());
+        verify(eventHandoff).handOff(price, found.date());
+    }
+
+    /**
+     * Tests that an invalid query rejects the whole batch before anything is looked up.
+     */
+    @Test
+    void getPrices_shouldRejectInvalidQuery() {
+        webTestClient.post().uri(BATCH_URL)
+                .bodyValue(List.of(new PriceQueryDto(35455L, 1L, "14/06/2020", "10:00"),
+                        new PriceQueryDto(-1L, 1L, "14/06/2020", "10:00")))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.code").isEqualTo("INVALID_REQUEST");
+
+        verifyNoInteractions(findPriceUseCase, eventHandoff);
+    }
+
+    /**
+     * Tests that an empty batch is rejected.
+     */
+    @Test
+    void getPrices_shouldRejectEmptyBatch() {
+        webTestClient.post().uri(BATCH_URL)
+                .bodyValue(List.of())
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(findPriceUseCase);
+    }
+}
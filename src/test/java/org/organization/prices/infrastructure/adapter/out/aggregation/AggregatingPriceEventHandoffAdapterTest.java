@@ -0,0 +1,178 @@
+package org.organization.prices.infrastructure.adapter.out.aggregation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.application.port.EventPublisherPort;
+import org.organization.prices.application.port.EventStorePort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.domain.usecase.StorePriceEventUseCase;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AggregatingPriceEventHandoffAdapter}, with the event store and publisher
+ * of the {@link StorePriceEventUseCase} mocked.
+ * <p>
+ * Verifies that queries are folded per product, brand, price list and event type, that each
+ * window is emitted once to both the store and the publisher, and the exported metrics.
+ * </p>
+ */
+class AggregatingPriceEventHandoffAdapterTest {
+
+    private static final LocalDateTime QUERY_DATE = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Mock of the event storage port.
+     */
+    @Mock
+    private EventStorePort eventStore;
+
+    /**
+     * Mock of the event publishing port.
+     */
+    @Mock
+    private EventPublisherPort eventPublisher;
+
+    /**
+     * Registry the aggregation metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of AggregatingPriceEventHandoffAdapter under test, stopped after each test.
+     */
+    private AggregatingPriceEventHandoffAdapter adapter;
+
+    /**
+     * Initializes mocks before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(eventStore.storeEvent(any(PriceEvent.class))).thenReturn(Mono.empty());
+        when(eventPublisher.publishEvent(any(PriceEvent.class))).thenReturn(Mono.empty());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.stop();
+        }
+    }
+
+    /**
+     * Tests that the queries of a window are folded into one aggregate per key, stored and published.
+     */
+    @Test
+    void flush_shouldEmitOneAggregatePerKey() {
+        adapter = newAdapter(null);
+        handOff(price(35455L, 1, "35.50"), QUERY_DATE);
+        handOff(price(35455L, 1, "25.45"), QUERY_DATE.plusHours(1));
+        handOff(price(35455L, 1, "30.50"), QUERY_DATE.plusHours(2));
+        handOff(price(35455L, 2, "25.45"), QUERY_DATE);
+        handOff(price(35455L, 1, "0"), QUERY_DATE);
+
+        verifyNoInteractions(eventStore, eventPublisher);
+        assertEquals(3.0, meterRegistry.get("prices.events.aggregation.keys").gauge().value());
+
+        StepVerifier.create(adapter.flush())
+                .verifyComplete();
+
+        ArgumentCaptor<PriceEvent> stored = ArgumentCaptor.forClass(PriceEvent.class);
+        verify(eventStore, times(3)).storeEvent(stored.capture());
+        verify(eventPublisher, times(3)).publishEvent(any(PriceEvent.class));
+        List<PriceEvent> aggregates = stored.getAllValues().stream()
+                .sorted(Comparator.comparing(PriceEvent::getEventCount).reversed())
+                .toList();
+
+        PriceEvent priceQueries = aggregates.get(0);
+        assertEquals("PRICE_QUERY", priceQueries.getEventType());
+        assertEquals(1, priceQueries.getPriceList());
+        assertEquals(3L, priceQueries.getEventCount());
+        assertEquals(new BigDecimal("25.45"), priceQueries.getMinPrice());
+        assertEquals(new BigDecimal("35.50"), priceQueries.getMaxPrice());
+        assertEquals(QUERY_DATE.plusHours(2), priceQueries.getQueryDate());
+        assertEquals(new BigDecimal("30.50"), priceQueries.getPrice());
+        assertFalse(priceQueries.getFirstQueryAt().isAfter(priceQueries.getLastQueryAt()));
+        assertFalse(priceQueries.getWindowStart().isAfter(priceQueries.getWindowEnd()));
+        assertEquals(priceQueries.getWindowEnd(), priceQueries.getCreatedAt());
+        assertEquals(List.of(1L, 1L), aggregates.subList(1, 3).stream().map(PriceEvent::getEventCount).toList());
+        assertTrue(aggregates.stream().anyMatch(event -> "ERROR_QUERY".equals(event.getEventType())));
+
+        assertEquals(5.0, meterRegistry.get("prices.events.aggregation.folded").counter().count());
+        assertEquals(3.0, meterRegistry.get("prices.events.aggregation.emitted").counter().count());
+        assertEquals(0.0, meterRegistry.get("prices.events.aggregation.keys").gauge().value());
+    }
+
+    /**
+     * Tests that an empty window emits nothing, and that each window is emitted only once.
+     */
+    @Test
+    void flush_shouldEmitEachWindowOnce() {
+        adapter = newAdapter(null);
+        StepVerifier.create(adapter.flush())
+                .verifyComplete();
+        handOff(price(35455L, 1, "35.50"), QUERY_DATE);
+
+        StepVerifier.create(adapter.flush())
+                .verifyComplete();
+        StepVerifier.create(adapter.flush())
+                .verifyComplete();
+
+        verify(eventStore, times(1)).storeEvent(any(PriceEvent.class));
+    }
+
+    /**
+     * Tests that windows are closed on their own every window length, and the last one on shutdown.
+     */
+    @Test
+    void shouldCloseWindowsOnTheirOwn_andOnStop() {
+        adapter = newAdapter(Duration.ofMillis(100));
+        handOff(price(35455L, 1, "35.50"), QUERY_DATE);
+
+        verify(eventStore, timeout(2000).times(1)).storeEvent(any(PriceEvent.class));
+
+        handOff(price(35455L, 1, "35.50"), QUERY_DATE);
+        adapter.stop();
+        adapter = null;
+
+        verify(eventStore, times(2)).storeEvent(any(PriceEvent.class));
+    }
+
+    private AggregatingPriceEventHandoffAdapter newAdapter(Duration window) {
+        return new AggregatingPriceEventHandoffAdapter(new StorePriceEventUseCase(eventStore, eventPublisher),
+                window, 4, Clock.systemDefaultZone(), meterRegistry);
+    }
+
+    private void handOff(Price price, LocalDateTime queryDate) {
+        StepVerifier.create(adapter.handOff(price, queryDate))
+                .verifyComplete();
+    }
+
+    private static Price price(Long productId, Integer priceList, String amount) {
+        Price price = new Price();
+        price.setProductId(productId);
+        price.setBrandId(1L);
+        price.setPriceList(priceList);
+        price.setPrice(new BigDecimal(amount));
+        return price;
+    }
+}
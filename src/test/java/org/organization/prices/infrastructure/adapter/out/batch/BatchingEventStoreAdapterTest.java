@@ -0,0 +1,232 @@
+package org.organization.prices.infrastructure.adapter.out.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventBatchRepository;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BatchingEventStoreAdapter}.
+ * <p>
+ * Verifies when batches are written, the overflow and failure handling, the flush on shutdown
+ * and the exported metrics.
+ * </p>
+ */
+class BatchingEventStoreAdapterTest {
+
+    /**
+     * Mock of the repository the batches are written through.
+     */
+    @Mock
+    private PriceEventBatchRepository batchRepository;
+
+    /**
+     * Registry the batching metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of BatchingEventStoreAdapter under test, stopped after each test.
+     */
+    private BatchingEventStoreAdapter adapter;
+
+    /**
+     * Initializes mocks before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(batchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> Mono.just((long) invocation.<List<?>>getArgument(0).size()));
+    }
+
+    /**
+     * Stops the adapter after each test method.
+     */
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.stop();
+        }
+    }
+
+    /**
+     * Tests that a batch is written as soon as it is full, without waiting for {@code maxWait}.
+     */
+    @Test
+    void storeEvent_shouldWriteFullBatch() {
+        adapter = adapter(3, Duration.ofHours(1), 100, BatchingEventStoreAdapter.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 3; i++) {
+            adapter.storeEvent(event(i)).block();
+        }
+
+        List<PriceEventEntity> batch = captureBatch();
+        assertEquals(3, batch.size());
+        assertEquals(List.of(0L, 1L, 2L), batch.stream().map(PriceEventEntity::getProductId).toList());
+        assertEquals(3.0, meterRegistry.get("prices.events.batch.size").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("prices.events.flush").tag("outcome", "success").timer().count());
+    }
+
+    /**
+     * Tests that a partial batch is written once {@code maxWait} has elapsed.
+     */
+    @Test
+    void storeEvent_shouldWritePartialBatchAfterMaxWait() {
+        adapter = adapter(100, Duration.ofMillis(50), 100, BatchingEventStoreAdapter.OverflowPolicy.DROP);
+
+        adapter.storeEvent(event(1)).block();
+
+        assertEquals(1, captureBatch().size());
+    }
+
+    /**
+     * Tests that the drop policy drops events once the queue is full, and counts them.
+     */
+    @Test
+    void storeEvent_shouldDropEvents_whenQueueIsFull() {
+        when(batchRepository.insertAll(anyList())).thenReturn(Mono.never());
+        adapter = adapter(1, Duration.ofHours(1), 2, BatchingEventStoreAdapter.OverflowPolicy.DROP);
+
+        for (int i = 0; i < 50; i++) {
+            adapter.storeEvent(event(i)).block();
+        }
+
+        double dropped = meterRegistry.get("prices.events.dropped").tag("reason", "overflow").counter().count();
+        // A few events are held by the batch being written and the next one being filled
+        assertTrue(dropped >= 40, "Events beyond the writer and the queue should be dropped: " + dropped);
+        assertEquals(2.0, meterRegistry.get("prices.events.queue.size").gauge().value());
+        adapter = null;
+    }
+
+    /**
+     * Tests that the block policy holds callers back while the queue is full, without losing events.
+     */
+    @Test
+    void storeEvent_shouldWaitForRoom_whenQueueIsFullAndPolicyIsBlock() {
+        Sinks.Empty<Void> firstWrite = Sinks.empty();
+        when(batchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> firstWrite.asMono().thenReturn(1L));
+        adapter = adapter(1, Duration.ofHours(1), 2, BatchingEventStoreAdapter.OverflowPolicy.BLOCK);
+
+        Mono<Void> all = Flux.range(0, 20).flatMap(i -> adapter.storeEvent(event(i))).then();
+
+        StepVerifier.create(all)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .then(firstWrite::tryEmitEmpty)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        adapter.stop();
+        verify(batchRepository, times(20)).insertAll(anyList());
+        assertEquals(0.0, meterRegistry.get("prices.events.dropped").tag("reason", "overflow").counter().count());
+    }
+
+    /**
+     * Tests that a batch failing to be written is counted as dropped, and the next one is still written.
+     */
+    @Test
+    void storeEvent_shouldCarryOn_whenBatchFails() {
+        when(batchRepository.insertAll(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("Database down")))
+                .thenReturn(Mono.just(1L));
+        adapter = adapter(1, Duration.ofHours(1), 100, BatchingEventStoreAdapter.OverflowPolicy.DROP);
+
+        adapter.storeEvent(event(1)).block();
+        adapter.storeEvent(event(2)).block();
+
+        verify(batchRepository, timeout(1000).times(2)).insertAll(anyList());
+        assertEquals(1.0, meterRegistry.get("prices.events.dropped").tag("reason", "failure").counter().count());
+        assertEquals(1, meterRegistry.get("prices.events.flush").tag("outcome", "failure").timer().count());
+    }
+
+    /**
+     * Tests that an acknowledged caller waits for its batch to be written, and gets its error.
+     */
+    @Test
+    void storeEvent_shouldWaitForWrite_whenAcknowledged() {
+        Sinks.Empty<Void> firstWrite = Sinks.empty();
+        when(batchRepository.insertAll(anyList()))
+                .thenAnswer(invocation -> firstWrite.asMono().thenReturn(1L))
+                .thenReturn(Mono.error(new IllegalStateException("Database down")));
+        adapter = adapter(1, Duration.ofHours(1), 100, BatchingEventStoreAdapter.OverflowPolicy.BLOCK, true);
+
+        StepVerifier.create(adapter.storeEvent(event(1)))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .then(firstWrite::tryEmitEmpty)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(adapter.storeEvent(event(2)))
+                .expectErrorMessage("Database down")
+                .verify(Duration.ofSeconds(5));
+    }
+
+    /**
+     * Tests that stopping the adapter writes the events still waiting for their batch.
+     */
+    @Test
+    void stop_shouldWriteQueuedEvents() {
+        adapter = adapter(100, Duration.ofHours(1), 100, BatchingEventStoreAdapter.OverflowPolicy.BLOCK);
+        for (int i = 0; i < 5; i++) {
+            adapter.storeEvent(event(i)).block();
+        }
+        verify(batchRepository, never()).insertAll(anyList());
+
+        adapter.stop();
+
+        verify(batchRepository).insertAll(argThat(batch -> batch.size() == 5));
+    }
+
+    private BatchingEventStoreAdapter adapter(int maxSize, Duration maxWait, int queueCapacity,
+                                              BatchingEventStoreAdapter.OverflowPolicy overflowPolicy) {
+        return adapter(maxSize, maxWait, queueCapacity, overflowPolicy, false);
+    }
+
+    private BatchingEventStoreAdapter adapter(int maxSize, Duration maxWait, int queueCapacity,
+                                              BatchingEventStoreAdapter.OverflowPolicy overflowPolicy,
+                                              boolean acknowledged) {
+        return new BatchingEventStoreAdapter(batchRepository, new PriceEventEntityMapper(), maxSize, maxWait,
+                1, queueCapacity, overflowPolicy, Duration.ofSeconds(5), acknowledged, meterRegistry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PriceEventEntity> captureBatch() {
+        ArgumentCaptor<List<PriceEventEntity>> batch = ArgumentCaptor.forClass(List.class);
+        verify(batchRepository, timeout(1000)).insertAll(batch.capture());
+        return batch.getValue();
+    }
+
+    private static PriceEvent event(long productId) {
+        return PriceEvent.builder()
+                .productId(productId)
+                .brandId(1L)
+                .priceList(1)
+                .queryDate(LocalDateTime.parse("2020-06-14T10:00:00"))
+                .price(new BigDecimal("35.50"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T10:00:01"))
+                .build();
+    }
+}
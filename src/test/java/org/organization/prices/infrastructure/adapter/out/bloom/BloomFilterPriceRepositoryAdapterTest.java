@@ -0,0 +1,183 @@
+package org.organization.prices.infrastructure.adapter.out.bloom;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepository;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepositoryAdapter;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link BloomFilterPriceRepositoryAdapter}.
+ * <p>
+ * Verifies that lookups of unknown pairs never reach the delegate, that recorded writes are
+ * honoured and that the lookup counters are exported.
+ * </p>
+ */
+class BloomFilterPriceRepositoryAdapterTest {
+
+    /**
+     * Mock of the decorated repository port.
+     */
+    @Mock
+    private PriceRepositoryPort delegate;
+
+    /**
+     * Registry the filter metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of BloomFilterPriceRepositoryAdapter under test.
+     */
+    private BloomFilterPriceRepositoryAdapter adapter;
+
+    /**
+     * Sample query date.
+     */
+    private final LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Sample price of the only known pair, (35455, 1).
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+    /**
+     * Initializes mocks and the adapter before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(delegate.getAll()).thenReturn(Flux.just(price));
+        adapter = new BloomFilterPriceRepositoryAdapter(delegate, 1000, 0.001, meterRegistry);
+    }
+
+    /**
+     * Tests that a known pair is looked up through the delegate and an unknown one is not.
+     */
+    @Test
+    void findApplicablePrice_shouldRejectUnknownPairsWithoutQueryingDelegate() {
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(99999L, 1L, date)).verifyComplete();
+
+        verify(delegate, times(1)).getAll();
+        verify(delegate, times(1)).findApplicablePrice(35455L, 1L, date);
+        verify(delegate, never()).findApplicablePrice(99999L, 1L, date);
+        assertEquals(1.0, meterRegistry.get("prices.bloom.lookups").tag("result", "rejected").counter().count());
+        assertEquals(1.0, meterRegistry.get("prices.bloom.lookups").tag("result", "passed").counter().count());
+    }
+
+    /**
+     * Tests that a passed lookup with no price is counted as a possible false positive.
+     */
+    @Test
+    void findApplicablePrice_shouldCountPassedLookupsWithoutPrice() {
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).verifyComplete();
+
+        assertEquals(1.0, meterRegistry.get("prices.bloom.lookups").tag("result", "false_positive").counter().count());
+    }
+
+    /**
+     * Tests that a pair recorded after the build is no longer rejected.
+     */
+    @Test
+    void recordPrice_shouldLetLookupsOfNewPairThrough() {
+        Price added = new Price(2L, price.getStartDate(), price.getEndDate(), 1, 99999L, 0, new BigDecimal("10.00"), "EUR");
+        when(delegate.findApplicablePrice(99999L, 2L, date)).thenReturn(Mono.just(added));
+
+        StepVerifier.create(adapter.findApplicablePrice(99999L, 2L, date)).verifyComplete();
+        adapter.recordPrice(99999L, 2L);
+        StepVerifier.create(adapter.findApplicablePrice(99999L, 2L, date)).expectNext(added).verifyComplete();
+    }
+
+    /**
+     * Tests that a snapshot replaces the build from the delegate and that changed rows are recorded.
+     */
+    @Test
+    void onSnapshot_shouldBuildFilterWithoutScanningDelegate() {
+        Price added = new Price(2L, price.getStartDate(), price.getEndDate(), 1, 99999L, 0, new BigDecimal("10.00"), "EUR");
+        when(delegate.findApplicablePrice(99999L, 2L, date)).thenReturn(Mono.just(added));
+
+        adapter.onSnapshot(List.of(price));
+        StepVerifier.create(adapter.findApplicablePrice(99999L, 2L, date)).verifyComplete();
+        StepVerifier.create(adapter.onChange(List.of(added))).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(99999L, 2L, date)).expectNext(added).verifyComplete();
+
+        verify(delegate, never()).getAll();
+    }
+
+    /**
+     * Tests that a batch only passes the queries of known pairs to the delegate.
+     */
+    @Test
+    void findApplicablePrices_shouldPassOnlyKnownPairs() {
+        PriceQuery known = new PriceQuery(35455L, 1L, date);
+        PriceQuery unknown = new PriceQuery(99999L, 1L, date);
+        when(delegate.findApplicablePrices(List.of(known))).thenReturn(Mono.just(Map.of(known, price)));
+
+        StepVerifier.create(adapter.findApplicablePrices(List.of(known, unknown)))
+                .expectNext(Map.of(known, price))
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrices(List.of(unknown)))
+                .expectNext(Map.of())
+                .verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrices(any());
+    }
+
+    /**
+     * Tests that lookups go to the delegate when the filter cannot be built.
+     */
+    @Test
+    void findApplicablePrice_shouldPassThroughWhenBuildFails() {
+        when(delegate.getAll()).thenReturn(Flux.error(new IllegalStateException("down")));
+        when(delegate.findApplicablePrice(99999L, 1L, date)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findApplicablePrice(99999L, 1L, date)).verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrice(99999L, 1L, date);
+    }
+
+    /**
+     * Tests that the filter is built from an empty price table, with no snapshot to build it from.
+     */
+    @Test
+    void findApplicablePrice_shouldRejectLookupsWhenTableIsEmpty() {
+        PriceRepository priceRepository = mock(PriceRepository.class);
+        when(priceRepository.findAllPrices()).thenReturn(Flux.empty());
+        BloomFilterPriceRepositoryAdapter emptyAdapter = new BloomFilterPriceRepositoryAdapter(
+                new PriceRepositoryAdapter(priceRepository, mock(PriceEntityMapper.class)), 1000, 0.001,
+                meterRegistry);
+
+        StepVerifier.create(emptyAdapter.findApplicablePrice(35455L, 1L, date)).expectComplete()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(emptyAdapter.rebuild()).expectComplete().verify(Duration.ofSeconds(5));
+
+        verify(priceRepository, times(2)).findAllPrices();
+        verify(priceRepository, never()).findApplicablePrice(any(), any(), any());
+    }
+}
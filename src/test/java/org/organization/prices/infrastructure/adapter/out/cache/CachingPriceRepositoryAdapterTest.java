@@ -0,0 +1,134 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CachingPriceRepositoryAdapter}.
+ * <p>
+ * Verifies read-through caching, stampede protection and the exported metrics.
+ * </p>
+ */
+class CachingPriceRepositoryAdapterTest {
+
+    /**
+     * Mock of the decorated repository port.
+     */
+    @Mock
+    private PriceRepositoryPort delegate;
+
+    /**
+     * Registry the cache statistics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of CachingPriceRepositoryAdapter under test.
+     */
+    private CachingPriceRepositoryAdapter adapter;
+
+    /**
+     * Sample query date.
+     */
+    private final LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Sample price returned by the delegate.
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+    /**
+     * Initializes mocks and the adapter before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new CachingPriceRepositoryAdapter(delegate, 100, Duration.ofMinutes(10), Duration.ofMinutes(1), meterRegistry);
+    }
+
+    /**
+     * Tests that a repeated query is served from the cache and reported as a hit.
+     */
+    @Test
+    void findApplicablePrice_shouldServeRepeatedQueriesFromCache() {
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrice(35455L, 1L, date);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "prices").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "prices").tag("result", "miss").functionCounter().count());
+    }
+
+    /**
+     * Tests that queries without an applicable price are not cached.
+     */
+    @Test
+    void findApplicablePrice_shouldNotCacheMisses() {
+        when(delegate.findApplicablePrice(35455L, 2L, date)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 2L, date)).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 2L, date)).verifyComplete();
+
+        verify(delegate, times(2)).findApplicablePrice(35455L, 2L, date);
+    }
+
+    /**
+     * Tests that concurrent misses on the same key share a single load.
+     */
+    @Test
+    void findApplicablePrice_shouldShareInFlightLoad() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(
+                Mono.delay(Duration.ofMillis(100))
+                        .doOnSubscribe(s -> subscriptions.incrementAndGet())
+                        .thenReturn(price));
+
+        StepVerifier.create(Mono.zip(
+                        adapter.findApplicablePrice(35455L, 1L, date),
+                        adapter.findApplicablePrice(35455L, 1L, date)))
+                .expectNextMatches(pair -> pair.getT1() == price && pair.getT2() == price)
+                .verifyComplete();
+
+        assertEquals(1, subscriptions.get());
+    }
+
+    /**
+     * Tests that a batch only loads the queries missing from the cache, in a single delegate call.
+     */
+    @Test
+    void findApplicablePrices_shouldLoadOnlyMissingQueries() {
+        PriceQuery cached = new PriceQuery(35455L, 1L, date);
+        PriceQuery missing = new PriceQuery(35455L, 1L, date.plusHours(1));
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+        when(delegate.findApplicablePrices(List.of(missing))).thenReturn(Mono.just(Map.of(missing, price)));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrices(List.of(cached, missing)))
+                .expectNext(Map.of(cached, price, missing, price))
+                .verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrices(List.of(missing));
+    }
+}
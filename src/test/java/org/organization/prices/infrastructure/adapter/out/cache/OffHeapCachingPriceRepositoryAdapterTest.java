@@ -0,0 +1,155 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link OffHeapCachingPriceRepositoryAdapter}.
+ * <p>
+ * Verifies read-through caching, invalidation by the price table and the exported metrics.
+ * </p>
+ */
+class OffHeapCachingPriceRepositoryAdapterTest {
+
+    /**
+     * Mock of the decorated repository port.
+     */
+    @Mock
+    private PriceRepositoryPort delegate;
+
+    /**
+     * Registry the cache statistics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of OffHeapCachingPriceRepositoryAdapter under test.
+     */
+    private OffHeapCachingPriceRepositoryAdapter adapter;
+
+    /**
+     * Sample query date.
+     */
+    private final LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Sample price returned by the delegate.
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+    /**
+     * Initializes mocks and the adapter before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new OffHeapCachingPriceRepositoryAdapter(delegate, 1 << 20, Duration.ofMinutes(10), meterRegistry);
+    }
+
+    /**
+     * Tests that a repeated query is served from the off-heap cache and reported as a hit.
+     */
+    @Test
+    void findApplicablePrice_shouldServeRepeatedQueriesFromCache() {
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrice(35455L, 1L, date);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "prices-offheap").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "prices-offheap").tag("result", "miss").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.size").tag("cache", "prices-offheap").gauge().value());
+        assertEquals(OffHeapPriceStore.SLOT_BYTES, meterRegistry.get("cache.offheap.used").gauge().value());
+        assertEquals(1 << 20, meterRegistry.get("cache.offheap.capacity").gauge().value());
+    }
+
+    /**
+     * Tests that queries without an applicable price are not cached.
+     */
+    @Test
+    void findApplicablePrice_shouldNotCacheMisses() {
+        when(delegate.findApplicablePrice(35455L, 2L, date)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 2L, date)).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 2L, date)).verifyComplete();
+
+        verify(delegate, times(2)).findApplicablePrice(35455L, 2L, date);
+    }
+
+    /**
+     * Tests that a batch only loads the queries missing from the cache.
+     */
+    @Test
+    void findApplicablePrices_shouldLoadOnlyMissingQueries() {
+        PriceQuery cached = new PriceQuery(35455L, 1L, date);
+        PriceQuery missing = new PriceQuery(35455L, 1L, date.plusHours(1));
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+        when(delegate.findApplicablePrices(List.of(missing))).thenReturn(Mono.just(Map.of(missing, price)));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrices(List.of(cached, missing)))
+                .expectNext(Map.of(cached, price, missing, price))
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrices(List.of(cached, missing)))
+                .expectNext(Map.of(cached, price, missing, price))
+                .verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrices(List.of(missing));
+    }
+
+    /**
+     * Tests that segments are served from the cache for any date they contain.
+     */
+    @Test
+    void findApplicableSegment_shouldServeDatesOfCachedSegment() {
+        PriceSegment segment = new PriceSegment(price.getStartDate(), price.getEndDate(), price);
+        LocalDateTime later = date.plusDays(1);
+        when(delegate.findApplicableSegment(35455L, 1L, date)).thenReturn(Mono.just(segment));
+
+        StepVerifier.create(adapter.findApplicableSegment(35455L, 1L, date)).expectNext(segment).verifyComplete();
+        StepVerifier.create(adapter.findApplicableSegment(35455L, 1L, later)).expectNext(segment).verifyComplete();
+        StepVerifier.create(adapter.onChange(List.of(price))).verifyComplete();
+        StepVerifier.create(adapter.findApplicableSegment(35455L, 1L, date)).expectNext(segment).verifyComplete();
+
+        verify(delegate, times(2)).findApplicableSegment(35455L, 1L, date);
+        verify(delegate, never()).findApplicableSegment(35455L, 1L, later);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "prices-offheap").tag("result", "hit").functionCounter().count());
+    }
+
+    /**
+     * Tests that changed rows and snapshots evict the cached queries.
+     */
+    @Test
+    void onChange_shouldEvictQueriesOfChangedPairs() {
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.onChange(List.of(price))).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        adapter.onSnapshot(List.of(price));
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+
+        verify(delegate, times(3)).findApplicablePrice(35455L, 1L, date);
+    }
+}
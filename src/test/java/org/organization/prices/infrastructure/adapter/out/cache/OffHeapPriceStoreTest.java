@@ -0,0 +1,165 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import org.junit.jupiter.api.Test;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceKey;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link OffHeapPriceStore}.
+ * <p>
+ * Verifies the serialisation round trip of prices and segments, LRU eviction within a set, expiry
+ * and invalidation.
+ * </p>
+ */
+class OffHeapPriceStoreTest {
+
+    /**
+     * Budget of a single set, so that every query competes for the same slots.
+     */
+    private static final long ONE_SET = (long) OffHeapPriceStore.SLOT_BYTES * OffHeapPriceStore.WAYS;
+
+    /**
+     * Fake nanosecond clock.
+     */
+    private final AtomicLong now = new AtomicLong();
+
+    /**
+     * Sample price with a fractional second bound and a large amount.
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59.999999999"), 1, 35455L, 0, new BigDecimal("123456789.125"), "EUR");
+
+    /**
+     * Tests that a stored price is returned equal to the original and counted as a hit.
+     */
+    @Test
+    void get_shouldReturnStoredPrice() {
+        OffHeapPriceStore store = new OffHeapPriceStore(1 << 20, Duration.ofMinutes(10), now::get);
+        PriceQuery query = query(35455L, "2020-06-14T10:00:00.5");
+
+        assertNull(store.get(query));
+        assertTrue(store.put(query, price, store.epoch()));
+
+        assertEquals(price, store.get(query));
+        assertNull(store.get(query(35455L, "2020-06-14T10:00:00")));
+        assertEquals(1, store.hitCount());
+        assertEquals(2, store.missCount());
+        assertEquals(1, store.size());
+        assertEquals(OffHeapPriceStore.SLOT_BYTES, store.usedBytes());
+        assertEquals(1 << 20, store.capacityBytes());
+    }
+
+    /**
+     * Tests that the segment of a pair is returned for the dates it contains, and replaced by the
+     * next one stored.
+     */
+    @Test
+    void getSegment_shouldReturnSegmentContainingDate() {
+        OffHeapPriceStore store = new OffHeapPriceStore(ONE_SET, Duration.ofMinutes(10), now::get);
+        PriceSegment morning = new PriceSegment(LocalDateTime.parse("2020-06-14T00:00:00"),
+                LocalDateTime.parse("2020-06-14T15:00:00"), price);
+        PriceSegment evening = new PriceSegment(LocalDateTime.parse("2020-06-14T18:30:00.5"),
+                LocalDateTime.parse("2020-12-31T23:59:59.999999999"), price);
+        PriceQuery query = query(35455L, "2020-06-14T10:00:00");
+        store.put(query, price, store.epoch());
+
+        assertTrue(store.putSegment(morning, store.epoch()));
+        assertEquals(morning, store.getSegment(35455L, 1L, LocalDateTime.parse("2020-06-14T10:00:00")));
+        assertNull(store.getSegment(35455L, 1L, LocalDateTime.parse("2020-06-14T15:00:00")));
+        assertNull(store.getSegment(35455L, 2L, LocalDateTime.parse("2020-06-14T10:00:00")));
+
+        assertTrue(store.putSegment(evening, store.epoch()));
+        assertEquals(evening, store.getSegment(35455L, 1L, LocalDateTime.parse("2020-06-14T21:00:00")));
+        assertNull(store.getSegment(35455L, 1L, LocalDateTime.parse("2020-06-14T10:00:00")));
+        assertEquals(price, store.get(query));
+        assertEquals(2, store.size());
+
+        store.invalidate(Set.of(new PriceKey(35455L, 1L)));
+        assertNull(store.getSegment(35455L, 1L, LocalDateTime.parse("2020-06-14T21:00:00")));
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * Tests that a full set evicts its least recently used entry.
+     */
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntryOfFullSet() {
+        OffHeapPriceStore store = new OffHeapPriceStore(ONE_SET, Duration.ofMinutes(10), now::get);
+        for (long product = 0; product < OffHeapPriceStore.WAYS; product++) {
+            store.put(query(product, "2020-06-14T10:00:00"), price, store.epoch());
+        }
+        assertNotNull(store.get(query(0L, "2020-06-14T10:00:00")));
+
+        store.put(query(100L, "2020-06-14T10:00:00"), price, store.epoch());
+
+        assertNotNull(store.get(query(0L, "2020-06-14T10:00:00")));
+        assertNull(store.get(query(1L, "2020-06-14T10:00:00")));
+        assertNotNull(store.get(query(100L, "2020-06-14T10:00:00")));
+        assertEquals(OffHeapPriceStore.WAYS, store.size());
+        assertEquals(1, store.evictionCount());
+    }
+
+    /**
+     * Tests that entries are no longer returned once expired.
+     */
+    @Test
+    void get_shouldNotReturnExpiredEntries() {
+        OffHeapPriceStore store = new OffHeapPriceStore(ONE_SET, Duration.ofSeconds(1), now::get);
+        PriceQuery query = query(35455L, "2020-06-14T10:00:00");
+        store.put(query, price, store.epoch());
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertNull(store.get(query));
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * Tests that invalidation removes the entries of the given pairs and rejects loads that
+     * started before it.
+     */
+    @Test
+    void invalidate_shouldRemovePairsAndRejectStaleLoads() {
+        OffHeapPriceStore store = new OffHeapPriceStore(1 << 20, Duration.ofMinutes(10), now::get);
+        PriceQuery changed = query(35455L, "2020-06-14T10:00:00");
+        PriceQuery unchanged = query(1L, "2020-06-14T10:00:00");
+        store.put(changed, price, store.epoch());
+        store.put(unchanged, price, store.epoch());
+        long loadStartedAt = store.epoch();
+
+        store.invalidate(Set.of(new PriceKey(35455L, 1L)));
+
+        assertNull(store.get(changed));
+        assertNotNull(store.get(unchanged));
+        assertFalse(store.put(changed, price, loadStartedAt));
+        store.invalidateAll();
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * Tests that prices that cannot be serialised in a slot are not stored.
+     */
+    @Test
+    void put_shouldSkipPricesThatDoNotFit() {
+        OffHeapPriceStore store = new OffHeapPriceStore(ONE_SET, Duration.ofMinutes(10), now::get);
+        Price huge = new Price(1L, price.getStartDate(), price.getEndDate(), 1, 35455L, 0,
+                new BigDecimal("123456789012345678901234567890"), "EUR");
+
+        assertFalse(store.put(query(35455L, "2020-06-14T10:00:00"), huge, store.epoch()));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapPriceStore(ONE_SET - 1, Duration.ofMinutes(1), now::get));
+    }
+
+    private static PriceQuery query(Long productId, String date) {
+        return new PriceQuery(productId, 1L, LocalDateTime.parse(date));
+    }
+}
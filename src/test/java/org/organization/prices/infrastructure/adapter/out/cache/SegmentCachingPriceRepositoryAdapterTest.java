@@ -0,0 +1,166 @@
+package org.organization.prices.infrastructure.adapter.out.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.domain.model.PriceSegment;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SegmentCachingPriceRepositoryAdapter}.
+ * <p>
+ * Verifies that any date inside a cached segment is a hit, that dates outside it are
+ * resolved again, and how long entries are kept.
+ * </p>
+ */
+class SegmentCachingPriceRepositoryAdapterTest {
+
+    /**
+     * Mock of the decorated repository port.
+     */
+    @Mock
+    private PriceRepositoryPort delegate;
+
+    /**
+     * Registry the cache statistics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of SegmentCachingPriceRepositoryAdapter under test.
+     */
+    private SegmentCachingPriceRepositoryAdapter adapter;
+
+    /**
+     * Sample price returned by the delegate.
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+    /**
+     * Segment of the sample price, cut short by a higher-priority price list.
+     */
+    private final PriceSegment segment = new PriceSegment(LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-06-14T15:00:00"), price);
+
+    /**
+     * Initializes mocks and the adapter before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new SegmentCachingPriceRepositoryAdapter(delegate, 100, Duration.ofMinutes(10),
+                Clock.fixed(LocalDateTime.parse("2020-06-14T09:00:00").toInstant(ZoneOffset.UTC), ZoneOffset.UTC),
+                meterRegistry);
+    }
+
+    /**
+     * Tests that different dates inside the cached segment are all served from the cache.
+     */
+    @Test
+    void findApplicablePrice_shouldServeDatesInsideSegmentFromCache() {
+        LocalDateTime first = LocalDateTime.parse("2020-06-14T10:00:00");
+        when(delegate.findApplicableSegment(35455L, 1L, first)).thenReturn(Mono.just(segment));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, first)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, LocalDateTime.parse("2020-06-14T10:01:00")))
+                .expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, LocalDateTime.parse("2020-06-14T14:59:59")))
+                .expectNext(price).verifyComplete();
+
+        verify(delegate, times(1)).findApplicableSegment(anyLong(), anyLong(), any());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "price-segments").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "price-segments").tag("result", "miss").functionCounter().count());
+    }
+
+    /**
+     * Tests that a segment loaded while its product and brand changed is not cached.
+     */
+    @Test
+    void findApplicablePrice_shouldNotCacheSegmentLoadedAcrossChange() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+        Sinks.One<PriceSegment> loading = Sinks.one();
+        when(delegate.findApplicableSegment(35455L, 1L, date))
+                .thenReturn(loading.asMono())
+                .thenReturn(Mono.just(segment));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .then(() -> {
+                    StepVerifier.create(adapter.onChange(List.of(price))).verifyComplete();
+                    loading.tryEmitValue(segment);
+                })
+                .expectNext(price)
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+
+        verify(delegate, times(2)).findApplicableSegment(35455L, 1L, date);
+    }
+
+    /**
+     * Tests that a date outside the cached segment is resolved through the delegate.
+     */
+    @Test
+    void findApplicablePrice_shouldResolveDatesOutsideSegment() {
+        LocalDateTime inside = LocalDateTime.parse("2020-06-14T10:00:00");
+        LocalDateTime outside = LocalDateTime.parse("2020-06-14T15:00:00");
+        when(delegate.findApplicableSegment(35455L, 1L, inside)).thenReturn(Mono.just(segment));
+        when(delegate.findApplicableSegment(35455L, 1L, outside)).thenReturn(Mono.empty());
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, inside)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, outside)).verifyComplete();
+
+        verify(delegate, times(1)).findApplicableSegment(35455L, 1L, outside);
+    }
+
+    /**
+     * Tests that an entry lives until its segment ends, capped by the maximum time to live.
+     */
+    @Test
+    void timeToLive_shouldEndWithSegmentWithinCap() {
+        LocalDateTime now = LocalDateTime.parse("2020-06-14T14:55:00");
+        Duration cap = Duration.ofMinutes(10);
+
+        assertEquals(Duration.ofMinutes(5), SegmentCachingPriceRepositoryAdapter.timeToLive(segment, now, cap));
+        assertEquals(cap, SegmentCachingPriceRepositoryAdapter.timeToLive(segment, now.minusHours(1), cap));
+        assertEquals(cap, SegmentCachingPriceRepositoryAdapter.timeToLive(segment, now.plusDays(1), cap));
+    }
+
+    /**
+     * Tests that a batch answers queries inside cached segments and delegates only the others.
+     */
+    @Test
+    void findApplicablePrices_shouldDelegateOnlyQueriesOutsideCachedSegments() {
+        LocalDateTime inside = LocalDateTime.parse("2020-06-14T10:00:00");
+        PriceQuery cached = new PriceQuery(35455L, 1L, inside.plusHours(1));
+        PriceQuery missing = new PriceQuery(35455L, 2L, inside);
+        when(delegate.findApplicableSegment(35455L, 1L, inside)).thenReturn(Mono.just(segment));
+        when(delegate.findApplicablePrices(List.of(missing))).thenReturn(Mono.just(Map.of()));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, inside)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrices(List.of(cached, missing)))
+                .expectNext(Map.of(cached, price))
+                .verifyComplete();
+
+        verify(delegate, times(1)).findApplicablePrices(List.of(missing));
+    }
+}
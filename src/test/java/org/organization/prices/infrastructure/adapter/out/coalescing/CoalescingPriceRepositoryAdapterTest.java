@@ -0,0 +1,129 @@
+package org.organization.prices.infrastructure.adapter.out.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link CoalescingPriceRepositoryAdapter}.
+ * <p>
+ * Verifies that concurrent identical lookups share one delegate call, that flights are not
+ * reused once completed, and the exported metrics.
+ * </p>
+ */
+class CoalescingPriceRepositoryAdapterTest {
+
+    /**
+     * Mock of the decorated repository port.
+     */
+    @Mock
+    private PriceRepositoryPort delegate;
+
+    /**
+     * Registry the coalescing metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of CoalescingPriceRepositoryAdapter under test.
+     */
+    private CoalescingPriceRepositoryAdapter adapter;
+
+    /**
+     * Sample query date.
+     */
+    private final LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Sample price returned by the delegate.
+     */
+    private final Price price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+            LocalDateTime.parse("2020-12-31T23:59:59"), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+    /**
+     * Initializes mocks and the adapter before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new CoalescingPriceRepositoryAdapter(delegate, meterRegistry);
+    }
+
+    /**
+     * Tests that lookups arriving while a flight is in progress join it instead of querying again.
+     */
+    @Test
+    void findApplicablePrice_shouldShareInFlightLookup() {
+        Sinks.One<Price> result = Sinks.one();
+        AtomicInteger subscriptions = new AtomicInteger();
+        when(delegate.findApplicablePrice(35455L, 1L, date))
+                .thenReturn(result.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet()));
+
+        StepVerifier first = StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).expectComplete().verifyLater();
+        StepVerifier second = StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).expectComplete().verifyLater();
+        StepVerifier third = StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).expectComplete().verifyLater();
+        assertEquals(1.0, meterRegistry.get("prices.lookup.inflight").gauge().value());
+
+        result.tryEmitValue(price);
+        first.verify();
+        second.verify();
+        third.verify();
+
+        assertEquals(1, subscriptions.get());
+        assertEquals(1.0, meterRegistry.get("prices.lookup.coalescing").tag("result", "leader").counter().count());
+        assertEquals(2.0, meterRegistry.get("prices.lookup.coalescing").tag("result", "deduplicated").counter().count());
+        assertEquals(0.0, meterRegistry.get("prices.lookup.inflight").gauge().value());
+    }
+
+    /**
+     * Tests that a completed flight is not reused by later lookups.
+     */
+    @Test
+    void findApplicablePrice_shouldStartNewFlightAfterCompletion() {
+        when(delegate.findApplicablePrice(35455L, 1L, date)).thenReturn(Mono.just(price));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date)).expectNext(price).verifyComplete();
+
+        verify(delegate, times(2)).findApplicablePrice(35455L, 1L, date);
+        assertEquals(0.0, meterRegistry.get("prices.lookup.coalescing").tag("result", "deduplicated").counter().count());
+    }
+
+    /**
+     * Tests that empty results and errors are propagated to every lookup of the flight.
+     */
+    @Test
+    void findApplicablePrice_shouldPropagateEmptyAndErrors() {
+        when(delegate.findApplicablePrice(35455L, 2L, date)).thenReturn(Mono.empty());
+        when(delegate.findApplicablePrice(35455L, 3L, date)).thenReturn(Mono.error(new IllegalStateException("boom")));
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 2L, date)).verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 3L, date)).verifyError(IllegalStateException.class);
+    }
+
+    /**
+     * Tests that catalogue streams are passed through to the delegate.
+     */
+    @Test
+    void getAll_shouldDelegate() {
+        when(delegate.getAll()).thenReturn(Flux.just(price));
+
+        StepVerifier.create(adapter.getAll()).expectNext(price).verifyComplete();
+    }
+}
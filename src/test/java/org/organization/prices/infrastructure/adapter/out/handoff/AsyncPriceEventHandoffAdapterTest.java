@@ -0,0 +1,161 @@
+package org.organization.prices.infrastructure.adapter.out.handoff;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.usecase.StorePriceEventUseCase;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link AsyncPriceEventHandoffAdapter}.
+ * <p>
+ * Verifies that events are handled off the caller's thread, the overflow and failure handling,
+ * the drain on shutdown and the exported metrics.
+ * </p>
+ */
+class AsyncPriceEventHandoffAdapterTest {
+
+    private static final LocalDateTime QUERY_DATE = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Mock of the use case storing and publishing the events.
+     */
+    @Mock
+    private StorePriceEventUseCase storeEventUseCase;
+
+    /**
+     * Registry the handoff metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of AsyncPriceEventHandoffAdapter under test, stopped after each test.
+     */
+    private AsyncPriceEventHandoffAdapter adapter;
+
+    /**
+     * Initializes mocks before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(storeEventUseCase.storeEvent(any(Price.class), any(LocalDateTime.class))).thenReturn(Mono.empty());
+    }
+
+    /**
+     * Stops the adapter after each test method.
+     */
+    @AfterEach
+    void tearDown() {
+        if (adapter != null) {
+            adapter.stop();
+        }
+    }
+
+    /**
+     * Tests that the handoff completes without waiting for the event to be stored and published,
+     * which happens on the worker thread.
+     */
+    @Test
+    void handOff_shouldCompleteBeforeEventIsHandled() {
+        AtomicReference<String> thread = new AtomicReference<>();
+        when(storeEventUseCase.storeEvent(any(Price.class), any(LocalDateTime.class))).thenAnswer(invocation -> {
+            thread.set(Thread.currentThread().getName());
+            return Mono.never();
+        });
+        adapter = adapter(10, 1);
+
+        StepVerifier.create(adapter.handOff(price(1), QUERY_DATE))
+                .expectComplete()
+                .verify(Duration.ofSeconds(1));
+
+        verify(storeEventUseCase, timeout(1000)).storeEvent(price(1), QUERY_DATE);
+        assertTrue(thread.get().startsWith("price-event-handoff"), "Handled on " + thread.get());
+        assertEquals(1.0, meterRegistry.get("prices.events.handoff").tag("outcome", "accepted").counter().count());
+        adapter = null;
+    }
+
+    /**
+     * Tests that events are dropped once the queue is full, and counted.
+     */
+    @Test
+    void handOff_shouldDropEvents_whenQueueIsFull() {
+        when(storeEventUseCase.storeEvent(any(Price.class), any(LocalDateTime.class))).thenReturn(Mono.never());
+        adapter = adapter(2, 1);
+        adapter.handOff(price(0), QUERY_DATE).block();
+        verify(storeEventUseCase, timeout(1000)).storeEvent(any(Price.class), any(LocalDateTime.class));
+
+        for (int i = 1; i <= 10; i++) {
+            adapter.handOff(price(i), QUERY_DATE).block();
+        }
+
+        assertEquals(3.0, meterRegistry.get("prices.events.handoff").tag("outcome", "accepted").counter().count());
+        assertEquals(8.0, meterRegistry.get("prices.events.handoff").tag("outcome", "dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("prices.events.handoff.queue.size").gauge().value());
+        adapter = null;
+    }
+
+    /**
+     * Tests that an event failing to be handled does not stop the worker.
+     */
+    @Test
+    void handOff_shouldCarryOn_whenEventFails() {
+        when(storeEventUseCase.storeEvent(any(Price.class), any(LocalDateTime.class)))
+                .thenThrow(new IllegalStateException("Invalid price"))
+                .thenReturn(Mono.error(new IllegalStateException("Event store down")))
+                .thenReturn(Mono.empty());
+        adapter = adapter(10, 1);
+
+        for (int i = 0; i < 3; i++) {
+            adapter.handOff(price(i), QUERY_DATE).block();
+        }
+
+        verify(storeEventUseCase, timeout(1000).times(3)).storeEvent(any(Price.class), any(LocalDateTime.class));
+    }
+
+    /**
+     * Tests that stopping the adapter handles the queued events, and drops the later ones.
+     */
+    @Test
+    void stop_shouldHandleQueuedEvents() {
+        when(storeEventUseCase.storeEvent(any(Price.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> Mono.delay(Duration.ofMillis(20)).then());
+        adapter = adapter(10, 1);
+        for (int i = 0; i < 5; i++) {
+            adapter.handOff(price(i), QUERY_DATE).block();
+        }
+
+        adapter.stop();
+        adapter.handOff(price(5), QUERY_DATE).block();
+
+        verify(storeEventUseCase, times(5)).storeEvent(any(Price.class), any(LocalDateTime.class));
+        assertEquals(0.0, meterRegistry.get("prices.events.handoff.queue.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("prices.events.handoff").tag("outcome", "dropped").counter().count());
+        adapter = null;
+    }
+
+    private AsyncPriceEventHandoffAdapter adapter(int capacity, int concurrency) {
+        return new AsyncPriceEventHandoffAdapter(storeEventUseCase, capacity, concurrency,
+                Duration.ofSeconds(5), meterRegistry);
+    }
+
+    private static Price price(long productId) {
+        return new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                1, productId, 0, new BigDecimal("35.50"), "EUR");
+    }
+}
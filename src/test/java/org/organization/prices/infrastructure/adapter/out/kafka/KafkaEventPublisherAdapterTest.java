@@ -0,0 +1,260 @@
+package org.organization.prices.infrastructure.adapter.out.kafka;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.resilience.Resilience4jAdapter;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderRecord;
+import reactor.kafka.sender.SenderResult;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link KafkaEventPublisherAdapter}.
+ * <p>
+ * The sender is mocked to acknowledge every record it receives, or to fail the ones of a given
+ * product, so as to check that all events go through a single sending stream and that each
+ * caller completes with its own record.
+ * </p>
+ */
+class KafkaEventPublisherAdapterTest {
+
+    /**
+     * Product whose records the mocked sender fails.
+     */
+    private static final long FAILING_PRODUCT_ID = 666L;
+
+    /**
+     * Mock of the reactive Kafka sender.
+     */
+    @Mock
+    private KafkaSender<String, PriceEvent> kafkaSender;
+
+    /**
+     * Records received by the mocked sender.
+     */
+    private final List<SenderRecord<String, PriceEvent, ?>> sent = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registry the per-partition send counters are published to.
+     */
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    /**
+     * Instance of KafkaEventPublisherAdapter under test.
+     */
+    private KafkaEventPublisherAdapter publisher;
+
+    /**
+     * Makes the mocked sender acknowledge its records and starts the adapter.
+     */
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(kafkaSender.send(any(Publisher.class))).thenAnswer(invocation ->
+                Flux.from(invocation.<Publisher<SenderRecord<String, PriceEvent, Object>>>getArgument(0))
+                        .doOnNext(sent::add)
+                        .map(KafkaEventPublisherAdapterTest::result));
+        publisher = new KafkaEventPublisherAdapter(kafkaSender,
+                new Resilience4jAdapter(CircuitBreakerRegistry.ofDefaults()), true, 100, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    /**
+     * Stops the adapter after each test method.
+     */
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    /**
+     * Tests that every event is sent through the same sending stream, keyed by product and brand,
+     * and counted against the partition it was written to.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishEvent_shouldSendEveryEventThroughOneStream() {
+        for (long productId = 1; productId <= 3; productId++) {
+            StepVerifier.create(publisher.publishEvent(event(productId)))
+                    .verifyComplete();
+        }
+
+        verify(kafkaSender, times(1)).send(any(Publisher.class));
+        assertEquals(List.of("1:1", "2:1", "3:1"), sent.stream().map(SenderRecord::key).toList());
+        assertEquals("priceTopic", sent.get(0).topic());
+        assertEquals(2.0, meterRegistry.get("prices.events.kafka.sent").tag("partition", "1").counter().count());
+        assertEquals(1.0, meterRegistry.get("prices.events.kafka.sent").tag("partition", "0").counter().count());
+    }
+
+    /**
+     * Tests that a record the broker rejects is dropped by the fallback without stopping the stream.
+     */
+    @Test
+    void publishEvent_shouldDropFailedRecordAndCarryOn() {
+        StepVerifier.create(publisher.publishEvent(event(FAILING_PRODUCT_ID)))
+                .verifyComplete();
+        StepVerifier.create(publisher.publishEvent(event(1L)))
+                .verifyComplete();
+
+        assertEquals(2, sent.size());
+    }
+
+    /**
+     * Tests that {@code send} reports a record the broker rejects instead of dropping it.
+     */
+    @Test
+    void send_shouldFail_whenRecordIsRejected() {
+        StepVerifier.create(publisher.send(event(FAILING_PRODUCT_ID)))
+                .expectError()
+                .verify();
+        StepVerifier.create(publisher.send(event(1L)))
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that the callers of the records a failed sending stream held are failed rather than
+     * left waiting, and that events are sent again once the stream is restarted.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_shouldFailWaitingCallers_whenStreamFails() {
+        publisher.stop();
+        reset(kafkaSender);
+        AtomicInteger subscriptions = new AtomicInteger();
+        when(kafkaSender.send(any(Publisher.class))).thenAnswer(invocation -> {
+            Flux<SenderRecord<String, PriceEvent, Object>> records =
+                    Flux.from(invocation.<Publisher<SenderRecord<String, PriceEvent, Object>>>getArgument(0));
+            return Flux.defer(() -> subscriptions.getAndIncrement() == 0
+                    // Takes two records without acknowledging them, then fails
+                    ? records.doOnNext(sent::add).take(2)
+                            .thenMany(Flux.<SenderResult<Object>>error(new IllegalStateException("Producer closed")))
+                    : records.doOnNext(sent::add).map(KafkaEventPublisherAdapterTest::result));
+        });
+        publisher = new KafkaEventPublisherAdapter(kafkaSender,
+                new Resilience4jAdapter(CircuitBreakerRegistry.ofDefaults()), true, 100, Duration.ofSeconds(5),
+                meterRegistry);
+
+        StepVerifier.create(Flux.merge(outcome(publisher.send(event(1L))), outcome(publisher.send(event(2L)))))
+                .expectNext("RejectedExecutionException", "RejectedExecutionException")
+                .expectComplete()
+                .verify(Duration.ofSeconds(3));
+
+        // Waits for the stream to be restarted, retrying through the circuit breaker would open it
+        StepVerifier.create(Mono.fromCallable(subscriptions::get)
+                        .filter(count -> count == 2)
+                        .repeatWhenEmpty(100, repeat -> repeat.delayElements(Duration.ofMillis(100))))
+                .expectNext(2)
+                .expectComplete()
+                .verify(Duration.ofSeconds(15));
+        StepVerifier.create(publisher.send(event(3L)))
+                .expectComplete()
+                .verify(Duration.ofSeconds(3));
+        assertEquals(List.of("1:1", "2:1", "3:1"), sent.stream().map(SenderRecord::key).toList());
+    }
+
+    /**
+     * Tests that a caller whose record is never acknowledged gives up after the send timeout.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void send_shouldTimeOut_whenRecordIsNotAcknowledged() {
+        publisher.stop();
+        reset(kafkaSender);
+        when(kafkaSender.send(any(Publisher.class))).thenAnswer(invocation ->
+                Flux.from(invocation.<Publisher<SenderRecord<String, PriceEvent, Object>>>getArgument(0))
+                        .doOnNext(sent::add)
+                        .filter(record -> false)
+                        .map(KafkaEventPublisherAdapterTest::result));
+        publisher = new KafkaEventPublisherAdapter(kafkaSender,
+                new Resilience4jAdapter(CircuitBreakerRegistry.ofDefaults()), true, 100, Duration.ofMillis(200),
+                meterRegistry);
+
+        StepVerifier.create(outcome(publisher.send(event(1L))))
+                .expectNext("TimeoutException")
+                .expectComplete()
+                .verify(Duration.ofSeconds(3));
+        StepVerifier.create(publisher.publishEvent(event(2L)))
+                .expectComplete()
+                .verify(Duration.ofSeconds(3));
+    }
+
+    /**
+     * Tests that nothing is sent when publishing is disabled.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishEvent_shouldDoNothing_whenKafkaIsDisabled() {
+        reset(kafkaSender);
+        KafkaEventPublisherAdapter disabled = new KafkaEventPublisherAdapter(kafkaSender,
+                new Resilience4jAdapter(CircuitBreakerRegistry.ofDefaults()), false, 100, Duration.ofSeconds(5), meterRegistry);
+
+        StepVerifier.create(disabled.publishEvent(event(1L)))
+                .verifyComplete();
+        disabled.stop();
+
+        verify(kafkaSender, never()).send(any(Publisher.class));
+    }
+
+    private static SenderResult<Object> result(SenderRecord<String, PriceEvent, Object> record) {
+        Exception exception = record.value().getProductId() == FAILING_PRODUCT_ID
+                ? new IllegalStateException("Record rejected")
+                : null;
+        return new SenderResult<>() {
+            @Override
+            public RecordMetadata recordMetadata() {
+                return exception != null ? null : new RecordMetadata(
+                        new TopicPartition(record.topic(), (int) (record.value().getProductId() % 2)), 0, 0, 0, 0, 0);
+            }
+
+            @Override
+            public Exception exception() {
+                return exception;
+            }
+
+            @Override
+            public Object correlationMetadata() {
+                return record.correlationMetadata();
+            }
+        };
+    }
+
+    private static Mono<String> outcome(Mono<Void> send) {
+        return send.thenReturn("acknowledged")
+                // The circuit breaker wraps the failure
+                .onErrorResume(e -> Mono.just(e.getCause().getClass().getSimpleName()));
+    }
+
+    private static PriceEvent event(long productId) {
+        return PriceEvent.builder()
+                .productId(productId)
+                .brandId(1L)
+                .priceList(1)
+                .queryDate(LocalDateTime.parse("2020-06-14T10:00:00"))
+                .price(new BigDecimal("35.50"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T10:00:01"))
+                .build();
+    }
+}
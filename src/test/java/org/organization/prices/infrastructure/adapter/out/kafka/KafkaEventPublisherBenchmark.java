@@ -0,0 +1,219 @@
+package org.organization.prices.infrastructure.adapter.out.kafka;
+
+import ch.qos.logback.classic.Logger;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.organization.prices.application.port.CircuitBreakerPort;
+import org.organization.prices.application.port.EventPublisherPort;
+import org.organization.prices.domain.execption.PriceNotFoundException;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.resilience.Resilience4jAdapter;
+import org.organization.prices.infrastructure.config.KafkaReactiveConfig;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.kafka.sender.KafkaSender;
+import reactor.kafka.sender.SenderOptions;
+import reactor.kafka.sender.SenderRecord;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the streaming {@link KafkaEventPublisherAdapter} with the previous adapter, which sent
+ * each event through its own {@code kafkaSender.send(Mono.just(record))} pipeline, against an
+ * embedded Kafka broker.
+ * <p>
+ * {@link #publish()} has many request threads publish at once and wait for the acknowledgement,
+ * as the price service does, and reports the publish latency percentiles. {@link #publishBurst()}
+ * publishes a burst of events without waiting on each one, the time it takes giving the
+ * throughput. The previous adapter is rebuilt here as {@link PerEventPublisher}, with the
+ * producer settings it used. The broker runs in the same JVM, so its own work weighs on the
+ * figures, all the more on few cores.
+ * </p>
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) \
+ *     org.organization.prices.infrastructure.adapter.out.kafka.KafkaEventPublisherBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KafkaEventPublisherBenchmark {
+
+    private static final String TOPIC = "priceTopic";
+
+    /**
+     * Publisher under test: {@code per-event} or {@code stream}.
+     */
+    @Param({"per-event", "stream"})
+    public String publisher;
+
+    /**
+     * Number of events published at once by {@link #publishBurst()}.
+     */
+    @Param({"10000"})
+    public int burst;
+
+    /**
+     * Producer linger of the streaming publisher, in milliseconds.
+     */
+    @Param({"5"})
+    public int lingerMs;
+
+    /**
+     * Producer compression of the streaming publisher.
+     */
+    @Param({"lz4"})
+    public String codec;
+
+    private EmbeddedKafkaKraftBroker broker;
+    private KafkaSender<String, PriceEvent> kafkaSender;
+    private EventPublisherPort port;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * Starts the broker and the publisher under test.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        broker = new EmbeddedKafkaKraftBroker(1, 4, TOPIC);
+        broker.afterPropertiesSet();
+        CircuitBreakerPort circuitBreakerPort = new Resilience4jAdapter(CircuitBreakerRegistry.ofDefaults());
+
+        if ("stream".equals(publisher)) {
+            KafkaReactiveConfig config = new KafkaReactiveConfig();
+            ReflectionTestUtils.setField(config, "bootstrapServers", broker.getBrokersAsString());
+            ReflectionTestUtils.setField(config, "maxInFlight", 1024);
+            ReflectionTestUtils.setField(config, "linger", Duration.ofMillis(lingerMs));
+            ReflectionTestUtils.setField(config, "batchSize", DataSize.ofKilobytes(64));
+            ReflectionTestUtils.setField(config, "compression", codec);
+            ReflectionTestUtils.setField(config, "valueFormat", "json");
+            ReflectionTestUtils.setField(config, "partitioner", "default");
+            kafkaSender = config.kafkaSender();
+            port = new KafkaEventPublisherAdapter(kafkaSender, circuitBreakerPort, true, 10000, Duration.ofSeconds(30),
+                    new SimpleMeterRegistry());
+        } else {
+            Map<String, Object> props = new HashMap<>();
+            props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+            props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+            props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+            kafkaSender = KafkaSender.create(SenderOptions.create(props));
+            port = new PerEventPublisher(kafkaSender, circuitBreakerPort);
+        }
+    }
+
+    /**
+     * Stops the publisher and the broker.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (port instanceof KafkaEventPublisherAdapter adapter) {
+            adapter.stop();
+        }
+        kafkaSender.close();
+        broker.destroy();
+    }
+
+    /**
+     * Publishes an event and waits for its acknowledgement.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @Threads(64)
+    public void publish() {
+        port.publishEvent(event(next.incrementAndGet())).block();
+    }
+
+    /**
+     * Publishes a burst of events at once and waits for all of them to be acknowledged.
+     *
+     * @return the number of events published
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Measurement(iterations = 20)
+    public int publishBurst() {
+        Flux.range(0, burst)
+                .flatMap(i -> port.publishEvent(event(next.incrementAndGet())), burst)
+                .then()
+                .block();
+        return burst;
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(KafkaEventPublisherBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static PriceEvent event(long sequence) {
+        return PriceEvent.builder()
+                .productId(35455L + sequence % 1000)
+                .brandId(1L)
+                .priceList(1)
+                .queryDate(LocalDateTime.parse("2020-06-14T10:00:00"))
+                .price(new BigDecimal("35.50"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * The publisher as it was before events were streamed: one send pipeline, circuit breaker
+     * call and correlation id per event.
+     */
+    private record PerEventPublisher(KafkaSender<String, PriceEvent> kafkaSender,
+                                     CircuitBreakerPort circuitBreakerPort) implements EventPublisherPort {
+
+        @Override
+        public Mono<Void> publishEvent(PriceEvent event) {
+            SenderRecord<String, PriceEvent, UUID> record = SenderRecord.create(TOPIC, null, null,
+                    event.getProductId().toString(), event, UUID.randomUUID());
+            return circuitBreakerPort.executeCircuitBreaker("kafkaPublisher",
+                    kafkaSender.send(Mono.just(record))
+                            .then()
+                            .onErrorResume(e -> Mono.empty()),
+                    PriceNotFoundException.class);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.partitioning;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HeavyHitterSketch}.
+ * <p>
+ * Verifies that counts are never underestimated and stay close for a heavy hitter among many
+ * light keys, and that decaying halves them.
+ * </p>
+ */
+class HeavyHitterSketchTest {
+
+    /**
+     * Tests that a heavy hitter stands out of a long tail of keys.
+     */
+    @Test
+    void estimate_shouldTellHeavyHitterFromTail() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(4, 1024);
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(i % 10 == 0 ? 35455L : random.nextInt(50_000));
+        }
+
+        assertEquals(100_000, sketch.total());
+        long hot = sketch.estimate(35455L);
+        assertTrue(hot >= 10_000 && hot < 10_000 + 1_000, "Heavy hitter estimate: " + hot);
+        assertTrue(sketch.estimate(12345L) < 1_000, "Tail estimate: " + sketch.estimate(12345L));
+    }
+
+    /**
+     * Tests that decaying halves the counts and the total.
+     */
+    @Test
+    void decay_shouldHalveCounts() {
+        HeavyHitterSketch sketch = new HeavyHitterSketch(2, 64);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i + 1, sketch.add(7L));
+        }
+
+        sketch.decay();
+
+        assertEquals(5, sketch.estimate(7L));
+        assertEquals(5, sketch.total());
+        assertTrue(sketch.estimate(8L) <= 5);
+        assertThrows(IllegalArgumentException.class, () -> new HeavyHitterSketch(9, 64));
+    }
+}
@@ -0,0 +1,91 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.partitioning;
+
+import org.apache.kafka.common.utils.Utils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HotKeyAwarePartitioner}.
+ * <p>
+ * Verifies that cold products keep the partition of their key, as with the default partitioner,
+ * and that a hot product is spread over the configured number of partitions.
+ * </p>
+ */
+class HotKeyAwarePartitionerTest {
+
+    private static final int PARTITIONS = 12;
+
+    /**
+     * Instance of HotKeyAwarePartitioner under test.
+     */
+    private HotKeyAwarePartitioner partitioner;
+
+    @BeforeEach
+    void setUp() {
+        partitioner = new HotKeyAwarePartitioner();
+        partitioner.configure(Map.of(
+                HotKeyAwarePartitioner.HOT_SHARE_CONFIG, 0.1,
+                HotKeyAwarePartitioner.MIN_EVENTS_CONFIG, 100L,
+                HotKeyAwarePartitioner.SPREAD_CONFIG, 3,
+                HotKeyAwarePartitioner.DECAY_INTERVAL_CONFIG, Duration.ofHours(1)));
+    }
+
+    /**
+     * Tests that the events of a cold product and brand always go to the partition of their key.
+     */
+    @Test
+    void partition_shouldKeepColdKeysOnTheirPartition() {
+        for (long productId = 0; productId < 1000; productId++) {
+            byte[] key = key(productId, 1L);
+            int expected = Utils.toPositive(Utils.murmur2(key)) % PARTITIONS;
+
+            assertEquals(expected, partitioner.partition(key, productId, PARTITIONS));
+            assertEquals(expected, partitioner.partition(key, productId, PARTITIONS));
+        }
+        assertFalse(partitioner.isHot(1L));
+    }
+
+    /**
+     * Tests that a product making up most of the events is spread over {@code spread} partitions,
+     * while the others keep theirs.
+     */
+    @Test
+    void partition_shouldSpreadHotProduct() {
+        Set<Integer> hotPartitions = new HashSet<>();
+        for (int i = 0; i < 2000; i++) {
+            long productId = i % 2 == 0 ? 35455L : 1000L + i;
+            int partition = partitioner.partition(key(productId, 1L), productId, PARTITIONS);
+            if (productId == 35455L && i > 500) {
+                hotPartitions.add(partition);
+            }
+        }
+
+        assertTrue(partitioner.isHot(35455L));
+        assertFalse(partitioner.isHot(1001L));
+        assertEquals(3, hotPartitions.size(), "Hot product partitions: " + hotPartitions);
+        byte[] cold = key(5L, 1L);
+        assertEquals(Utils.toPositive(Utils.murmur2(cold)) % PARTITIONS, partitioner.partition(cold, 5L, PARTITIONS));
+        assertEquals(0, partitioner.partition(key(35455L, 1L), 35455L, 1), "A single partition takes everything");
+    }
+
+    /**
+     * Tests that invalid settings are refused.
+     */
+    @Test
+    void configure_shouldRefuseInvalidSettings() {
+        assertThrows(IllegalArgumentException.class,
+                () -> partitioner.configure(Map.of(HotKeyAwarePartitioner.HOT_SHARE_CONFIG, "1.5")));
+    }
+
+    private static byte[] key(long productId, long brandId) {
+        return (productId + ":" + brandId).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.serialization;
+
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.organization.prices.domain.model.PriceEvent;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and protobuf encodings of the price event records: the time and the bytes
+ * allocated to serialize and deserialize an event, and the bytes of the record value.
+ * <p>
+ * {@code event} is a single query or the aggregate of a window. The bytes of each record value
+ * are printed before the run; the allocations are reported by the GC profiler as
+ * {@code gc.alloc.rate.norm}.
+ * </p>
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) \
+ *     org.organization.prices.infrastructure.adapter.out.kafka.serialization.PriceEventSerializerBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceEventSerializerBenchmark {
+
+    private static final String TOPIC = "priceTopic";
+
+    /**
+     * Encoding under test: {@code json} or {@code protobuf}.
+     */
+    @Param({"json", "protobuf"})
+    public String format;
+
+    /**
+     * Event encoded: {@code single} or {@code aggregate}.
+     */
+    @Param({"single", "aggregate"})
+    public String event;
+
+    private Serializer<PriceEvent> serializer;
+    private ProtobufPriceEventDeserializer deserializer;
+    private PriceEvent priceEvent;
+    private byte[] value;
+    private Headers headers;
+
+    /**
+     * Builds the serializer, the event, and the record to deserialize.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        serializer = serializer(format);
+        deserializer = new ProtobufPriceEventDeserializer();
+        priceEvent = "aggregate".equals(event) ? aggregate() : single();
+        headers = new RecordHeaders();
+        value = serializer.serialize(TOPIC, headers, priceEvent);
+    }
+
+    /**
+     * Serializes the event.
+     *
+     * @return the record value
+     */
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), priceEvent);
+    }
+
+    /**
+     * Deserializes the record value.
+     *
+     * @return the event
+     */
+    @Benchmark
+    public PriceEvent deserialize() {
+        return deserializer.deserialize(TOPIC, headers, value);
+    }
+
+    /**
+     * Prints the bytes of each record value, then runs the benchmark with the GC profiler.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        for (String format : new String[]{"json", "protobuf"}) {
+            Serializer<PriceEvent> serializer = serializer(format);
+            System.out.printf("%-8s single: %3d bytes, aggregate: %3d bytes%n", format,
+                    serializer.serialize(TOPIC, new RecordHeaders(), single()).length,
+                    serializer.serialize(TOPIC, new RecordHeaders(), aggregate()).length);
+        }
+        new Runner(new OptionsBuilder()
+                .include(PriceEventSerializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    private static Serializer<PriceEvent> serializer(String format) {
+        return "protobuf".equals(format) ? new ProtobufPriceEventSerializer() : new JsonPriceEventSerializer();
+    }
+
+    private static PriceEvent single() {
+        return PriceEvent.builder()
+                .productId(35455L)
+                .brandId(1L)
+                .priceList(2)
+                .queryDate(LocalDateTime.parse("2020-06-14T16:00:00"))
+                .price(new BigDecimal("25.45"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T16:00:01.123456789"))
+                .build();
+    }
+
+    private static PriceEvent aggregate() {
+        PriceEvent aggregate = single();
+        aggregate.setCreatedAt(LocalDateTime.parse("2020-06-14T16:00:02"));
+        aggregate.setEventCount(1250L);
+        aggregate.setWindowStart(LocalDateTime.parse("2020-06-14T16:00:01"));
+        aggregate.setWindowEnd(LocalDateTime.parse("2020-06-14T16:00:02"));
+        aggregate.setFirstQueryAt(LocalDateTime.parse("2020-06-14T16:00:01.000153"));
+        aggregate.setLastQueryAt(LocalDateTime.parse("2020-06-14T16:00:01.999801"));
+        aggregate.setMinPrice(new BigDecimal("25.45"));
+        aggregate.setMaxPrice(new BigDecimal("30.50"));
+        return aggregate;
+    }
+}
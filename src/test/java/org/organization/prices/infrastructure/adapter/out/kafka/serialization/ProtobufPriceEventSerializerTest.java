@@ -0,0 +1,110 @@
+package org.organization.prices.infrastructure.adapter.out.kafka.serialization;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.organization.prices.domain.model.PriceEvent;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ProtobufPriceEventSerializer} and {@link ProtobufPriceEventDeserializer},
+ * next to the {@link JsonPriceEventSerializer} they stand in for.
+ * <p>
+ * Verifies the round trip of every field, the content type headers, and that the protobuf
+ * encoding is smaller than the JSON one.
+ * </p>
+ */
+class ProtobufPriceEventSerializerTest {
+
+    private static final String TOPIC = "priceTopic";
+
+    private final ProtobufPriceEventSerializer serializer = new ProtobufPriceEventSerializer();
+    private final JsonPriceEventSerializer jsonSerializer = new JsonPriceEventSerializer();
+    private final ProtobufPriceEventDeserializer deserializer = new ProtobufPriceEventDeserializer();
+
+    @AfterEach
+    void tearDown() {
+        serializer.close();
+        jsonSerializer.close();
+        deserializer.close();
+    }
+
+    /**
+     * Tests that single events, aggregates and sparse events are read back as written.
+     */
+    @Test
+    void deserialize_shouldReturnEventAsSerialized() {
+        PriceEvent aggregate = event();
+        aggregate.setEventType("ERROR_QUERY");
+        aggregate.setEventCount(42L);
+        aggregate.setWindowStart(LocalDateTime.parse("2020-06-14T16:00:00"));
+        aggregate.setWindowEnd(LocalDateTime.parse("2020-06-14T16:00:01"));
+        aggregate.setFirstQueryAt(LocalDateTime.parse("2020-06-14T16:00:00.000000001"));
+        aggregate.setLastQueryAt(LocalDateTime.parse("2020-06-14T16:00:00.999"));
+        aggregate.setMinPrice(new BigDecimal("-1.5"));
+        aggregate.setMaxPrice(new BigDecimal("38.950"));
+        PriceEvent sparse = PriceEvent.builder().productId(0L).eventType("CUSTOM_QUERY").build();
+
+        for (PriceEvent event : new PriceEvent[]{event(), aggregate, sparse, PriceEvent.builder().build()}) {
+            Headers headers = new RecordHeaders();
+            byte[] value = serializer.serialize(TOPIC, headers, event);
+
+            assertEquals(event, deserializer.deserialize(TOPIC, headers, value));
+            assertEquals(event, deserializer.deserialize(TOPIC, value), "Untagged records are protobuf");
+        }
+        assertNull(serializer.serialize(TOPIC, new RecordHeaders(), null));
+        assertNull(deserializer.deserialize(TOPIC, null));
+    }
+
+    /**
+     * Tests that each serializer tags its records, and that JSON records are read as JSON.
+     */
+    @Test
+    void serialize_shouldTagRecordsWithContentType() {
+        Headers protobuf = new RecordHeaders();
+        Headers json = new RecordHeaders();
+        byte[] protobufValue = serializer.serialize(TOPIC, protobuf, event());
+        byte[] jsonValue = jsonSerializer.serialize(TOPIC, json, event());
+
+        assertEquals(PriceEventContentType.PROTOBUF, contentType(protobuf));
+        assertEquals(PriceEventContentType.JSON, contentType(json));
+        assertEquals(event(), deserializer.deserialize(TOPIC, json, jsonValue));
+        assertTrue(protobufValue.length * 2 < jsonValue.length,
+                protobufValue.length + " protobuf bytes, " + jsonValue.length + " JSON bytes");
+    }
+
+    /**
+     * Tests that a price beyond 64 bits and an invalid record are refused.
+     */
+    @Test
+    void shouldRefuseValuesOutOfRange() {
+        PriceEvent event = event();
+        event.setPrice(new BigDecimal("1e30").setScale(2));
+
+        assertThrows(SerializationException.class, () -> serializer.serialize(TOPIC, new RecordHeaders(), event));
+        assertThrows(SerializationException.class, () -> deserializer.deserialize(TOPIC, new byte[]{1, 2, 3}));
+    }
+
+    private static String contentType(Headers headers) {
+        return new String(headers.lastHeader(PriceEventContentType.HEADER).value(), StandardCharsets.UTF_8);
+    }
+
+    private static PriceEvent event() {
+        return PriceEvent.builder()
+                .productId(35455L)
+                .brandId(1L)
+                .priceList(2)
+                .queryDate(LocalDateTime.parse("2020-06-14T16:00:00"))
+                .price(new BigDecimal("25.45"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T16:00:01.123456789"))
+                .build();
+    }
+}
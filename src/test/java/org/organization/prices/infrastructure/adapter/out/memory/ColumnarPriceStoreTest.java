@@ -0,0 +1,216 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ColumnarPriceStore}.
+ * <p>
+ * Uses the same four overlapping price lists as {@code data.sql}, checks the scenarios
+ * documented in the README and compares the results with the {@link PriceIntervalIndex}.
+ * </p>
+ */
+class ColumnarPriceStoreTest {
+
+    /**
+     * Sample rows of product 35455 and brand 1.
+     */
+    private final List<Price> rows = List.of(
+            price(1, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50"),
+            price(2, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45"),
+            price(3, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00", "30.50"),
+            price(4, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59", "38.95"));
+
+    /**
+     * Store under test.
+     */
+    private ColumnarPriceStore store;
+
+    /**
+     * Builds the store from the sample price lists before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        store = ColumnarPriceStore.of(rows);
+    }
+
+    /**
+     * Tests that the highest-priority price is returned for each README scenario, fully materialised.
+     */
+    @Test
+    void find_shouldReturnHighestPriorityPrice() {
+        assertPriceList("2020-06-14T10:00:00", 1);
+        assertPriceList("2020-06-14T16:00:00", 2);
+        assertPriceList("2020-06-14T21:00:00", 1);
+        assertPriceList("2020-06-15T10:00:00", 3);
+        assertPriceList("2020-06-16T21:00:00", 4);
+        assertEquals(rows.get(1), store.find(35455L, 1L, LocalDateTime.parse("2020-06-14T16:00:00")).orElseThrow());
+    }
+
+    /**
+     * Tests that both validity bounds are inclusive, including for instants with a fraction of second.
+     */
+    @Test
+    void find_shouldTreatBoundsAsInclusive() {
+        assertPriceList("2020-06-14T15:00:00", 2);
+        assertPriceList("2020-06-14T18:30:00", 2);
+        assertPriceList("2020-06-14T18:30:00.5", 1);
+        assertPriceList("2020-06-14T14:59:59.999", 1);
+        assertTrue(store.find(35455L, 1L, LocalDateTime.parse("2020-12-31T23:59:59.1")).isEmpty());
+    }
+
+    /**
+     * Tests that instants outside every range and unknown products return empty.
+     */
+    @Test
+    void find_shouldReturnEmpty_whenNoPriceApplies() {
+        assertTrue(store.find(35455L, 1L, LocalDateTime.parse("2020-06-13T23:59:59")).isEmpty());
+        assertTrue(store.find(35455L, 1L, LocalDateTime.parse("2021-01-01T00:00:00")).isEmpty());
+        assertTrue(store.find(1L, 1L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+        assertTrue(ColumnarPriceStore.empty().find(35455L, 1L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+    }
+
+    /**
+     * Tests that segments match the ones of the object index.
+     */
+    @Test
+    void segmentAt_shouldMatchObjectIndex() {
+        PriceIntervalIndex objects = PriceIntervalIndex.of(rows);
+        for (String date : List.of("2020-06-14T00:00:00", "2020-06-14T16:00:00", "2020-06-14T18:30:00.5",
+                "2020-06-15T11:00:00", "2020-06-15T12:00:00", "2020-12-31T23:59:59")) {
+            LocalDateTime instant = LocalDateTime.parse(date);
+            assertEquals(objects.segmentAt(35455L, 1L, instant), store.segmentAt(35455L, 1L, instant), date);
+        }
+    }
+
+    /**
+     * Tests that replacing a group returns a new store and leaves the previous one untouched.
+     */
+    @Test
+    void withGroup_shouldReturnUpdatedCopy() {
+        PriceIndex updated = store
+                .withGroup(new PriceKey(35455L, 1L), List.of(price(5, 2, "2020-06-14T00:00:00", "2020-06-30T00:00:00", "19.99")))
+                .withGroup(new PriceKey(1L, 1L), List.of(new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"),
+                        LocalDateTime.parse("2020-06-30T00:00:00"), 9, 1L, 0, new BigDecimal("500"), "JPY")));
+
+        assertEquals(5, updated.find(35455L, 1L, LocalDateTime.parse("2020-06-14T16:00:00")).orElseThrow().getPriceList());
+        assertEquals(new BigDecimal("500"), updated.find(1L, 1L, LocalDateTime.parse("2020-06-20T00:00:00")).orElseThrow().getPrice());
+        assertEquals(2, updated.groupCount());
+        assertPriceList("2020-06-14T16:00:00", 2);
+        assertEquals(1, store.groupCount());
+
+        PriceIndex removed = updated.withGroup(new PriceKey(1L, 1L), List.of());
+        assertEquals(1, removed.groupCount());
+        assertEquals(1, removed.size());
+    }
+
+    /**
+     * Tests that all stored prices are materialised.
+     */
+    @Test
+    void prices_shouldReturnAllStoredPrices() {
+        assertEquals(4, store.size());
+        assertEquals(rows, store.prices());
+        assertEquals(0, ColumnarPriceStore.empty().size());
+    }
+
+    /**
+     * Tests that only the groups within the product and brand ranges are streamed, in group order.
+     */
+    @Test
+    void prices_shouldStreamGroupsWithinFilter() {
+        List<Price> grid = new ArrayList<>();
+        for (long productId = 5; productId >= 1; productId--) {
+            for (long brandId = 1; brandId <= 4; brandId++) {
+                grid.add(new Price(brandId, LocalDateTime.parse("2020-06-14T00:00:00"),
+                        LocalDateTime.parse("2020-12-31T23:59:59"), 1, productId, 0, new BigDecimal("1.00"), "EUR"));
+            }
+        }
+        ColumnarPriceStore store = ColumnarPriceStore.of(grid);
+
+        assertEquals(List.of(new PriceKey(2L, 2L), new PriceKey(2L, 3L), new PriceKey(3L, 2L), new PriceKey(3L, 3L),
+                        new PriceKey(4L, 2L), new PriceKey(4L, 3L)),
+                store.prices(new PriceCatalogFilter(2L, 4L, 2L, 3L)).map(PriceKey::of).toList());
+        assertEquals(List.of(new PriceKey(5L, 4L)),
+                store.prices(new PriceCatalogFilter(5L, null, 4L, null)).map(PriceKey::of).toList());
+        assertEquals(20, store.prices(PriceCatalogFilter.all()).count());
+        assertEquals(0, store.prices(new PriceCatalogFilter(6L, null, null, null)).count());
+        assertEquals(0, store.prices(new PriceCatalogFilter(null, null, 5L, null)).count());
+    }
+
+    /**
+     * Tests that several groups are replaced, added and removed by a single rebuild.
+     */
+    @Test
+    void withGroups_shouldApplyEveryChange() {
+        ColumnarPriceStore updated = store.withGroup(new PriceKey(1L, 1L), List.of(new Price(1L,
+                        LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-06-30T00:00:00"), 9, 1L,
+                        0, new BigDecimal("500"), "JPY")))
+                .withGroups(Map.of(
+                        new PriceKey(35455L, 1L), List.of(price(5, 2, "2020-06-14T00:00:00", "2020-06-30T00:00:00", "19.99")),
+                        new PriceKey(1L, 1L), List.of(),
+                        new PriceKey(99999L, 2L), List.of(new Price(2L, LocalDateTime.parse("2020-06-14T00:00:00"),
+                                LocalDateTime.parse("2020-06-30T00:00:00"), 7, 99999L, 0, new BigDecimal("1.00"), "EUR"))));
+
+        assertEquals(2, updated.groupCount());
+        assertEquals(2, updated.size());
+        assertTrue(updated.find(1L, 1L, LocalDateTime.parse("2020-06-20T00:00:00")).isEmpty());
+        assertEquals(5, updated.find(35455L, 1L, LocalDateTime.parse("2020-06-14T16:00:00")).orElseThrow().getPriceList());
+        assertEquals(7, updated.find(99999L, 2L, LocalDateTime.parse("2020-06-20T00:00:00")).orElseThrow().getPriceList());
+    }
+
+    /**
+     * Tests that amounts come back with the scale they were stored with, whatever their currency.
+     */
+    @Test
+    void find_shouldKeepAmountScale() {
+        ColumnarPriceStore yen = ColumnarPriceStore.of(List.of(
+                new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-06-30T00:00:00"),
+                        1, 1L, 0, new BigDecimal("100.50"), "JPY"),
+                new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-06-30T00:00:00"),
+                        2, 2L, 0, new BigDecimal("35.505"), "EUR")));
+
+        assertEquals("100.50", yen.find(1L, 1L, LocalDateTime.parse("2020-06-20T00:00:00")).orElseThrow()
+                .getPrice().toPlainString());
+        assertEquals("35.505", yen.find(2L, 1L, LocalDateTime.parse("2020-06-20T00:00:00")).orElseThrow()
+                .getPrice().toPlainString());
+    }
+
+    /**
+     * Tests that rows the columns cannot represent exactly are rejected.
+     */
+    @Test
+    void of_shouldRejectRowsThatCannotBeEncoded() {
+        Price subSecond = price(1, 0, "2020-06-14T00:00:00.5", "2020-12-31T23:59:59", "35.50");
+        Price huge = price(1, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "123456789012345678901.5");
+
+        assertFalse(ColumnarPriceStore.canEncode(subSecond));
+        assertFalse(ColumnarPriceStore.canEncode(huge));
+        assertTrue(ColumnarPriceStore.canEncode(rows.get(0)));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarPriceStore.of(List.of(subSecond)));
+        assertThrows(IllegalArgumentException.class, () -> ColumnarPriceStore.of(List.of(huge)));
+    }
+
+    private void assertPriceList(String date, int expectedPriceList) {
+        Optional<Price> found = store.find(35455L, 1L, LocalDateTime.parse(date));
+        assertTrue(found.isPresent(), "No price found at " + date);
+        assertEquals(expectedPriceList, found.get().getPriceList(), "Wrong price list at " + date);
+    }
+
+    private static Price price(int priceList, int priority, String start, String end, String value) {
+        return new Price(1L, LocalDateTime.parse(start), LocalDateTime.parse(end), priceList, 35455L,
+                priority, new BigDecimal(value), "EUR");
+    }
+}
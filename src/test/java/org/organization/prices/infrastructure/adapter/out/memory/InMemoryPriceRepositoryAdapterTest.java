@@ -0,0 +1,294 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepository;
+import org.organization.prices.infrastructure.adapter.out.sync.PriceTableSynchronizer;
+import org.organization.prices.infrastructure.entity.PriceEntity;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link InMemoryPriceRepositoryAdapter}.
+ * <p>
+ * Verifies that the price table is loaded only once, that lookups are
+ * answered from memory afterwards and that the index survives a restart
+ * through its snapshot file.
+ * </p>
+ */
+class InMemoryPriceRepositoryAdapterTest {
+
+    /**
+     * Mock of the PriceRepository used to load the price table.
+     */
+    @Mock
+    private PriceRepository priceRepository;
+
+    /**
+     * Mock of the mapper that converts between PriceEntity and domain Price.
+     */
+    @Mock
+    private PriceEntityMapper mapper;
+
+    /**
+     * Mock of the synchronizer providing the watermark of snapshot files.
+     */
+    @Mock
+    private PriceTableSynchronizer synchronizer;
+
+    /**
+     * Instance of InMemoryPriceRepositoryAdapter under test.
+     */
+    private InMemoryPriceRepositoryAdapter adapter;
+
+    /**
+     * Price returned by the mocked repository.
+     */
+    private Price price;
+
+    /**
+     * Initializes mocks and the adapter before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        PriceEntity entity = new PriceEntity();
+        price = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+
+        when(priceRepository.findAllPrices()).thenReturn(Flux.just(entity));
+        when(mapper.toDomain(entity)).thenReturn(price);
+
+        when(synchronizer.isEnabled()).thenReturn(true);
+
+        adapter = new InMemoryPriceRepositoryAdapter(priceRepository, mapper, synchronizer, "columnar", "",
+                Duration.ofMinutes(5));
+    }
+
+    /**
+     * Tests that lookups are served from memory after a single load of the table.
+     */
+    @Test
+    void findApplicablePrice_shouldLoadTableOnceAndAnswerFromMemory() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(price)
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(price)
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 2L, date))
+                .verifyComplete();
+
+        verify(priceRepository, times(1)).findAllPrices();
+    }
+
+    /**
+     * Tests that refreshing a group replaces its prices without reloading the table.
+     */
+    @Test
+    void refreshGroup_shouldRebuildOnlyThatGroup() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+        PriceEntity changed = new PriceEntity();
+        changed.setId(5L);
+        Price newPrice = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-06-30T00:00:00"),
+                5, 35455L, 2, new BigDecimal("19.99"), "EUR");
+        when(priceRepository.findByProductIdAndBrandId(35455L, 1L)).thenReturn(Flux.just(changed));
+        when(mapper.toDomain(changed)).thenReturn(newPrice);
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(price)
+                .verifyComplete();
+        StepVerifier.create(adapter.refreshGroup(35455L, 1L))
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(newPrice)
+                .verifyComplete();
+
+        verify(priceRepository, times(1)).findAllPrices();
+        verify(priceRepository, times(1)).findByProductIdAndBrandId(35455L, 1L);
+    }
+
+    /**
+     * Tests that a refresh reading its rows before a full load does not apply them on top of it.
+     */
+    @Test
+    void refreshGroup_shouldBeDropped_whenIndexIsReloadedMeanwhile() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+        PriceEntity stale = new PriceEntity();
+        stale.setId(5L);
+        Price stalePrice = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-06-30T00:00:00"),
+                5, 35455L, 2, new BigDecimal("19.99"), "EUR");
+        Sinks.One<PriceEntity> staleRows = Sinks.one();
+        when(priceRepository.findByProductIdAndBrandId(35455L, 1L)).thenReturn(staleRows.asMono().flux());
+        when(mapper.toDomain(stale)).thenReturn(stalePrice);
+        adapter.onSnapshot(List.of());
+
+        StepVerifier.create(adapter.refreshGroup(35455L, 1L))
+                .then(() -> {
+                    adapter.onSnapshot(List.of(price));
+                    staleRows.tryEmitValue(stale);
+                })
+                .verifyComplete();
+
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(price)
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that a snapshot replaces the lazy load and that changed rows reload their group.
+     */
+    @Test
+    void onChange_shouldReloadGroupsOfChangedRows() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+        PriceEntity changed = new PriceEntity();
+        changed.setId(1L);
+        Price updated = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                1, 35455L, 0, new BigDecimal("30.00"), "EUR");
+        when(priceRepository.findByProductIdAndBrandId(35455L, 1L)).thenReturn(Flux.just(changed));
+        when(mapper.toDomain(changed)).thenReturn(updated);
+
+        adapter.onSnapshot(List.of(price));
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(price)
+                .verifyComplete();
+        StepVerifier.create(adapter.onChange(List.of(updated)))
+                .verifyComplete();
+        StepVerifier.create(adapter.findApplicablePrice(35455L, 1L, date))
+                .expectNext(updated)
+                .verifyComplete();
+
+        verify(priceRepository, never()).findAllPrices();
+    }
+
+    /**
+     * Tests that the segment around the query date is resolved from memory.
+     */
+    @Test
+    void findApplicableSegment_shouldReturnSegmentAroundDate() {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+        StepVerifier.create(adapter.findApplicableSegment(35455L, 1L, date))
+                .expectNextMatches(segment -> segment.getPrice().equals(price)
+                        && segment.getValidFrom().equals(price.getStartDate())
+                        && segment.getValidUntil().equals(price.getEndDate().plusNanos(1)))
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that {@code getAll} returns the loaded prices.
+     */
+    @Test
+    void getAll_shouldReturnLoadedPrices() {
+        StepVerifier.create(adapter.getAll())
+                .expectNext(price)
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that a batch is resolved from memory, leaving out queries without a price.
+     */
+    @Test
+    void findApplicablePrices_shouldResolveBatchFromMemory() {
+        PriceQuery found = new PriceQuery(35455L, 1L, LocalDateTime.parse("2020-06-14T10:00:00"));
+        PriceQuery missing = new PriceQuery(35455L, 2L, LocalDateTime.parse("2020-06-14T10:00:00"));
+
+        StepVerifier.create(adapter.findApplicablePrices(List.of(found, missing)))
+                .expectNext(Map.of(found, price))
+                .verifyComplete();
+
+        verify(priceRepository, times(1)).findAllPrices();
+    }
+
+    /**
+     * Tests that {@code streamAll} only emits the loaded prices within the filter ranges.
+     */
+    @Test
+    void streamAll_shouldFilterLoadedPrices() {
+        StepVerifier.create(adapter.streamAll(new PriceCatalogFilter(null, null, 1L, 1L)))
+                .expectNext(price)
+                .verifyComplete();
+        StepVerifier.create(adapter.streamAll(new PriceCatalogFilter(null, null, 2L, null)))
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that a written snapshot is mapped by the next instance instead of reading the table,
+     * and that later changes apply on top of it.
+     */
+    @Test
+    void writeSnapshot_shouldBeRestoredOnNextStart(@TempDir Path directory) throws IOException {
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+        LocalDateTime watermark = LocalDateTime.parse("2024-01-01T10:00:00");
+        String file = directory.resolve("prices.snapshot").toString();
+        when(synchronizer.getWatermark()).thenReturn(watermark);
+        InMemoryPriceRepositoryAdapter first = new InMemoryPriceRepositoryAdapter(priceRepository, mapper, synchronizer,
+                "columnar", file, Duration.ofMinutes(5));
+
+        assertFalse(first.restoreSnapshot());
+        assertFalse(first.writeSnapshot());
+        first.onSnapshot(List.of(price));
+        assertTrue(first.writeSnapshot());
+        assertFalse(first.writeSnapshot());
+
+        InMemoryPriceRepositoryAdapter restarted = new InMemoryPriceRepositoryAdapter(priceRepository, mapper, synchronizer,
+                "columnar", file, Duration.ofMinutes(5));
+        assertTrue(restarted.restoreSnapshot());
+        assertEquals(Optional.of(watermark), restarted.restoredWatermark());
+        StepVerifier.create(restarted.findApplicablePrice(35455L, 1L, date))
+                .expectNext(price)
+                .verifyComplete();
+
+        PriceEntity changed = new PriceEntity();
+        Price updated = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                1, 35455L, 0, new BigDecimal("30.00"), "EUR");
+        when(priceRepository.findByProductIdAndBrandId(35455L, 1L)).thenReturn(Flux.just(changed));
+        when(mapper.toDomain(changed)).thenReturn(updated);
+        StepVerifier.create(restarted.onChange(List.of(updated)))
+                .verifyComplete();
+        StepVerifier.create(restarted.findApplicablePrice(35455L, 1L, date))
+                .expectNext(updated)
+                .verifyComplete();
+        assertTrue(restarted.writeSnapshot());
+
+        verify(priceRepository, never()).findAllPrices();
+    }
+
+    /**
+     * Tests that snapshots are disabled with the object layout.
+     */
+    @Test
+    void restoreSnapshot_shouldBeDisabledWithObjectLayout(@TempDir Path directory) throws IOException {
+        when(synchronizer.getWatermark()).thenReturn(LocalDateTime.parse("2024-01-01T10:00:00"));
+        InMemoryPriceRepositoryAdapter objects = new InMemoryPriceRepositoryAdapter(priceRepository, mapper, synchronizer,
+                "objects", directory.resolve("prices.snapshot").toString(), Duration.ofMinutes(5));
+
+        objects.onSnapshot(List.of(price));
+
+        assertFalse(objects.writeSnapshot());
+        assertFalse(objects.restoreSnapshot());
+    }
+}
@@ -0,0 +1,158 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.junit.jupiter.api.Test;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PatchedPriceIndex}.
+ * <p>
+ * Verifies that patched groups shadow the groups of the base store, which is left untouched.
+ * </p>
+ */
+class PatchedPriceIndexTest {
+
+    /**
+     * Instant covered by every sample price.
+     */
+    private final LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+
+    /**
+     * Base rows: products 1 and 2 of brand 1.
+     */
+    private final List<Price> rows = List.of(price(1L, 1, "35.50"), price(2L, 1, "20.00"));
+
+    /**
+     * Tests that an unpatched index answers like its base.
+     */
+    @Test
+    void of_shouldAnswerLikeBase() {
+        ColumnarPriceStore base = ColumnarPriceStore.of(rows);
+        PatchedPriceIndex index = PatchedPriceIndex.of(base);
+
+        assertEquals(base.find(1L, 1L, date), index.find(1L, 1L, date));
+        assertEquals(base.segmentAt(2L, 1L, date), index.segmentAt(2L, 1L, date));
+        assertEquals(base.prices(), index.prices());
+        assertEquals(0, index.patchCount());
+    }
+
+    /**
+     * Tests that replaced, added and removed groups shadow the base and keep the counts right.
+     */
+    @Test
+    void withGroup_shouldShadowBaseGroups() {
+        PatchedPriceIndex index = PatchedPriceIndex.of(ColumnarPriceStore.of(rows));
+        Price replaced = price(1L, 5, "19.99");
+        Price added = price(3L, 1, "9.99");
+
+        PriceIndex patched = index
+                .withGroup(new PriceKey(1L, 1L), List.of(replaced))
+                .withGroup(new PriceKey(3L, 1L), List.of(added))
+                .withGroup(new PriceKey(2L, 1L), List.of());
+
+        assertEquals(replaced, patched.find(1L, 1L, date).orElseThrow());
+        assertEquals(added, patched.segmentAt(3L, 1L, date).orElseThrow().getPrice());
+        assertTrue(patched.find(2L, 1L, date).isEmpty());
+        assertEquals(2, patched.size());
+        assertEquals(2, patched.groupCount());
+        assertEquals(new HashSet<>(List.of(replaced, added)), new HashSet<>(patched.prices()));
+        assertEquals(List.of(replaced), patched.prices(new PriceCatalogFilter(1L, 2L, null, null)).toList());
+
+        assertEquals(rows.get(0), index.find(1L, 1L, date).orElseThrow());
+        assertEquals(2, index.size());
+    }
+
+    /**
+     * Tests that patching the same group twice only counts its latest rows.
+     */
+    @Test
+    void withGroup_shouldReplacePreviousPatch() {
+        PriceIndex patched = PatchedPriceIndex.of(ColumnarPriceStore.of(rows))
+                .withGroup(new PriceKey(3L, 1L), List.of(price(3L, 1, "9.99"), price(3L, 2, "8.99")))
+                .withGroup(new PriceKey(3L, 1L), List.of(price(3L, 1, "7.99")));
+
+        assertEquals(3, patched.size());
+        assertEquals(3, patched.groupCount());
+        assertEquals(new BigDecimal("7.99"), patched.find(3L, 1L, date).orElseThrow().getPrice());
+    }
+
+    /**
+     * Tests that groups the store cannot encode are kept as timelines instead of failing the build.
+     */
+    @Test
+    void of_shouldKeepUnencodableGroupsAsTimelines() {
+        Price subSecond = new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00.250"),
+                LocalDateTime.parse("2020-12-31T23:59:59.999"), 9, 3L, 0, new BigDecimal("100.50"), "JPY");
+
+        PatchedPriceIndex index = PatchedPriceIndex.of(List.of(rows.get(0), rows.get(1), subSecond));
+
+        assertEquals(subSecond, index.find(3L, 1L, LocalDateTime.parse("2020-06-14T00:00:00.250")).orElseThrow());
+        assertTrue(index.find(3L, 1L, LocalDateTime.parse("2020-06-14T00:00:00.249")).isEmpty());
+        assertEquals(rows.get(0), index.find(1L, 1L, date).orElseThrow());
+        assertEquals(3, index.size());
+        assertEquals(3, index.groupCount());
+        assertEquals(2, index.base().size());
+        assertEquals(1, index.compacted().patchCount());
+    }
+
+    /**
+     * Tests that a heap index folds its patches into its store once they are numerous, while a
+     * mapped one keeps them until compacted.
+     */
+    @Test
+    void withGroups_shouldFoldPatchesIntoHeapStore() {
+        Map<PriceKey, List<Price>> changes = new HashMap<>();
+        for (long productId = 10; productId < 110; productId++) {
+            changes.put(new PriceKey(productId, 1L), List.of(price(productId, 1, "1.00")));
+        }
+
+        PriceIndex heap = PatchedPriceIndex.of(rows).withGroups(changes);
+        PriceIndex mapped = PatchedPriceIndex.of(ColumnarPriceStore.of(rows)).withGroups(changes);
+
+        assertEquals(0, ((PatchedPriceIndex) heap).patchCount());
+        assertEquals(102, ((PatchedPriceIndex) heap).base().groupCount());
+        assertEquals(100, ((PatchedPriceIndex) mapped).patchCount());
+        assertEquals(0, ((PatchedPriceIndex) mapped).compacted().patchCount());
+        assertEquals(102, heap.size());
+        assertEquals(new BigDecimal("1.00"), heap.find(50L, 1L, date).orElseThrow().getPrice());
+    }
+
+    /**
+     * Tests that groups the store cannot encode do not count towards folding, so that many of them
+     * do not rebuild the store on every change.
+     */
+    @Test
+    void withGroups_shouldNotFoldOnUnencodablePatches() {
+        List<Price> prices = new ArrayList<>(rows);
+        for (long productId = 10; productId < 110; productId++) {
+            prices.add(new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00.250"),
+                    LocalDateTime.parse("2020-12-31T23:59:59"), 1, productId, 0, new BigDecimal("1.00"), "EUR"));
+        }
+        PatchedPriceIndex index = PatchedPriceIndex.of(prices);
+
+        PatchedPriceIndex changed = (PatchedPriceIndex) index
+                .withGroup(new PriceKey(1L, 1L), List.of(price(1L, 5, "19.99")))
+                .withGroup(new PriceKey(10L, 1L), List.of(price(10L, 1, "2.00")));
+
+        assertSame(index.base(), changed.base());
+        assertEquals(101, changed.patchCount());
+        assertEquals(new BigDecimal("19.99"), changed.find(1L, 1L, date).orElseThrow().getPrice());
+        assertEquals(99, changed.compacted().patchCount());
+    }
+
+    private static Price price(Long productId, int priceList, String value) {
+        return new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-12-31T23:59:59"),
+                priceList, productId, 0, new BigDecimal(value), "EUR");
+    }
+}
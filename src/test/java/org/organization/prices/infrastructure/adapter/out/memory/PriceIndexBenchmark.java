@@ -0,0 +1,145 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jol.info.GraphLayout;
+import org.organization.prices.domain.model.Price;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the two {@link PriceIndex} layouts: the {@link PriceIntervalIndex} object model and
+ * the {@link ColumnarPriceStore}.
+ * <p>
+ * {@link #main(String[])} first prints the retained heap of each layout, measured with JOL, then
+ * runs the JMH lookup benchmark. Each synthetic (productId, brandId) group has a base price for
+ * the whole year and three higher-priority promotions, like the sample data.
+ * </p>
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) \
+ *     org.organization.prices.infrastructure.adapter.out.memory.PriceIndexBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceIndexBenchmark {
+
+    /**
+     * Number of lookups prepared in advance and cycled through.
+     */
+    private static final int QUERIES = 4096;
+
+    /**
+     * Index layout under test.
+     */
+    @Param({"objects", "columnar"})
+    public String layout;
+
+    /**
+     * Number of price rows in the index.
+     */
+    @Param({"1000000"})
+    public int rows;
+
+    private PriceIndex index;
+    private long[] productIds;
+    private long[] brandIds;
+    private LocalDateTime[] dates;
+    private int next;
+
+    /**
+     * Builds the index and the lookups.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = build(layout, prices(rows));
+        SplittableRandom random = new SplittableRandom(42);
+        productIds = new long[QUERIES];
+        brandIds = new long[QUERIES];
+        dates = new LocalDateTime[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            int group = random.nextInt(rows / 4);
+            productIds[i] = group / 10;
+            brandIds[i] = group % 10;
+            dates[i] = LocalDateTime.parse("2024-01-01T00:00:00").plusMinutes(random.nextInt(365 * 24 * 60));
+        }
+    }
+
+    /**
+     * Resolves the applicable price of a known product and brand, materialising it.
+     *
+     * @return the applicable price
+     */
+    @Benchmark
+    public Optional<Price> find() {
+        int i = next++ & (QUERIES - 1);
+        return index.find(productIds[i], brandIds[i], dates[i]);
+    }
+
+    /**
+     * Prints the heap footprint of both layouts, then runs the benchmark.
+     *
+     * @param args optional number of rows, one million by default
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        int rowCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<Price> prices = prices(rowCount);
+        // PriceKey is a record, whose field offsets Unsafe refuses to report
+        System.setProperty("jol.magicFieldOffset", "true");
+        for (String layout : List.of("objects", "columnar")) {
+            long bytes = GraphLayout.parseInstance(build(layout, prices)).totalSize();
+            System.out.printf("%-8s %,d rows: %,d bytes retained, %.1f bytes/row%n",
+                    layout, rowCount, bytes, (double) bytes / rowCount);
+        }
+        new Runner(new OptionsBuilder()
+                .include(PriceIndexBenchmark.class.getSimpleName())
+                .param("rows", String.valueOf(rowCount))
+                .build()).run();
+    }
+
+    private static PriceIndex build(String layout, List<Price> prices) {
+        return "objects".equals(layout) ? PriceIntervalIndex.of(prices) : ColumnarPriceStore.of(prices);
+    }
+
+    private static List<Price> prices(int rowCount) {
+        LocalDateTime year = LocalDateTime.parse("2024-01-01T00:00:00");
+        List<Price> prices = new ArrayList<>(rowCount);
+        for (int group = 0; group < rowCount / 4; group++) {
+            long productId = group / 10;
+            long brandId = group % 10;
+            prices.add(new Price(brandId, year, year.plusYears(1).minusSeconds(1), 1, productId, 0,
+                    BigDecimal.valueOf(3550 + group % 1000, 2), "EUR"));
+            for (int promo = 0; promo < 3; promo++) {
+                LocalDateTime start = year.plusMonths(promo * 4L).plusDays(group % 28);
+                prices.add(new Price(brandId, start, start.plusWeeks(2), 2 + promo, productId, 1,
+                        BigDecimal.valueOf(2545 + group % 1000, 2), "EUR"));
+            }
+        }
+        return prices;
+    }
+}
@@ -0,0 +1,114 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceKey;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PriceIntervalIndex}.
+ * <p>
+ * Uses the same four overlapping price lists as {@code data.sql} and checks the
+ * scenarios documented in the README.
+ * </p>
+ */
+class PriceIntervalIndexTest {
+
+    /**
+     * Index under test.
+     */
+    private PriceIntervalIndex index;
+
+    /**
+     * Builds the index from the sample price lists before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        index = PriceIntervalIndex.of(List.of(
+                price(1, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50"),
+                price(2, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45"),
+                price(3, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00", "30.50"),
+                price(4, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59", "38.95")
+        ));
+    }
+
+    /**
+     * Tests that the highest-priority price is returned for each README scenario.
+     */
+    @Test
+    void find_shouldReturnHighestPriorityPrice() {
+        assertPriceList("2020-06-14T10:00:00", 1);
+        assertPriceList("2020-06-14T16:00:00", 2);
+        assertPriceList("2020-06-14T21:00:00", 1);
+        assertPriceList("2020-06-15T10:00:00", 3);
+        assertPriceList("2020-06-16T21:00:00", 4);
+    }
+
+    /**
+     * Tests that both validity bounds are inclusive, as in the SQL query.
+     */
+    @Test
+    void find_shouldTreatBoundsAsInclusive() {
+        assertPriceList("2020-06-14T15:00:00", 2);
+        assertPriceList("2020-06-14T18:30:00", 2);
+        assertPriceList("2020-06-14T18:30:01", 1);
+    }
+
+    /**
+     * Tests that instants outside every range and unknown products return empty.
+     */
+    @Test
+    void find_shouldReturnEmpty_whenNoPriceApplies() {
+        assertTrue(index.find(35455L, 1L, LocalDateTime.parse("2020-06-13T23:59:59")).isEmpty());
+        assertTrue(index.find(35455L, 1L, LocalDateTime.parse("2021-01-01T00:00:00")).isEmpty());
+        assertTrue(index.find(1L, 1L, LocalDateTime.parse("2020-06-14T10:00:00")).isEmpty());
+    }
+
+    /**
+     * Tests that replacing a group rebuilds only that group.
+     */
+    @Test
+    void replaceGroup_shouldRebuildOnlyTheAffectedGroup() {
+        index.replaceGroup(new PriceKey(35455L, 1L), List.of(
+                price(5, 2, "2020-06-14T00:00:00", "2020-06-30T00:00:00", "19.99")));
+        index.replaceGroup(new PriceKey(1L, 1L), List.of(
+                new Price(1L, LocalDateTime.parse("2020-06-14T00:00:00"), LocalDateTime.parse("2020-06-30T00:00:00"),
+                        9, 1L, 0, new BigDecimal("5.00"), "EUR")));
+
+        assertPriceList("2020-06-14T16:00:00", 5);
+        assertTrue(index.find(35455L, 1L, LocalDateTime.parse("2020-07-01T00:00:00")).isEmpty());
+        assertEquals(9, index.find(1L, 1L, LocalDateTime.parse("2020-06-20T00:00:00")).orElseThrow().getPriceList());
+        assertEquals(2, index.groupCount());
+
+        index.replaceGroup(new PriceKey(1L, 1L), List.of());
+        assertEquals(1, index.groupCount());
+    }
+
+    /**
+     * Tests that all indexed prices are exposed.
+     */
+    @Test
+    void prices_shouldReturnAllIndexedPrices() {
+        assertEquals(4, index.size());
+        assertEquals(4, index.prices().size());
+        assertEquals(0, PriceIntervalIndex.empty().size());
+    }
+
+    private void assertPriceList(String date, int expectedPriceList) {
+        Optional<Price> found = index.find(35455L, 1L, LocalDateTime.parse(date));
+        assertTrue(found.isPresent(), "No price found at " + date);
+        assertEquals(expectedPriceList, found.get().getPriceList(), "Wrong price list at " + date);
+    }
+
+    private static Price price(int priceList, int priority, String start, String end, String value) {
+        return new Price(1L, LocalDateTime.parse(start), LocalDateTime.parse(end), priceList, 35455L,
+                priority, new BigDecimal(value), "EUR");
+    }
+}
@@ -0,0 +1,160 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.infrastructure.entity.PriceEntity;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long the in-memory index takes to become ready at startup, with and without a
+ * {@link PriceSnapshotFile}.
+ * <p>
+ * {@link #loadFromTable()} maps the rows of the table to prices and builds the columnar store, as
+ * {@link InMemoryPriceRepositoryAdapter} does after streaming the table; the database read
+ * itself comes on top. {@link #mapSnapshot()} maps a snapshot file of the same rows. Both
+ * answer one lookup, so the snapshot is not only mapped but read. The file sits in the page
+ * cache, as it does on a warm restart.
+ * </p>
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) \
+ *     org.organization.prices.infrastructure.adapter.out.memory.PriceSnapshotBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PriceSnapshotBenchmark {
+
+    /**
+     * Instant every synthetic group has a price at.
+     */
+    private static final LocalDateTime LOOKUP_DATE = LocalDateTime.parse("2024-06-01T12:00:00");
+
+    /**
+     * Number of price rows in the table.
+     */
+    @Param({"1000000"})
+    public int rows;
+
+    private List<PriceEntity> table;
+    private PriceEntityMapper mapper;
+    private Path directory;
+    private Path snapshot;
+
+    /**
+     * Builds the table rows and writes their snapshot.
+     *
+     * @throws IOException if the snapshot cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        table = entities(rows);
+        mapper = new PriceEntityMapper();
+        directory = Files.createTempDirectory("price-snapshot");
+        snapshot = directory.resolve("prices.snapshot");
+        List<Price> prices = table.stream().map(mapper::toDomain).toList();
+        new PriceSnapshotFile(ColumnarPriceStore.of(prices), LOOKUP_DATE).write(snapshot);
+    }
+
+    /**
+     * Deletes the snapshot.
+     *
+     * @throws IOException if the snapshot cannot be deleted
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Maps every row and builds the index from them.
+     *
+     * @return a price found in the new index
+     */
+    @Benchmark
+    public Optional<Price> loadFromTable() {
+        List<Price> prices = table.stream().map(mapper::toDomain).toList();
+        return ColumnarPriceStore.of(prices).find(0L, 0L, LOOKUP_DATE);
+    }
+
+    /**
+     * Maps the snapshot file.
+     *
+     * @return a price found in the mapped index
+     * @throws IOException if the snapshot cannot be read
+     */
+    @Benchmark
+    public Optional<Price> mapSnapshot() throws IOException {
+        return PriceSnapshotFile.read(snapshot).store().find(0L, 0L, LOOKUP_DATE);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of rows, one million by default
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceSnapshotBenchmark.class.getSimpleName())
+                .param("rows", args.length > 0 ? args[0] : "1000000")
+                .build()).run();
+    }
+
+    private static List<PriceEntity> entities(int rowCount) {
+        LocalDateTime year = LocalDateTime.parse("2024-01-01T00:00:00");
+        List<PriceEntity> entities = new ArrayList<>(rowCount);
+        for (int group = 0; group < rowCount / 4; group++) {
+            entities.add(entity(group, year, year.plusYears(1).minusSeconds(1), 1, 0, 3550));
+            for (int promo = 0; promo < 3; promo++) {
+                LocalDateTime start = year.plusMonths(promo * 4L).plusDays(group % 28);
+                entities.add(entity(group, start, start.plusWeeks(2), 2 + promo, 1, 2545));
+            }
+        }
+        return entities;
+    }
+
+    private static PriceEntity entity(int group, LocalDateTime start, LocalDateTime end, int priceList,
+                                      int priority, long cents) {
+        PriceEntity entity = new PriceEntity();
+        entity.setBrandId((long) group % 10);
+        entity.setProductId((long) group / 10);
+        entity.setStartDate(start);
+        entity.setEndDate(end);
+        entity.setPriceList(priceList);
+        entity.setPriority(priority);
+        entity.setPrice(BigDecimal.valueOf(cents + group % 1000, 2));
+        entity.setCurrency("EUR");
+        return entity;
+    }
+}
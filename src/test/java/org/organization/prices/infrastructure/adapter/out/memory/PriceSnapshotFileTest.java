@@ -0,0 +1,109 @@
+package org.organization.prices.infrastructure.adapter.out.memory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceKey;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PriceSnapshotFile}.
+ * <p>
+ * Writes the sample price lists, maps them back and checks that the mapped store answers like
+ * the heap one and that damaged files are rejected.
+ * </p>
+ */
+class PriceSnapshotFileTest {
+
+    /**
+     * Watermark recorded in the snapshots.
+     */
+    private final LocalDateTime watermark = LocalDateTime.parse("2024-01-01T10:00:00.123456");
+
+    /**
+     * Sample rows of product 35455 and brand 1, plus a row in another currency.
+     */
+    private final List<Price> rows = List.of(
+            price(35455L, 1, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "35.50", "EUR"),
+            price(35455L, 2, 1, "2020-06-14T15:00:00", "2020-06-14T18:30:00", "25.45", "EUR"),
+            price(35455L, 3, 1, "2020-06-15T00:00:00", "2020-06-15T11:00:00", "30.50", "EUR"),
+            price(35455L, 4, 1, "2020-06-15T16:00:00", "2020-12-31T23:59:59", "38.95", "EUR"),
+            price(1L, 1, 0, "2020-06-14T00:00:00", "2020-12-31T23:59:59", "500", "JPY"));
+
+    /**
+     * Tests that a written snapshot is mapped back with its watermark and the same answers.
+     */
+    @Test
+    void read_shouldMapBackWrittenStore(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("prices.snapshot");
+        ColumnarPriceStore store = ColumnarPriceStore.of(rows);
+
+        long bytes = new PriceSnapshotFile(store, watermark).write(file);
+        PriceSnapshotFile snapshot = PriceSnapshotFile.read(file);
+
+        assertEquals(Files.size(file), bytes);
+        assertEquals(watermark, snapshot.watermark());
+        assertEquals(store.prices(), snapshot.store().prices());
+        assertEquals(2, snapshot.store().groupCount());
+        for (String date : List.of("2020-06-14T10:00:00", "2020-06-14T16:00:00", "2020-06-14T18:30:00.5",
+                "2020-06-15T10:00:00", "2020-06-16T21:00:00", "2021-01-01T00:00:00")) {
+            LocalDateTime instant = LocalDateTime.parse(date);
+            assertEquals(store.find(35455L, 1L, instant), snapshot.store().find(35455L, 1L, instant), date);
+            assertEquals(store.segmentAt(35455L, 1L, instant), snapshot.store().segmentAt(35455L, 1L, instant), date);
+        }
+        assertEquals(new BigDecimal("500"),
+                snapshot.store().find(1L, 1L, LocalDateTime.parse("2020-06-20T00:00:00")).orElseThrow().getPrice());
+    }
+
+    /**
+     * Tests that a mapped store keeps answering once its file is replaced, and that a group
+     * rebuilt from it is copied onto the heap.
+     */
+    @Test
+    void write_shouldNotDisturbStoresMappedFromPreviousFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("prices.snapshot");
+        new PriceSnapshotFile(ColumnarPriceStore.of(rows), watermark).write(file);
+        ColumnarPriceStore mapped = PriceSnapshotFile.read(file).store();
+
+        new PriceSnapshotFile(ColumnarPriceStore.empty(), watermark.plusHours(1)).write(file);
+        PriceIndex rebuilt = mapped.withGroup(new PriceKey(1L, 1L), List.of());
+
+        assertEquals(5, mapped.size());
+        assertEquals(4, rebuilt.size());
+        assertEquals(0, PriceSnapshotFile.read(file).store().size());
+        assertEquals(watermark.plusHours(1), PriceSnapshotFile.read(file).watermark());
+    }
+
+    /**
+     * Tests that files that are not complete snapshots are rejected.
+     */
+    @Test
+    void read_shouldRejectDamagedFiles(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("prices.snapshot");
+        new PriceSnapshotFile(ColumnarPriceStore.of(rows), watermark).write(file);
+        byte[] written = Files.readAllBytes(file);
+
+        Path truncated = Files.write(directory.resolve("truncated"), Arrays.copyOf(written, written.length - 8));
+        Path garbage = Files.write(directory.resolve("garbage"), new byte[64]);
+        Path empty = Files.write(directory.resolve("empty"), new byte[0]);
+
+        assertThrows(IllegalArgumentException.class, () -> PriceSnapshotFile.read(truncated));
+        assertThrows(IllegalArgumentException.class, () -> PriceSnapshotFile.read(garbage));
+        assertThrows(IllegalArgumentException.class, () -> PriceSnapshotFile.read(empty));
+    }
+
+    private static Price price(Long productId, int priceList, int priority, String start, String end,
+                               String value, String currency) {
+        return new Price(1L, LocalDateTime.parse(start), LocalDateTime.parse(end), priceList, productId,
+                priority, new BigDecimal(value), currency);
+    }
+}
@@ -0,0 +1,162 @@
+package org.organization.prices.infrastructure.adapter.out.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.kafka.KafkaEventPublisherAdapter;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventBatchRepository;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventOutboxRepository;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PriceEventOutboxRelay}, run against an in-memory H2 database created
+ * from the test schema, with a mocked Kafka publisher.
+ */
+class PriceEventOutboxRelayTest {
+
+    /**
+     * Product whose events the mocked publisher fails to send.
+     */
+    private static final long FAILING_PRODUCT_ID = 666L;
+
+    /**
+     * Mock of the Kafka publisher.
+     */
+    @Mock
+    private KafkaEventPublisherAdapter kafkaPublisher;
+
+    private DatabaseClient databaseClient;
+
+    private PriceEventBatchRepository batchRepository;
+
+    /**
+     * Registry the relay metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of PriceEventOutboxRelay under test, relaying batches of 10 events.
+     */
+    private PriceEventOutboxRelay relay;
+
+    /**
+     * Creates a fresh, empty database and a relay sending every event but the failing ones.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                .populate(connectionFactory)
+                .block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        batchRepository = new PriceEventBatchRepository(databaseClient);
+        meterRegistry = new SimpleMeterRegistry();
+        when(kafkaPublisher.send(any(PriceEvent.class))).thenAnswer(invocation ->
+                invocation.<PriceEvent>getArgument(0).getProductId() == FAILING_PRODUCT_ID
+                        ? Mono.error(new IllegalStateException("Record rejected"))
+                        : Mono.empty());
+        relay = new PriceEventOutboxRelay(new PriceEventOutboxRepository(databaseClient), new PriceEventEntityMapper(),
+                kafkaPublisher, meterRegistry, true, 10, Duration.ofSeconds(1));
+    }
+
+    /**
+     * Tests that a backlog is drained batch after batch, in insertion order, and marked as published.
+     */
+    @Test
+    void drain_shouldPublishEveryEventAndMarkIt() {
+        insert(LongStream.rangeClosed(1, 25).boxed().toList());
+
+        StepVerifier.create(relay.drain())
+                .verifyComplete();
+
+        ArgumentCaptor<PriceEvent> sent = ArgumentCaptor.forClass(PriceEvent.class);
+        verify(kafkaPublisher, times(25)).send(sent.capture());
+        assertEquals(LongStream.rangeClosed(1, 25).boxed().toList(),
+                sent.getAllValues().stream().map(PriceEvent::getProductId).toList());
+        assertEquals(0L, unpublished());
+        assertEquals(25.0, meterRegistry.get("prices.events.outbox.relayed").tag("outcome", "published").counter().count());
+    }
+
+    /**
+     * Tests that an event failing to be sent stays in the outbox, to be relayed by a later poll.
+     */
+    @Test
+    void drain_shouldKeepFailedEventsUnpublished() {
+        insert(List.of(1L, FAILING_PRODUCT_ID, 2L));
+
+        StepVerifier.create(relay.drain())
+                .verifyComplete();
+
+        assertEquals(1L, unpublished());
+        assertEquals(2.0, meterRegistry.get("prices.events.outbox.relayed").tag("outcome", "published").counter().count());
+        assertEquals(1.0, meterRegistry.get("prices.events.outbox.relayed").tag("outcome", "failed").counter().count());
+
+        reset(kafkaPublisher);
+        when(kafkaPublisher.send(any(PriceEvent.class))).thenReturn(Mono.empty());
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+        assertEquals(0L, unpublished());
+    }
+
+    /**
+     * Tests that an empty outbox sends nothing and reports no lag.
+     */
+    @Test
+    void relayBatch_shouldDoNothing_whenOutboxIsEmpty() {
+        StepVerifier.create(relay.relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(kafkaPublisher, never()).send(any(PriceEvent.class));
+        assertEquals(0.0, meterRegistry.get("prices.events.outbox.lag").timeGauge().value());
+    }
+
+    private void insert(List<Long> productIds) {
+        batchRepository.insertAll(productIds.stream().map(PriceEventOutboxRelayTest::entity).toList()).block();
+    }
+
+    private long unpublished() {
+        return databaseClient.sql("SELECT COUNT(*) FROM price_events WHERE published = FALSE")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    private static PriceEventEntity entity(Long productId) {
+        PriceEventEntity entity = new PriceEventEntity();
+        entity.setProductId(productId);
+        entity.setBrandId(1L);
+        entity.setPriceList(1);
+        entity.setQueryDate(LocalDateTime.parse("2020-06-14T10:00:00"));
+        entity.setPrice(new BigDecimal("35.50"));
+        entity.setEventType("PRICE_QUERY");
+        entity.setCreatedAt(LocalDateTime.parse("2020-06-14T10:00:01"));
+        return entity;
+    }
+}
@@ -0,0 +1,121 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
+import org.organization.prices.infrastructure.mapper.PriceRowMapper;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for {@link DatabaseClientPriceRepositoryAdapter}.
+ * <p>
+ * The adapter runs plain SQL, so it is exercised against an in-memory H2 database created from
+ * the test schema and loaded with the sample prices.
+ * </p>
+ */
+class DatabaseClientPriceRepositoryAdapterTest {
+
+    private static final Long PRODUCT_ID = 35455L;
+
+    private static final Long BRAND_ID = 1L;
+
+    /**
+     * Instance of DatabaseClientPriceRepositoryAdapter under test.
+     */
+    private DatabaseClientPriceRepositoryAdapter adapter;
+
+    /**
+     * Creates a fresh database holding the sample prices before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new ClassPathResource("data.sql"))
+                .populate(connectionFactory)
+                .block();
+        adapter = new DatabaseClientPriceRepositoryAdapter(DatabaseClient.create(connectionFactory), new PriceRowMapper());
+    }
+
+    /**
+     * Tests that {@code findApplicablePrice} maps every column of the highest-priority row.
+     */
+    @Test
+    void findApplicablePrice_shouldReturnHighestPriorityPrice() {
+        StepVerifier.create(adapter.findApplicablePrice(PRODUCT_ID, BRAND_ID, LocalDateTime.parse("2020-06-14T16:00:00")))
+                .expectNext(new Price(BRAND_ID, LocalDateTime.parse("2020-06-14T15:00:00"),
+                        LocalDateTime.parse("2020-06-14T18:30:00"), 2, PRODUCT_ID, 1,
+                        new BigDecimal("25.45"), "EUR"))
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that {@code findApplicablePrice} completes empty when no price applies.
+     */
+    @Test
+    void findApplicablePrice_shouldReturnEmpty_whenPriceNotFound() {
+        StepVerifier.create(adapter.findApplicablePrice(PRODUCT_ID, 2L, LocalDateTime.parse("2020-06-14T16:00:00")))
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that {@code findApplicableSegment} ends the segment where a higher-priority list starts.
+     */
+    @Test
+    void findApplicableSegment_shouldStopAtHigherPriorityPrice() {
+        StepVerifier.create(adapter.findApplicableSegment(PRODUCT_ID, BRAND_ID, LocalDateTime.parse("2020-06-14T10:00:00")))
+                .assertNext(segment -> {
+                    assertEquals(1, segment.getPrice().getPriceList());
+                    assertEquals(LocalDateTime.parse("2020-06-14T15:00:00"), segment.getValidUntil());
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that {@code findApplicablePrices} resolves each query and skips those without a price.
+     */
+    @Test
+    void findApplicablePrices_shouldResolveEveryQuery() {
+        PriceQuery afternoon = new PriceQuery(PRODUCT_ID, BRAND_ID, LocalDateTime.parse("2020-06-14T16:00:00"));
+        PriceQuery nextMorning = new PriceQuery(PRODUCT_ID, BRAND_ID, LocalDateTime.parse("2020-06-15T10:00:00"));
+        PriceQuery otherBrand = new PriceQuery(PRODUCT_ID, 2L, LocalDateTime.parse("2020-06-15T10:00:00"));
+
+        StepVerifier.create(adapter.findApplicablePrices(List.of(afternoon, nextMorning, otherBrand)))
+                .assertNext(prices -> {
+                    assertEquals(2, prices.size());
+                    assertEquals(2, prices.get(afternoon).getPriceList());
+                    assertEquals(3, prices.get(nextMorning).getPriceList());
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that {@code getAll} and {@code streamAll} return every matching row.
+     */
+    @Test
+    void getAllAndStreamAll_shouldReturnEveryRow() {
+        StepVerifier.create(adapter.getAll().count())
+                .expectNext(4L)
+                .verifyComplete();
+        StepVerifier.create(adapter.streamAll(new PriceCatalogFilter(PRODUCT_ID, PRODUCT_ID, 2L, null)).count())
+                .expectNext(0L)
+                .verifyComplete();
+        StepVerifier.create(adapter.streamAll(PriceCatalogFilter.all()).map(Price::getPriceList))
+                .expectNext(1, 2, 3, 4)
+                .verifyComplete();
+    }
+}
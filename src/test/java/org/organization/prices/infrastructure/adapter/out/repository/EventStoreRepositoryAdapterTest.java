@@ -5,14 +5,17 @@ import org.organization.prices.infrastructure.entity.PriceEventEntity;
 import org.organization.prices.infrastructure.mapper.PriceEventEntityMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.concurrent.RejectedExecutionException;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -20,7 +23,7 @@ import static org.mockito.Mockito.*;
  * <p>
  * This class verifies the behavior of the adapter responsible for
  * persisting price query events in the database using the underlying repository
- * and entity mapper.
+ * and entity mapper, and the limit on concurrent writes.
  * </p>
  */
 class EventStoreRepositoryAdapterTest {
@@ -37,12 +40,6 @@ class EventStoreRepositoryAdapterTest {
     @Mock
     private PriceEventEntityMapper priceEventEntityMapper;
 
-    /**
-     * Instance of EventStoreRepositoryAdapter under test.
-     */
-    @InjectMocks
-    private EventStoreRepositoryAdapter eventStoreRepositoryAdapter;
-
     /**
      * Initializes the mocks before each test method.
      */
@@ -54,7 +51,7 @@ class EventStoreRepositoryAdapterTest {
 
     /**
      * Tests that {@code storeEvent} correctly maps the domain event to
-     * an entity and saves it using the repository.
+     * an entity and saves it using the repository, completing once it is saved.
      */
     @Test
     void storeEvent_shouldMapAndSavePriceEventEntity() {
@@ -77,13 +74,91 @@ class EventStoreRepositoryAdapterTest {
 
         when(priceEventEntityMapper.toEntity(priceEvent)).thenReturn(entity);
         when(priceEventRepository.save(entity)).thenReturn(Mono.just(entity));
+        EventStoreRepositoryAdapter eventStoreRepositoryAdapter = adapter(4, 100);
 
         // Act
-        eventStoreRepositoryAdapter.storeEvent(priceEvent);
+        Mono<Void> result = eventStoreRepositoryAdapter.storeEvent(priceEvent);
 
         // Assert
+        verifyNoInteractions(priceEventRepository);
+        StepVerifier.create(result)
+                .verifyComplete();
         verify(priceEventEntityMapper, times(1)).toEntity(priceEvent);
         verify(priceEventRepository, times(1)).save(entity);
         verifyNoMoreInteractions(priceEventEntityMapper, priceEventRepository);
     }
+
+    /**
+     * Tests that no more saves than {@code maxInFlightWrites} run at once, the others starting as
+     * earlier ones complete.
+     */
+    @Test
+    void storeEvent_shouldLimitWritesInFlight() {
+        Sinks.One<PriceEventEntity> firstSave = Sinks.one();
+        when(priceEventEntityMapper.toEntity(any())).thenAnswer(invocation -> new PriceEventEntity());
+        when(priceEventRepository.save(any()))
+                .thenReturn(firstSave.asMono())
+                .thenReturn(Mono.never());
+        EventStoreRepositoryAdapter eventStoreRepositoryAdapter = adapter(2, 100);
+
+        Mono<Void> first = eventStoreRepositoryAdapter.storeEvent(event());
+        first.subscribe();
+        for (int i = 0; i < 4; i++) {
+            eventStoreRepositoryAdapter.storeEvent(event()).subscribe();
+        }
+        verify(priceEventRepository, times(2)).save(any());
+
+        firstSave.tryEmitValue(new PriceEventEntity());
+        verify(priceEventRepository, times(3)).save(any());
+    }
+
+    /**
+     * Tests that a write is rejected once too many writes are waiting.
+     */
+    @Test
+    void storeEvent_shouldReject_whenTooManyWritesArePending() {
+        when(priceEventEntityMapper.toEntity(any())).thenAnswer(invocation -> new PriceEventEntity());
+        when(priceEventRepository.save(any())).thenReturn(Mono.never());
+        EventStoreRepositoryAdapter eventStoreRepositoryAdapter = adapter(1, 1);
+
+        eventStoreRepositoryAdapter.storeEvent(event()).subscribe();
+        eventStoreRepositoryAdapter.storeEvent(event()).subscribe();
+
+        StepVerifier.create(eventStoreRepositoryAdapter.storeEvent(event()))
+                .verifyError(RejectedExecutionException.class);
+    }
+
+    /**
+     * Tests that a failed save is reported to the caller and does not stop later writes.
+     */
+    @Test
+    void storeEvent_shouldPropagateSaveFailure() {
+        when(priceEventEntityMapper.toEntity(any())).thenAnswer(invocation -> new PriceEventEntity());
+        when(priceEventRepository.save(any()))
+                .thenReturn(Mono.error(new IllegalStateException("Database down")))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+        EventStoreRepositoryAdapter eventStoreRepositoryAdapter = adapter(1, 10);
+
+        StepVerifier.create(eventStoreRepositoryAdapter.storeEvent(event()))
+                .verifyErrorMessage("Database down");
+        StepVerifier.create(eventStoreRepositoryAdapter.storeEvent(event()))
+                .verifyComplete();
+    }
+
+    private EventStoreRepositoryAdapter adapter(int maxInFlightWrites, int maxPendingWrites) {
+        return new EventStoreRepositoryAdapter(priceEventRepository, priceEventEntityMapper,
+                maxInFlightWrites, maxPendingWrites);
+    }
+
+    private static PriceEvent event() {
+        return PriceEvent.builder()
+                .productId(35455L)
+                .brandId(1L)
+                .priceList(1)
+                .queryDate(LocalDateTime.parse("2020-06-14T10:00:00"))
+                .price(new BigDecimal("35.50"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T10:00:01"))
+                .build();
+    }
 }
@@ -0,0 +1,86 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unit tests for {@link PriceEventBatchRepository}, run against an in-memory H2 database created
+ * from the test schema.
+ */
+class PriceEventBatchRepositoryTest {
+
+    private DatabaseClient databaseClient;
+
+    /**
+     * Instance of PriceEventBatchRepository under test.
+     */
+    private PriceEventBatchRepository repository;
+
+    /**
+     * Creates a fresh, empty database before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                .populate(connectionFactory)
+                .block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        repository = new PriceEventBatchRepository(databaseClient);
+    }
+
+    /**
+     * Tests that {@code insertAll} writes every event of the batch with a single statement.
+     */
+    @Test
+    void insertAll_shouldInsertEveryEvent() {
+        List<PriceEventEntity> events = List.of(entity(35455L, "PRICE_QUERY"), entity(35456L, "ERROR_QUERY"),
+                entity(35457L, "PRICE_QUERY"));
+
+        StepVerifier.create(repository.insertAll(events))
+                .expectNext(3L)
+                .verifyComplete();
+
+        StepVerifier.create(databaseClient.sql("SELECT product_id, event_type, price FROM price_events ORDER BY id")
+                        .map((row, metadata) -> row.get(0, Long.class) + ":" + row.get(1, String.class)
+                                + ":" + row.get(2, BigDecimal.class))
+                        .all())
+                .expectNext("35455:PRICE_QUERY:35.50", "35456:ERROR_QUERY:35.50", "35457:PRICE_QUERY:35.50")
+                .verifyComplete();
+    }
+
+    /**
+     * Tests that {@code insertAll} does not run any statement for an empty batch.
+     */
+    @Test
+    void insertAll_shouldDoNothing_whenBatchIsEmpty() {
+        StepVerifier.create(repository.insertAll(List.of()))
+                .expectNext(0L)
+                .verifyComplete();
+    }
+
+    private static PriceEventEntity entity(Long productId, String eventType) {
+        PriceEventEntity entity = new PriceEventEntity();
+        entity.setProductId(productId);
+        entity.setBrandId(1L);
+        entity.setPriceList(1);
+        entity.setQueryDate(LocalDateTime.parse("2020-06-14T10:00:00"));
+        entity.setPrice(new BigDecimal("35.50"));
+        entity.setEventType(eventType);
+        entity.setCreatedAt(LocalDateTime.parse("2020-06-14T10:00:01"));
+        return entity;
+    }
+}
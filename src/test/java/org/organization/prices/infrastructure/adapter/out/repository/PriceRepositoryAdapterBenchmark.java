@@ -0,0 +1,147 @@
+package org.organization.prices.infrastructure.adapter.out.repository;
+
+import ch.qos.logback.classic.Logger;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.organization.prices.application.port.PriceRepositoryPort;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+import org.organization.prices.infrastructure.mapper.PriceRowMapper;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Spring Data {@link PriceRepositoryAdapter} with the
+ * {@link DatabaseClientPriceRepositoryAdapter} over the same in-memory H2 table.
+ * <p>
+ * {@link #findApplicablePrice()} measures a single lookup, cycling through the groups so that
+ * no row is read twice in a row, and {@link #getAll()} streams the whole table. The database
+ * shares the JVM, so the figures leave out the network and show the cost of the client side:
+ * statement preparation, row mapping and the reactive plumbing.
+ * </p>
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) \
+ *     org.organization.prices.infrastructure.adapter.out.repository.PriceRepositoryAdapterBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PriceRepositoryAdapterBenchmark {
+
+    /**
+     * Instant every group has a price at.
+     */
+    private static final LocalDateTime LOOKUP_DATE = LocalDateTime.parse("2024-06-01T12:00:00");
+
+    /**
+     * Fills the table with one yearly price per (productId, brandId) group, ten brands per product.
+     */
+    private static final String INSERT_ROWS = "INSERT INTO prices "
+            + "(brand_id, start_date, end_date, price_list, product_id, priority, price, currency) "
+            + "SELECT MOD(x, 10), TIMESTAMP '2024-01-01 00:00:00', TIMESTAMP '2024-12-31 23:59:59', "
+            + "1, x / 10, 0, 35.50 + MOD(x, 1000), 'EUR' FROM SYSTEM_RANGE(0, :last)";
+
+    /**
+     * Adapter under test: {@code repository} or {@code database-client}.
+     */
+    @Param({"repository", "database-client"})
+    public String adapter;
+
+    /**
+     * Number of price rows in the table.
+     */
+    @Param({"100000"})
+    public int rows;
+
+    private PriceRepositoryPort port;
+    private long next;
+
+    /**
+     * Creates and fills the table, then builds the adapter under test.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Without Spring Boot, logback logs every statement at DEBUG
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                .populate(connectionFactory)
+                .block();
+        DatabaseClient databaseClient = DatabaseClient.create(connectionFactory);
+        databaseClient.sql(INSERT_ROWS).bind("last", rows - 1).then().block();
+
+        port = switch (adapter) {
+            case "repository" -> new PriceRepositoryAdapter(
+                    new R2dbcRepositoryFactory(new R2dbcEntityTemplate(connectionFactory))
+                            .getRepository(PriceRepository.class),
+                    new PriceEntityMapper());
+            case "database-client" -> new DatabaseClientPriceRepositoryAdapter(databaseClient, new PriceRowMapper());
+            default -> throw new IllegalArgumentException("Unknown adapter " + adapter);
+        };
+    }
+
+    /**
+     * Looks up the applicable price of the next group.
+     *
+     * @return the applicable price
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Price findApplicablePrice() {
+        long group = next++ % rows;
+        return port.findApplicablePrice(group / 10, group % 10, LOOKUP_DATE).block();
+    }
+
+    /**
+     * Streams every price of the table.
+     *
+     * @return the number of prices
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Long getAll() {
+        return port.getAll().count().block();
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args optional number of rows, one hundred thousand by default
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PriceRepositoryAdapterBenchmark.class.getSimpleName())
+                .param("rows", args.length > 0 ? args[0] : "100000")
+                .build()).run();
+    }
+}
@@ -2,6 +2,8 @@ package org.organization.prices.infrastructure.adapter.out.repository;
 
 import org.organization.prices.domain.execption.PriceNotFoundException;
 import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceCatalogFilter;
+import org.organization.prices.domain.model.PriceQuery;
 import org.organization.prices.infrastructure.entity.PriceEntity;
 import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,11 +11,15 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 
@@ -136,4 +142,58 @@ class PriceRepositoryAdapterTest {
         verify(mapper, never()).toDomain(any());
         verifyNoMoreInteractions(priceRepository, mapper);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that {@code findApplicablePrices} resolves every query of the batch from a single
+     * repository query, discarding rows of groups that were not requested.
+     */
+    @Test
+    void findApplicablePrices_shouldResolveBatchWithSingleQuery() {
+        // Arrange
+        LocalDateTime date = LocalDateTime.parse("2020-06-14T10:00:00");
+        PriceQuery found = new PriceQuery(35455L, 1L, date);
+        PriceQuery missing = new PriceQuery(35455L, 1L, date.minusYears(1));
+        PriceQuery otherGroup = new PriceQuery(35456L, 2L, date);
+        PriceEntity requested = new PriceEntity();
+        requested.setId(1L);
+        PriceEntity notRequested = new PriceEntity();
+        notRequested.setId(2L);
+        Price price = new Price(1L, date.minusHours(10), date.plusDays(1), 1, 35455L, 0, new BigDecimal("35.50"), "EUR");
+        Price crossProductPrice = new Price(2L, date.minusHours(10), date.plusDays(1), 1, 35455L, 0, new BigDecimal("20.00"), "EUR");
+
+        when(priceRepository.findByProductIdInAndBrandIdIn(anyCollection(), anyCollection()))
+                .thenReturn(Flux.just(requested, notRequested));
+        when(mapper.toDomain(requested)).thenReturn(price);
+        when(mapper.toDomain(notRequested)).thenReturn(crossProductPrice);
+
+        // Act
+        Mono<Map<PriceQuery, Price>> result = priceRepositoryAdapter.findApplicablePrices(List.of(found, missing, otherGroup));
+
+        // Assert
+        StepVerifier.create(result)
+                .expectNext(Map.of(found, price))
+                .verifyComplete();
+
+        verify(priceRepository, times(1)).findByProductIdInAndBrandIdIn(Set.of(35455L, 35456L), Set.of(1L, 2L));
+    }
+
+    /**
+     * Tests that {@code streamAll} queries the ranges of the filter, opening unset bounds.
+     */
+    @Test
+    void streamAll_shouldQueryFilterRanges() {
+        // Arrange
+        PriceEntity priceEntity = new PriceEntity();
+        Price price = new Price();
+        when(priceRepository.findAllInRange(35455L, Long.MAX_VALUE, 0L, 1L)).thenReturn(Flux.just(priceEntity));
+        when(mapper.toDomain(priceEntity)).thenReturn(price);
+
+        // Act
+        Flux<Price> result = priceRepositoryAdapter.streamAll(new PriceCatalogFilter(35455L, null, null, 1L));
+
+        // Assert
+        StepVerifier.create(result)
+                .expectNext(price)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,91 @@
+package org.organization.prices.infrastructure.adapter.out.retention;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PriceEventArchive}.
+ * <p>
+ * Verifies that events, single and aggregated, are read back as written across row groups,
+ * and that an archive that is not committed leaves no file behind.
+ * </p>
+ */
+class PriceEventArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Tests that every column, missing values included, survives a round trip.
+     */
+    @Test
+    void read_shouldReturnAppendedEvents() throws IOException {
+        List<PriceEventEntity> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            events.add(event(i));
+        }
+        Path path = directory.resolve("archive").resolve("PRICE_EVENTS_P202610171000.pcol.gz");
+
+        try (PriceEventArchive archive = PriceEventArchive.create(path)) {
+            archive.append(events.subList(0, 600));
+            archive.append(List.of());
+            archive.append(events.subList(600, 1000));
+            assertEquals(1000, archive.commit());
+        }
+
+        assertEquals(events, PriceEventArchive.read(path));
+        assertTrue(Files.size(path) < 1000 * 20, "Archive of " + Files.size(path) + " bytes");
+        assertFalse(Files.exists(path.resolveSibling(path.getFileName() + ".tmp")));
+    }
+
+    /**
+     * Tests that closing an archive that was not committed discards it.
+     */
+    @Test
+    void close_shouldDiscardUncommittedArchive() throws IOException {
+        Path path = directory.resolve("PRICE_EVENTS_P202610171000.pcol.gz");
+
+        try (PriceEventArchive archive = PriceEventArchive.create(path)) {
+            archive.append(List.of(event(1)));
+        }
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        Files.writeString(path, "not an archive");
+        assertThrows(IOException.class, () -> PriceEventArchive.read(path));
+    }
+
+    private static PriceEventEntity event(int i) {
+        PriceEventEntity event = new PriceEventEntity();
+        event.setId(1000L + i);
+        event.setProductId(35455L + i % 3);
+        event.setBrandId(1L);
+        event.setPriceList(1 + i % 4);
+        event.setQueryDate(LocalDateTime.parse("2020-06-14T10:00:00").plusSeconds(i));
+        event.setPrice(new BigDecimal("35.50").add(BigDecimal.valueOf(i % 7)));
+        event.setEventType(i % 10 == 0 ? "PRICE_QUERY_AGGREGATE" : "PRICE_QUERY");
+        event.setCreatedAt(LocalDateTime.parse("2026-10-17T10:00:00.123456789").plusNanos(i * 1_000_000L));
+        if (i % 10 == 0) {
+            event.setEventCount((long) i);
+            event.setWindowStart(LocalDateTime.parse("2026-10-17T10:00:00"));
+            event.setWindowEnd(LocalDateTime.parse("2026-10-17T10:00:01"));
+            event.setFirstQueryAt(LocalDateTime.parse("2026-10-17T10:00:00.1"));
+            event.setLastQueryAt(LocalDateTime.parse("2026-10-17T10:00:00.9"));
+            event.setMinPrice(new BigDecimal("25.45"));
+            event.setMaxPrice(new BigDecimal("-38.95"));
+        }
+        return event;
+    }
+}
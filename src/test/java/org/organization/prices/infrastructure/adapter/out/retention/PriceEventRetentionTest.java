@@ -0,0 +1,255 @@
+package org.organization.prices.infrastructure.adapter.out.retention;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventBatchRepository;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceEventPartitionRepository;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PriceEventRetention}, run against an in-memory H2 database created
+ * from the test schema, with hourly partitions kept for two hours.
+ */
+class PriceEventRetentionTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.parse("2026-10-17T10:20:00");
+
+    private DatabaseClient databaseClient;
+
+    private PriceEventBatchRepository batchRepository;
+
+    private PriceEventPartitionRepository partitionRepository;
+
+    /**
+     * Registry the retention metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Directory the partitions are archived to.
+     */
+    @TempDir
+    Path archivePath;
+
+    /**
+     * Time the retention clock is at.
+     */
+    private LocalDateTime now = NOW;
+
+    /**
+     * Creates a fresh database, holding the initial partition only.
+     */
+    @BeforeEach
+    void setUp() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(
+                "r2dbc:h2:mem:///" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                .populate(connectionFactory)
+                .block();
+        databaseClient = DatabaseClient.create(connectionFactory);
+        batchRepository = new PriceEventBatchRepository(databaseClient);
+        partitionRepository = new PriceEventPartitionRepository(databaseClient);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    /**
+     * Tests that events are named after the start of their period.
+     */
+    @Test
+    void partitionOf_shouldTruncateToThePeriod() {
+        assertEquals("PRICE_EVENTS_P202610171000", retention(null, false).partitionOf(NOW));
+        PriceEventRetention quarters = new PriceEventRetention(partitionRepository, meterRegistry, true,
+                Duration.ofMinutes(15), Duration.ofHours(1), Duration.ofMinutes(1), null, false, Clock.systemUTC());
+        assertEquals("PRICE_EVENTS_P202610171015", quarters.partitionOf(NOW));
+        assertThrows(IllegalArgumentException.class, () -> new PriceEventRetention(partitionRepository,
+                meterRegistry, true, Duration.ofSeconds(30), Duration.ofHours(1), Duration.ofMinutes(1), null,
+                false, Clock.systemUTC()));
+    }
+
+    /**
+     * Tests that a new period switches {@code PRICE_EVENTS} to a new partition, later events
+     * being written to it while the sealed one keeps its events.
+     */
+    @Test
+    void maintain_shouldRollOverToThePartitionOfThePeriod() {
+        PriceEventRetention retention = retention(null, false);
+        insert(3);
+
+        maintainAt(retention, NOW);
+        insert(2);
+
+        assertEquals("PRICE_EVENTS_P202610171000", partitionRepository.findCurrentPartition().block());
+        assertEquals(List.of("PRICE_EVENTS_P000000000000", "PRICE_EVENTS_P202610171000"),
+                partitionRepository.findPartitions().collectList().block());
+        assertEquals(3, count("PRICE_EVENTS_P000000000000"));
+        assertEquals(2, count("PRICE_EVENTS"));
+        assertEquals(2.0, meterRegistry.get("prices.events.partitions").gauge().value());
+
+        maintainAt(retention, NOW.plusMinutes(30));
+        assertEquals("PRICE_EVENTS_P202610171000", partitionRepository.findCurrentPartition().block());
+    }
+
+    /**
+     * Tests that in outbox mode the unpublished events of the sealed partition are moved to the new one.
+     */
+    @Test
+    void maintain_shouldMoveUnpublishedEvents_whenOutboxIsEnabled() {
+        PriceEventRetention retention = retention(null, true);
+        insert(4);
+        databaseClient.sql("UPDATE price_events SET published = TRUE WHERE id <= 2").then().block();
+
+        maintainAt(retention, NOW);
+
+        assertEquals(2, count("PRICE_EVENTS_P000000000000"));
+        assertEquals(2, count("PRICE_EVENTS"));
+        assertEquals(List.of(3L, 4L), databaseClient.sql("SELECT id FROM price_events ORDER BY id")
+                .map((row, metadata) -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .block());
+    }
+
+    /**
+     * Tests that in outbox mode events committed to a sealed partition after the switch are moved
+     * at the next check, and survive the partition being dropped.
+     */
+    @Test
+    void maintain_shouldMoveLateEventsOfSealedPartitions_whenOutboxIsEnabled() {
+        PriceEventRetention retention = retention(null, true);
+        maintainAt(retention, NOW);
+        maintainAt(retention, NOW.plusHours(1));
+        databaseClient.sql("INSERT INTO PRICE_EVENTS_P202610171000 (product_id, brand_id, price_list, query_date, "
+                        + "price, event_type, created_at) VALUES (7, 1, 1, '2020-06-14 10:00:00', 35.50, "
+                        + "'PRICE_QUERY', '2020-06-14 10:00:01')")
+                .then()
+                .block();
+
+        maintainAt(retention, NOW.plusHours(1).plusMinutes(1));
+        assertEquals(0, count("PRICE_EVENTS_P202610171000"));
+        assertEquals(1, count("PRICE_EVENTS"));
+
+        maintainAt(retention, NOW.plusHours(4));
+        assertEquals(List.of("PRICE_EVENTS_P202610171100", "PRICE_EVENTS_P202610171400"),
+                partitionRepository.findPartitions().collectList().block());
+        assertEquals(1, count("PRICE_EVENTS_P202610171400"));
+        assertEquals(1, count("PRICE_EVENTS"));
+    }
+
+    /**
+     * Tests that a partition is archived then dropped once its period ended longer than the
+     * retention ago, and that the archive holds its events.
+     */
+    @Test
+    void maintain_shouldArchiveAndDropExpiredPartitions() throws Exception {
+        PriceEventRetention retention = retention(archivePath, false);
+        maintainAt(retention, NOW);
+        insert(5);
+        maintainAt(retention, NOW.plusHours(1));
+        maintainAt(retention, NOW.plusHours(2));
+        assertEquals(List.of("PRICE_EVENTS_P202610171000", "PRICE_EVENTS_P202610171100",
+                "PRICE_EVENTS_P202610171200"), partitionRepository.findPartitions().collectList().block());
+
+        maintainAt(retention, NOW.plusHours(3));
+
+        assertEquals(List.of("PRICE_EVENTS_P202610171100", "PRICE_EVENTS_P202610171200",
+                "PRICE_EVENTS_P202610171300"), partitionRepository.findPartitions().collectList().block());
+        List<PriceEventEntity> archived = PriceEventArchive.read(archivePath.resolve("PRICE_EVENTS_P202610171000.pcol.gz"));
+        assertEquals(5, archived.size());
+        assertEquals(new BigDecimal("35.50"), archived.get(0).getPrice());
+        assertTrue(Files.exists(archivePath.resolve("PRICE_EVENTS_P000000000000.pcol.gz")));
+        assertEquals(2.0, meterRegistry.get("prices.events.partitions.dropped").counter().count());
+        assertEquals(2.0, meterRegistry.get("prices.events.partitions.archived").counter().count());
+        assertEquals(3.0, meterRegistry.get("prices.events.partitions").gauge().value());
+    }
+
+    /**
+     * Tests that a partition that cannot be archived is kept.
+     */
+    @Test
+    void maintain_shouldKeepPartition_whenArchivingFails() throws Exception {
+        PriceEventRetention retention = retention(Files.createFile(archivePath.resolve("file")), false);
+        maintainAt(retention, NOW);
+
+        maintainAt(retention, NOW.plusHours(3));
+
+        assertEquals(List.of("PRICE_EVENTS_P000000000000", "PRICE_EVENTS_P202610171000",
+                        "PRICE_EVENTS_P202610171300"),
+                partitionRepository.findPartitions().collectList().block());
+        assertEquals(0.0, meterRegistry.get("prices.events.partitions.dropped").counter().count());
+    }
+
+    private PriceEventRetention retention(Path archive, boolean outboxEnabled) {
+        Clock clock = new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public Instant instant() {
+                return now.toInstant(ZoneOffset.UTC);
+            }
+        };
+        return new PriceEventRetention(partitionRepository, meterRegistry, true, Duration.ofHours(1),
+                Duration.ofHours(2), Duration.ofMinutes(1), archive, outboxEnabled, clock);
+    }
+
+    private void maintainAt(PriceEventRetention retention, LocalDateTime time) {
+        now = time;
+        StepVerifier.create(retention.maintain())
+                .verifyComplete();
+    }
+
+    private void insert(int events) {
+        batchRepository.insertAll(IntStream.range(0, events)
+                .mapToObj(i -> entity((long) i))
+                .toList()).block();
+    }
+
+    private long count(String table) {
+        return databaseClient.sql("SELECT COUNT(*) FROM " + table)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    private static PriceEventEntity entity(Long productId) {
+        PriceEventEntity entity = new PriceEventEntity();
+        entity.setProductId(productId);
+        entity.setBrandId(1L);
+        entity.setPriceList(1);
+        entity.setQueryDate(LocalDateTime.parse("2020-06-14T10:00:00"));
+        entity.setPrice(new BigDecimal("35.50"));
+        entity.setEventType("PRICE_QUERY");
+        entity.setCreatedAt(LocalDateTime.parse("2020-06-14T10:00:01"));
+        return entity;
+    }
+}
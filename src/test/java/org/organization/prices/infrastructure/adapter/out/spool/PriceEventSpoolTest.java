@@ -0,0 +1,183 @@
+package org.organization.prices.infrastructure.adapter.out.spool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.organization.prices.domain.model.PriceEvent;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PriceEventSpool}.
+ * <p>
+ * Verifies the round trip of the events, the rotation and deletion of segments, the recovery
+ * of the segments left by a previous run and the size limit.
+ * </p>
+ */
+class PriceEventSpoolTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2020-06-14T10:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Instance of PriceEventSpool under test, closed after each test.
+     */
+    private PriceEventSpool spool;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (spool != null) {
+            spool.close();
+        }
+    }
+
+    /**
+     * Tests that events are read back in append order, with every field, and removed once committed.
+     */
+    @Test
+    void read_shouldReturnEventsInAppendOrderUntilCommitted() throws IOException {
+        spool = new PriceEventSpool(directory, 1024 * 1024, 1024 * 1024, CLOCK);
+        PriceEvent partial = PriceEvent.builder().productId(3L).eventType("ERROR_QUERY").build();
+        spool.append(event(1));
+        spool.append(event(2));
+        spool.append(partial);
+
+        PriceEventSpool.Batch first = spool.read(2);
+        assertEquals(List.of(event(1), event(2)), first.events());
+        assertEquals(first.events(), spool.read(2).events(), "Reading does not move the cursor");
+
+        spool.commit(first);
+        assertEquals(List.of(partial), spool.read(10).events());
+        assertEquals(CLOCK.millis(), spool.oldestSpooledAt());
+
+        spool.commit(spool.read(10));
+        assertTrue(spool.isEmpty());
+        assertEquals(0, spool.sizeBytes());
+        assertEquals(-1, spool.oldestSpooledAt());
+        assertTrue(spool.read(10).events().isEmpty());
+    }
+
+    /**
+     * Tests that the aggregate fields of an event are read back, next to events without them.
+     */
+    @Test
+    void read_shouldReturnAggregateFields() throws IOException {
+        spool = new PriceEventSpool(directory, 1024 * 1024, 1024 * 1024, CLOCK);
+        PriceEvent aggregate = event(2);
+        aggregate.setEventCount(12L);
+        aggregate.setWindowStart(LocalDateTime.parse("2020-06-14T10:00:00"));
+        aggregate.setWindowEnd(LocalDateTime.parse("2020-06-14T10:00:01"));
+        aggregate.setFirstQueryAt(LocalDateTime.parse("2020-06-14T10:00:00.001"));
+        aggregate.setLastQueryAt(LocalDateTime.parse("2020-06-14T10:00:00.999"));
+        aggregate.setMinPrice(new BigDecimal("25.45"));
+        aggregate.setMaxPrice(new BigDecimal("38.95"));
+        spool.append(event(1));
+        spool.append(aggregate);
+        spool.append(PriceEvent.builder().eventCount(1L).build());
+
+        assertEquals(List.of(event(1), aggregate, PriceEvent.builder().eventCount(1L).build()),
+                spool.read(10).events());
+    }
+
+    /**
+     * Tests that full segments are rotated, and deleted once read past.
+     */
+    @Test
+    void commit_shouldDeleteSegmentsReadPast() throws IOException {
+        spool = new PriceEventSpool(directory, 200, 1024 * 1024, CLOCK);
+        for (long productId = 0; productId < 20; productId++) {
+            assertTrue(spool.append(event(productId)));
+        }
+        int segments = spool.segmentCount();
+        assertTrue(segments > 1, "Segments should rotate: " + segments);
+        assertEquals(segments, segmentFiles().size());
+
+        List<Long> replayed = new ArrayList<>();
+        while (!spool.isEmpty()) {
+            PriceEventSpool.Batch batch = spool.read(3);
+            batch.events().forEach(event -> replayed.add(event.getProductId()));
+            spool.commit(batch);
+        }
+
+        assertEquals(LongStream.range(0, 20).boxed().toList(), replayed);
+        assertEquals(1, segmentFiles().size());
+        assertThrows(IllegalStateException.class, () -> spool.commit(new PriceEventSpool.Batch(0, 0, 10, List.of())));
+    }
+
+    /**
+     * Tests that a reopened spool holds the events of the previous run, cut at a torn record.
+     */
+    @Test
+    void open_shouldRecoverSegmentsAndCutTornRecord() throws IOException {
+        spool = new PriceEventSpool(directory, 1024 * 1024, 1024 * 1024, CLOCK);
+        spool.append(event(1));
+        spool.append(event(2));
+        long validBytes = spool.sizeBytes();
+        spool.close();
+        Path segment = segmentFiles().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[]{42, 0, 0, 0, 1, 2, 3}));
+        }
+
+        spool = new PriceEventSpool(directory, 1024 * 1024, 1024 * 1024, CLOCK);
+
+        assertEquals(validBytes, spool.sizeBytes());
+        assertEquals(validBytes, Files.size(segment));
+        spool.append(event(3));
+        assertEquals(List.of(event(1), event(2), event(3)), spool.read(10).events());
+    }
+
+    /**
+     * Tests that events beyond the maximum size are refused.
+     */
+    @Test
+    void append_shouldRefuseEvents_whenSpoolIsFull() throws IOException {
+        spool = new PriceEventSpool(directory, 1024 * 1024, 200, CLOCK);
+
+        int appended = 0;
+        while (spool.append(event(appended))) {
+            appended++;
+        }
+
+        assertTrue(appended > 0);
+        assertTrue(spool.sizeBytes() <= 200);
+        spool.commit(spool.read(1));
+        assertTrue(spool.append(event(99)), "Committing makes room");
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static PriceEvent event(long productId) {
+        return PriceEvent.builder()
+                .productId(productId)
+                .brandId(1L)
+                .priceList(4)
+                .queryDate(LocalDateTime.parse("2020-06-14T10:00:00.123456789"))
+                .price(new BigDecimal("38.95"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T10:00:01"))
+                .build();
+    }
+}
@@ -0,0 +1,204 @@
+package org.organization.prices.infrastructure.adapter.out.spool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.adapter.out.kafka.KafkaEventPublisherAdapter;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link SpoolingEventPublisherAdapter}, with a mocked Kafka publisher that can be
+ * switched off and on.
+ * <p>
+ * Verifies that unpublished events are spooled instead of dropped, that later events queue up
+ * behind them, and that the spool is replayed in order once Kafka is back.
+ * </p>
+ */
+class SpoolingEventPublisherAdapterTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2020-06-14T10:00:00Z"), ZoneOffset.UTC);
+
+    /**
+     * Mock of the Kafka publisher.
+     */
+    @Mock
+    private KafkaEventPublisherAdapter kafkaPublisher;
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Whether the mocked publisher takes events.
+     */
+    private final AtomicBoolean kafkaAvailable = new AtomicBoolean(true);
+
+    /**
+     * Registry the spool metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    private PriceEventSpool spool;
+
+    /**
+     * Instance of SpoolingEventPublisherAdapter under test, replaying only on demand.
+     */
+    private SpoolingEventPublisherAdapter publisher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(kafkaPublisher.isEnabled()).thenReturn(true);
+        when(kafkaPublisher.send(any(PriceEvent.class))).thenAnswer(invocation -> kafkaAvailable.get()
+                ? Mono.empty()
+                : Mono.error(new IllegalStateException("Circuit breaker open")));
+        spool = new PriceEventSpool(directory, 1024 * 1024, 1024 * 1024, CLOCK);
+        publisher = new SpoolingEventPublisherAdapter(kafkaPublisher, spool, 2, Duration.ofHours(1), CLOCK,
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        publisher.stop();
+    }
+
+    /**
+     * Tests that events are sent straight to Kafka while it takes them.
+     */
+    @Test
+    void publishEvent_shouldSendEvent_whenKafkaIsAvailable() {
+        StepVerifier.create(publisher.publishEvent(event(1)))
+                .verifyComplete();
+
+        verify(kafkaPublisher).send(event(1));
+        assertTrue(spool.isEmpty());
+    }
+
+    /**
+     * Tests that a failed event is spooled, and the next ones spooled behind it without being sent.
+     */
+    @Test
+    void publishEvent_shouldSpoolEvents_whenKafkaFails() {
+        kafkaAvailable.set(false);
+        StepVerifier.create(publisher.publishEvent(event(1)))
+                .verifyComplete();
+        kafkaAvailable.set(true);
+        StepVerifier.create(publisher.publishEvent(event(2)))
+                .verifyComplete();
+
+        verify(kafkaPublisher, times(1)).send(any(PriceEvent.class));
+        assertEquals(2.0, meterRegistry.get("prices.events.spool.appended").counter().count());
+        assertTrue(meterRegistry.get("prices.events.spool.size").gauge().value() > 0);
+        assertEquals(0.0, meterRegistry.get("prices.events.spool.oldest.age").timeGauge().value());
+    }
+
+    /**
+     * Tests that an event published while the append of a failed one is still being written is
+     * appended behind it rather than sent ahead of it.
+     */
+    @Test
+    void publishEvent_shouldNotOvertakeFailedEvent_whileItIsBeingSpooled() throws Exception {
+        CountDownLatch appending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        publisher.stop();
+        PriceEventSpool slowSpool = spy(new PriceEventSpool(directory.resolve("slow"), 1024 * 1024, 1024 * 1024, CLOCK));
+        doAnswer(invocation -> {
+            appending.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return invocation.callRealMethod();
+        }).doCallRealMethod().when(slowSpool).append(any(PriceEvent.class));
+        publisher = new SpoolingEventPublisherAdapter(kafkaPublisher, slowSpool, 2, Duration.ofHours(1), CLOCK,
+                meterRegistry);
+
+        kafkaAvailable.set(false);
+        Mono<Void> first = publisher.publishEvent(event(1)).cache();
+        first.subscribe();
+        assertTrue(appending.await(5, TimeUnit.SECONDS));
+        kafkaAvailable.set(true);
+        Mono<Void> second = publisher.publishEvent(event(2)).cache();
+        second.subscribe();
+        release.countDown();
+
+        StepVerifier.create(first.then(second)).verifyComplete();
+        verify(kafkaPublisher, times(1)).send(any(PriceEvent.class));
+        assertEquals(List.of(1L, 2L), slowSpool.read(10).events().stream().map(PriceEvent::getProductId).toList());
+    }
+
+    /**
+     * Tests that the spool is replayed in batches and in order once Kafka is back, and left as is
+     * while it is not.
+     */
+    @Test
+    void replay_shouldSendSpooledEventsInOrder_onceKafkaIsBack() {
+        kafkaAvailable.set(false);
+        for (long productId = 1; productId <= 5; productId++) {
+            publisher.publishEvent(event(productId)).block();
+        }
+
+        StepVerifier.create(publisher.replay())
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertFalse(spool.isEmpty());
+
+        kafkaAvailable.set(true);
+        clearInvocations(kafkaPublisher);
+        StepVerifier.create(publisher.replay())
+                .verifyComplete();
+
+        ArgumentCaptor<PriceEvent> sent = ArgumentCaptor.forClass(PriceEvent.class);
+        verify(kafkaPublisher, times(5)).send(sent.capture());
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), sent.getAllValues().stream().map(PriceEvent::getProductId).toList());
+        assertTrue(spool.isEmpty());
+        assertEquals(5.0, meterRegistry.get("prices.events.spool.replayed").counter().count());
+    }
+
+    /**
+     * Tests that nothing is sent nor spooled when publishing is disabled.
+     */
+    @Test
+    void publishEvent_shouldDoNothing_whenKafkaIsDisabled() {
+        when(kafkaPublisher.isEnabled()).thenReturn(false);
+
+        StepVerifier.create(publisher.publishEvent(event(1)))
+                .verifyComplete();
+
+        verify(kafkaPublisher, never()).send(any(PriceEvent.class));
+        assertTrue(spool.isEmpty());
+    }
+
+    private static PriceEvent event(long productId) {
+        return PriceEvent.builder()
+                .productId(productId)
+                .brandId(1L)
+                .priceList(1)
+                .queryDate(LocalDateTime.parse("2020-06-14T10:00:00"))
+                .price(new BigDecimal("35.50"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T10:00:01"))
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package org.organization.prices.infrastructure.adapter.out.sync;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.organization.prices.infrastructure.adapter.out.repository.PriceRepository;
+import org.organization.prices.infrastructure.entity.PriceEntity;
+import org.organization.prices.infrastructure.mapper.PriceEntityMapper;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link PriceTableSynchronizer}.
+ * <p>
+ * Verifies the snapshot, the resumption from a restored watermark, the watermark-based polling
+ * and the readiness it reports.
+ * </p>
+ */
+class PriceTableSynchronizerTest {
+
+    /**
+     * Mock of the PriceRepository the table is read through.
+     */
+    @Mock
+    private PriceRepository priceRepository;
+
+    /**
+     * Mock of the structure kept in sync.
+     */
+    @Mock
+    private PriceTableListener listener;
+
+    /**
+     * Registry the synchronisation metrics are published to.
+     */
+    private SimpleMeterRegistry meterRegistry;
+
+    /**
+     * Instance of PriceTableSynchronizer under test.
+     */
+    private PriceTableSynchronizer synchronizer;
+
+    /**
+     * Time of the last change of the rows in the snapshot.
+     */
+    private final LocalDateTime loadedAt = LocalDateTime.parse("2024-01-01T10:00:00");
+
+    /**
+     * Initializes mocks and the synchronizer before each test method.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        synchronizer = new PriceTableSynchronizer(priceRepository, new PriceEntityMapper(), meterRegistry,
+                true, Duration.ofSeconds(5));
+        synchronizer.register(listener);
+        when(listener.onChange(anyList())).thenReturn(Mono.empty());
+    }
+
+    /**
+     * Tests that the snapshot is handed to the listeners and marks the synchronizer as ready.
+     */
+    @Test
+    void loadSnapshot_shouldApplyWholeTableAndBecomeReady() {
+        when(priceRepository.findAllPrices()).thenReturn(Flux.just(entity(1L, 0L, loadedAt), entity(2L, 0L, loadedAt)));
+
+        assertFalse(synchronizer.isSnapshotLoaded());
+        StepVerifier.create(synchronizer.loadSnapshot()).verifyComplete();
+
+        assertTrue(synchronizer.isSnapshotLoaded());
+        assertEquals(loadedAt, synchronizer.getWatermark());
+        verify(listener).onSnapshot(argThat(prices -> prices.size() == 2));
+        assertEquals(2.0, meterRegistry.get("prices.sync.rows.applied").tag("phase", "snapshot").counter().count());
+    }
+
+    /**
+     * Tests that a poll only applies rows changed after the snapshot, skipping the rows already
+     * applied on the watermark.
+     */
+    @Test
+    void pollChanges_shouldApplyOnlyNewVersionsSinceWatermark() {
+        LocalDateTime changedAt = loadedAt.plusMinutes(1);
+        when(priceRepository.findAllPrices()).thenReturn(Flux.just(entity(1L, 0L, loadedAt), entity(2L, 0L, loadedAt)));
+        when(priceRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(loadedAt))
+                .thenReturn(Flux.just(entity(1L, 0L, loadedAt), entity(2L, 1L, changedAt)));
+        when(priceRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(changedAt))
+                .thenReturn(Flux.just(entity(2L, 1L, changedAt)));
+
+        StepVerifier.create(synchronizer.loadSnapshot()).verifyComplete();
+        StepVerifier.create(synchronizer.pollChanges()).expectNext(1).verifyComplete();
+        StepVerifier.create(synchronizer.pollChanges()).expectNext(0).verifyComplete();
+
+        verify(listener, times(1)).onChange(argThat(changed -> changed.size() == 1));
+        assertEquals(changedAt, synchronizer.getWatermark());
+        assertEquals(1.0, meterRegistry.get("prices.sync.rows.applied").tag("phase", "incremental").counter().count());
+    }
+
+    /**
+     * Tests that changes a listener failed to apply are delivered again by the next poll.
+     */
+    @Test
+    void pollChanges_shouldKeepWatermarkWhenListenerFails() {
+        LocalDateTime changedAt = loadedAt.plusMinutes(1);
+        when(priceRepository.findAllPrices()).thenReturn(Flux.just(entity(1L, 0L, loadedAt)));
+        when(priceRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(loadedAt))
+                .thenReturn(Flux.just(entity(1L, 1L, changedAt)));
+        when(listener.onChange(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("boom")))
+                .thenReturn(Mono.empty());
+
+        StepVerifier.create(synchronizer.loadSnapshot()).verifyComplete();
+        StepVerifier.create(synchronizer.pollChanges()).verifyError(IllegalStateException.class);
+        assertEquals(loadedAt, synchronizer.getWatermark());
+        StepVerifier.create(synchronizer.pollChanges()).expectNext(1).verifyComplete();
+        assertEquals(changedAt, synchronizer.getWatermark());
+    }
+
+    /**
+     * Tests that a watermark restored by a listener replaces the snapshot with the changes since.
+     */
+    @Test
+    void start_shouldResumeFromRestoredWatermark() {
+        LocalDateTime changedAt = loadedAt.plusMinutes(1);
+        when(listener.restoredWatermark()).thenReturn(Optional.of(loadedAt));
+        when(priceRepository.findByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(loadedAt))
+                .thenReturn(Flux.just(entity(1L, 1L, changedAt)));
+
+        synchronizer.start();
+        synchronizer.stop();
+
+        assertTrue(synchronizer.isSnapshotLoaded());
+        assertEquals(changedAt, synchronizer.getWatermark());
+        verify(priceRepository, never()).findAllPrices();
+        verify(listener, never()).onSnapshot(anyList());
+        verify(listener).onChange(argThat(changed -> changed.size() == 1));
+    }
+
+    /**
+     * Tests that a disabled synchronizer reports itself ready without loading anything.
+     */
+    @Test
+    void isSnapshotLoaded_shouldBeTrueWhenDisabled() {
+        PriceTableSynchronizer disabled = new PriceTableSynchronizer(priceRepository, new PriceEntityMapper(),
+                new SimpleMeterRegistry(), false, Duration.ofSeconds(5));
+
+        disabled.start();
+
+        assertTrue(disabled.isSnapshotLoaded());
+        verifyNoInteractions(priceRepository);
+    }
+
+    /**
+     * Builds a price entity of product 35455 and brand 1.
+     */
+    private PriceEntity entity(Long id, Long version, LocalDateTime updatedAt) {
+        PriceEntity entity = new PriceEntity();
+        entity.setId(id);
+        entity.setBrandId(1L);
+        entity.setProductId(35455L);
+        entity.setStartDate(LocalDateTime.parse("2020-06-14T00:00:00"));
+        entity.setEndDate(LocalDateTime.parse("2020-12-31T23:59:59"));
+        entity.setPriceList(1);
+        entity.setPriority(0);
+        entity.setPrice(new BigDecimal("35.50"));
+        entity.setCurrency("EUR");
+        entity.setVersion(version);
+        entity.setUpdatedAt(updatedAt);
+        return entity;
+    }
+}
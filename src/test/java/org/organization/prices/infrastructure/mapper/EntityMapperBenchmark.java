@@ -0,0 +1,140 @@
+package org.organization.prices.infrastructure.mapper;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.entity.PriceEntity;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the explicit entity mappers with the ModelMapper configurations they replace, on the
+ * conversions of the hot paths: reading a price row and storing a price event.
+ * <p>
+ * Run with the GC profiler, which reports the bytes allocated per call as
+ * {@code gc.alloc.rate.norm}.
+ * </p>
+ * <pre>
+ * mvn -B test-compile dependency:build-classpath -Dmdep.outputFile=target/test.classpath
+ * java -cp target/test-classes:target/classes:$(cat target/test.classpath) \
+ *     org.organization.prices.infrastructure.mapper.EntityMapperBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityMapperBenchmark {
+
+    private PriceEntityMapper priceMapper;
+    private PriceEventEntityMapper eventMapper;
+    private ModelMapper priceModelMapper;
+    private ModelMapper eventModelMapper;
+    private PriceEntity priceEntity;
+    private PriceEvent event;
+
+    /**
+     * Builds the mappers and the objects to convert.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        priceMapper = new PriceEntityMapper();
+        eventMapper = new PriceEventEntityMapper();
+        priceModelMapper = PriceEntityMapperTest.modelMapper();
+        eventModelMapper = PriceEventEntityMapperTest.modelMapper();
+
+        priceEntity = new PriceEntity();
+        priceEntity.setId(1L);
+        priceEntity.setBrandId(1L);
+        priceEntity.setStartDate(LocalDateTime.parse("2020-06-14T15:00:00"));
+        priceEntity.setEndDate(LocalDateTime.parse("2020-06-14T18:30:00"));
+        priceEntity.setPriceList(2);
+        priceEntity.setProductId(35455L);
+        priceEntity.setPriority(1);
+        priceEntity.setPrice(new BigDecimal("25.45"));
+        priceEntity.setCurrency("EUR");
+
+        event = PriceEvent.builder()
+                .productId(35455L)
+                .brandId(1L)
+                .priceList(2)
+                .queryDate(LocalDateTime.parse("2020-06-14T16:00:00"))
+                .price(new BigDecimal("25.45"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T16:00:01"))
+                .build();
+    }
+
+    /**
+     * Maps a price row with {@link PriceEntityMapper}.
+     *
+     * @return the price
+     */
+    @Benchmark
+    public Price priceToDomain() {
+        return priceMapper.toDomain(priceEntity);
+    }
+
+    /**
+     * Maps a price row with ModelMapper.
+     *
+     * @return the price
+     */
+    @Benchmark
+    public Price priceToDomainModelMapper() {
+        return priceModelMapper.map(priceEntity, Price.class);
+    }
+
+    /**
+     * Maps a price event with {@link PriceEventEntityMapper}.
+     *
+     * @return the entity to store
+     */
+    @Benchmark
+    public PriceEventEntity eventToEntity() {
+        return eventMapper.toEntity(event);
+    }
+
+    /**
+     * Maps a price event with ModelMapper.
+     *
+     * @return the entity to store
+     */
+    @Benchmark
+    public PriceEventEntity eventToEntityModelMapper() {
+        return eventModelMapper.map(event, PriceEventEntity.class);
+    }
+
+    /**
+     * Runs the benchmark with the GC profiler.
+     *
+     * @param args ignored
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntityMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
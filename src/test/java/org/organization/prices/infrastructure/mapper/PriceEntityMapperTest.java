@@ -0,0 +1,99 @@
+package org.organization.prices.infrastructure.mapper;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration;
+import org.organization.prices.domain.model.Price;
+import org.organization.prices.infrastructure.entity.PriceEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link PriceEntityMapper}.
+ * <p>
+ * The explicit copies must give the same result as the ModelMapper configuration they replace,
+ * which is rebuilt here as {@link #modelMapper()}.
+ * </p>
+ */
+class PriceEntityMapperTest {
+
+    /**
+     * Instance of PriceEntityMapper under test.
+     */
+    private final PriceEntityMapper mapper = new PriceEntityMapper();
+
+    /**
+     * Tests that {@code toDomain} copies every field the ModelMapper configuration copied.
+     */
+    @Test
+    void toDomain_shouldMatchModelMapper() {
+        PriceEntity entity = entity();
+
+        Price price = mapper.toDomain(entity);
+
+        assertEquals(modelMapper().map(entity, Price.class), price);
+        assertEquals(new Price(1L, LocalDateTime.parse("2020-06-14T15:00:00"),
+                LocalDateTime.parse("2020-06-14T18:30:00"), 2, 35455L, 1,
+                new BigDecimal("25.45"), "EUR"), price);
+    }
+
+    /**
+     * Tests that {@code toEntity} copies every field the ModelMapper configuration copied,
+     * leaving the ID, version and update timestamp unset.
+     */
+    @Test
+    void toEntity_shouldMatchModelMapper() {
+        Price price = mapper.toDomain(entity());
+
+        PriceEntity entity = mapper.toEntity(price);
+
+        assertEquals(modelMapper().map(price, PriceEntity.class), entity);
+        assertNull(entity.getId());
+        assertNull(entity.getVersion());
+        assertNull(entity.getUpdatedAt());
+        assertEquals(new BigDecimal("25.45"), entity.getPrice());
+    }
+
+    /**
+     * Tests that both conversions map {@code null} to {@code null}.
+     */
+    @Test
+    void shouldReturnNull_whenSourceIsNull() {
+        assertNull(mapper.toDomain(null));
+        assertNull(mapper.toEntity(null));
+    }
+
+    private static PriceEntity entity() {
+        PriceEntity entity = new PriceEntity();
+        entity.setId(7L);
+        entity.setBrandId(1L);
+        entity.setStartDate(LocalDateTime.parse("2020-06-14T15:00:00"));
+        entity.setEndDate(LocalDateTime.parse("2020-06-14T18:30:00"));
+        entity.setPriceList(2);
+        entity.setProductId(35455L);
+        entity.setPriority(1);
+        entity.setPrice(new BigDecimal("25.45"));
+        entity.setCurrency("EUR");
+        entity.setVersion(3L);
+        entity.setUpdatedAt(LocalDateTime.parse("2020-06-01T00:00:00"));
+        return entity;
+    }
+
+    /**
+     * Returns the ModelMapper configuration {@link PriceEntityMapper} used to be built on.
+     */
+    static ModelMapper modelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(Configuration.AccessLevel.PRIVATE)
+                .setAmbiguityIgnored(true);
+        modelMapper.createTypeMap(Price.class, PriceEntity.class)
+                .addMappings(mapping -> mapping.skip(PriceEntity::setId));
+        return modelMapper;
+    }
+}
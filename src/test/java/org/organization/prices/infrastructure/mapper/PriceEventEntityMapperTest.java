@@ -0,0 +1,110 @@
+package org.organization.prices.infrastructure.mapper;
+
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.config.Configuration;
+import org.organization.prices.domain.model.PriceEvent;
+import org.organization.prices.infrastructure.entity.PriceEventEntity;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Unit tests for {@link PriceEventEntityMapper}.
+ * <p>
+ * The explicit copies must give the same result as the ModelMapper configuration they replace,
+ * which is rebuilt here as {@link #modelMapper()}.
+ * </p>
+ */
+class PriceEventEntityMapperTest {
+
+    /**
+     * Instance of PriceEventEntityMapper under test.
+     */
+    private final PriceEventEntityMapper mapper = new PriceEventEntityMapper();
+
+    /**
+     * Tests that {@code toEntity} copies every field the ModelMapper configuration copied,
+     * leaving the ID unset.
+     */
+    @Test
+    void toEntity_shouldMatchModelMapper() {
+        PriceEvent event = event();
+
+        PriceEventEntity entity = mapper.toEntity(event);
+
+        assertEquals(modelMapper().map(event, PriceEventEntity.class), entity);
+        assertNull(entity.getId());
+        assertEquals("PRICE_QUERY", entity.getEventType());
+    }
+
+    /**
+     * Tests that {@code toDomain} gives back the event an entity was built from.
+     */
+    @Test
+    void toDomain_shouldCopyEveryField() {
+        PriceEventEntity entity = mapper.toEntity(event());
+        entity.setId(7L);
+
+        assertEquals(event(), mapper.toDomain(entity));
+    }
+
+    /**
+     * Tests that the aggregate fields of an event survive the round trip through the entity.
+     */
+    @Test
+    void shouldCopyAggregateFields() {
+        PriceEvent aggregate = event();
+        aggregate.setEventCount(3L);
+        aggregate.setWindowStart(LocalDateTime.parse("2020-06-14T16:00:00"));
+        aggregate.setWindowEnd(LocalDateTime.parse("2020-06-14T16:00:01"));
+        aggregate.setFirstQueryAt(LocalDateTime.parse("2020-06-14T16:00:00.100"));
+        aggregate.setLastQueryAt(LocalDateTime.parse("2020-06-14T16:00:00.900"));
+        aggregate.setMinPrice(new BigDecimal("25.45"));
+        aggregate.setMaxPrice(new BigDecimal("30.50"));
+
+        PriceEventEntity entity = mapper.toEntity(aggregate);
+
+        assertEquals(3L, entity.getEventCount());
+        assertEquals(new BigDecimal("30.50"), entity.getMaxPrice());
+        assertEquals(aggregate, mapper.toDomain(entity));
+    }
+
+    /**
+     * Tests that both conversions map {@code null} to {@code null}.
+     */
+    @Test
+    void shouldReturnNull_whenSourceIsNull() {
+        assertNull(mapper.toDomain(null));
+        assertNull(mapper.toEntity(null));
+    }
+
+    private static PriceEvent event() {
+        return PriceEvent.builder()
+                .productId(35455L)
+                .brandId(1L)
+                .priceList(2)
+                .queryDate(LocalDateTime.parse("2020-06-14T16:00:00"))
+                .price(new BigDecimal("25.45"))
+                .eventType("PRICE_QUERY")
+                .createdAt(LocalDateTime.parse("2020-06-14T16:00:01"))
+                .build();
+    }
+
+    /**
+     * Returns the ModelMapper configuration {@link PriceEventEntityMapper} used to be built on.
+     */
+    static ModelMapper modelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration()
+                .setAmbiguityIgnored(true)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(Configuration.AccessLevel.PRIVATE);
+        modelMapper.createTypeMap(PriceEvent.class, PriceEventEntity.class)
+                .addMappings(mapping -> mapping.skip(PriceEventEntity::setId));
+        return modelMapper;
+    }
+}